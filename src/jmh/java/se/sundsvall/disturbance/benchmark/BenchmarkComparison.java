@@ -0,0 +1,153 @@
+package se.sundsvall.disturbance.benchmark;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH result (JSON) with a baseline result, and fails (exit code 1) if a benchmark has regressed more than
+ * the threshold.
+ *
+ * Both the score (primary metric) and the normalized allocation rate (bytes/op, from the GC profiler) are compared. A
+ * score is only considered regressed if the difference also exceeds the combined score errors, to not fail on noise.
+ *
+ * Usage: BenchmarkComparison <baseline.json> <result.json> <threshold in percent>
+ *
+ * The comparison is skipped if the baseline file doesn't exist.
+ */
+public final class BenchmarkComparison {
+
+	private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+	private BenchmarkComparison() {}
+
+	public static void main(String[] args) throws IOException {
+		final var baselineFile = Path.of(args[0]);
+		final var resultFile = Path.of(args[1]);
+		final var threshold = Double.parseDouble(args[2]) / 100;
+
+		if (!Files.exists(baselineFile)) {
+			System.out.println(format("No JMH baseline found at '%s', skipping comparison.", baselineFile));
+			return;
+		}
+
+		final var baseline = readResults(baselineFile);
+		final var result = readResults(resultFile);
+
+		var regressions = 0;
+		System.out.println(format("%-100s %15s %15s %8s %15s %15s %8s", "Benchmark", "Baseline", "Result", "Change", "Baseline B/op", "Result B/op", "Change"));
+		for (final var entry : result.entrySet()) {
+			final var current = entry.getValue();
+			final var previous = baseline.get(entry.getKey());
+			if (previous == null) {
+				System.out.println(format("%-100s %15s %15.5g %8s", entry.getKey(), "-", current.score, "new"));
+				continue;
+			}
+
+			final var scoreChange = current.scoreChange(previous);
+			final var allocationChange = relativeChange(previous.allocation, current.allocation);
+			final var scoreRegressed = scoreChange > threshold && Math.abs(current.score - previous.score) > current.scoreError + previous.scoreError;
+			final var allocationRegressed = allocationChange > threshold;
+			final var regressed = scoreRegressed || allocationRegressed;
+			if (regressed) {
+				regressions++;
+			}
+
+			System.out.println(format("%-100s %15.5g %15.5g %+7.1f%% %15.0f %15.0f %+7.1f%%%s", entry.getKey(), previous.score, current.score, scoreChange * 100,
+				previous.allocation, current.allocation, allocationChange * 100, regressed ? " REGRESSION" : ""));
+		}
+
+		if (regressions > 0) {
+			System.out.println(format("%d benchmark(s) regressed more than %.0f%% compared to the baseline '%s'!", regressions, threshold * 100, baselineFile));
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, Result> readResults(Path file) throws IOException {
+		final var results = new LinkedHashMap<String, Result>();
+		for (final var benchmark : new ObjectMapper().readTree(file.toFile())) {
+			final var primaryMetric = benchmark.get("primaryMetric");
+			final var result = new Result(benchmark.get("mode").asText(), primaryMetric.get("score").asDouble(), toDouble(primaryMetric.get("scoreError")),
+				allocation(benchmark.get("secondaryMetrics")));
+			results.put(key(benchmark), result);
+		}
+		return results;
+	}
+
+	/**
+	 * Returns a key with the benchmark name, mode and parameters, e.g. "...DisturbanceMapperBenchmark.toDisturbanceFromEntity
+	 * (avgt) size=1000".
+	 */
+	private static String key(JsonNode benchmark) {
+		final var key = new StringBuilder(benchmark.get("benchmark").asText()).append(" (").append(benchmark.get("mode").asText()).append(")");
+		final var params = new TreeMap<String, String>();
+		benchmark.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+		params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+		return key.toString();
+	}
+
+	private static double allocation(JsonNode secondaryMetrics) {
+		if (secondaryMetrics == null) {
+			return Double.NaN;
+		}
+
+		// The metric name is prefixed with "·" in older JMH versions.
+		final var fields = secondaryMetrics.fields();
+		while (fields.hasNext()) {
+			final var field = fields.next();
+			if (field.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+				return field.getValue().get("score").asDouble();
+			}
+		}
+		return Double.NaN;
+	}
+
+	private static double toDouble(JsonNode node) {
+		// The score error is "NaN" when there are too few measurement iterations.
+		final var value = node == null ? Double.NaN : node.asDouble();
+		return Double.isNaN(value) ? 0 : value;
+	}
+
+	/**
+	 * Returns the relative change from "previous" to "current", where a positive value is an increase. NaN values (e.g.
+	 * when the GC profiler isn't used) and a zero "previous" value are treated as no change.
+	 */
+	private static double relativeChange(double previous, double current) {
+		if (Double.isNaN(previous) || Double.isNaN(current) || previous == 0) {
+			return 0;
+		}
+		return (current - previous) / previous;
+	}
+
+	private static final class Result {
+
+		private final String mode;
+		private final double score;
+		private final double scoreError;
+		private final double allocation;
+
+		private Result(String mode, double score, double scoreError, double allocation) {
+			this.mode = mode;
+			this.score = score;
+			this.scoreError = scoreError;
+			this.allocation = allocation;
+		}
+
+		/**
+		 * Returns the relative change of the score, where a positive value is a regression (i.e. slower).
+		 */
+		private double scoreChange(Result previous) {
+			final var change = relativeChange(previous.score, score);
+			// In the throughput mode a higher score is better, in the other modes (time per operation) a lower score is.
+			return "thrpt".equals(mode) ? -change : change;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package se.sundsvall.disturbance.benchmark;
+
+import static java.util.stream.Collectors.toList;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import se.sundsvall.disturbance.api.model.Affected;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
+
+/**
+ * Test data factory for the benchmarks.
+ */
+final class BenchmarkData {
+
+	static final Category CATEGORY = Category.ELECTRICITY;
+	static final String DISTURBANCE_ID = "disturbance-benchmark";
+	static final OffsetDateTime PLANNED_START_DATE = OffsetDateTime.parse("2022-01-04T12:00:00+01:00");
+	static final OffsetDateTime PLANNED_STOP_DATE = OffsetDateTime.parse("2022-01-04T18:00:00+01:00");
+
+	private BenchmarkData() {}
+
+	static String partyId(int index) {
+		return String.format("%08d-3aea-11ec-8d3d-0242ac130003", index);
+	}
+
+	static Affected affected(int index) {
+		return Affected.create()
+			.withPartyId(partyId(index))
+			.withReference("Streetname " + index);
+	}
+
+	static AffectedEntity affectedEntity(int index) {
+		final var affectedEntity = new AffectedEntity();
+		affectedEntity.setPartyId(partyId(index));
+		affectedEntity.setReference("Streetname " + index);
+		return affectedEntity;
+	}
+
+	/**
+	 * Returns the affectedEntities with index from "fromIndex" (inclusive) to "toIndex" (exclusive).
+	 */
+	static List<AffectedEntity> affectedEntities(int fromIndex, int toIndex) {
+		return IntStream.range(fromIndex, toIndex).mapToObj(BenchmarkData::affectedEntity).collect(toList());
+	}
+
+	static DisturbanceEntity disturbanceEntity(List<AffectedEntity> affectedEntities) {
+		final var disturbanceEntity = new DisturbanceEntity();
+		disturbanceEntity.setCategory(CATEGORY);
+		disturbanceEntity.setDisturbanceId(DISTURBANCE_ID);
+		disturbanceEntity.setTitle("Driftstörning");
+		disturbanceEntity.setDescription("Vi felsöker strömavbrottet.");
+		disturbanceEntity.setStatus(Status.OPEN);
+		disturbanceEntity.setPlannedStartDate(PLANNED_START_DATE);
+		disturbanceEntity.setPlannedStopDate(PLANNED_STOP_DATE);
+		disturbanceEntity.replaceAffectedEntities(affectedEntities);
+		return disturbanceEntity;
+	}
+
+	static DisturbanceCreateRequest disturbanceCreateRequest(int size) {
+		return DisturbanceCreateRequest.create()
+			.withCategory(CATEGORY)
+			.withId(DISTURBANCE_ID)
+			.withTitle("Driftstörning")
+			.withDescription("Vi felsöker strömavbrottet.")
+			.withStatus(Status.OPEN)
+			.withPlannedStartDate(PLANNED_START_DATE)
+			.withPlannedStopDate(PLANNED_STOP_DATE)
+			.withAffecteds(IntStream.range(0, size).mapToObj(BenchmarkData::affected).collect(toList()));
+	}
+
+	static DisturbanceFeedbackEntity disturbanceFeedbackEntity(int index) {
+		final var disturbanceFeedbackEntity = new DisturbanceFeedbackEntity();
+		disturbanceFeedbackEntity.setCategory(CATEGORY);
+		disturbanceFeedbackEntity.setDisturbanceId(DISTURBANCE_ID);
+		disturbanceFeedbackEntity.setPartyId(partyId(index).toUpperCase());
+		return disturbanceFeedbackEntity;
+	}
+}
@@ -0,0 +1,74 @@
+package se.sundsvall.disturbance.benchmark;
+
+import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbance;
+import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbanceEntity;
+import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toMergedDisturbanceEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+
+/**
+ * Measures the entity<->API mapping of a disturbance with "size" affecteds (i.e. DisturbanceMapper).
+ * 
+ * toDisturbance: Entity to API model, as in every read operation.
+ * toDisturbanceEntity: Create request to entity, as in DisturbanceService.createDisturbance.
+ * toMergedDisturbanceEntity: Merge of an update, as in DisturbanceService.updateDisturbance, where half of the
+ * affecteds are replaced. The merge modifies the old entity, i.e. the old entity is reset (one list copy) in each
+ * invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DisturbanceMapperBenchmark {
+
+	@Param({ "10", "1000", "100000" })
+	int size;
+
+	DisturbanceEntity disturbanceEntity;
+	DisturbanceCreateRequest disturbanceCreateRequest;
+	List<AffectedEntity> oldAffectedEntities;
+	DisturbanceEntity newDisturbanceEntity;
+
+	@Setup
+	public void setup() {
+		disturbanceEntity = BenchmarkData.disturbanceEntity(BenchmarkData.affectedEntities(0, size));
+		disturbanceCreateRequest = BenchmarkData.disturbanceCreateRequest(size);
+		oldAffectedEntities = BenchmarkData.affectedEntities(0, size);
+		newDisturbanceEntity = BenchmarkData.disturbanceEntity(BenchmarkData.affectedEntities(size / 2, size + size / 2));
+	}
+
+	@Benchmark
+	public Disturbance toDisturbanceFromEntity() {
+		return toDisturbance(disturbanceEntity);
+	}
+
+	@Benchmark
+	public DisturbanceEntity toDisturbanceEntityFromCreateRequest() {
+		return toDisturbanceEntity(disturbanceCreateRequest);
+	}
+
+	@Benchmark
+	public DisturbanceEntity toMergedDisturbanceEntityFromUpdate() {
+		return toMergedDisturbanceEntity(BenchmarkData.disturbanceEntity(oldAffectedEntities), newDisturbanceEntity);
+	}
+}
@@ -0,0 +1,97 @@
+package se.sundsvall.disturbance.benchmark;
+
+import static java.lang.System.lineSeparator;
+import static java.util.stream.Collectors.toList;
+import static se.sundsvall.disturbance.benchmark.BenchmarkData.PLANNED_START_DATE;
+import static se.sundsvall.disturbance.benchmark.BenchmarkData.PLANNED_STOP_DATE;
+import static se.sundsvall.disturbance.service.util.DateUtils.toMessageDateFormat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.apache.commons.text.StringSubstitutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.service.message.util.MessageTemplate;
+
+/**
+ * Compares rendering of the subject and message of a "update"-send (i.e. SendMessageLogic.sendUpdateMessage).
+ * 
+ * stringSubstitutor: The previous implementation, with one StringSubstitutor (parsing both templates and formatting the
+ * dates) per recipient.
+ * precompiledTemplate: The current implementation, with templates parsed once and the disturbance properties rendered
+ * once per send operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+	private static final String SUBJECT = "Uppdatering om driftstörning på ${affected.reference}";
+	private static final String MESSAGE = "Hej! Uppdatering om driftstörningen i elnätet på ${affected.reference}. ${description} Driftstörningen beräknas åtgärdad: ${plannedStopDate}";
+	private static final String DESCRIPTION = "Vi felsöker strömavbrottet.";
+
+	@Param({ "10", "1000", "100000" })
+	int size;
+
+	List<String> references;
+	MessageTemplate subjectTemplate;
+	MessageTemplate messageTemplate;
+
+	@Setup
+	public void setup() {
+		references = IntStream.range(0, size).mapToObj(BenchmarkData::affectedEntity).map(AffectedEntity::getReference).collect(toList());
+		subjectTemplate = MessageTemplate.compile(SUBJECT);
+		messageTemplate = MessageTemplate.compile(MESSAGE);
+	}
+
+	@Benchmark
+	public void stringSubstitutor(Blackhole blackhole) {
+		references.forEach(reference -> {
+			final var propertyResolver = new StringSubstitutor(Map.of(
+				"newline", lineSeparator(),
+				"title", "Driftstörning",
+				"description", DESCRIPTION,
+				"plannedStartDate", toMessageDateFormat(PLANNED_START_DATE),
+				"plannedStopDate", toMessageDateFormat(PLANNED_STOP_DATE),
+				"affected.reference", reference));
+			blackhole.consume(propertyResolver.replace(SUBJECT));
+			blackhole.consume(propertyResolver.replace(MESSAGE));
+		});
+	}
+
+	@Benchmark
+	public void precompiledTemplate(Blackhole blackhole) {
+		final var disturbanceProperties = Map.of(
+			"newline", lineSeparator(),
+			"title", "Driftstörning",
+			"description", DESCRIPTION,
+			"plannedStartDate", toMessageDateFormat(PLANNED_START_DATE),
+			"plannedStopDate", toMessageDateFormat(PLANNED_STOP_DATE));
+		final var boundSubjectTemplate = subjectTemplate.bind(disturbanceProperties);
+		final var boundMessageTemplate = messageTemplate.bind(disturbanceProperties);
+
+		references.forEach(reference -> {
+			final var recipientProperties = Map.of("affected.reference", reference);
+			blackhole.consume(boundSubjectTemplate.render(recipientProperties));
+			blackhole.consume(boundMessageTemplate.render(recipientProperties));
+		});
+	}
+}
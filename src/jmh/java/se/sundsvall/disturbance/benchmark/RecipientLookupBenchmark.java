@@ -0,0 +1,85 @@
+package se.sundsvall.disturbance.benchmark;
+
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static se.sundsvall.disturbance.service.message.util.SendMessageUtils.containsPartyId;
+import static se.sundsvall.disturbance.service.message.util.SendMessageUtils.getReferenceByPartyId;
+import static se.sundsvall.disturbance.service.message.util.SendMessageUtils.toReferenceByPartyIdMap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
+
+/**
+ * Compares recipient matching in a "close"-send (i.e. SendMessageLogic.sendCloseMessage), where every affected has a
+ * disturbance feedback.
+ * 
+ * linearScan: The previous implementation, with one scan of the affected list per feedback (O(feedbacks * affecteds)).
+ * indexedLookup: The current implementation, with one partyId index per send operation (O(feedbacks + affecteds)).
+ * 
+ * The sizes stop at 10000, since a single (quadratic) linearScan invocation takes minutes at 100000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipientLookupBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	int size;
+
+	List<AffectedEntity> affectedEntities;
+	List<DisturbanceFeedbackEntity> disturbanceFeedbackEntities;
+
+	@Setup
+	public void setup() {
+		affectedEntities = IntStream.range(0, size).mapToObj(BenchmarkData::affectedEntity).collect(toList());
+		disturbanceFeedbackEntities = IntStream.range(0, size).mapToObj(BenchmarkData::disturbanceFeedbackEntity).collect(toList());
+	}
+
+	@Benchmark
+	public void linearScan(Blackhole blackhole) {
+		disturbanceFeedbackEntities.stream()
+			.filter(feedbackEntity -> affectedEntities.stream().anyMatch(affectedEntity -> affectedEntity.getPartyId().equalsIgnoreCase(feedbackEntity.getPartyId())))
+			.map(feedbackEntity -> getReferenceByPartyIdWithLinearScan(affectedEntities, feedbackEntity.getPartyId()))
+			.forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void indexedLookup(Blackhole blackhole) {
+		final var referenceByPartyId = toReferenceByPartyIdMap(affectedEntities);
+		disturbanceFeedbackEntities.stream()
+			.filter(feedbackEntity -> containsPartyId(referenceByPartyId, feedbackEntity.getPartyId()))
+			.map(feedbackEntity -> getReferenceByPartyId(referenceByPartyId, feedbackEntity.getPartyId()))
+			.forEach(blackhole::consume);
+	}
+
+	/**
+	 * The previous (removed) SendMessageUtils.getReferenceByPartyId(List, String), with one scan of the affected list.
+	 */
+	private static String getReferenceByPartyIdWithLinearScan(List<AffectedEntity> affectedEntities, String partyId) {
+		return affectedEntities.stream()
+			.filter(affectedEntity -> affectedEntity.getPartyId().equalsIgnoreCase(partyId))
+			.map(AffectedEntity::getReference)
+			.findFirst()
+			.orElse(EMPTY);
+	}
+}
@@ -0,0 +1,51 @@
+package se.sundsvall.disturbance.benchmark;
+
+import static se.sundsvall.disturbance.service.util.DisturbanceUtils.getRemovedAffectedEntities;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+
+/**
+ * Measures the diffing of removed affecteds in an update (i.e. DisturbanceUtils.getRemovedAffectedEntities), where half
+ * of the "size" affecteds are replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RemovedAffectedsBenchmark {
+
+	@Param({ "10", "1000", "100000" })
+	int size;
+
+	DisturbanceEntity oldDisturbanceEntity;
+	DisturbanceEntity newDisturbanceEntity;
+
+	@Setup
+	public void setup() {
+		oldDisturbanceEntity = BenchmarkData.disturbanceEntity(BenchmarkData.affectedEntities(0, size));
+		newDisturbanceEntity = BenchmarkData.disturbanceEntity(BenchmarkData.affectedEntities(size / 2, size + size / 2));
+	}
+
+	@Benchmark
+	public List<AffectedEntity> getRemovedAffecteds() {
+		return getRemovedAffectedEntities(oldDisturbanceEntity, newDisturbanceEntity);
+	}
+}
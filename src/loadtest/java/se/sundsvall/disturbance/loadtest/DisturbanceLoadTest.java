@@ -0,0 +1,371 @@
+package se.sundsvall.disturbance.loadtest;
+
+import static java.lang.System.lineSeparator;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import javax.inject.Inject;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import se.sundsvall.disturbance.api.model.Affected;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+
+/**
+ * Load test, that drives a mix of disturbance creates, updates, closes and portal reads (see Operation) from
+ * loadtest.threads concurrent clients, and reports response times (p50/p99), throughput and DB queries per operation.
+ *
+ * The DB queries per request are measured in a sequential pass before the mix (the Hibernate statistics can't tell
+ * concurrent requests apart), and include the message dispatch that the request triggers.
+ *
+ * The report is written to target/loadtest-report.txt. See LoadTestSettings for the settings.
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@QuarkusTestResource(value = MessagingStubLifecycleManager.class, restrictToAnnotatedClass = true)
+class DisturbanceLoadTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DisturbanceLoadTest.class);
+
+	private static final Path REPORT_FILE = Path.of("target", "loadtest-report.txt");
+	private static final List<Category> CATEGORIES = List.of(Category.ELECTRICITY, Category.COMMUNICATION, Category.DISTRICT_HEATING);
+	private static final int QUERY_COUNT_ITERATIONS = 5;
+	private static final Duration IDLE_PERIOD = Duration.ofMillis(500);
+
+	private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+		.version(HttpClient.Version.HTTP_1_1)
+		.build();
+
+	@TestHTTPResource("/")
+	URL baseUrl;
+
+	@Inject
+	ObjectMapper objectMapper;
+
+	@Inject
+	SessionFactory sessionFactory;
+
+	@Inject
+	MessageOutboxRepository messageOutboxRepository;
+
+	@InjectMessagingStub
+	FailureInjectingTransformer messagingStub;
+
+	private final AtomicLong disturbanceIdSequence = new AtomicLong();
+	private final ConcurrentLinkedQueue<OpenDisturbance> openDisturbances = new ConcurrentLinkedQueue<>();
+
+	@Test
+	void load() throws Exception {
+		final var statistics = sessionFactory.getStatistics();
+		final var operationStatistics = new EnumMap<Operation, OperationStatistics>(Operation.class);
+		for (final var operation : Operation.values()) {
+			operationStatistics.put(operation, new OperationStatistics());
+		}
+
+		createFeedback();
+		measureQueriesPerRequest(statistics, operationStatistics);
+
+		LOGGER.info("Warming up for {}...", LoadTestSettings.warmup());
+		runMix(LoadTestSettings.warmup(), new EnumMap<>(Operation.class));
+
+		LOGGER.info("Running the mix for {}...", LoadTestSettings.duration());
+		final var queriesBefore = statistics.getPrepareStatementCount();
+		final var messagingRequestsBefore = messagingStub.getRequests();
+		final var failedMessagingRequestsBefore = messagingStub.getFailedRequests();
+		final var deliveredMessagesBefore = messagingStub.getDeliveredMessages();
+		final var elapsed = runMix(LoadTestSettings.duration(), operationStatistics);
+		final var queries = statistics.getPrepareStatementCount() - queriesBefore;
+
+		final var report = new StringBuilder()
+			.append(String.format("Load test: db=%s, threads=%d, affecteds=%d, partyIds=%d, feedbackRatio=%s, mix=%s, messagingLatency=%s, messagingErrorRate=%s",
+				LoadTestSettings.db(), LoadTestSettings.threads(), LoadTestSettings.affecteds(), LoadTestSettings.partyIds(), LoadTestSettings.feedbackRatio(),
+				LoadTestSettings.mix(), LoadTestSettings.messagingLatency(), LoadTestSettings.messagingErrorRate()))
+			.append(lineSeparator()).append(lineSeparator())
+			.append(String.format("%-10s %10s %8s %12s %10s %10s %10s %12s", "Operation", "Requests", "Errors", "Requests/s", "p50 (ms)", "p99 (ms)", "Max (ms)", "Queries/req"))
+			.append(lineSeparator());
+		operationStatistics.forEach((operation, operationStatistic) -> report
+			.append(String.format("%-10s %10d %8d %12.1f %10.1f %10.1f %10.1f %12.1f", operation, operationStatistic.getNumberOfRequests(), operationStatistic.getNumberOfErrors(),
+				operationStatistic.getNumberOfRequests() / toSeconds(elapsed), operationStatistic.getPercentileMillis(50), operationStatistic.getPercentileMillis(99),
+				operationStatistic.getPercentileMillis(100), operationStatistic.getQueriesPerRequest()))
+			.append(lineSeparator()));
+		final var requests = operationStatistics.values().stream().mapToInt(OperationStatistics::getNumberOfRequests).sum();
+		final var errors = operationStatistics.values().stream().mapToInt(OperationStatistics::getNumberOfErrors).sum();
+		report.append(String.format("%-10s %10d %8d %12.1f", "Total", requests, errors, requests / toSeconds(elapsed))).append(lineSeparator()).append(lineSeparator())
+			.append(String.format("DB queries: %d (%.1f/s)", queries, queries / toSeconds(elapsed))).append(lineSeparator())
+			.append(String.format("api-messaging: %d requests (%d failed), %d messages delivered, %d messages left in the outbox",
+				messagingStub.getRequests() - messagingRequestsBefore, messagingStub.getFailedRequests() - failedMessagingRequestsBefore,
+				messagingStub.getDeliveredMessages() - deliveredMessagesBefore, messageOutboxRepository.count()))
+			.append(lineSeparator());
+
+		Files.createDirectories(REPORT_FILE.getParent());
+		Files.writeString(REPORT_FILE, report);
+		LOGGER.info("Load test report (written to {}):{}{}", REPORT_FILE, lineSeparator(), report);
+
+		assertThat(errors).as("Number of failed requests").isZero();
+	}
+
+	/**
+	 * Gives feedback to loadtest.feedback-ratio of the partyIds, i.e. they are sent messages when affected.
+	 */
+	private void createFeedback() throws IOException, InterruptedException {
+		final var random = new Random(LoadTestSettings.seed());
+		final var partyIds = IntStream.range(0, LoadTestSettings.partyIds())
+			.filter(index -> random.nextDouble() < LoadTestSettings.feedbackRatio())
+			.mapToObj(DisturbanceLoadTest::partyId)
+			.collect(toList());
+
+		final var response = send(HttpRequest.newBuilder(uri("feedback/batch"))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(partyIds))));
+		assertThat(response.statusCode()).as("Status of the feedback batch").isEqualTo(200);
+		LOGGER.info("Created feedback for {} of {} partyIds", partyIds.size(), LoadTestSettings.partyIds());
+	}
+
+	/**
+	 * Measures the DB queries of each operation, by executing it sequentially and waiting for the application (e.g. the
+	 * message dispatch) to be idle after each request.
+	 */
+	private void measureQueriesPerRequest(Statistics statistics, Map<Operation, OperationStatistics> operationStatistics) throws Exception {
+		final var random = new Random(LoadTestSettings.seed());
+		final var queries = new EnumMap<Operation, Long>(Operation.class);
+
+		for (var iteration = 0; iteration < QUERY_COUNT_ITERATIONS; iteration++) {
+			final var disturbance = newOpenDisturbance(random);
+			for (final var operation : List.of(Operation.CREATE, Operation.UPDATE, Operation.READ, Operation.CLOSE)) {
+				awaitIdle(statistics);
+				final var queriesBefore = statistics.getPrepareStatementCount();
+				assertThat(execute(operation, disturbance, random)).as("Status of " + operation).isTrue();
+				awaitIdle(statistics);
+				queries.merge(operation, statistics.getPrepareStatementCount() - queriesBefore, Long::sum);
+			}
+		}
+
+		queries.forEach((operation, count) -> operationStatistics.get(operation).setQueriesPerRequest((double) count / QUERY_COUNT_ITERATIONS));
+	}
+
+	/**
+	 * Waits until no DB queries have been executed for IDLE_PERIOD.
+	 */
+	private void awaitIdle(Statistics statistics) throws InterruptedException {
+		var queries = statistics.getPrepareStatementCount();
+		while (true) {
+			Thread.sleep(IDLE_PERIOD.toMillis());
+			final var currentQueries = statistics.getPrepareStatementCount();
+			if (currentQueries == queries) {
+				return;
+			}
+			queries = currentQueries;
+		}
+	}
+
+	/**
+	 * Runs the mix from loadtest.threads clients, for the given duration.
+	 *
+	 * @return the elapsed time.
+	 */
+	private Duration runMix(Duration duration, Map<Operation, OperationStatistics> operationStatistics) throws InterruptedException {
+		final var operations = LoadTestSettings.mix().entrySet().stream()
+			.flatMap(weight -> IntStream.range(0, weight.getValue()).mapToObj(index -> weight.getKey()))
+			.collect(toList());
+		final var executor = Executors.newFixedThreadPool(LoadTestSettings.threads());
+		final var startTime = System.nanoTime();
+		final var endTime = startTime + duration.toNanos();
+
+		for (var thread = 0; thread < LoadTestSettings.threads(); thread++) {
+			final var random = new Random(LoadTestSettings.seed() + thread);
+			executor.execute(() -> {
+				while (System.nanoTime() < endTime) {
+					var operation = operations.get(random.nextInt(operations.size()));
+					var disturbance = (operation == Operation.UPDATE || operation == Operation.CLOSE) ? openDisturbances.poll() : null;
+					if ((operation == Operation.UPDATE || operation == Operation.CLOSE) && disturbance == null) {
+						// Nothing to update or close, create a disturbance instead.
+						operation = Operation.CREATE;
+					}
+					if (operation == Operation.CREATE) {
+						disturbance = newOpenDisturbance(random);
+					}
+
+					final var requestStartTime = System.nanoTime();
+					final var success = executeQuietly(operation, disturbance, random);
+					final var responseTime = System.nanoTime() - requestStartTime;
+					if (operationStatistics.containsKey(operation)) {
+						operationStatistics.get(operation).record(responseTime, success);
+					}
+
+					if (success && (operation == Operation.CREATE || operation == Operation.UPDATE)) {
+						openDisturbances.offer(disturbance);
+					}
+				}
+			});
+		}
+
+		executor.shutdown();
+		if (!executor.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(5), TimeUnit.MILLISECONDS)) {
+			executor.shutdownNow();
+		}
+		return Duration.ofNanos(System.nanoTime() - startTime);
+	}
+
+	private boolean executeQuietly(Operation operation, OpenDisturbance disturbance, Random random) {
+		try {
+			return execute(operation, disturbance, random);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (Exception e) {
+			LOGGER.warn("{} failed: {}", operation, e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Executes the operation.
+	 *
+	 * @return true if the operation was successful, false otherwise.
+	 */
+	private boolean execute(Operation operation, OpenDisturbance disturbance, Random random) throws IOException, InterruptedException {
+		final HttpResponse<?> response;
+		final int expectedStatus;
+		switch (operation) {
+		case CREATE:
+			response = send(HttpRequest.newBuilder(uri("disturbances"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(DisturbanceCreateRequest.create()
+					.withCategory(disturbance.category)
+					.withId(disturbance.disturbanceId)
+					.withTitle("Driftstörning " + disturbance.disturbanceId)
+					.withDescription("Vi felsöker störningen.")
+					.withStatus(Status.OPEN)
+					.withPlannedStartDate(OffsetDateTime.now())
+					.withPlannedStopDate(OffsetDateTime.now().plusHours(6))
+					.withAffecteds(disturbance.affecteds())))));
+			expectedStatus = 201;
+			break;
+		case UPDATE:
+			disturbance.shiftAffecteds();
+			response = send(HttpRequest.newBuilder(uri(disturbance.path()))
+				.header("Content-Type", "application/json")
+				.method("PATCH", HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(DisturbanceUpdateRequest.create()
+					.withDescription("Uppdatering " + disturbance.updates)
+					.withAffecteds(disturbance.affecteds())))));
+			expectedStatus = 200;
+			break;
+		case CLOSE:
+			response = send(HttpRequest.newBuilder(uri(disturbance.path()))
+				.header("Content-Type", "application/json")
+				.method("PATCH", HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(DisturbanceUpdateRequest.create()
+					.withStatus(Status.CLOSED)))));
+			expectedStatus = 200;
+			break;
+		case READ:
+			response = send(HttpRequest.newBuilder(uri("disturbances/affecteds/" + partyId(random.nextInt(LoadTestSettings.partyIds())) + "?affecteds=PARTY"))
+				.header("Accept", "application/json")
+				.GET());
+			expectedStatus = 200;
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported operation: " + operation);
+		}
+
+		if (response.statusCode() != expectedStatus) {
+			LOGGER.warn("{} returned {}: {}", operation, response.statusCode(), response.body());
+			return false;
+		}
+		return true;
+	}
+
+	private HttpResponse<String> send(HttpRequest.Builder requestBuilder) throws IOException, InterruptedException {
+		return HTTP_CLIENT.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private URI uri(String path) {
+		return URI.create(baseUrl.toString() + path);
+	}
+
+	private OpenDisturbance newOpenDisturbance(Random random) {
+		return new OpenDisturbance(CATEGORIES.get(random.nextInt(CATEGORIES.size())), "loadtest-" + disturbanceIdSequence.incrementAndGet(),
+			random.nextInt(LoadTestSettings.partyIds()));
+	}
+
+	private static String partyId(int index) {
+		return String.format("00000000-0000-4000-8000-%012d", index);
+	}
+
+	private static double toSeconds(Duration duration) {
+		return duration.toNanos() / 1_000_000_000d;
+	}
+
+	/**
+	 * A created (and not closed) disturbance. The affecteds are loadtest.affecteds consecutive partyIds, starting at
+	 * "offset" (wrapping around at loadtest.party-ids).
+	 */
+	private static final class OpenDisturbance {
+
+		private final Category category;
+		private final String disturbanceId;
+		private int offset;
+		private int updates;
+
+		private OpenDisturbance(Category category, String disturbanceId, int offset) {
+			this.category = category;
+			this.disturbanceId = disturbanceId;
+			this.offset = offset;
+		}
+
+		/**
+		 * Replaces a tenth of the affecteds, i.e. the oldest tenth is removed and a new tenth is added.
+		 */
+		private void shiftAffecteds() {
+			offset += Math.max(1, LoadTestSettings.affecteds() / 10);
+			updates++;
+		}
+
+		private List<Affected> affecteds() {
+			return IntStream.range(offset, offset + LoadTestSettings.affecteds())
+				.map(index -> index % LoadTestSettings.partyIds())
+				.distinct()
+				.mapToObj(index -> Affected.create()
+					.withPartyId(partyId(index))
+					.withReference("Gatan " + index))
+				.collect(toList());
+		}
+
+		private String path() {
+			return "disturbances/" + category + "/" + disturbanceId;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package se.sundsvall.disturbance.loadtest;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+/**
+ * Replaces the response of the stubs it is applied to with an error (HTTP 503), at the given error rate. Counts the
+ * requests and the (successfully) delivered messages.
+ */
+class FailureInjectingTransformer extends ResponseDefinitionTransformer {
+
+	static final String NAME = "failure-injecting";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final double errorRate;
+	private final Random random;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong failedRequests = new AtomicLong();
+	private final AtomicLong deliveredMessages = new AtomicLong();
+
+	FailureInjectingTransformer(double errorRate, long seed) {
+		this.errorRate = errorRate;
+		this.random = new Random(seed);
+	}
+
+	@Override
+	public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files, Parameters parameters) {
+		requests.incrementAndGet();
+		if (random.nextDouble() < errorRate) {
+			failedRequests.incrementAndGet();
+			return like(responseDefinition)
+				.withStatus(503)
+				.withBody("{\"title\":\"Service Unavailable\",\"status\":503,\"detail\":\"Injected by the load test\"}")
+				.build();
+		}
+
+		deliveredMessages.addAndGet(countMessages(request));
+		return responseDefinition;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean applyGlobally() {
+		return false;
+	}
+
+	long getRequests() {
+		return requests.get();
+	}
+
+	long getFailedRequests() {
+		return failedRequests.get();
+	}
+
+	long getDeliveredMessages() {
+		return deliveredMessages.get();
+	}
+
+	private static int countMessages(Request request) {
+		try {
+			return OBJECT_MAPPER.readTree(request.getBody()).path("messages").size();
+		} catch (Exception e) {
+			return 0;
+		}
+	}
+}
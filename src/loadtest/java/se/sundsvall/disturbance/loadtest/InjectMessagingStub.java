@@ -0,0 +1,17 @@
+package se.sundsvall.disturbance.loadtest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the FailureInjectingTransformer (with the request counters) of the MessagingStubLifecycleManager.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD })
+public @interface InjectMessagingStub {
+
+}
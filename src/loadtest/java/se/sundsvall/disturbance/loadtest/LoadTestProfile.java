@@ -0,0 +1,51 @@
+package se.sundsvall.disturbance.loadtest;
+
+import static java.util.Optional.ofNullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+/**
+ * Runs the application with the "test" config, but against the DB selected by loadtest.db and without the SQL and
+ * debug logging (that would dominate the response times) and tracing.
+ */
+public class LoadTestProfile implements QuarkusTestProfile {
+
+	@Override
+	public Map<String, String> getConfigOverrides() {
+		final var config = new HashMap<String, String>();
+		config.put("quarkus.log.category.\"se.sundsvall.disturbance\".level", "INFO");
+		config.put("quarkus.hibernate-orm.log.sql", "false");
+		config.put("quarkus.hibernate-orm.statistics", "true");
+		config.put("quarkus.hibernate-orm.database.generation", "drop-and-create");
+		config.put("quarkus.hibernate-orm.sql-load-script", "no-file");
+		// The spans would only pile up in the in-memory exporter of the application tests.
+		config.put("quarkus.opentelemetry.tracer.sampler", "off");
+
+		switch (LoadTestSettings.db()) {
+		case LoadTestSettings.DB_H2:
+			config.put("quarkus.datasource.db-kind", "h2");
+			config.put("quarkus.datasource.jdbc.driver", "org.h2.Driver");
+			config.put("quarkus.datasource.jdbc.url", "jdbc:h2:mem:disturbance;MODE=MySQL;DB_CLOSE_DELAY=-1");
+			config.put("quarkus.datasource.username", "sa");
+			config.put("quarkus.datasource.password", "");
+			config.put("quarkus.hibernate-orm.dialect", "org.hibernate.dialect.H2Dialect");
+			break;
+		case LoadTestSettings.DB_MARIADB:
+			// Without loadtest.db.url, the MariaDB container of the "test" config is used.
+			ofNullable(System.getProperty(LoadTestSettings.DB_URL)).ifPresent(url -> {
+				config.put("quarkus.datasource.jdbc.driver", "org.mariadb.jdbc.Driver");
+				config.put("quarkus.datasource.jdbc.url", url);
+				config.put("quarkus.datasource.username", System.getProperty(LoadTestSettings.DB_USERNAME, "root"));
+				config.put("quarkus.datasource.password", System.getProperty(LoadTestSettings.DB_PASSWORD, ""));
+			});
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported loadtest.db: " + LoadTestSettings.db());
+		}
+
+		return config;
+	}
+}
@@ -0,0 +1,104 @@
+package se.sundsvall.disturbance.loadtest;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The settings of the load test, read from system properties (e.g. -Dloadtest.threads=16).
+ */
+final class LoadTestSettings {
+
+	static final String DB = "loadtest.db";
+	static final String DB_URL = "loadtest.db.url";
+	static final String DB_USERNAME = "loadtest.db.username";
+	static final String DB_PASSWORD = "loadtest.db.password";
+
+	static final String DB_H2 = "h2";
+	static final String DB_MARIADB = "mariadb";
+
+	private LoadTestSettings() {}
+
+	/**
+	 * The DB to run against: "h2" (in-memory, default) or "mariadb" (a local MariaDB if loadtest.db.url is set, otherwise a
+	 * MariaDB container).
+	 */
+	static String db() {
+		return System.getProperty(DB, DB_H2);
+	}
+
+	/**
+	 * Number of concurrent clients.
+	 */
+	static int threads() {
+		return Integer.getInteger("loadtest.threads", 8);
+	}
+
+	/**
+	 * Duration of the warmup, where the mix is run without being measured.
+	 */
+	static Duration warmup() {
+		return Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+	}
+
+	/**
+	 * Duration of the measured mix.
+	 */
+	static Duration duration() {
+		return Duration.parse(System.getProperty("loadtest.duration", "PT1M"));
+	}
+
+	/**
+	 * Number of affecteds in each created disturbance.
+	 */
+	static int affecteds() {
+		return Integer.getInteger("loadtest.affecteds", 2000);
+	}
+
+	/**
+	 * Number of partyIds that the affecteds (and the portal reads) are picked from.
+	 */
+	static int partyIds() {
+		return Integer.getInteger("loadtest.party-ids", 20000);
+	}
+
+	/**
+	 * Share (0-1) of the partyIds that has feedback, i.e. are sent messages.
+	 */
+	static double feedbackRatio() {
+		return Double.parseDouble(System.getProperty("loadtest.feedback-ratio", "0.1"));
+	}
+
+	/**
+	 * Weight of each operation in the mix, as "operation=weight,...".
+	 */
+	static Map<Operation, Integer> mix() {
+		return Arrays.stream(System.getProperty("loadtest.mix", "CREATE=5,UPDATE=15,CLOSE=5,READ=75").split(","))
+			.map(weight -> weight.trim().split("="))
+			.collect(toMap(weight -> Operation.valueOf(weight[0].trim().toUpperCase()), weight -> Integer.valueOf(weight[1].trim()), Integer::sum, LinkedHashMap::new));
+	}
+
+	/**
+	 * Response time of the api-messaging stub.
+	 */
+	static Duration messagingLatency() {
+		return Duration.parse(System.getProperty("loadtest.messaging.latency", "PT0.05S"));
+	}
+
+	/**
+	 * Share (0-1) of the api-messaging stub responses that are errors (HTTP 503).
+	 */
+	static double messagingErrorRate() {
+		return Double.parseDouble(System.getProperty("loadtest.messaging.error-rate", "0"));
+	}
+
+	/**
+	 * Seed of the random generators, to make the generated load reproducible.
+	 */
+	static long seed() {
+		return Long.getLong("loadtest.seed", 1L);
+	}
+}
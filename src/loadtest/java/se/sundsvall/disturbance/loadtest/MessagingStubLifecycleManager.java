@@ -0,0 +1,70 @@
+package se.sundsvall.disturbance.loadtest;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+import java.util.Map;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ClasspathFileSource;
+import com.github.tomakehurst.wiremock.standalone.JsonFileMappingsSource;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+/**
+ * Starts a WireMock stand-in for api-messaging (and the api-gateway token endpoint), with the stubs of the sandbox. The
+ * api-messaging stub responds after loadtest.messaging.latency and fails at loadtest.messaging.error-rate.
+ */
+public class MessagingStubLifecycleManager implements QuarkusTestResourceLifecycleManager {
+
+	private static final String SANDBOX_MAPPINGS = "sandbox/mappings";
+	private static final String API_MESSAGING_STUB_NAME = "api-messaging";
+
+	private WireMockServer wireMockServer;
+	private FailureInjectingTransformer failureInjectingTransformer;
+
+	@Override
+	public Map<String, String> start() {
+		failureInjectingTransformer = new FailureInjectingTransformer(LoadTestSettings.messagingErrorRate(), LoadTestSettings.seed());
+
+		wireMockServer = new WireMockServer(options()
+			.dynamicPort()
+			.containerThreads(50)
+			.disableRequestJournal()
+			.extensions(failureInjectingTransformer));
+		wireMockServer.start();
+		wireMockServer.loadMappingsUsing(new JsonFileMappingsSource(new ClasspathFileSource(SANDBOX_MAPPINGS)));
+
+		final var apiMessagingStub = wireMockServer.listAllStubMappings().getMappings().stream()
+			.filter(stub -> API_MESSAGING_STUB_NAME.equals(stub.getName()))
+			.findFirst()
+			.orElseThrow(() -> new IllegalStateException("No api-messaging stub found in " + SANDBOX_MAPPINGS));
+		wireMockServer.editStub(post(urlPathEqualTo(apiMessagingStub.getRequest().getUrlPath()))
+			.withId(apiMessagingStub.getId())
+			.withName(API_MESSAGING_STUB_NAME)
+			.willReturn(like(apiMessagingStub.getResponse())
+				.withFixedDelay((int) LoadTestSettings.messagingLatency().toMillis())
+				.withTransformers(FailureInjectingTransformer.NAME)));
+
+		final var baseUrl = "http://localhost:" + wireMockServer.port();
+		return Map.of(
+			"api-messaging.url", baseUrl + "/api-messaging",
+			"quarkus.oidc-client.api-messaging.auth-server-url", baseUrl + "/api-gateway");
+	}
+
+	@Override
+	public void stop() {
+		if (wireMockServer != null) {
+			wireMockServer.stop();
+			wireMockServer = null;
+		}
+	}
+
+	@Override
+	public void inject(TestInjector testInjector) {
+		testInjector.injectIntoFields(failureInjectingTransformer,
+			new TestInjector.AnnotatedAndMatchesType(InjectMessagingStub.class, FailureInjectingTransformer.class));
+	}
+}
@@ -0,0 +1,16 @@
+package se.sundsvall.disturbance.loadtest;
+
+/**
+ * The operations in the load test mix.
+ */
+enum Operation {
+
+	/** POST /disturbances, with loadtest.affecteds affecteds. */
+	CREATE,
+	/** PATCH /disturbances/{category}/{disturbanceId}, with a new description and a tenth of the affecteds replaced. */
+	UPDATE,
+	/** PATCH /disturbances/{category}/{disturbanceId}, with status CLOSED. */
+	CLOSE,
+	/** GET /disturbances/affecteds/{partyId}?affecteds=PARTY, i.e. the read made by the portal. */
+	READ
+}
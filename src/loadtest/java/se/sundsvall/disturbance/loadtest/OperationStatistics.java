@@ -0,0 +1,54 @@
+package se.sundsvall.disturbance.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Response times and errors of one operation in the load test.
+ */
+class OperationStatistics {
+
+	private long[] responseTimes = new long[1024];
+	private int numberOfRequests;
+	private int numberOfErrors;
+	private double queriesPerRequest = Double.NaN;
+
+	synchronized void record(long responseTimeNanos, boolean success) {
+		if (numberOfRequests == responseTimes.length) {
+			responseTimes = Arrays.copyOf(responseTimes, responseTimes.length * 2);
+		}
+		responseTimes[numberOfRequests++] = responseTimeNanos;
+		if (!success) {
+			numberOfErrors++;
+		}
+	}
+
+	synchronized int getNumberOfRequests() {
+		return numberOfRequests;
+	}
+
+	synchronized int getNumberOfErrors() {
+		return numberOfErrors;
+	}
+
+	/**
+	 * Returns the response time (in milliseconds) at the given percentile (0-100), by the nearest-rank method.
+	 */
+	synchronized double getPercentileMillis(double percentile) {
+		if (numberOfRequests == 0) {
+			return Double.NaN;
+		}
+
+		final var sortedResponseTimes = Arrays.copyOf(responseTimes, numberOfRequests);
+		Arrays.sort(sortedResponseTimes);
+		final var rank = (int) Math.ceil(percentile / 100 * numberOfRequests);
+		return sortedResponseTimes[Math.max(0, rank - 1)] / 1_000_000d;
+	}
+
+	double getQueriesPerRequest() {
+		return queriesPerRequest;
+	}
+
+	void setQueriesPerRequest(double queriesPerRequest) {
+		this.queriesPerRequest = queriesPerRequest;
+	}
+}
@@ -1,21 +1,32 @@
 package se.sundsvall.disturbance.api;
 
+import static java.util.Objects.nonNull;
+import static javax.ws.rs.core.HttpHeaders.IF_MATCH;
+import static javax.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.MediaType.SERVER_SENT_EVENTS;
 import static javax.ws.rs.core.Response.created;
 import static javax.ws.rs.core.Response.noContent;
 import static javax.ws.rs.core.Response.ok;
 import static org.eclipse.microprofile.openapi.annotations.enums.SchemaType.ARRAY;
+import static se.sundsvall.disturbance.service.util.EtagUtils.toEtag;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
 import javax.inject.Inject;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PATCH;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -23,8 +34,13 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -36,15 +52,23 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.extension.annotations.WithSpan;
 import se.sundsvall.disturbance.api.exception.ServiceException;
 import se.sundsvall.disturbance.api.exception.model.ServiceErrorResponse;
+import se.sundsvall.disturbance.api.model.AffectedsInclusion;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchResult;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceEvent;
 import se.sundsvall.disturbance.api.model.DisturbanceFeedbackCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.api.model.Status;
 import se.sundsvall.disturbance.api.validation.ValidUuid;
+import se.sundsvall.disturbance.service.DisturbanceEventBroadcaster;
 import se.sundsvall.disturbance.service.DisturbanceFeedbackService;
 import se.sundsvall.disturbance.service.DisturbanceService;
 
@@ -54,15 +78,32 @@ public class DisturbanceResource {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DisturbanceResource.class);
 
+	/**
+	 * Newline delimited JSON. The lower server side quality (qs) keeps JSON as the selected media type for clients that
+	 * accept any media type.
+	 */
+	static final String APPLICATION_NDJSON = "application/x-ndjson";
+	static final String APPLICATION_NDJSON_LOW_QUALITY = APPLICATION_NDJSON + ";qs=0.5";
+	static final long MAX_LIMIT = 1000;
+
 	@Inject
 	DisturbanceService disturbanceService;
 
 	@Inject
 	DisturbanceFeedbackService disturbanceFeedbackService;
 
+	@Inject
+	DisturbanceEventBroadcaster disturbanceEventBroadcaster;
+
+	@Inject
+	ObjectMapper objectMapper;
+
 	@Context
 	UriInfo uriInfo;
 
+	@Context
+	Request request;
+
 	@POST
 	@Consumes(APPLICATION_JSON)
 	@Produces(APPLICATION_JSON)
@@ -71,6 +112,7 @@ public class DisturbanceResource {
 	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "409", description = "Conflict", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
 	public Response createDisturbance(
 		@RequestBody(required = true, content = @Content(schema = @Schema(implementation = DisturbanceCreateRequest.class))) @NotNull @Valid DisturbanceCreateRequest body)
 		throws ServiceException {
@@ -81,61 +123,195 @@ public class DisturbanceResource {
 			.path("/{category}/{disturbanceId}")
 			.buildFromMap(Map.of("category", body.getCategory(), "disturbanceId", body.getId()));
 
-		return created(locationUri).entity(disturbanceService.createDisturbance(body)).build();
+		final var disturbance = disturbanceService.createDisturbance(body);
+		return created(locationUri).entity(disturbance).tag(new EntityTag(toEtag(disturbance))).build();
+	}
+
+	@POST
+	@Path("/batch")
+	@Consumes(APPLICATION_JSON)
+	@Produces(APPLICATION_JSON)
+	@Operation(summary = "Create and update several disturbances at once.", description = "The disturbances are created and updated in one transaction (creates before updates). "
+		+ "The response contains one result per item, with the HTTP status that the corresponding single create/update request would have returned. "
+		+ "Items that can't be processed (e.g. 404 or 409) don't affect the other items. "
+		+ "If a disturbance in the batch is created by another request at the same time, nothing is created or updated and the whole batch fails with 409.")
+	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(schema = @Schema(type = ARRAY, implementation = DisturbanceBatchResult.class)))
+	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "409", description = "Conflict", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
+	public Response processDisturbanceBatch(
+		@RequestBody(required = true, content = @Content(schema = @Schema(implementation = DisturbanceBatchRequest.class))) @NotNull @Valid DisturbanceBatchRequest body)
+		throws ServiceException {
+		LOGGER.debug("Received processDisturbanceBatch request: body='{}'", body);
+
+		return ok(disturbanceService.processDisturbanceBatch(body)).build();
 	}
 
 	@GET
 	@Path("/{category}/{disturbanceId}")
 	@Produces(APPLICATION_JSON)
-	@Operation(summary = "Returns information about a specific disturbance.")
+	@Operation(summary = "Returns information about a specific disturbance.", description = "The response contains an ETag header. "
+		+ "If the ETag is sent in an If-None-Match header and the disturbance is unchanged, 304 (Not modified) is returned without a body.")
 	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(schema = @Schema(implementation = Disturbance.class)))
+	@APIResponse(responseCode = "304", description = "Not modified")
 	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "404", description = "Not found", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
 	public Response getDisturbance(
 		@Parameter(name = "category", description = "Disturbance category", required = true) @NotNull @PathParam("category") Category category,
-		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @NotBlank @PathParam("disturbanceId") String disturbanceId)
+		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @NotBlank @PathParam("disturbanceId") String disturbanceId,
+		@Parameter(name = IF_NONE_MATCH, description = "ETag from a previous response", required = false) @HeaderParam(IF_NONE_MATCH) String ifNoneMatch)
 		throws ServiceException {
-		LOGGER.debug("Received getDisturbance request: category='{}'. disturbanceId='{}'", category, disturbanceId);
+		LOGGER.debug("Received getDisturbance request: category='{}'. disturbanceId='{}', ifNoneMatch='{}'", category, disturbanceId, ifNoneMatch);
+
+		// Validate the ETag (if sent) without loading the disturbance.
+		if (nonNull(ifNoneMatch)) {
+			final var notModifiedResponse = request.evaluatePreconditions(new EntityTag(disturbanceService.findEtagByCategoryAndDisturbanceId(category, disturbanceId)));
+			if (nonNull(notModifiedResponse)) {
+				return notModifiedResponse.build();
+			}
+		}
 
-		return ok().entity(disturbanceService.findByCategoryAndDisturbanceId(category, disturbanceId)).build();
+		final var disturbance = disturbanceService.findByCategoryAndDisturbanceId(category, disturbanceId);
+		return ok().entity(disturbance).tag(new EntityTag(toEtag(disturbance))).build();
 	}
 
 	@GET
 	@Path("/affecteds/{partyId}")
 	@Produces(APPLICATION_JSON)
-	@Operation(summary = "Returns all present disturbances for a person or an organization.")
+	@Operation(summary = "Returns all present disturbances for a person or an organization.", description = "The result can be fetched in pages by using the limit parameter. "
+		+ "If there are more disturbances, the response contains a Link header (rel=\"next\") to the next page. The response contains an ETag header. "
+		+ "If the ETag is sent in an If-None-Match header and the page is unchanged, 304 (Not modified) is returned without a body.")
 	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(schema = @Schema(type = ARRAY, implementation = Disturbance.class)))
+	@APIResponse(responseCode = "304", description = "Not modified")
 	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "404", description = "Not found", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
 	public Response getDisturbancesByPartyId(
 		@Parameter(name = "partyId", description = "PartyId (e.g. a personId or an organizationId)", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathParam("partyId") String partyId,
 		@Parameter(name = "status", description = "Status filter parameter", required = false) @QueryParam("status") List<Status> status,
-		@Parameter(name = "category", description = "Category filter parameter", required = false) @QueryParam("category") List<Category> category) {
-		LOGGER.debug("Received getDisturbancesByPartyId request: partyId='{}', status='{}', category='{}'", partyId, status, category);
+		@Parameter(name = "category", description = "Category filter parameter", required = false) @QueryParam("category") List<Category> category,
+		@Parameter(name = "affecteds", description = "Affecteds to include in each disturbance (default: ALL)", required = false) @QueryParam("affecteds") AffectedsInclusion affecteds,
+		@Parameter(name = "limit", description = "Max number of disturbances in the response (default: no limit)", required = false, example = "100") @Min(1) @Max(MAX_LIMIT) @QueryParam("limit") Integer limit,
+		@Parameter(name = "cursor", description = "Cursor to the next page (from the Link header of the previous page)", required = false) @QueryParam("cursor") String cursor,
+		@Parameter(name = IF_NONE_MATCH, description = "ETag from a previous response", required = false) @HeaderParam(IF_NONE_MATCH) String ifNoneMatch)
+		throws ServiceException {
+		LOGGER.debug("Received getDisturbancesByPartyId request: partyId='{}', status='{}', category='{}', affecteds='{}', limit='{}', cursor='{}', ifNoneMatch='{}'", partyId,
+			status, category, affecteds, limit, cursor, ifNoneMatch);
+
+		// Validate the ETag (if sent) without loading the disturbances.
+		if (nonNull(ifNoneMatch)) {
+			final var notModifiedResponse = request.evaluatePreconditions(new EntityTag(disturbanceService.findEtagByPartyIdAndCategoryAndStatus(partyId, category, status, cursor,
+				limit, affecteds)));
+			if (nonNull(notModifiedResponse)) {
+				return notModifiedResponse.build();
+			}
+		}
+
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, category, status, cursor, limit, affecteds);
+		final var response = ok().entity(disturbancePage.getDisturbances()).tag(new EntityTag(toEtag(disturbancePage)));
+		if (nonNull(disturbancePage.getNextCursor())) {
+			response.link(uriInfo.getRequestUriBuilder().replaceQueryParam("cursor", disturbancePage.getNextCursor()).build(), "next");
+		}
+
+		return response.build();
+	}
+
+	@GET
+	@Path("/affecteds/{partyId}")
+	@Produces(APPLICATION_NDJSON_LOW_QUALITY)
+	@Operation(summary = "Streams all present disturbances for a person or an organization as newline delimited JSON (one disturbance per line).")
+	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(mediaType = APPLICATION_NDJSON, schema = @Schema(implementation = Disturbance.class)))
+	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
+	public Response streamDisturbancesByPartyId(
+		@Parameter(name = "partyId", description = "PartyId (e.g. a personId or an organizationId)", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathParam("partyId") String partyId,
+		@Parameter(name = "status", description = "Status filter parameter", required = false) @QueryParam("status") List<Status> status,
+		@Parameter(name = "category", description = "Category filter parameter", required = false) @QueryParam("category") List<Category> category,
+		@Parameter(name = "affecteds", description = "Affecteds to include in each disturbance (default: ALL)", required = false) @QueryParam("affecteds") AffectedsInclusion affecteds) {
+		LOGGER.debug("Received streamDisturbancesByPartyId request: partyId='{}', status='{}', category='{}', affecteds='{}'", partyId, status, category, affecteds);
+
+		final StreamingOutput streamingOutput = output -> disturbanceService.streamByPartyIdAndCategoryAndStatus(partyId, category, status, affecteds, disturbance -> {
+			try {
+				output.write(objectMapper.writeValueAsBytes(disturbance));
+				output.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		return ok(streamingOutput, APPLICATION_NDJSON).build();
+	}
+
+	@GET
+	@Path("/affecteds/{partyId}/events")
+	@Produces(SERVER_SENT_EVENTS)
+	@Operation(summary = "Subscribes to changes of the disturbances for a person or an organization, as Server-Sent Events.",
+		description = "An event (CREATED, UPDATED, CLOSED or DELETED) is sent when a disturbance where the partyId is affected (before or after the change) is committed. "
+			+ "The event identifies the disturbance, which is fetched with GET /disturbances/{category}/{disturbanceId}. A comment is sent periodically to keep the connection open.")
+	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(mediaType = SERVER_SENT_EVENTS, schema = @Schema(implementation = DisturbanceEvent.class)))
+	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "503", description = "Service unavailable (too many subscriptions)", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
+	public void subscribeToEventsByPartyId(
+		@Parameter(name = "partyId", description = "PartyId (e.g. a personId or an organizationId)", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathParam("partyId") String partyId,
+		@Parameter(name = "category", description = "Category filter parameter", required = false) @QueryParam("category") List<Category> category,
+		@Context SseEventSink sseEventSink,
+		@Context Sse sse) throws ServiceException {
+		LOGGER.debug("Received subscribeToEventsByPartyId request: partyId='{}', category='{}'", partyId, category);
+
+		disturbanceEventBroadcaster.subscribeByPartyId(partyId, category, sseEventSink, sse);
+	}
+
+	@GET
+	@Path("/events")
+	@Produces(SERVER_SENT_EVENTS)
+	@Operation(summary = "Subscribes to changes of all disturbances in one or more categories, as Server-Sent Events.",
+		description = "An event (CREATED, UPDATED, CLOSED or DELETED) is sent when a disturbance in the categories is committed. "
+			+ "The event identifies the disturbance, which is fetched with GET /disturbances/{category}/{disturbanceId}. A comment is sent periodically to keep the connection open.")
+	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(mediaType = SERVER_SENT_EVENTS, schema = @Schema(implementation = DisturbanceEvent.class)))
+	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "503", description = "Service unavailable (too many subscriptions)", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
+	public void subscribeToEventsByCategory(
+		@Parameter(name = "category", description = "Categories to subscribe to", required = true) @NotEmpty @QueryParam("category") List<Category> category,
+		@Context SseEventSink sseEventSink,
+		@Context Sse sse) throws ServiceException {
+		LOGGER.debug("Received subscribeToEventsByCategory request: category='{}'", category);
 
-		return ok().entity(disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, category, status)).build();
+		disturbanceEventBroadcaster.subscribeByCategory(category, sseEventSink, sse);
 	}
 
 	@PATCH
 	@Path("/{category}/{disturbanceId}")
 	@Consumes(APPLICATION_JSON)
 	@Produces(APPLICATION_JSON)
-	@Operation(summary = "Manage updates of a disturbance. Should be used when the set of affected persons/organizations is changed or the disturbance description is updated.")
+	@Operation(summary = "Manage updates of a disturbance. Should be used when the set of affected persons/organizations is changed or the disturbance description is updated.",
+		description = "If an If-Match header is sent, the disturbance is only updated if it matches the current ETag of the disturbance. "
+			+ "Otherwise 412 (Precondition failed) is returned. If the disturbance is updated by another request at the same time, 409 (Conflict) is returned.")
 	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(schema = @Schema(implementation = Disturbance.class)))
 	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "404", description = "Not found", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "409", description = "Conflict", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "412", description = "Precondition failed", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
 	public Response updateDisturbance(
 		@Parameter(name = "category", description = "Disturbance category", required = true) @NotNull @PathParam("category") Category category,
 		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @NotBlank @PathParam("disturbanceId") String disturbanceId,
+		@Parameter(name = IF_MATCH, description = "ETag of the disturbance to update", required = false) @HeaderParam(IF_MATCH) String ifMatch,
 		@RequestBody(required = true, content = @Content(schema = @Schema(implementation = DisturbanceUpdateRequest.class))) @NotNull @Valid DisturbanceUpdateRequest body)
 		throws ServiceException {
-		LOGGER.debug("Received updateDisturbance request: category='{}', disturbanceId='{}', body='{}'", category, disturbanceId, body);
+		LOGGER.debug("Received updateDisturbance request: category='{}', disturbanceId='{}', ifMatch='{}', body='{}'", category, disturbanceId, ifMatch, body);
 
-		return ok().entity(disturbanceService.updateDisturbance(category, disturbanceId, body)).build();
+		final var disturbance = disturbanceService.updateDisturbance(category, disturbanceId, body, ifMatch);
+		return ok().entity(disturbance).tag(new EntityTag(toEtag(disturbance))).build();
 	}
 
 	@DELETE
@@ -145,6 +321,7 @@ public class DisturbanceResource {
 	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "404", description = "Not found", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
 	public Response deleteDisturbance(
 		@Parameter(name = "category", description = "Disturbance category", required = true) @NotNull @PathParam("category") Category category,
 		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @NotBlank @PathParam("disturbanceId") String disturbanceId)
@@ -164,6 +341,7 @@ public class DisturbanceResource {
 	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "404", description = "Not found", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
 	public Response createDisturbanceFeedback(
 		@Parameter(name = "category", description = "Disturbance category", required = true) @NotNull @PathParam("category") Category category,
 		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @NotBlank @PathParam("disturbanceId") String disturbanceId,
@@ -1,7 +1,17 @@
 package se.sundsvall.disturbance.api;
 
+import static java.lang.Math.min;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.noContent;
+import static javax.ws.rs.core.Response.ok;
+import static org.eclipse.microprofile.openapi.annotations.enums.SchemaType.ARRAY;
+import static se.sundsvall.disturbance.api.DisturbanceResource.APPLICATION_NDJSON;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 import javax.validation.Valid;
@@ -11,6 +21,7 @@ import javax.ws.rs.DELETE;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -23,8 +34,14 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.extension.annotations.WithSpan;
 import se.sundsvall.disturbance.api.exception.ServiceException;
 import se.sundsvall.disturbance.api.exception.model.ServiceErrorResponse;
+import se.sundsvall.disturbance.api.model.FeedbackBatchResponse;
+import se.sundsvall.disturbance.api.model.FeedbackBatchResult;
 import se.sundsvall.disturbance.api.model.FeedbackCreateRequest;
 import se.sundsvall.disturbance.api.validation.ValidUuid;
 import se.sundsvall.disturbance.service.FeedbackService;
@@ -35,9 +52,22 @@ public class FeedbackResource {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(FeedbackResource.class);
 
+	/**
+	 * Number of partyIds processed in each transaction, in the batch operations.
+	 */
+	static final int BATCH_CHUNK_SIZE = 1000;
+
+	/**
+	 * Max number of failed partyIds reported in the response of the batch operations (the total is always reported).
+	 */
+	static final int MAX_REPORTED_FAILURES = 1000;
+
 	@Inject
 	FeedbackService feedbackService;
 
+	@Inject
+	ObjectMapper objectMapper;
+
 	@POST
 	@Path("/")
 	@Consumes(APPLICATION_JSON)
@@ -46,6 +76,7 @@ public class FeedbackResource {
 	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "409", description = "Conflict", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
 	public Response createFeedback(
 		@RequestBody(required = true, content = @Content(schema = @Schema(implementation = FeedbackCreateRequest.class))) @NotNull @Valid FeedbackCreateRequest body)
 		throws ServiceException {
@@ -56,6 +87,44 @@ public class FeedbackResource {
 		return noContent().build();
 	}
 
+	@POST
+	@Path("/batch")
+	@Consumes({ APPLICATION_JSON, APPLICATION_NDJSON })
+	@Produces(APPLICATION_JSON)
+	@Operation(summary = "Create continuous feedback for several persons or organizations at once.", description = "The body is a JSON array of partyIds, "
+		+ "or newline delimited JSON (one partyId per line). The body is read as a stream and processed in transactions of " + BATCH_CHUNK_SIZE + " partyIds. "
+		+ "PartyIds that can't be processed (e.g. partyIds that already has feedback) don't affect the other partyIds. The response contains the number of failed "
+		+ "partyIds, and the first " + MAX_REPORTED_FAILURES + " of them.")
+	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(schema = @Schema(implementation = FeedbackBatchResponse.class)))
+	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
+	public Response createFeedbacks(
+		@RequestBody(required = true, content = @Content(schema = @Schema(type = ARRAY, implementation = String.class))) @NotNull InputStream body) throws IOException {
+		LOGGER.debug("Received createFeedbacks request");
+
+		return ok(processInChunks(body, feedbackService::createFeedbacks)).build();
+	}
+
+	@POST
+	@Path("/batch/delete")
+	@Consumes({ APPLICATION_JSON, APPLICATION_NDJSON })
+	@Produces(APPLICATION_JSON)
+	@Operation(summary = "Delete feedback for several partyIds at once.", description = "The body is a JSON array of partyIds, "
+		+ "or newline delimited JSON (one partyId per line). The body is read as a stream and processed in transactions of " + BATCH_CHUNK_SIZE + " partyIds. "
+		+ "PartyIds that can't be processed (e.g. partyIds without feedback) don't affect the other partyIds. The response contains the number of failed "
+		+ "partyIds, and the first " + MAX_REPORTED_FAILURES + " of them.")
+	@APIResponse(responseCode = "200", description = "Successful operation", content = @Content(schema = @Schema(implementation = FeedbackBatchResponse.class)))
+	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
+	public Response deleteFeedbacks(
+		@RequestBody(required = true, content = @Content(schema = @Schema(type = ARRAY, implementation = String.class))) @NotNull InputStream body) throws IOException {
+		LOGGER.debug("Received deleteFeedbacks request");
+
+		return ok(processInChunks(body, feedbackService::deleteFeedbacks)).build();
+	}
+
 	@DELETE
 	@Path("/{partyId}")
 	@Operation(summary = "Delete feedback for a partyId (e.g. a person or an organization). I.e. remove subscription on notifications for any new future disturbances.")
@@ -63,6 +132,7 @@ public class FeedbackResource {
 	@APIResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "404", description = "Not found", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
 	@APIResponse(responseCode = "500", description = "Internal Server error", content = @Content(schema = @Schema(implementation = ServiceErrorResponse.class)))
+	@WithSpan
 	public Response deleteFeedback(
 		@Parameter(name = "partyId", description = "PartyId (e.g. a personId or an organizationId)", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathParam("partyId") String partyId)
 		throws ServiceException {
@@ -72,4 +142,34 @@ public class FeedbackResource {
 
 		return noContent().build();
 	}
+
+	/**
+	 * Reads the partyIds from the body (a JSON array or newline delimited JSON) one at a time, and passes them to the
+	 * processor in chunks of BATCH_CHUNK_SIZE. Only the first MAX_REPORTED_FAILURES failures are kept (the others are
+	 * counted), i.e. the heap usage doesn't grow with the size of the body.
+	 */
+	private FeedbackBatchResponse processInChunks(InputStream body, Function<List<String>, List<FeedbackBatchResult>> processor) throws IOException {
+		final var failed = new ArrayList<FeedbackBatchResult>();
+		var succeeded = 0L;
+		var failedTotal = 0L;
+
+		try (final MappingIterator<String> partyIds = objectMapper.readerFor(String.class).readValues(body)) {
+			var chunk = new ArrayList<String>(BATCH_CHUNK_SIZE);
+			while (partyIds.hasNextValue()) {
+				chunk.add(partyIds.nextValue());
+				if ((chunk.size() == BATCH_CHUNK_SIZE) || !partyIds.hasNextValue()) {
+					final var chunkFailed = processor.apply(chunk);
+					succeeded += chunk.size() - chunkFailed.size();
+					failedTotal += chunkFailed.size();
+					failed.addAll(chunkFailed.subList(0, min(chunkFailed.size(), MAX_REPORTED_FAILURES - failed.size())));
+					chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+				}
+			}
+		}
+
+		return FeedbackBatchResponse.create()
+			.withSucceeded(succeeded)
+			.withFailedTotal(failedTotal)
+			.withFailed(failed);
+	}
 }
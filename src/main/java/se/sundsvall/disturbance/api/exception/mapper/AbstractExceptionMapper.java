@@ -1,5 +1,7 @@
 package se.sundsvall.disturbance.api.exception.mapper;
 
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
@@ -23,7 +25,8 @@ public abstract class AbstractExceptionMapper<T extends Throwable> implements Ex
 
 	protected Response wrapServiceErrorResponse(final ServiceErrorResponse serviceErrorResponse) {
 		LOGGER.debug("Returning error response to client: '{}'", serviceErrorResponse);
-		return Response.status(serviceErrorResponse.getHttpCode()).entity(serviceErrorResponse).build();
+		// The error is always JSON, also for resources that produce other media types (e.g. text/event-stream).
+		return Response.status(serviceErrorResponse.getHttpCode()).type(APPLICATION_JSON_TYPE).entity(serviceErrorResponse).build();
 	}
 
 	protected String getApplicationName() {
@@ -0,0 +1,40 @@
+package se.sundsvall.disturbance.api.exception.mapper;
+
+import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.List;
+
+import javax.persistence.OptimisticLockException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+
+import org.slf4j.Logger;
+
+import se.sundsvall.disturbance.api.exception.model.ServiceErrorResponse;
+import se.sundsvall.disturbance.api.exception.model.TechnicalDetails;
+
+/**
+ * Maps a failed version check (i.e. the entity was updated by a concurrent request) to 409 Conflict.
+ */
+@Provider
+public class OptimisticLockExceptionMapper extends AbstractExceptionMapper<OptimisticLockException> {
+
+	private static final Logger LOGGER = getLogger(OptimisticLockExceptionMapper.class);
+
+	@Override
+	public Response toResponse(OptimisticLockException e) {
+
+		LOGGER.info("Mapping exception into ServiceErrorResponse", e);
+
+		final var serviceErrorResponse = ServiceErrorResponse.create()
+			.withMessage("The resource was modified by another request! Please try again!").withHttpCode(CONFLICT.getStatusCode())
+			.withTechnicalDetails(TechnicalDetails.create()
+				.withRootCode(CONFLICT.getStatusCode())
+				.withRootCause("Optimistic lock")
+				.withServiceId(getApplicationName())
+				.withDetails(List.of("Request: " + uriInfo.getPath())));
+
+		return wrapServiceErrorResponse(serviceErrorResponse);
+	}
+}
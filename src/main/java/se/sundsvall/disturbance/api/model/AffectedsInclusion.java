@@ -0,0 +1,10 @@
+package se.sundsvall.disturbance.api.model;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Affecteds inclusion model. ALL: all affecteds of the disturbance, PARTY: only the affecteds of the requested partyId, NONE: no affecteds")
+public enum AffectedsInclusion {
+	ALL,
+	PARTY,
+	NONE;
+}
@@ -7,6 +7,7 @@ import java.util.Objects;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -43,6 +44,11 @@ public class Disturbance {
 	@Schema(type = SchemaType.ARRAY, implementation = Affected.class)
 	private List<Affected> affecteds;
 
+	// Not a part of the API, the version (of the DisturbanceEntity) is only used for the entity tag (see EtagUtils).
+	@JsonIgnore
+	@Schema(hidden = true)
+	private Long version;
+
 	public static Disturbance create() {
 		return new Disturbance();
 	}
@@ -177,8 +183,21 @@ public class Disturbance {
 		return this;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public Disturbance withVersion(Long version) {
+		this.version = version;
+		return this;
+	}
+
 	@Override
-	public int hashCode() { return Objects.hash(category, created, description, id, affecteds, plannedStartDate, plannedStopDate, status, title, updated); }
+	public int hashCode() { return Objects.hash(category, created, description, id, affecteds, plannedStartDate, plannedStopDate, status, title, updated, version); }
 
 	@Override
 	public boolean equals(Object obj) {
@@ -191,7 +210,7 @@ public class Disturbance {
 		Disturbance other = (Disturbance) obj;
 		return category == other.category && Objects.equals(created, other.created) && Objects.equals(description, other.description) && Objects.equals(id, other.id)
 			&& Objects.equals(affecteds, other.affecteds) && Objects.equals(plannedStartDate, other.plannedStartDate) && Objects.equals(plannedStopDate, other.plannedStopDate)
-			&& status == other.status && Objects.equals(title, other.title) && Objects.equals(updated, other.updated);
+			&& status == other.status && Objects.equals(title, other.title) && Objects.equals(updated, other.updated) && Objects.equals(version, other.version);
 	}
 
 	@Override
@@ -199,7 +218,7 @@ public class Disturbance {
 		StringBuilder builder = new StringBuilder();
 		builder.append("Disturbance [id=").append(id).append(", category=").append(category).append(", title=").append(title).append(", description=").append(description)
 			.append(", status=").append(status).append(", plannedStartDate=").append(plannedStartDate).append(", plannedStopDate=").append(plannedStopDate).append(", created=")
-			.append(created).append(", updated=").append(updated).append(", affecteds=").append(affecteds).append("]");
+			.append(created).append(", updated=").append(updated).append(", version=").append(version).append(", affecteds=").append(affecteds).append("]");
 		return builder.toString();
 	}
 }
@@ -0,0 +1,79 @@
+package se.sundsvall.disturbance.api.model;
+
+import java.util.List;
+import java.util.Objects;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Disturbance batch request model. The creates are processed before the updates.")
+public class DisturbanceBatchRequest {
+
+	public static final int MAX_BATCH_SIZE = 500;
+
+	@Schema(description = "Disturbances to create", type = SchemaType.ARRAY, implementation = DisturbanceCreateRequest.class)
+	@Size(max = MAX_BATCH_SIZE)
+	private List<@NotNull @Valid DisturbanceCreateRequest> create;
+
+	@Schema(description = "Disturbances to update", type = SchemaType.ARRAY, implementation = DisturbanceBatchUpdateRequest.class)
+	@Size(max = MAX_BATCH_SIZE)
+	private List<@NotNull @Valid DisturbanceBatchUpdateRequest> update;
+
+	public static DisturbanceBatchRequest create() {
+		return new DisturbanceBatchRequest();
+	}
+
+	public List<DisturbanceCreateRequest> getCreate() {
+		return create;
+	}
+
+	public void setCreate(List<DisturbanceCreateRequest> create) {
+		this.create = create;
+	}
+
+	public DisturbanceBatchRequest withCreate(List<DisturbanceCreateRequest> create) {
+		this.create = create;
+		return this;
+	}
+
+	public List<DisturbanceBatchUpdateRequest> getUpdate() {
+		return update;
+	}
+
+	public void setUpdate(List<DisturbanceBatchUpdateRequest> update) {
+		this.update = update;
+	}
+
+	public DisturbanceBatchRequest withUpdate(List<DisturbanceBatchUpdateRequest> update) {
+		this.update = update;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(create, update);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DisturbanceBatchRequest other = (DisturbanceBatchRequest) obj;
+		return Objects.equals(create, other.create) && Objects.equals(update, other.update);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("DisturbanceBatchRequest [create=").append(create).append(", update=").append(update).append("]");
+		return builder.toString();
+	}
+}
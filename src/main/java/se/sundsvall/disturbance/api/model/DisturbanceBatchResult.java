@@ -0,0 +1,122 @@
+package se.sundsvall.disturbance.api.model;
+
+import java.util.Objects;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "The result of one item in a disturbance batch request")
+public class DisturbanceBatchResult {
+
+	@Schema(description = "Disturbance ID", example = "435553")
+	private String id;
+
+	@Schema(description = "Disturbance category")
+	private Category category;
+
+	@Schema(description = "HTTP status of the item, i.e. the status of the corresponding single create/update request", example = "201")
+	private int status;
+
+	@Schema(description = "Description of the error (if the item failed)")
+	private String detail;
+
+	@Schema(description = "The created/updated disturbance (if the item succeeded)")
+	private Disturbance disturbance;
+
+	public static DisturbanceBatchResult create() {
+		return new DisturbanceBatchResult();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public DisturbanceBatchResult withId(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public void setCategory(Category category) {
+		this.category = category;
+	}
+
+	public DisturbanceBatchResult withCategory(Category category) {
+		this.category = category;
+		return this;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public DisturbanceBatchResult withStatus(int status) {
+		this.status = status;
+		return this;
+	}
+
+	public String getDetail() {
+		return detail;
+	}
+
+	public void setDetail(String detail) {
+		this.detail = detail;
+	}
+
+	public DisturbanceBatchResult withDetail(String detail) {
+		this.detail = detail;
+		return this;
+	}
+
+	public Disturbance getDisturbance() {
+		return disturbance;
+	}
+
+	public void setDisturbance(Disturbance disturbance) {
+		this.disturbance = disturbance;
+	}
+
+	public DisturbanceBatchResult withDisturbance(Disturbance disturbance) {
+		this.disturbance = disturbance;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(category, detail, disturbance, id, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DisturbanceBatchResult other = (DisturbanceBatchResult) obj;
+		return category == other.category && Objects.equals(detail, other.detail) && Objects.equals(disturbance, other.disturbance) && Objects.equals(id, other.id)
+			&& status == other.status;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("DisturbanceBatchResult [id=").append(id).append(", category=").append(category).append(", status=").append(status).append(", detail=")
+			.append(detail).append(", disturbance=").append(disturbance).append("]");
+		return builder.toString();
+	}
+}
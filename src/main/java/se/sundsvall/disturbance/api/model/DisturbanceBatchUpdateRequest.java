@@ -0,0 +1,94 @@
+package se.sundsvall.disturbance.api.model;
+
+import java.util.Objects;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Disturbance batch update request model")
+public class DisturbanceBatchUpdateRequest {
+
+	@Schema(description = "Disturbance ID", required = true, example = "435553")
+	@NotNull
+	@Size(max = 255)
+	private String id;
+
+	@Schema(description = "Disturbance category", required = true)
+	@NotNull
+	private Category category;
+
+	@Schema(description = "The update of the disturbance", required = true)
+	@NotNull
+	@Valid
+	private DisturbanceUpdateRequest update;
+
+	public static DisturbanceBatchUpdateRequest create() {
+		return new DisturbanceBatchUpdateRequest();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public DisturbanceBatchUpdateRequest withId(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public void setCategory(Category category) {
+		this.category = category;
+	}
+
+	public DisturbanceBatchUpdateRequest withCategory(Category category) {
+		this.category = category;
+		return this;
+	}
+
+	public DisturbanceUpdateRequest getUpdate() {
+		return update;
+	}
+
+	public void setUpdate(DisturbanceUpdateRequest update) {
+		this.update = update;
+	}
+
+	public DisturbanceBatchUpdateRequest withUpdate(DisturbanceUpdateRequest update) {
+		this.update = update;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(category, id, update);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DisturbanceBatchUpdateRequest other = (DisturbanceBatchUpdateRequest) obj;
+		return category == other.category && Objects.equals(id, other.id) && Objects.equals(update, other.update);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("DisturbanceBatchUpdateRequest [id=").append(id).append(", category=").append(category).append(", update=").append(update).append("]");
+		return builder.toString();
+	}
+}
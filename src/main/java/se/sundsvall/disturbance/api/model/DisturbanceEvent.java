@@ -0,0 +1,105 @@
+package se.sundsvall.disturbance.api.model;
+
+import java.util.Objects;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A change of a disturbance, sent to the subscribers of disturbance events. The disturbance itself is fetched with GET /disturbances/{category}/{disturbanceId}")
+public class DisturbanceEvent {
+
+	@Schema(description = "Event type")
+	private DisturbanceEventType type;
+
+	@Schema(description = "Disturbance category")
+	private Category category;
+
+	@Schema(description = "Disturbance ID", example = "435553")
+	private String id;
+
+	@Schema(description = "Disturbance status after the change (not set for DELETED)")
+	private Status status;
+
+	public static DisturbanceEvent create() {
+		return new DisturbanceEvent();
+	}
+
+	public DisturbanceEventType getType() {
+		return type;
+	}
+
+	public void setType(DisturbanceEventType type) {
+		this.type = type;
+	}
+
+	public DisturbanceEvent withType(DisturbanceEventType type) {
+		this.type = type;
+		return this;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public void setCategory(Category category) {
+		this.category = category;
+	}
+
+	public DisturbanceEvent withCategory(Category category) {
+		this.category = category;
+		return this;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public DisturbanceEvent withId(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public DisturbanceEvent withStatus(Status status) {
+		this.status = status;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(category, id, status, type);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DisturbanceEvent other = (DisturbanceEvent) obj;
+		return category == other.category && Objects.equals(id, other.id) && status == other.status && type == other.type;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("DisturbanceEvent [type=").append(type).append(", category=").append(category).append(", id=").append(id).append(", status=").append(status)
+			.append("]");
+		return builder.toString();
+	}
+}
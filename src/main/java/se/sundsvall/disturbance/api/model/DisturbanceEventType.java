@@ -0,0 +1,11 @@
+package se.sundsvall.disturbance.api.model;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Disturbance event type model. CLOSED: the status was changed to CLOSED, UPDATED: any other update")
+public enum DisturbanceEventType {
+	CREATED,
+	UPDATED,
+	CLOSED,
+	DELETED;
+}
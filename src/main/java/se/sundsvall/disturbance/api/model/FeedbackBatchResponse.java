@@ -0,0 +1,88 @@
+package se.sundsvall.disturbance.api.model;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Feedback batch response model")
+public class FeedbackBatchResponse {
+
+	@Schema(description = "Number of successfully processed items", example = "1000")
+	private long succeeded;
+
+	@Schema(description = "Number of items that couldn't be processed", example = "0")
+	private long failedTotal;
+
+	@Schema(description = "The items that couldn't be processed (the first ones, if failedTotal is larger than the reported items)", type = SchemaType.ARRAY,
+		implementation = FeedbackBatchResult.class)
+	private List<FeedbackBatchResult> failed;
+
+	public static FeedbackBatchResponse create() {
+		return new FeedbackBatchResponse();
+	}
+
+	public long getSucceeded() {
+		return succeeded;
+	}
+
+	public void setSucceeded(long succeeded) {
+		this.succeeded = succeeded;
+	}
+
+	public FeedbackBatchResponse withSucceeded(long succeeded) {
+		this.succeeded = succeeded;
+		return this;
+	}
+
+	public long getFailedTotal() {
+		return failedTotal;
+	}
+
+	public void setFailedTotal(long failedTotal) {
+		this.failedTotal = failedTotal;
+	}
+
+	public FeedbackBatchResponse withFailedTotal(long failedTotal) {
+		this.failedTotal = failedTotal;
+		return this;
+	}
+
+	public List<FeedbackBatchResult> getFailed() {
+		return failed;
+	}
+
+	public void setFailed(List<FeedbackBatchResult> failed) {
+		this.failed = failed;
+	}
+
+	public FeedbackBatchResponse withFailed(List<FeedbackBatchResult> failed) {
+		this.failed = failed;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(failed, failedTotal, succeeded);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		FeedbackBatchResponse other = (FeedbackBatchResponse) obj;
+		return Objects.equals(failed, other.failed) && failedTotal == other.failedTotal && succeeded == other.succeeded;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("FeedbackBatchResponse [succeeded=").append(succeeded).append(", failedTotal=").append(failedTotal).append(", failed=").append(failed).append("]");
+		return builder.toString();
+	}
+}
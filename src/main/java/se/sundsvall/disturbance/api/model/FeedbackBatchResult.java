@@ -0,0 +1,88 @@
+package se.sundsvall.disturbance.api.model;
+
+import java.util.Objects;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "The result of a failed item in a feedback batch request")
+public class FeedbackBatchResult {
+
+	@Schema(description = "PartyId (e.g. a personId or an organizationId)", example = "81471222-5798-11e9-ae24-57fa13b361e1")
+	private String partyId;
+
+	@Schema(description = "HTTP status of the item, i.e. the status of the corresponding single create/delete request", example = "409")
+	private int status;
+
+	@Schema(description = "Description of the error")
+	private String detail;
+
+	public static FeedbackBatchResult create() {
+		return new FeedbackBatchResult();
+	}
+
+	public String getPartyId() {
+		return partyId;
+	}
+
+	public void setPartyId(String partyId) {
+		this.partyId = partyId;
+	}
+
+	public FeedbackBatchResult withPartyId(String partyId) {
+		this.partyId = partyId;
+		return this;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public FeedbackBatchResult withStatus(int status) {
+		this.status = status;
+		return this;
+	}
+
+	public String getDetail() {
+		return detail;
+	}
+
+	public void setDetail(String detail) {
+		this.detail = detail;
+	}
+
+	public FeedbackBatchResult withDetail(String detail) {
+		this.detail = detail;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(detail, partyId, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		FeedbackBatchResult other = (FeedbackBatchResult) obj;
+		return Objects.equals(detail, other.detail) && Objects.equals(partyId, other.partyId) && status == other.status;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("FeedbackBatchResult [partyId=").append(partyId).append(", status=").append(status).append(", detail=").append(detail).append("]");
+		return builder.toString();
+	}
+}
@@ -1,23 +1,43 @@
 package se.sundsvall.disturbance.integration.db;
 
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+
 import javax.enterprise.context.ApplicationScoped;
 
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.extension.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
-import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackHistoryEntity;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
 
 @ApplicationScoped
+@Timed(value = "disturbance.repository", description = "Disturbance repository calls")
 public class DisturbanceFeedbackHistoryRepository implements PanacheRepository<DisturbanceFeedbackHistoryEntity> {
 
 	static final String STATUS_SENT = "SENT";
 
-	public void persistWithStatusSent(DisturbanceFeedbackEntity orderFeedbackEntity) {
-		final var orderFeedbackHistory = new DisturbanceFeedbackHistoryEntity();
-		orderFeedbackHistory.setPartyId(orderFeedbackEntity.getPartyId());
-		orderFeedbackHistory.setDisturbanceId(orderFeedbackEntity.getDisturbanceId());
-		orderFeedbackHistory.setCategory(orderFeedbackEntity.getCategory());
-		orderFeedbackHistory.setStatus(STATUS_SENT);
-
-		persist(orderFeedbackHistory);
+	/**
+	 * Store delivered messages in the feedback history, i.e. that a message about the disturbance has been sent to the
+	 * partyId. Messages without a disturbance (queued before the disturbance was stored in the message outbox) already are
+	 * stored in the feedback history.
+	 *
+	 * @param messageOutboxEntities the delivered messages.
+	 */
+	@WithSpan
+	public void persistWithStatusSent(List<MessageOutboxEntity> messageOutboxEntities) {
+		persist(messageOutboxEntities.stream()
+			.filter(messageOutboxEntity -> nonNull(messageOutboxEntity.getCategory()) && nonNull(messageOutboxEntity.getDisturbanceId()))
+			.map(messageOutboxEntity -> {
+				final var orderFeedbackHistory = new DisturbanceFeedbackHistoryEntity();
+				orderFeedbackHistory.setPartyId(messageOutboxEntity.getPartyId());
+				orderFeedbackHistory.setDisturbanceId(messageOutboxEntity.getDisturbanceId());
+				orderFeedbackHistory.setCategory(messageOutboxEntity.getCategory());
+				orderFeedbackHistory.setStatus(STATUS_SENT);
+				return orderFeedbackHistory;
+			})
+			.collect(toList()));
 	}
 }
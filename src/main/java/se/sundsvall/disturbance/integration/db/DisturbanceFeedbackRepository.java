@@ -1,40 +1,50 @@
 package se.sundsvall.disturbance.integration.db;
 
-import static java.lang.String.valueOf;
-
 import java.util.List;
 import java.util.Optional;
 
 import javax.enterprise.context.ApplicationScoped;
 
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.extension.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
 
 @ApplicationScoped
+@Timed(value = "disturbance.repository", description = "Disturbance repository calls")
 public class DisturbanceFeedbackRepository implements PanacheRepository<DisturbanceFeedbackEntity> {
 
 	private static final String CATEGORY_PARAM = "category";
 	private static final String DISTURBANCE_ID_PARAM = "disturbanceId";
 	private static final String PARTY_ID_PARAM = "partyId";
 
+	/**
+	 * Returns the disturbance feedbacks in the order they were created (i.e. not in the order of the (category,
+	 * disturbance_id, party_id) index, that the lookup may use).
+	 */
+	@WithSpan
 	public List<DisturbanceFeedbackEntity> findByCategoryAndDisturbanceId(Category category, String disturbanceId) {
-		return list("disturbanceId = :disturbanceId and category = :category",
-			Parameters.with(DISTURBANCE_ID_PARAM, disturbanceId).and(CATEGORY_PARAM, valueOf(category)));
+		return list("disturbanceId = :disturbanceId and category = :category", Sort.by("id"),
+			Parameters.with(DISTURBANCE_ID_PARAM, disturbanceId).and(CATEGORY_PARAM, category));
 	}
 
+	@WithSpan
 	public Optional<DisturbanceFeedbackEntity> findByCategoryAndDisturbanceIdAndPartyIdOptional(Category category, String disturbanceId, String partyId) {
 		return find("disturbanceId = :disturbanceId and category = :category and partyId = :partyId",
-			Parameters.with(DISTURBANCE_ID_PARAM, disturbanceId).and(CATEGORY_PARAM, valueOf(category)).and(PARTY_ID_PARAM, partyId)).firstResultOptional();
+			Parameters.with(DISTURBANCE_ID_PARAM, disturbanceId).and(CATEGORY_PARAM, category).and(PARTY_ID_PARAM, partyId)).firstResultOptional();
 	}
 
+	@WithSpan
 	public List<DisturbanceFeedbackEntity> findByPartyId(String partyId) {
 		return list(PARTY_ID_PARAM, partyId);
 	}
 
+	@WithSpan
 	public long deleteByCategoryAndDisturbanceId(Category category, String disturbanceId) {
 		return delete("disturbanceId = :disturbanceId and category = :category",
-			Parameters.with(DISTURBANCE_ID_PARAM, disturbanceId).and(CATEGORY_PARAM, valueOf(category)));
+			Parameters.with(DISTURBANCE_ID_PARAM, disturbanceId).and(CATEGORY_PARAM, category));
 	}
 }
@@ -1,55 +1,286 @@
 package se.sundsvall.disturbance.integration.db;
 
-import static java.lang.String.valueOf;
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
 import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+import static org.apache.commons.collections4.ListUtils.partition;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import javax.enterprise.context.ApplicationScoped;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.Hibernate;
+
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.extension.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import io.quarkus.panache.common.Parameters;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceRevision;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceState;
 
 @ApplicationScoped
+@Timed(value = "disturbance.repository", description = "Disturbance repository calls")
 public class DisturbanceRepository implements PanacheRepository<DisturbanceEntity> {
 
+	private static final String SELECT_STATE = "SELECT new " + DisturbanceState.class.getName() + "(d.id, d.status)";
+	private static final String SELECT_REVISION = "SELECT new " + DisturbanceRevision.class.getName() + "(d.id, d.category, d.disturbanceId, d.created, d.updated, d.version)";
+
+	@WithSpan
 	public Optional<DisturbanceEntity> findByCategoryAndDisturbanceIdOptional(Category category, String disturbanceId) {
 		return find("disturbanceId = :disturbanceId and category = :category and deleted = false",
-			Parameters.with("disturbanceId", disturbanceId).and("category", valueOf(category))).firstResultOptional();
+			Parameters.with("disturbanceId", disturbanceId).and("category", category)).firstResultOptional();
 	}
 
+	/**
+	 * Returns the state (id and status) of a disturbance, without loading the disturbance.
+	 * 
+	 * All selected columns are part of category_disturbance_id_deleted_status_index (the id is the primary key), i.e. the
+	 * lookup is answered by the index alone.
+	 * 
+	 * @param category      the disturbance category.
+	 * @param disturbanceId the disturbance id.
+	 * @return the state of the disturbance, or empty if the disturbance doesn't exist (or is deleted).
+	 */
+	@WithSpan
+	public Optional<DisturbanceState> findStateByCategoryAndDisturbanceIdOptional(Category category, String disturbanceId) {
+		return getEntityManager().createQuery(SELECT_STATE + " FROM DisturbanceEntity d WHERE d.disturbanceId = :disturbanceId AND d.category = :category AND d.deleted = false",
+			DisturbanceState.class)
+			.setParameter("disturbanceId", disturbanceId)
+			.setParameter("category", category)
+			.setMaxResults(1)
+			.getResultStream()
+			.findFirst();
+	}
+
+	/**
+	 * "Soft deletes" a disturbance, without loading the disturbance.
+	 * 
+	 * The version is incremented (as when the entity is updated), i.e. a concurrent update of the disturbance fails on the
+	 * version check.
+	 * 
+	 * @param id the (database) id of the disturbance.
+	 * @return true if the disturbance was deleted, false if it doesn't exist or is already deleted.
+	 */
+	@WithSpan
+	public boolean softDelete(long id) {
+		return update("deleted = true, updated = ?1, version = version + 1 WHERE id = ?2 AND deleted = false", now().truncatedTo(MILLIS), id) > 0;
+	}
+
+	/**
+	 * Returns the revision of a disturbance, without loading the disturbance.
+	 * 
+	 * @param category      the disturbance category.
+	 * @param disturbanceId the disturbance id.
+	 * @return the revision of the disturbance, or empty if the disturbance doesn't exist (or is deleted).
+	 */
+	@WithSpan
+	public Optional<DisturbanceRevision> findRevisionByCategoryAndDisturbanceIdOptional(Category category, String disturbanceId) {
+		return getEntityManager().createQuery(SELECT_REVISION + " FROM DisturbanceEntity d WHERE d.disturbanceId = :disturbanceId AND d.category = :category AND d.deleted = false",
+			DisturbanceRevision.class)
+			.setParameter("disturbanceId", disturbanceId)
+			.setParameter("category", category)
+			.setMaxResults(1)
+			.getResultStream()
+			.findFirst();
+	}
+
+	/**
+	 * Returns the (non deleted) disturbances with the provided categories and disturbance ids.
+	 * 
+	 * The lookup is performed with one query per category and chunk of FeedbackRepository.IN_CLAUSE_CHUNK_SIZE disturbance
+	 * ids, instead of one query per disturbance.
+	 * 
+	 * @param categoryAndDisturbanceIds the categories and disturbance ids of the disturbances.
+	 * @return the matching disturbances.
+	 */
+	@WithSpan
+	public List<DisturbanceEntity> findByCategoryAndDisturbanceIds(Collection<Pair<Category, String>> categoryAndDisturbanceIds) {
+		final var disturbanceIdsByCategory = ofNullable(categoryAndDisturbanceIds).orElse(emptyList()).stream()
+			.collect(groupingBy(Pair::getLeft, mapping(Pair::getRight, toSet())));
+
+		final var result = new ArrayList<DisturbanceEntity>();
+		disturbanceIdsByCategory.forEach((category, disturbanceIds) -> partition(new ArrayList<>(disturbanceIds), FeedbackRepository.IN_CLAUSE_CHUNK_SIZE)
+			.forEach(chunk -> result.addAll(list("disturbanceId IN :disturbanceIds and category = :category and deleted = false",
+				Parameters.with("disturbanceIds", chunk).and("category", category)))));
+
+		return result;
+	}
+
+	@WithSpan
 	public List<DisturbanceEntity> findByPartyIdFilterByCategoryAndStatus(String partyId, List<Category> categoryFilter, List<Status> statusFilter) {
+		return findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null);
+	}
 
-		// Convert from List of enums to list of strings.
-		final var categoryFilterStrings = toStringList(categoryFilter);
-		final var statusFilterStrings = toStringList(statusFilter);
-
-		if (isNotEmpty(statusFilterStrings) && isNotEmpty(categoryFilterStrings)) {
-			return list("SELECT d FROM DisturbanceEntity d JOIN d.affectedEntities a WHERE d.category IN ?1 AND d.status IN ?2 AND a.partyId = ?3 AND d.deleted = false",
-				categoryFilterStrings, statusFilterStrings, partyId);
-		} else if (isNotEmpty(categoryFilterStrings)) {
-			return list("SELECT d FROM DisturbanceEntity d JOIN d.affectedEntities a WHERE d.category IN ?1 AND a.partyId = ?2 AND d.deleted = false",
-				categoryFilterStrings, partyId);
-		} else if (isNotEmpty(statusFilterStrings)) {
-			return list("SELECT d FROM DisturbanceEntity d JOIN d.affectedEntities a WHERE d.status IN ?1 AND a.partyId = ?2 AND d.deleted = false",
-				statusFilterStrings, partyId);
+	/**
+	 * Returns the disturbances (ordered by id) where the partyId is affected, filtered by category and status.
+	 * 
+	 * Pagination is keyset based, i.e. the next page is fetched by passing the id of the last disturbance on the current
+	 * page as "afterId".
+	 * 
+	 * @param partyId        the affected partyId.
+	 * @param categoryFilter the categories to include (all categories if null or empty).
+	 * @param statusFilter   the statuses to include (all statuses if null or empty).
+	 * @param afterId        only disturbances with an id greater than this are returned (no restriction if null).
+	 * @param limit          max number of disturbances to return (no limit if null).
+	 * @return the matching disturbances.
+	 */
+	@WithSpan
+	public List<DisturbanceEntity> findByPartyIdFilterByCategoryAndStatus(String partyId, List<Category> categoryFilter, List<Status> statusFilter, Long afterId, Integer limit) {
+		final var parameters = new Parameters();
+		final var query = "SELECT d" + toPartyIdQuery(partyId, categoryFilter, statusFilter, afterId, parameters);
+
+		final var panacheQuery = find(query, parameters);
+		return isNull(limit) ? panacheQuery.list() : panacheQuery.range(0, limit - 1).list();
+	}
+
+	/**
+	 * Returns the revisions of the disturbances that findByPartyIdFilterByCategoryAndStatus returns for the same
+	 * parameters, without loading the disturbances.
+	 * 
+	 * @param partyId        the affected partyId.
+	 * @param categoryFilter the categories to include (all categories if null or empty).
+	 * @param statusFilter   the statuses to include (all statuses if null or empty).
+	 * @param afterId        only disturbances with an id greater than this are returned (no restriction if null).
+	 * @param limit          max number of revisions to return (no limit if null).
+	 * @return the revisions of the matching disturbances (ordered by id).
+	 */
+	@WithSpan
+	public List<DisturbanceRevision> findRevisionsByPartyIdFilterByCategoryAndStatus(String partyId, List<Category> categoryFilter, List<Status> statusFilter, Long afterId,
+		Integer limit) {
+		final var parameters = new Parameters();
+		final var query = getEntityManager().createQuery(SELECT_REVISION + toPartyIdQuery(partyId, categoryFilter, statusFilter, afterId, parameters), DisturbanceRevision.class);
+		parameters.map().forEach(query::setParameter);
+		if (nonNull(limit)) {
+			query.setMaxResults(limit);
 		}
-		return list("SELECT d FROM DisturbanceEntity d JOIN d.affectedEntities a WHERE a.partyId = ?1 AND d.deleted = false", partyId);
+
+		return query.getResultList();
 	}
 
+	/**
+	 * Returns the affecteds of the provided partyId in the provided disturbances.
+	 * 
+	 * The lookup is performed with one query per chunk of FeedbackRepository.IN_CLAUSE_CHUNK_SIZE disturbance ids.
+	 * 
+	 * @param partyId              the affected partyId.
+	 * @param disturbanceEntityIds the (database) ids of the disturbances.
+	 * @return the matching affected entities.
+	 */
+	@WithSpan
+	public List<AffectedEntity> findAffectedEntitiesByPartyId(String partyId, List<Long> disturbanceEntityIds) {
+		final var result = new ArrayList<AffectedEntity>();
+		partition(ofNullable(disturbanceEntityIds).orElse(emptyList()), FeedbackRepository.IN_CLAUSE_CHUNK_SIZE).forEach(chunk -> result.addAll(getEntityManager()
+			.createQuery("SELECT a FROM AffectedEntity a WHERE a.partyId = :partyId AND a.disturbanceEntity.id IN :disturbanceEntityIds ORDER BY a.id", AffectedEntity.class)
+			.setParameter("partyId", partyId)
+			.setParameter("disturbanceEntityIds", chunk)
+			.getResultList()));
+
+		return result;
+	}
+
+	/**
+	 * Returns the partyIds of the affecteds of a disturbance, without loading the disturbance.
+	 * 
+	 * @param disturbanceEntityId the (database) id of the disturbance.
+	 * @return the affected partyIds.
+	 */
+	@WithSpan
+	public List<String> findAffectedPartyIds(long disturbanceEntityId) {
+		return getEntityManager()
+			.createQuery("SELECT a.partyId FROM AffectedEntity a WHERE a.disturbanceEntity.id = :disturbanceEntityId", String.class)
+			.setParameter("disturbanceEntityId", disturbanceEntityId)
+			.getResultList();
+	}
+
+	/**
+	 * Returns the number of affecteds of a disturbance, without loading the disturbance or the affecteds.
+	 * 
+	 * @param disturbanceEntityId the (database) id of the disturbance.
+	 * @return the number of affecteds.
+	 */
+	@WithSpan
+	public long countAffecteds(long disturbanceEntityId) {
+		return getEntityManager()
+			.createQuery("SELECT COUNT(a) FROM AffectedEntity a WHERE a.disturbanceEntity.id = :disturbanceEntityId", Long.class)
+			.setParameter("disturbanceEntityId", disturbanceEntityId)
+			.getSingleResult();
+	}
+
+	/**
+	 * Initializes the (lazy loaded) affectedEntities of the provided disturbances.
+	 * 
+	 * This is done with one fetch join query per chunk of FeedbackRepository.IN_CLAUSE_CHUNK_SIZE disturbances, instead
+	 * of one query per disturbance when each affectedEntities collection is accessed.
+	 * 
+	 * @param disturbanceEntities the disturbances (managed by the current persistence context).
+	 */
+	@WithSpan
+	public void fetchAffectedEntities(List<DisturbanceEntity> disturbanceEntities) {
+		final var disturbanceEntityIds = ofNullable(disturbanceEntities).orElse(emptyList()).stream()
+			.filter(disturbanceEntity -> !Hibernate.isInitialized(disturbanceEntity.getAffectedEntities()))
+			.map(DisturbanceEntity::getId)
+			.distinct()
+			.collect(toList());
+
+		// The disturbances are already in the persistence context, i.e. the result is not used (the collections are
+		// initialized as a side effect). DISTINCT is only applied in memory, not passed through to the SQL.
+		partition(disturbanceEntityIds, FeedbackRepository.IN_CLAUSE_CHUNK_SIZE).forEach(chunk -> getEntityManager()
+			.createQuery("SELECT DISTINCT d FROM DisturbanceEntity d LEFT JOIN FETCH d.affectedEntities a WHERE d.id IN :disturbanceEntityIds ORDER BY d.id, a.id",
+				DisturbanceEntity.class)
+			.setParameter("disturbanceEntityIds", chunk)
+			.setHint(HINT_PASS_DISTINCT_THROUGH, false)
+			.getResultList());
+	}
+
+	@WithSpan
 	public DisturbanceEntity persistAndFetch(DisturbanceEntity disturbanceEntity) {
 		this.persistAndFlush(disturbanceEntity);
 		return this.findById(disturbanceEntity.getId());
 	}
 
-	private List<String> toStringList(List<? extends Enum<?>> enumList) {
-		return ofNullable(enumList).orElse(emptyList()).stream().map(Enum::name).collect(toList());
+	/**
+	 * Returns the query (from the FROM clause and onwards) for the disturbances where the partyId is affected, and adds
+	 * the query parameters to the provided parameters.
+	 */
+	private String toPartyIdQuery(String partyId, List<Category> categoryFilter, List<Status> statusFilter, Long afterId, Parameters parameters) {
+
+		// The partyId is matched with a sub query (instead of a join) to get each disturbance once, even if the partyId is
+		// affected more than once (e.g. with several references).
+		final var query = new StringBuilder(" FROM DisturbanceEntity d WHERE d.deleted = false")
+			.append(" AND EXISTS (SELECT a.id FROM AffectedEntity a WHERE a.disturbanceEntity = d AND a.partyId = :partyId)");
+		parameters.and("partyId", partyId);
+
+		// The filters are bound as enums, i.e. converted to codes by the attribute converters of category and status.
+		if (isNotEmpty(categoryFilter)) {
+			query.append(" AND d.category IN :category");
+			parameters.and("category", categoryFilter);
+		}
+		if (isNotEmpty(statusFilter)) {
+			query.append(" AND d.status IN :status");
+			parameters.and("status", statusFilter);
+		}
+		if (nonNull(afterId)) {
+			query.append(" AND d.id > :afterId");
+			parameters.and("afterId", afterId);
+		}
+
+		return query.append(" ORDER BY d.id").toString();
 	}
 }
@@ -1,16 +1,103 @@
 package se.sundsvall.disturbance.integration.db;
 
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.collections4.ListUtils.partition;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.enterprise.context.ApplicationScoped;
 
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.extension.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import se.sundsvall.disturbance.integration.db.model.FeedbackEntity;
 
 @ApplicationScoped
+@Timed(value = "disturbance.repository", description = "Disturbance repository calls")
 public class FeedbackRepository implements PanacheRepository<FeedbackEntity> {
 
+	/**
+	 * Max number of parameters in each "IN"-clause. Larger collections are split into several queries.
+	 */
+	static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+	@WithSpan
 	public Optional<FeedbackEntity> findByPartyIdOptional(String partyId) {
 		return find("partyId", partyId).firstResultOptional();
 	}
+
+	/**
+	 * Returns the partyIds, among the provided ones, that has an existing feedback entity.
+	 * 
+	 * The lookup is performed with one query per chunk of IN_CLAUSE_CHUNK_SIZE partyIds. The partyIds are matched case
+	 * insensitive (as by the callers), so only the first occurrence of a partyId in any case is included in the query.
+	 * 
+	 * @param partyIds the partyIds to check.
+	 * @return a list with all provided partyIds that has a feedback entity (or an empty list if none was found).
+	 */
+	@WithSpan
+	public List<String> findPartyIdsWithFeedback(Collection<String> partyIds) {
+		final var lowerCasePartyIds = new HashSet<String>();
+		final var distinctPartyIds = ofNullable(partyIds).orElse(emptyList()).stream()
+			.filter(Objects::nonNull)
+			.filter(partyId -> lowerCasePartyIds.add(lowerCase(partyId)))
+			.collect(toList());
+
+		final var result = new ArrayList<String>();
+		partition(distinctPartyIds, IN_CLAUSE_CHUNK_SIZE).forEach(chunk -> result.addAll(getEntityManager()
+			.createQuery("SELECT f.partyId FROM FeedbackEntity f WHERE f.partyId IN :partyIds", String.class)
+			.setParameter("partyIds", chunk)
+			.getResultList()));
+
+		return result;
+	}
+
+	/**
+	 * Returns the partyIds of all feedback entities.
+	 * 
+	 * @return all partyIds with feedback.
+	 */
+	@WithSpan
+	public List<String> findAllPartyIds() {
+		return getEntityManager()
+			.createQuery("SELECT f.partyId FROM FeedbackEntity f", String.class)
+			.getResultList();
+	}
+
+	/**
+	 * Returns the partyIds of the feedback entities created at or after the provided timestamp.
+	 * 
+	 * @param created the timestamp.
+	 * @return the partyIds with feedback created since the timestamp.
+	 */
+	@WithSpan
+	public List<String> findPartyIdsCreatedSince(OffsetDateTime created) {
+		return getEntityManager()
+			.createQuery("SELECT f.partyId FROM FeedbackEntity f WHERE f.created >= :created", String.class)
+			.setParameter("created", created)
+			.getResultList();
+	}
+
+	/**
+	 * Deletes the feedback entities of the provided partyIds, with one bulk delete per chunk of IN_CLAUSE_CHUNK_SIZE
+	 * partyIds.
+	 * 
+	 * @param partyIds the partyIds to delete the feedback entities for.
+	 * @return the number of deleted feedback entities.
+	 */
+	@WithSpan
+	public long deleteByPartyIds(Collection<String> partyIds) {
+		return partition(new ArrayList<>(ofNullable(partyIds).orElse(emptyList())), IN_CLAUSE_CHUNK_SIZE).stream()
+			.mapToLong(chunk -> delete("partyId IN ?1", chunk))
+			.sum();
+	}
 }
@@ -0,0 +1,119 @@
+package se.sundsvall.disturbance.integration.db;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static javax.persistence.LockModeType.PESSIMISTIC_WRITE;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Transactional;
+
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.extension.annotations.WithSpan;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+
+@ApplicationScoped
+@Timed(value = "disturbance.repository", description = "Disturbance repository calls")
+public class MessageOutboxRepository implements PanacheRepository<MessageOutboxEntity> {
+
+	private static final String DISPATCH_AFTER_PARAM = "dispatchAfter";
+	private static final String IDS_PARAM = "ids";
+	private static final String MAX_ATTEMPTS_PARAM = "maxAttempts";
+
+	/**
+	 * Claim a batch of messages (that are not dead letters) that are due for dispatch. The claimed messages get their attempts increased and will not
+	 * be claimed again (by this or any other instance) until the lease has expired.
+	 *
+	 * @param batchSize   max number of messages to claim.
+	 * @param maxAttempts messages that already have been attempted this many times are not claimed.
+	 * @param lease       for how long the claimed messages are reserved for the caller.
+	 * @return the claimed messages, oldest first.
+	 */
+	@Transactional
+	@WithSpan
+	public List<MessageOutboxEntity> claimBatch(int batchSize, int maxAttempts, Duration lease) {
+		final var timestamp = now().truncatedTo(MILLIS);
+
+		final List<MessageOutboxEntity> messageOutboxEntities = find("deadLetter = false and dispatchAfter <= :dispatchAfter and attempts < :maxAttempts", Sort.by("id"),
+			Parameters.with(DISPATCH_AFTER_PARAM, timestamp).and(MAX_ATTEMPTS_PARAM, maxAttempts))
+				.withLock(PESSIMISTIC_WRITE)
+				.page(0, batchSize)
+				.list();
+
+		messageOutboxEntities.forEach(messageOutboxEntity -> {
+			messageOutboxEntity.setAttempts(messageOutboxEntity.getAttempts() + 1);
+			messageOutboxEntity.setDispatchAfter(timestamp.plus(lease));
+		});
+
+		return messageOutboxEntities;
+	}
+
+	/**
+	 * Remove delivered messages.
+	 *
+	 * @param ids the ids of the delivered messages.
+	 * @return number of removed messages.
+	 */
+	@Transactional
+	@WithSpan
+	public long deleteByIds(List<Long> ids) {
+		return delete("id in :ids", Parameters.with(IDS_PARAM, ids));
+	}
+
+	/**
+	 * Make messages that could not be delivered available for a new dispatch attempt.
+	 *
+	 * @param ids           the ids of the messages.
+	 * @param dispatchAfter when the messages may be dispatched again.
+	 * @return number of updated messages.
+	 */
+	@Transactional
+	@WithSpan
+	public int releaseByIds(List<Long> ids, OffsetDateTime dispatchAfter) {
+		return update("dispatchAfter = :dispatchAfter where id in :ids", Parameters.with(DISPATCH_AFTER_PARAM, dispatchAfter).and(IDS_PARAM, ids));
+	}
+
+	/**
+	 * Keep messages that will not be delivered (i.e. rejected by api-messaging-service or out of attempts) as dead
+	 * letters, that are not dispatched again.
+	 *
+	 * @param ids the ids of the messages.
+	 * @return number of updated messages.
+	 */
+	@Transactional
+	@WithSpan
+	public int deadLetterByIds(List<Long> ids) {
+		return update("deadLetter = true where id in :ids", Parameters.with(IDS_PARAM, ids));
+	}
+
+	/**
+	 * Make dead letters of the messages that have run out of attempts, and are not claimed by anyone (e.g. messages that
+	 * were claimed for the last time by an instance that was stopped during the delivery).
+	 *
+	 * @param maxAttempts messages that have been attempted this many times are out of attempts.
+	 * @return number of updated messages.
+	 */
+	@Transactional
+	@WithSpan
+	public int deadLetterExhausted(int maxAttempts) {
+		return update("deadLetter = true where deadLetter = false and dispatchAfter <= :dispatchAfter and attempts >= :maxAttempts",
+			Parameters.with(DISPATCH_AFTER_PARAM, now().truncatedTo(MILLIS)).and(MAX_ATTEMPTS_PARAM, maxAttempts));
+	}
+
+	/**
+	 * Count the dead letters in the outbox.
+	 *
+	 * @return number of dead letters.
+	 */
+	@Transactional
+	@WithSpan
+	public long countDeadLetters() {
+		return count("deadLetter", true);
+	}
+}
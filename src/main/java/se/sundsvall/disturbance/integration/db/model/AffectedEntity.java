@@ -13,18 +13,21 @@ import javax.persistence.Id;
 import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 @Entity
 @Table(name = "affected", indexes = {
-	@Index(name = "party_id_index", columnList = "party_id")
+	@Index(name = "party_id_index", columnList = "party_id"),
+	@Index(name = "party_id_parent_id_index", columnList = "party_id,parent_id")
 })
 public class AffectedEntity implements Serializable {
 
 	private static final long serialVersionUID = 8835799401886595749L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "affected_seq")
+	@SequenceGenerator(name = "affected_seq", sequenceName = "affected_seq", allocationSize = 50)
 	@Column(name = "id")
 	private long id;
 
@@ -13,6 +13,7 @@ import java.util.Objects;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -22,14 +23,25 @@ import javax.persistence.OneToMany;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.converter.CategoryConverter;
+import se.sundsvall.disturbance.integration.db.model.converter.StatusConverter;
 
 @Entity
 @Table(name = "disturbance", indexes = {
 	@Index(name = "disturbance_id_index", columnList = "disturbance_id"),
-	@Index(name = "category_index", columnList = "category")
+	@Index(name = "category_disturbance_id_deleted_status_index", columnList = "category,disturbance_id,deleted,status")
+}, uniqueConstraints = {
+	@UniqueConstraint(name = DisturbanceEntity.UNIQUE_CATEGORY_DISTURBANCE_ID_ACTIVE, columnNames = { "category", "disturbance_id", "active" })
 })
 public class DisturbanceEntity implements Serializable {
 
+	public static final String UNIQUE_CATEGORY_DISTURBANCE_ID_ACTIVE = "uq_disturbance_category_disturbance_id_active";
+
 	private static final long serialVersionUID = -4882470746578837725L;
 
 	@Id
@@ -40,8 +52,9 @@ public class DisturbanceEntity implements Serializable {
 	@Column(name = "disturbance_id", nullable = false)
 	private String disturbanceId;
 
-	@Column(name = "category", nullable = false)
-	private String category;
+	@Convert(converter = CategoryConverter.class)
+	@Column(name = "category", nullable = false, length = 2)
+	private Category category;
 
 	@Column(name = "title")
 	private String title;
@@ -49,8 +62,9 @@ public class DisturbanceEntity implements Serializable {
 	@Column(name = "description", nullable = false, length = 8192)
 	private String description;
 
-	@Column(name = "status", nullable = false)
-	private String status;
+	@Convert(converter = StatusConverter.class)
+	@Column(name = "status", nullable = false, length = 1)
+	private Status status;
 
 	@Column(name = "planned_start_date")
 	private OffsetDateTime plannedStartDate;
@@ -67,6 +81,20 @@ public class DisturbanceEntity implements Serializable {
 	@Column(name = "deleted")
 	private boolean deleted;
 
+	/**
+	 * Generated by the database: 1 if the disturbance isn't deleted, otherwise null. Makes the unique constraint apply to
+	 * non deleted disturbances only (null values are never equal), i.e. a deleted disturbance id can be created again.
+	 */
+	@Column(name = "active", insertable = false, updatable = false, columnDefinition = "tinyint as (case when deleted = 0 then 1 end)")
+	private Integer active;
+
+	/**
+	 * Incremented on each update, and used for optimistic locking (i.e. concurrent updates of the same disturbance fail).
+	 */
+	@Version
+	@Column(name = "version", nullable = false)
+	private long version;
+
 	@OneToMany(mappedBy = "disturbanceEntity", cascade = CascadeType.ALL, orphanRemoval = true)
 	private List<AffectedEntity> affectedEntities;
 
@@ -96,11 +124,11 @@ public class DisturbanceEntity implements Serializable {
 		this.disturbanceId = disturbanceId;
 	}
 
-	public String getCategory() {
+	public Category getCategory() {
 		return category;
 	}
 
-	public void setCategory(String category) {
+	public void setCategory(Category category) {
 		this.category = category;
 	}
 
@@ -120,11 +148,11 @@ public class DisturbanceEntity implements Serializable {
 		this.description = description;
 	}
 
-	public String getStatus() {
+	public Status getStatus() {
 		return status;
 	}
 
-	public void setStatus(String status) {
+	public void setStatus(Status status) {
 		this.status = status;
 	}
 
@@ -168,6 +196,14 @@ public class DisturbanceEntity implements Serializable {
 		this.deleted = deleted;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	public List<AffectedEntity> getAffectedEntities() {
 		return affectedEntities;
 	}
@@ -200,7 +236,7 @@ public class DisturbanceEntity implements Serializable {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(affectedEntities, category, created, description, disturbanceId, id, plannedStartDate, plannedStopDate, status, title, updated, deleted);
+		return Objects.hash(affectedEntities, category, created, description, disturbanceId, id, plannedStartDate, plannedStopDate, status, title, updated, deleted, version);
 	}
 
 	@Override
@@ -215,7 +251,8 @@ public class DisturbanceEntity implements Serializable {
 		return Objects.equals(affectedEntities, other.affectedEntities) && Objects.equals(category, other.category) && Objects.equals(created, other.created)
 			&& Objects.equals(description, other.description) && Objects.equals(disturbanceId, other.disturbanceId) && Objects.equals(id, other.id)
 			&& Objects.equals(plannedStartDate, other.plannedStartDate) && Objects.equals(plannedStopDate, other.plannedStopDate) && Objects.equals(status, other.status)
-			&& Objects.equals(title, other.title) && Objects.equals(updated, other.updated) && Objects.equals(deleted, other.deleted);
+			&& Objects.equals(title, other.title) && Objects.equals(updated, other.updated) && Objects.equals(deleted, other.deleted)
+			&& Objects.equals(version, other.version);
 	}
 
 	@Override
@@ -223,7 +260,8 @@ public class DisturbanceEntity implements Serializable {
 		StringBuilder builder = new StringBuilder();
 		builder.append("DisturbanceEntity [id=").append(id).append(", disturbanceId=").append(disturbanceId).append(", category=").append(category).append(", title=").append(title)
 			.append(", description=").append(description).append(", status=").append(status).append(", plannedStartDate=").append(plannedStartDate).append(", plannedStopDate=")
-			.append(plannedStopDate).append(", created=").append(created).append(", updated=").append(updated).append(", deleted=").append(deleted).append(", affectedEntities=")
+			.append(plannedStopDate).append(", created=").append(created).append(", updated=").append(updated).append(", deleted=").append(deleted).append(", version=").append(version)
+			.append(", affectedEntities=")
 			.append(affectedEntities).append("]");
 		return builder.toString();
 	}
@@ -8,21 +8,35 @@ import java.time.OffsetDateTime;
 import java.util.Objects;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.converter.CategoryConverter;
 
 @Entity
-@Table(name = "disturbance_feedback")
+@Table(name = "disturbance_feedback", indexes = {
+	@Index(name = "party_id_index", columnList = "party_id")
+}, uniqueConstraints = {
+	@UniqueConstraint(name = DisturbanceFeedbackEntity.UNIQUE_CATEGORY_DISTURBANCE_ID_PARTY_ID, columnNames = { "category", "disturbance_id", "party_id" })
+})
 public class DisturbanceFeedbackEntity implements Serializable {
 
+	public static final String UNIQUE_CATEGORY_DISTURBANCE_ID_PARTY_ID = "uq_disturbance_feedback_category_disturbance_id_party_id";
+
 	private static final long serialVersionUID = 1910840075572375264L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disturbance_feedback_seq")
+	@SequenceGenerator(name = "disturbance_feedback_seq", sequenceName = "disturbance_feedback_seq", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 
@@ -32,8 +46,9 @@ public class DisturbanceFeedbackEntity implements Serializable {
 	@Column(name = "party_id", nullable = false)
 	private String partyId;
 
-	@Column(name = "category", nullable = false)
-	private String category;
+	@Convert(converter = CategoryConverter.class)
+	@Column(name = "category", nullable = false, length = 2)
+	private Category category;
 
 	@Column(name = "created")
 	private OffsetDateTime created;
@@ -67,11 +82,11 @@ public class DisturbanceFeedbackEntity implements Serializable {
 		this.partyId = partyId;
 	}
 
-	public String getCategory() {
+	public Category getCategory() {
 		return category;
 	}
 
-	public void setCategory(String category) {
+	public void setCategory(Category category) {
 		this.category = category;
 	}
 
@@ -8,21 +8,30 @@ import java.time.OffsetDateTime;
 import java.util.Objects;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.converter.CategoryConverter;
+
 @Entity
-@Table(name = "disturbance_feedback_history")
+@Table(name = "disturbance_feedback_history", indexes = {
+	@Index(name = "category_disturbance_id_party_id_index", columnList = "category,disturbance_id,party_id")
+})
 public class DisturbanceFeedbackHistoryEntity implements Serializable {
 
 	private static final long serialVersionUID = -7915948637114509762L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disturbance_feedback_history_seq")
+	@SequenceGenerator(name = "disturbance_feedback_history_seq", sequenceName = "disturbance_feedback_history_seq", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 
@@ -32,8 +41,9 @@ public class DisturbanceFeedbackHistoryEntity implements Serializable {
 	@Column(name = "party_id", nullable = false)
 	private String partyId;
 
-	@Column(name = "category", nullable = false)
-	private String category;
+	@Convert(converter = CategoryConverter.class)
+	@Column(name = "category", nullable = false, length = 2)
+	private Category category;
 
 	@Column(name = "status", nullable = false)
 	private String status;
@@ -78,11 +88,11 @@ public class DisturbanceFeedbackHistoryEntity implements Serializable {
 		this.status = status;
 	}
 
-	public String getCategory() {
+	public Category getCategory() {
 		return category;
 	}
 
-	public void setCategory(String category) {
+	public void setCategory(Category category) {
 		this.category = category;
 	}
 
@@ -0,0 +1,60 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import java.time.OffsetDateTime;
+
+import se.sundsvall.disturbance.api.model.Category;
+
+/**
+ * Projection of a disturbance with the attributes that identify its current revision, i.e. without loading the
+ * disturbance (and its affecteds).
+ */
+public class DisturbanceRevision {
+
+	private final long id;
+	private final Category category;
+	private final String disturbanceId;
+	private final OffsetDateTime created;
+	private final OffsetDateTime updated;
+	private final long version;
+
+	public DisturbanceRevision(long id, Category category, String disturbanceId, OffsetDateTime created, OffsetDateTime updated, long version) {
+		this.id = id;
+		this.category = category;
+		this.disturbanceId = disturbanceId;
+		this.created = created;
+		this.updated = updated;
+		this.version = version;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public String getDisturbanceId() {
+		return disturbanceId;
+	}
+
+	public OffsetDateTime getCreated() {
+		return created;
+	}
+
+	public OffsetDateTime getUpdated() {
+		return updated;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("DisturbanceRevision [id=").append(id).append(", category=").append(category).append(", disturbanceId=").append(disturbanceId)
+			.append(", created=").append(created).append(", updated=").append(updated).append(", version=").append(version).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,33 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import se.sundsvall.disturbance.api.model.Status;
+
+/**
+ * Projection of a disturbance with the attributes needed to check that it exists and isn't closed, i.e. without loading
+ * the disturbance (and its affecteds).
+ */
+public class DisturbanceState {
+
+	private final long id;
+	private final Status status;
+
+	public DisturbanceState(long id, Status status) {
+		this.id = id;
+		this.status = status;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("DisturbanceState [id=").append(id).append(", status=").append(status).append("]");
+		return builder.toString();
+	}
+}
@@ -14,18 +14,25 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Index;
 import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 @Entity
 @Table(name = "feedback", indexes = {
-	@Index(name = "party_id_index", columnList = "party_id")
+	@Index(name = "created_index", columnList = "created")
+}, uniqueConstraints = {
+	@UniqueConstraint(name = FeedbackEntity.UNIQUE_PARTY_ID, columnNames = { "party_id" })
 })
 public class FeedbackEntity implements Serializable {
 
+	public static final String UNIQUE_PARTY_ID = "uq_feedback_party_id";
+
 	private static final long serialVersionUID = 6378788262069529085L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_seq")
+	@SequenceGenerator(name = "feedback_seq", sequenceName = "feedback_seq", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 
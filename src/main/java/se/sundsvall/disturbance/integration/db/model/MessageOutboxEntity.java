@@ -0,0 +1,226 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.converter.CategoryConverter;
+
+/**
+ * A message that is waiting to be delivered to api-messaging-service. The message is written in the same transaction as
+ * the disturbance change that triggered it, and is removed when it has been delivered (when the message is stored in
+ * the feedback history of the disturbance).
+ *
+ * A message that is rejected by api-messaging-service, or that has not been delivered within the max number of
+ * attempts, is kept as a dead letter (i.e. it is not dispatched again).
+ */
+@Entity
+@Table(name = "message_outbox", indexes = {
+	@Index(name = "dead_letter_dispatch_after_index", columnList = "dead_letter,dispatch_after")
+})
+public class MessageOutboxEntity implements Serializable {
+
+	private static final long serialVersionUID = 2905437414364271865L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_outbox_seq")
+	@SequenceGenerator(name = "message_outbox_seq", sequenceName = "message_outbox_seq", allocationSize = 50)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "party_id", nullable = false)
+	private String partyId;
+
+	@Convert(converter = CategoryConverter.class)
+	@Column(name = "category", length = 2)
+	private Category category;
+
+	@Column(name = "disturbance_id")
+	private String disturbanceId;
+
+	// Room for the subject template and an affected reference (max 512 characters).
+	@Column(name = "subject", length = 1024)
+	private String subject;
+
+	// Room for the message template, a description (max 8192 characters) and an affected reference.
+	@Column(name = "message", columnDefinition = "mediumtext")
+	private String message;
+
+	@Column(name = "sender_email_name")
+	private String senderEmailName;
+
+	@Column(name = "sender_email_address")
+	private String senderEmailAddress;
+
+	@Column(name = "sender_sms_name")
+	private String senderSmsName;
+
+	@Column(name = "attempts", nullable = false)
+	private int attempts;
+
+	@Column(name = "dispatch_after")
+	private OffsetDateTime dispatchAfter;
+
+	@Column(name = "dead_letter", nullable = false)
+	private boolean deadLetter;
+
+	@Column(name = "created")
+	private OffsetDateTime created;
+
+	@PrePersist
+	void prePersist() {
+		created = now().truncatedTo(MILLIS);
+		if (dispatchAfter == null) {
+			dispatchAfter = created;
+		}
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getPartyId() {
+		return partyId;
+	}
+
+	public void setPartyId(String partyId) {
+		this.partyId = partyId;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public void setCategory(Category category) {
+		this.category = category;
+	}
+
+	public String getDisturbanceId() {
+		return disturbanceId;
+	}
+
+	public void setDisturbanceId(String disturbanceId) {
+		this.disturbanceId = disturbanceId;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public void setSubject(String subject) {
+		this.subject = subject;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	public String getSenderEmailName() {
+		return senderEmailName;
+	}
+
+	public void setSenderEmailName(String senderEmailName) {
+		this.senderEmailName = senderEmailName;
+	}
+
+	public String getSenderEmailAddress() {
+		return senderEmailAddress;
+	}
+
+	public void setSenderEmailAddress(String senderEmailAddress) {
+		this.senderEmailAddress = senderEmailAddress;
+	}
+
+	public String getSenderSmsName() {
+		return senderSmsName;
+	}
+
+	public void setSenderSmsName(String senderSmsName) {
+		this.senderSmsName = senderSmsName;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public OffsetDateTime getDispatchAfter() {
+		return dispatchAfter;
+	}
+
+	public void setDispatchAfter(OffsetDateTime dispatchAfter) {
+		this.dispatchAfter = dispatchAfter;
+	}
+
+	public boolean isDeadLetter() {
+		return deadLetter;
+	}
+
+	public void setDeadLetter(boolean deadLetter) {
+		this.deadLetter = deadLetter;
+	}
+
+	public OffsetDateTime getCreated() {
+		return created;
+	}
+
+	public void setCreated(OffsetDateTime created) {
+		this.created = created;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (o == null || getClass() != o.getClass())
+			return false;
+		MessageOutboxEntity that = (MessageOutboxEntity) o;
+		return Objects.equals(id, that.id) && Objects.equals(partyId, that.partyId) && (category == that.category)
+			&& Objects.equals(disturbanceId, that.disturbanceId) && Objects.equals(subject, that.subject) && Objects.equals(message, that.message)
+			&& Objects.equals(senderEmailName, that.senderEmailName) && Objects.equals(senderEmailAddress, that.senderEmailAddress)
+			&& Objects.equals(senderSmsName, that.senderSmsName) && (attempts == that.attempts) && Objects.equals(dispatchAfter, that.dispatchAfter)
+			&& (deadLetter == that.deadLetter) && Objects.equals(created, that.created);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, partyId, category, disturbanceId, subject, message, senderEmailName, senderEmailAddress, senderSmsName, attempts, dispatchAfter, deadLetter, created);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("MessageOutboxEntity [id=").append(id).append(", partyId=").append(partyId).append(", category=").append(category)
+			.append(", disturbanceId=").append(disturbanceId).append(", subject=").append(subject).append(", message=")
+			.append(message).append(", senderEmailName=").append(senderEmailName).append(", senderEmailAddress=").append(senderEmailAddress)
+			.append(", senderSmsName=").append(senderSmsName).append(", attempts=").append(attempts).append(", dispatchAfter=").append(dispatchAfter)
+			.append(", deadLetter=").append(deadLetter).append(", created=").append(created).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,55 @@
+package se.sundsvall.disturbance.integration.db.model.converter;
+
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import se.sundsvall.disturbance.api.model.Category;
+
+/**
+ * Stores a Category as a compact (two character) code, instead of its name.
+ * 
+ * The codes are persisted, i.e. an existing code must never be changed (see delta script 010).
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<Category, String> {
+
+	private static final Map<Category, String> CODES = new EnumMap<>(Map.of(
+		Category.COMMUNICATION, "CO",
+		Category.DISTRICT_COOLING, "DC",
+		Category.DISTRICT_HEATING, "DH",
+		Category.ELECTRICITY, "EL",
+		Category.WATER, "WA"));
+
+	private static final Map<String, Category> CATEGORIES = CODES.entrySet().stream()
+		.collect(toMap(Entry::getValue, Entry::getKey));
+
+	@Override
+	public String convertToDatabaseColumn(Category category) {
+		if (isNull(category)) {
+			return null;
+		}
+		if (!CODES.containsKey(category)) {
+			throw new IllegalArgumentException(format("No code for category:'%s'", category));
+		}
+		return CODES.get(category);
+	}
+
+	@Override
+	public Category convertToEntityAttribute(String code) {
+		if (isNull(code)) {
+			return null;
+		}
+		if (!CATEGORIES.containsKey(code)) {
+			throw new IllegalArgumentException(format("Unknown category code:'%s'", code));
+		}
+		return CATEGORIES.get(code);
+	}
+}
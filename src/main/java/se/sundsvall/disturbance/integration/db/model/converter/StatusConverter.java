@@ -0,0 +1,53 @@
+package se.sundsvall.disturbance.integration.db.model.converter;
+
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import se.sundsvall.disturbance.api.model.Status;
+
+/**
+ * Stores a (disturbance) Status as a compact (one character) code, instead of its name.
+ * 
+ * The codes are persisted, i.e. an existing code must never be changed (see delta script 010).
+ */
+@Converter
+public class StatusConverter implements AttributeConverter<Status, String> {
+
+	private static final Map<Status, String> CODES = new EnumMap<>(Map.of(
+		Status.CLOSED, "C",
+		Status.OPEN, "O",
+		Status.PLANNED, "P"));
+
+	private static final Map<String, Status> STATUSES = CODES.entrySet().stream()
+		.collect(toMap(Entry::getValue, Entry::getKey));
+
+	@Override
+	public String convertToDatabaseColumn(Status status) {
+		if (isNull(status)) {
+			return null;
+		}
+		if (!CODES.containsKey(status)) {
+			throw new IllegalArgumentException(format("No code for status:'%s'", status));
+		}
+		return CODES.get(status);
+	}
+
+	@Override
+	public Status convertToEntityAttribute(String code) {
+		if (isNull(code)) {
+			return null;
+		}
+		if (!STATUSES.containsKey(code)) {
+			throw new IllegalArgumentException(format("Unknown status code:'%s'", code));
+		}
+		return STATUSES.get(code);
+	}
+}
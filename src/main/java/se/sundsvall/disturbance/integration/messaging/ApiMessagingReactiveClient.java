@@ -0,0 +1,234 @@
+package se.sundsvall.disturbance.integration.messaging;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static javax.ws.rs.core.HttpHeaders.ACCEPT;
+import static javax.ws.rs.core.HttpHeaders.AUTHORIZATION;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.HttpHeaders.LOCATION;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+import static org.apache.commons.lang3.StringUtils.removeEnd;
+import static se.sundsvall.disturbance.integration.messaging.mappers.MessagingExceptionMapper.mapToServiceException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MediaType;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import generated.se.sundsvall.messaging.MessageRequest;
+import generated.se.sundsvall.messaging.MessageStatusResponse;
+import generated.se.sundsvall.messaging.ServiceErrorResponse;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.tracing.TracingPolicy;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.http.HttpClient;
+import io.vertx.mutiny.ext.web.client.HttpResponse;
+import io.vertx.mutiny.ext.web.client.WebClient;
+import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.service.message.configuration.MessageDeliveryConfiguration;
+
+/**
+ * Client for api-messaging-service, that doesn't park any thread while waiting for the response.
+ *
+ * The calls are made with the Vert.x web client (on the event loops of the application), to the url in
+ * api-messaging.url and with the tokens of the "api-messaging" OIDC client. An error response fails the call with a
+ * ServiceException (see MessagingExceptionMapper), and a connection problem (or a call without a response within the
+ * request timeout) fails the call with a ProcessingException.
+ *
+ * The call is traced in the current context (at the time of the call to sendMessage), and the trace context is
+ * propagated to api-messaging-service.
+ */
+@ApplicationScoped
+public class ApiMessagingReactiveClient {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ApiMessagingReactiveClient.class);
+
+	private static final String MESSAGES_PATH = "/messages";
+
+	private static final Set<Integer> REDIRECT_STATUS_CODES = Set.of(307, 308);
+
+	// Span attribute names.
+	static final AttributeKey<String> SPAN_ATTRIBUTE_HTTP_METHOD = stringKey("http.method");
+	static final AttributeKey<String> SPAN_ATTRIBUTE_HTTP_URL = stringKey("http.url");
+	static final AttributeKey<Long> SPAN_ATTRIBUTE_HTTP_STATUS_CODE = longKey("http.status_code");
+
+	@Inject
+	Vertx vertx;
+
+	@Inject
+	ApiMessagingTokensProducer apiMessagingTokensProducer;
+
+	@Inject
+	MessageDeliveryConfiguration messageDeliveryConfiguration;
+
+	@Inject
+	ObjectMapper objectMapper;
+
+	@Inject
+	OpenTelemetry openTelemetry;
+
+	@Inject
+	Tracer tracer;
+
+	/** The url of api-messaging-service (see application.properties for the fallback to api-messaging/mp-rest/url). */
+	@ConfigProperty(name = "api-messaging.url")
+	String url;
+
+	private String messagesUrl;
+	private WebClient webClient;
+
+	@PostConstruct
+	void init() {
+		messagesUrl = removeEnd(url, "/") + MESSAGES_PATH;
+		final var webClientOptions = new WebClientOptions()
+			// One connection per parallel request.
+			.setMaxPoolSize(Math.max(1, messageDeliveryConfiguration.poolSize()))
+			// The host name of the certificate isn't verified.
+			.setVerifyHost(false)
+			// Redirects are followed (see followPostRedirects).
+			.setFollowRedirects(true)
+			// The calls are traced (and the trace context propagated) by this client.
+			.setTracingPolicy(TracingPolicy.IGNORE);
+		final var httpClient = vertx.getDelegate().createHttpClient(webClientOptions);
+		httpClient.redirectHandler(followPostRedirects(httpClient.redirectHandler()));
+		webClient = WebClient.wrap(new HttpClient(httpClient), webClientOptions);
+	}
+
+	@PreDestroy
+	void destroy() {
+		if (webClient != null) {
+			webClient.close();
+		}
+	}
+
+	/**
+	 * Send messages as email or SMS to a list of recipients, denoted by the partyId.
+	 *
+	 * @param messageRequest with a list of messages.
+	 * @return a Uni with the MessageStatusResponse, or failed with a ServiceException (error response) or a
+	 *         ProcessingException (no response).
+	 */
+	public Uni<MessageStatusResponse> sendMessage(MessageRequest messageRequest) {
+		final var parentContext = Context.current();
+
+		return apiMessagingTokensProducer.getTokens()
+			.onItem().transformToUni(tokens -> send(messageRequest, tokens.getAccessToken(), parentContext))
+			// E.g. a failed token request or connection.
+			.onFailure(failure -> !(failure instanceof ServiceException) && !(failure instanceof ProcessingException))
+			.transform(ProcessingException::new);
+	}
+
+	private Uni<MessageStatusResponse> send(MessageRequest messageRequest, String accessToken, Context parentContext) {
+		final var span = tracer.spanBuilder("HTTP POST")
+			.setParent(parentContext)
+			.setSpanKind(SpanKind.CLIENT)
+			.setAttribute(SPAN_ATTRIBUTE_HTTP_METHOD, "POST")
+			.setAttribute(SPAN_ATTRIBUTE_HTTP_URL, messagesUrl)
+			.startSpan();
+
+		final var request = webClient.postAbs(messagesUrl)
+			.timeout(messageDeliveryConfiguration.requestTimeout().toMillis())
+			.putHeader(AUTHORIZATION, "Bearer " + accessToken)
+			.putHeader(CONTENT_TYPE, APPLICATION_JSON)
+			.putHeader(ACCEPT, APPLICATION_JSON);
+		openTelemetry.getPropagators().getTextMapPropagator().inject(parentContext.with(span), request,
+			(httpRequest, key, value) -> httpRequest.putHeader(key, value));
+
+		return Uni.createFrom().item(() -> toJson(messageRequest))
+			.onItem().transformToUni(request::sendBuffer)
+			.onItem().transformToUni(response -> toMessageStatusResponse(response, span))
+			.onItemOrFailure().invoke((response, failure) -> endSpan(span, failure));
+	}
+
+	private Uni<MessageStatusResponse> toMessageStatusResponse(HttpResponse<Buffer> response, Span span) {
+		span.setAttribute(SPAN_ATTRIBUTE_HTTP_STATUS_CODE, response.statusCode());
+		LOGGER.debug("Received response with status code:'{}'", response.statusCode());
+
+		if (response.statusCode() >= 300) {
+			LOGGER.info("Mapping response with status code:'{}' into ServiceException", response.statusCode());
+			return Uni.createFrom().failure(toServiceException(response));
+		}
+		return Uni.createFrom().item(() -> (response.body() == null) ? null : fromJson(response.body(), MessageStatusResponse.class));
+	}
+
+	private ServiceException toServiceException(HttpResponse<Buffer> response) {
+		// Normal error body.
+		final var contentType = response.getHeader(CONTENT_TYPE);
+		if ((contentType != null) && (response.body() != null) && MediaType.valueOf(contentType).isCompatible(APPLICATION_JSON_TYPE)) {
+			return mapToServiceException(fromJson(response.body(), ServiceErrorResponse.class));
+		}
+
+		// Response body is not json.
+		return mapToServiceException(response.statusCode(), response.bodyAsString());
+	}
+
+	private Buffer toJson(Object value) {
+		try {
+			return Buffer.buffer(objectMapper.writeValueAsBytes(value));
+		} catch (IOException e) {
+			throw new ProcessingException(e);
+		}
+	}
+
+	private <T> T fromJson(Buffer body, Class<T> type) {
+		try {
+			return objectMapper.readValue(body.getBytes(), type);
+		} catch (IOException e) {
+			throw new ProcessingException(e);
+		}
+	}
+
+	/**
+	 * Returns a redirect handler that follows a temporary or permanent redirect (307 or 308) of a POST with the same
+	 * method, headers and body. The default redirect handler only follows redirects of GET and HEAD requests, and is used
+	 * for all other responses.
+	 */
+	static Function<HttpClientResponse, Future<RequestOptions>> followPostRedirects(Function<HttpClientResponse, Future<RequestOptions>> defaultRedirectHandler) {
+		return response -> {
+			final var location = response.getHeader(LOCATION);
+			if ((location == null) || !REDIRECT_STATUS_CODES.contains(response.statusCode())) {
+				return defaultRedirectHandler.apply(response);
+			}
+
+			final var request = response.request();
+			return Future.succeededFuture(new RequestOptions()
+				.setMethod(request.getMethod())
+				.setAbsoluteURI(URI.create(request.absoluteURI()).resolve(location).toString())
+				.setHeaders(request.headers()));
+		};
+	}
+
+	private static void endSpan(Span span, Throwable failure) {
+		if (failure != null) {
+			span.recordException(failure);
+			span.setStatus(StatusCode.ERROR, failure.getMessage());
+		}
+		span.end();
+	}
+}
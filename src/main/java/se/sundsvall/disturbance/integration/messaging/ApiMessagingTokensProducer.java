@@ -0,0 +1,24 @@
+package se.sundsvall.disturbance.integration.messaging;
+
+import java.util.Optional;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import io.quarkus.oidc.client.runtime.AbstractTokensProducer;
+
+/**
+ * Provides (and refreshes) the tokens of the "api-messaging" OIDC client.
+ *
+ * Unlike the injected Tokens, that are request scoped, the tokens can be used outside of a request (e.g. by the
+ * MessageOutboxDispatcher threads).
+ */
+@ApplicationScoped
+public class ApiMessagingTokensProducer extends AbstractTokensProducer {
+
+	static final String CLIENT_ID = "api-messaging";
+
+	@Override
+	protected Optional<String> clientId() {
+		return Optional.of(CLIENT_ID);
+	}
+}
@@ -44,17 +44,37 @@ public class MessagingExceptionMapper implements ResponseExceptionMapper<Service
 	private ServiceException mapToServiceException(Response response) {
 		// Normal error body.
 		if (response.getMediaType().isCompatible(APPLICATION_JSON_TYPE)) {
-			final var error = getResponseBody(response, ServiceErrorResponse.class);
-			return ServiceException.create(EXCEPTION_MESSAGE, error.getTechnicalDetails().getServiceId(),
-				Status.BAD_GATEWAY, Status.fromStatusCode(error.getHttpCode()),
-				ofNullable(error.getTechnicalDetails().getDetails()).orElse(emptyList()).toArray(String[]::new));
+			return mapToServiceException(getResponseBody(response, ServiceErrorResponse.class));
 		}
 
 		// Response body is not json.
+		return mapToServiceException(response.getStatus(), getResponseBody(response, String.class));
+	}
+
+	/**
+	 * Maps an error response (with a json body) from api-messaging into a ServiceException.
+	 *
+	 * @param error the error body of the response.
+	 * @return a ServiceException
+	 */
+	public static ServiceException mapToServiceException(ServiceErrorResponse error) {
+		return ServiceException.create(EXCEPTION_MESSAGE, error.getTechnicalDetails().getServiceId(),
+			Status.BAD_GATEWAY, Status.fromStatusCode(error.getHttpCode()),
+			ofNullable(error.getTechnicalDetails().getDetails()).orElse(emptyList()).toArray(String[]::new));
+	}
+
+	/**
+	 * Maps an error response (with a body that is not json) from api-messaging into a ServiceException.
+	 *
+	 * @param status the status code of the response.
+	 * @param body   the body of the response.
+	 * @return a ServiceException
+	 */
+	public static ServiceException mapToServiceException(int status, String body) {
 		return ServiceException.create(EXCEPTION_MESSAGE,
 			INTEGRATION_NAME,
 			Status.BAD_GATEWAY,
-			Status.fromStatusCode(response.getStatus()),
-			getResponseBody(response, String.class));
+			Status.fromStatusCode(status),
+			body);
 	}
 }
@@ -0,0 +1,95 @@
+package se.sundsvall.disturbance.service;
+
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.service.configuration.DisturbanceCacheConfiguration;
+
+/**
+ * In-process cache of mapped disturbances, keyed on category and disturbanceId.
+ *
+ * Entries are evicted by weight (i.e. number of affecteds) and age (see DisturbanceCacheConfiguration), and when a DisturbanceChangedEvent is
+ * committed. The hit and miss counts are published as the "cache.gets" metric (tagged with cache=disturbances).
+ *
+ * The cached Disturbance instances are shared between requests, and must not be modified.
+ */
+@ApplicationScoped
+public class DisturbanceCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DisturbanceCache.class);
+
+	static final String CACHE_NAME = "disturbances";
+
+	@Inject
+	DisturbanceCacheConfiguration disturbanceCacheConfiguration;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	private Cache<Pair<Category, String>, Disturbance> cache;
+
+	@PostConstruct
+	void init() {
+		cache = Caffeine.newBuilder()
+			.maximumWeight(disturbanceCacheConfiguration.maximumWeight())
+			.weigher(DisturbanceCache::weigh)
+			.expireAfterWrite(disturbanceCacheConfiguration.expireAfterWrite())
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public Optional<Disturbance> get(Category category, String disturbanceId) {
+		return Optional.ofNullable(cache.getIfPresent(Pair.of(category, disturbanceId)));
+	}
+
+	/**
+	 * Returns the cached disturbance, or loads (and caches) it with the loader if it isn't cached. The load is atomic, i.e.
+	 * an eviction of the same disturbance (when a change is committed) waits for the load to complete. A disturbance that
+	 * is changed while it is loaded is thus evicted, instead of being cached in the state it had before the change.
+	 *
+	 * @param category      the disturbance category.
+	 * @param disturbanceId the disturbance id.
+	 * @param loader        loads the disturbance (empty if it doesn't exist, in which case nothing is cached).
+	 * @return the disturbance, or empty if it doesn't exist.
+	 */
+	public Optional<Disturbance> get(Category category, String disturbanceId, Supplier<Optional<Disturbance>> loader) {
+		return Optional.ofNullable(cache.get(Pair.of(category, disturbanceId), key -> loader.get().orElse(null)));
+	}
+
+	public void invalidate(Category category, String disturbanceId) {
+		cache.invalidate(Pair.of(category, disturbanceId));
+	}
+
+	/**
+	 * The weight of a disturbance is one plus its number of affecteds, i.e. roughly proportional to its size in memory.
+	 */
+	static int weigh(Pair<Category, String> key, Disturbance disturbance) {
+		return 1 + Optional.ofNullable(disturbance.getAffecteds()).map(List::size).orElse(0);
+	}
+
+	void onDisturbanceChanged(@Observes(during = AFTER_SUCCESS) DisturbanceChangedEvent disturbanceChangedEvent) {
+		LOGGER.debug("Disturbance changed, evicting category:'{}', disturbanceId:'{}' from cache", disturbanceChangedEvent.getCategory(),
+			disturbanceChangedEvent.getDisturbanceId());
+		invalidate(disturbanceChangedEvent.getCategory(), disturbanceChangedEvent.getDisturbanceId());
+	}
+}
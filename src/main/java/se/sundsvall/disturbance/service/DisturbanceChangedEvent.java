@@ -0,0 +1,97 @@
+package se.sundsvall.disturbance.service;
+
+import static java.util.Collections.emptySet;
+import static java.util.Optional.ofNullable;
+
+import java.util.Set;
+
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.DisturbanceEventType;
+import se.sundsvall.disturbance.api.model.Status;
+
+/**
+ * Fired when a disturbance has been created, updated or deleted. Observed (after a successful commit) by the
+ * DisturbanceCache, in order to evict the cached disturbance, and by the DisturbanceEventBroadcaster, in order to
+ * notify the subscribers of the affected partyIds and the category, and by DisturbanceMetrics.
+ */
+public class DisturbanceChangedEvent {
+
+	private final Category category;
+	private final String disturbanceId;
+	private final DisturbanceEventType type;
+	private final Status previousStatus;
+	private final Status status;
+	private final Set<String> partyIds;
+	private final int numberOfPartyIds;
+
+	/**
+	 * @param category      the disturbance category.
+	 * @param disturbanceId the disturbance id.
+	 * @param type          the type of change.
+	 * @param status        the status after the change (null if deleted).
+	 * @param partyIds      the affected partyIds, before and after the change.
+	 */
+	public DisturbanceChangedEvent(Category category, String disturbanceId, DisturbanceEventType type, Status status, Set<String> partyIds) {
+		this(category, disturbanceId, type, null, status, partyIds);
+	}
+
+	/**
+	 * @param category       the disturbance category.
+	 * @param disturbanceId  the disturbance id.
+	 * @param type           the type of change.
+	 * @param previousStatus the status before the change (null if created).
+	 * @param status         the status after the change (null if deleted).
+	 * @param partyIds       the affected partyIds, before and after the change.
+	 */
+	public DisturbanceChangedEvent(Category category, String disturbanceId, DisturbanceEventType type, Status previousStatus, Status status, Set<String> partyIds) {
+		this(category, disturbanceId, type, previousStatus, status, partyIds, ofNullable(partyIds).map(Set::size).orElse(0));
+	}
+
+	/**
+	 * @param category         the disturbance category.
+	 * @param disturbanceId    the disturbance id.
+	 * @param type             the type of change.
+	 * @param previousStatus   the status before the change (null if created).
+	 * @param status           the status after the change (null if deleted).
+	 * @param partyIds         the affected partyIds, if loaded (empty if only the number of affected partyIds is known).
+	 * @param numberOfPartyIds the number of affected partyIds.
+	 */
+	public DisturbanceChangedEvent(Category category, String disturbanceId, DisturbanceEventType type, Status previousStatus, Status status, Set<String> partyIds,
+		int numberOfPartyIds) {
+		this.category = category;
+		this.disturbanceId = disturbanceId;
+		this.type = type;
+		this.previousStatus = previousStatus;
+		this.status = status;
+		this.partyIds = ofNullable(partyIds).orElse(emptySet());
+		this.numberOfPartyIds = numberOfPartyIds;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public String getDisturbanceId() {
+		return disturbanceId;
+	}
+
+	public DisturbanceEventType getType() {
+		return type;
+	}
+
+	public Status getPreviousStatus() {
+		return previousStatus;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public Set<String> getPartyIds() {
+		return partyIds;
+	}
+
+	public int getNumberOfPartyIds() {
+		return numberOfPartyIds;
+	}
+}
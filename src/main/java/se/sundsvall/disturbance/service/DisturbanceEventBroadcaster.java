@@ -0,0 +1,278 @@
+package se.sundsvall.disturbance.service;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+import static java.util.Optional.ofNullable;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_TOO_MANY_EVENT_SUBSCRIPTIONS;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
+import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.DisturbanceEvent;
+import se.sundsvall.disturbance.service.configuration.DisturbanceEventsConfiguration;
+
+/**
+ * Sends committed disturbance changes to the subscribers of Server-Sent Events streams.
+ *
+ * A subscription is either for a partyId (optionally filtered by category) or for one or more categories. The
+ * subscriptions are indexed by partyId and by category, i.e. a change is only matched against the subscriptions of its
+ * affected partyIds and its category, and an idle subscription is nothing more than its entry in the index. Each change
+ * is serialized once, and sent to the matching subscribers on a separate thread (i.e. not on the committing thread).
+ *
+ * Closed streams are removed when a send fails, and by the heartbeat that is sent every heartbeatInterval (see
+ * DisturbanceEventsConfiguration).
+ */
+@ApplicationScoped
+public class DisturbanceEventBroadcaster {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DisturbanceEventBroadcaster.class);
+
+	static final String HEARTBEAT_COMMENT = "heartbeat";
+	static final String SUBSCRIBED_COMMENT = "subscribed";
+
+	@Inject
+	DisturbanceEventsConfiguration disturbanceEventsConfiguration;
+
+	/** Subscriptions for a partyId, keyed on the (lower case) partyId. */
+	private final Map<String, Set<Subscription>> subscriptionsByPartyId = new ConcurrentHashMap<>();
+
+	/** Subscriptions for categories (without a partyId), keyed on category. */
+	private final Map<Category, Set<Subscription>> subscriptionsByCategory = new ConcurrentHashMap<>();
+
+	private final AtomicInteger numberOfSubscriptions = new AtomicInteger();
+
+	/** Used to build the outbound events (the same Sse instance is provided to every resource method). */
+	private volatile Sse sse;
+
+	private ExecutorService broadcastExecutor;
+
+	@PostConstruct
+	void init() {
+		broadcastExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			final var thread = new Thread(runnable, "disturbance-events");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	void destroy() {
+		if (broadcastExecutor != null) {
+			broadcastExecutor.shutdown();
+		}
+		allSubscriptions().forEach(this::close);
+	}
+
+	/**
+	 * Subscribes to the changes of the disturbances where the partyId is affected (before or after the change).
+	 *
+	 * @param partyId        the affected partyId.
+	 * @param categoryFilter the categories to include (all categories if null or empty).
+	 * @param sseEventSink   the stream to send the events to.
+	 * @param sse            the Sse instance of the request.
+	 * @throws ServiceException if the max number of subscriptions is reached.
+	 */
+	public void subscribeByPartyId(String partyId, Collection<Category> categoryFilter, SseEventSink sseEventSink, Sse sse) throws ServiceException {
+		final var subscription = new Subscription(sseEventSink, lowerCase(partyId), toCategories(categoryFilter));
+		reserve(sse);
+		subscriptionsByPartyId.compute(subscription.partyId, (key, subscriptions) -> add(subscriptions, subscription));
+		sendSubscribed(subscription, sse);
+	}
+
+	/**
+	 * Subscribes to the changes of all disturbances in the categories.
+	 *
+	 * @param categories   the categories.
+	 * @param sseEventSink the stream to send the events to.
+	 * @param sse          the Sse instance of the request.
+	 * @throws ServiceException if the max number of subscriptions is reached.
+	 */
+	public void subscribeByCategory(Collection<Category> categories, SseEventSink sseEventSink, Sse sse) throws ServiceException {
+		final var subscription = new Subscription(sseEventSink, null, toCategories(categories));
+		reserve(sse);
+		subscription.categories.forEach(category -> subscriptionsByCategory.compute(category, (key, subscriptions) -> add(subscriptions, subscription)));
+		sendSubscribed(subscription, sse);
+	}
+
+	/**
+	 * Checks if there are any subscriptions by partyId, i.e. if the affected partyIds are needed in order to broadcast a
+	 * change.
+	 *
+	 * @return true if there is at least one subscription by partyId.
+	 */
+	public boolean hasPartyIdSubscriptions() {
+		return !subscriptionsByPartyId.isEmpty();
+	}
+
+	int getNumberOfSubscriptions() {
+		return numberOfSubscriptions.get();
+	}
+
+	void onDisturbanceChanged(@Observes(during = AFTER_SUCCESS) DisturbanceChangedEvent disturbanceChangedEvent) {
+		if ((numberOfSubscriptions.get() == 0) || isNull(disturbanceChangedEvent.getType())) {
+			return;
+		}
+		broadcastExecutor.execute(() -> broadcast(disturbanceChangedEvent));
+	}
+
+	@Scheduled(every = "{disturbance-events.heartbeat-interval}", concurrentExecution = SKIP)
+	void heartbeat() {
+		if (numberOfSubscriptions.get() == 0) {
+			return;
+		}
+		final var heartbeatEvent = sse.newEventBuilder().comment(HEARTBEAT_COMMENT).build();
+		allSubscriptions().forEach(subscription -> send(subscription, heartbeatEvent));
+	}
+
+	void broadcast(DisturbanceChangedEvent disturbanceChangedEvent) {
+		final var category = disturbanceChangedEvent.getCategory();
+
+		// Collect the matching subscriptions (a subscription is only sent the event once).
+		final var recipients = new HashSet<Subscription>(ofNullable(subscriptionsByCategory.get(category)).orElse(Set.of()));
+		disturbanceChangedEvent.getPartyIds().forEach(partyId -> ofNullable(subscriptionsByPartyId.get(lowerCase(partyId)))
+			.ifPresent(subscriptions -> subscriptions.stream()
+				.filter(subscription -> subscription.categories.contains(category))
+				.forEach(recipients::add)));
+		if (recipients.isEmpty()) {
+			return;
+		}
+
+		LOGGER.debug("Sending '{}' event for category:'{}', disturbanceId:'{}' to '{}' subscriber(s)", disturbanceChangedEvent.getType(), category,
+			disturbanceChangedEvent.getDisturbanceId(), recipients.size());
+
+		final var outboundSseEvent = sse.newEventBuilder()
+			.name(disturbanceChangedEvent.getType().name())
+			.mediaType(APPLICATION_JSON_TYPE)
+			.data(DisturbanceEvent.class, DisturbanceEvent.create()
+				.withType(disturbanceChangedEvent.getType())
+				.withCategory(category)
+				.withId(disturbanceChangedEvent.getDisturbanceId())
+				.withStatus(disturbanceChangedEvent.getStatus()))
+			.build();
+		recipients.forEach(subscription -> send(subscription, outboundSseEvent));
+	}
+
+	private void reserve(Sse sse) throws ServiceException {
+		final var maxSubscriptions = disturbanceEventsConfiguration.maxSubscriptions();
+		if (numberOfSubscriptions.incrementAndGet() > maxSubscriptions) {
+			numberOfSubscriptions.decrementAndGet();
+			throw ServiceException.create(format(ERROR_TOO_MANY_EVENT_SUBSCRIPTIONS, maxSubscriptions), SERVICE_UNAVAILABLE);
+		}
+		this.sse = sse;
+	}
+
+	/**
+	 * Sends a comment right away, i.e. the response headers are sent to the client when the subscription starts.
+	 */
+	private void sendSubscribed(Subscription subscription, Sse sse) {
+		send(subscription, sse.newEventBuilder().comment(SUBSCRIBED_COMMENT).build());
+	}
+
+	private void send(Subscription subscription, OutboundSseEvent outboundSseEvent) {
+		if (subscription.sseEventSink.isClosed()) {
+			unsubscribe(subscription);
+			return;
+		}
+		try {
+			subscription.sseEventSink.send(outboundSseEvent).whenComplete((result, throwable) -> {
+				if (throwable != null) {
+					LOGGER.debug("Event could not be sent, removing subscription", throwable);
+					close(subscription);
+				}
+			});
+		} catch (RuntimeException e) {
+			LOGGER.debug("Event could not be sent, removing subscription", e);
+			close(subscription);
+		}
+	}
+
+	private void close(Subscription subscription) {
+		unsubscribe(subscription);
+		try {
+			subscription.sseEventSink.close();
+		} catch (RuntimeException e) {
+			LOGGER.debug("Event stream could not be closed", e);
+		}
+	}
+
+	private void unsubscribe(Subscription subscription) {
+		if (!subscription.active.compareAndSet(true, false)) {
+			return;
+		}
+		numberOfSubscriptions.decrementAndGet();
+		if (subscription.partyId != null) {
+			subscriptionsByPartyId.computeIfPresent(subscription.partyId, (key, subscriptions) -> remove(subscriptions, subscription));
+		} else {
+			subscription.categories.forEach(category -> subscriptionsByCategory.computeIfPresent(category, (key, subscriptions) -> remove(subscriptions, subscription)));
+		}
+	}
+
+	private Set<Subscription> allSubscriptions() {
+		final var subscriptions = new HashSet<Subscription>();
+		subscriptionsByPartyId.values().forEach(subscriptions::addAll);
+		subscriptionsByCategory.values().forEach(subscriptions::addAll);
+		return subscriptions;
+	}
+
+	private static Set<Subscription> add(Set<Subscription> subscriptions, Subscription subscription) {
+		final var result = isNull(subscriptions) ? ConcurrentHashMap.<Subscription>newKeySet() : subscriptions;
+		result.add(subscription);
+		return result;
+	}
+
+	/** Removes the subscription, and the key (by returning null) when there are no subscriptions left. */
+	private static Set<Subscription> remove(Set<Subscription> subscriptions, Subscription subscription) {
+		subscriptions.remove(subscription);
+		return subscriptions.isEmpty() ? null : subscriptions;
+	}
+
+	private static Set<Category> toCategories(Collection<Category> categories) {
+		return isEmpty(categories) ? EnumSet.allOf(Category.class) : EnumSet.copyOf(categories);
+	}
+
+	/**
+	 * One open event stream. Compared by identity.
+	 */
+	private static class Subscription {
+
+		private final SseEventSink sseEventSink;
+		private final String partyId;
+		private final Set<Category> categories;
+		private final AtomicBoolean active = new AtomicBoolean(true);
+
+		Subscription(SseEventSink sseEventSink, String partyId, Set<Category> categories) {
+			this.sseEventSink = sseEventSink;
+			this.partyId = partyId;
+			this.categories = categories;
+		}
+	}
+}
@@ -8,19 +8,23 @@ import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANC
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_FEEDBACK_ALREADY_EXISTS;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_NOT_FOUND;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceFeedbackMapper.toDisturbanceFeedbackEntity;
+import static se.sundsvall.disturbance.service.util.PersistenceUtils.isConstraintViolation;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.persistence.PersistenceException;
 import javax.transaction.Transactional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.opentelemetry.extension.annotations.WithSpan;
 import se.sundsvall.disturbance.api.exception.ServiceException;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.DisturbanceFeedbackCreateRequest;
 import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
 
 @ApplicationScoped
 public class DisturbanceFeedbackService {
@@ -34,24 +38,28 @@ public class DisturbanceFeedbackService {
 	DisturbanceFeedbackRepository disturbanceFeedbackRepository;
 
 	@Transactional
+	@WithSpan
 	public void createDisturbanceFeedback(Category category, String disturbanceId, DisturbanceFeedbackCreateRequest request) throws ServiceException {
 
 		LOGGER.debug("Executing createDisturbanceFeedback() with parameters: category:'{}', disturbanceId:'{}', request:'{}'", category, disturbanceId, request);
 
-		// Check that disturbance exists.
-		final var disturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)
+		// Check that disturbance exists (only the state is needed, i.e. the disturbance isn't loaded).
+		final var disturbanceState = disturbanceRepository.findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId)
 			.orElseThrow(() -> ServiceException.create(format(ERROR_DISTURBANCE_NOT_FOUND, category, disturbanceId), NOT_FOUND));
 
 		// Check that disturbance is not CLOSED.
-		if (hasStatusClosed(disturbanceEntity)) {
+		if (hasStatusClosed(disturbanceState)) {
 			throw ServiceException.create(format(ERROR_DISTURBANCE_CLOSED, category, disturbanceId), CONFLICT);
 		}
 
-		// Check that no existing disturbance feedback already exists for provided parameters.
-		if (disturbanceFeedbackRepository.findByCategoryAndDisturbanceIdAndPartyIdOptional(category, disturbanceId, request.getPartyId()).isPresent()) {
-			throw ServiceException.create(format(ERROR_DISTURBANCE_FEEDBACK_ALREADY_EXISTS, category, disturbanceId, request.getPartyId()), CONFLICT);
+		// An existing disturbance feedback is detected by the unique constraint (flushed to detect it within this method).
+		try {
+			disturbanceFeedbackRepository.persistAndFlush(toDisturbanceFeedbackEntity(category, disturbanceId, request));
+		} catch (final PersistenceException e) {
+			if (isConstraintViolation(e, DisturbanceFeedbackEntity.UNIQUE_CATEGORY_DISTURBANCE_ID_PARTY_ID)) {
+				throw ServiceException.create(format(ERROR_DISTURBANCE_FEEDBACK_ALREADY_EXISTS, category, disturbanceId, request.getPartyId()), CONFLICT);
+			}
+			throw e;
 		}
-
-		disturbanceFeedbackRepository.persist(toDisturbanceFeedbackEntity(category, disturbanceId, request));
 	}
 }
@@ -0,0 +1,162 @@
+package se.sundsvall.disturbance.service;
+
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+
+/**
+ * Metrics of the disturbance lifecycle and of the message fan-out, published (with the other Micrometer metrics) at
+ * /q/metrics:
+ *
+ * - "disturbance.changes" (counter): committed changes, tagged with category, type (CREATED, UPDATED, CLOSED or
+ * DELETED) and the status transition (from and to, where NONE is used before a create and after a delete).
+ *
+ * - "disturbance.affecteds" (distribution summary): number of affected partyIds per committed change, tagged with
+ * category and type.
+ *
+ * - "disturbance.messages.queue" (timer): time spent on resolving the recipients, rendering and queueing the messages
+ * of a send (within the transaction of the change), tagged with category and message type (new, update or close).
+ *
+ * - "disturbance.messages.per.send" (distribution summary): number of messages queued per send, tagged with category
+ * and message type.
+ *
+ * - "disturbance.messaging.requests" (timer): duration of each call to api-messaging-service (outside of any
+ * transaction, see MessageOutboxDispatcher), tagged with outcome (success or failure).
+ *
+ * - "disturbance.messages.delivered" (counter): number of messages in the outbox that were delivered to, or failed to
+ * be delivered to, api-messaging-service, tagged with outcome.
+ *
+ * - "disturbance.messages.dead.letter" (gauge): number of messages in the outbox that will not be delivered (rejected
+ * by api-messaging-service or out of attempts), as of the latest dispatch.
+ */
+@ApplicationScoped
+public class DisturbanceMetrics {
+
+	static final String CHANGES = "disturbance.changes";
+	static final String AFFECTEDS = "disturbance.affecteds";
+	static final String MESSAGES_QUEUE = "disturbance.messages.queue";
+	static final String MESSAGES_PER_SEND = "disturbance.messages.per.send";
+	static final String MESSAGING_REQUESTS = "disturbance.messaging.requests";
+	static final String MESSAGES_DELIVERED = "disturbance.messages.delivered";
+	static final String MESSAGES_DEAD_LETTER = "disturbance.messages.dead.letter";
+
+	static final String TAG_CATEGORY = "category";
+	static final String TAG_TYPE = "type";
+	static final String TAG_FROM = "from";
+	static final String TAG_TO = "to";
+	static final String TAG_OUTCOME = "outcome";
+
+	static final String NO_STATUS = "NONE";
+	static final String OUTCOME_SUCCESS = "success";
+	static final String OUTCOME_FAILURE = "failure";
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	private final AtomicLong deadLetterMessages = new AtomicLong();
+
+	void onDisturbanceChanged(@Observes(during = AFTER_SUCCESS) DisturbanceChangedEvent disturbanceChangedEvent) {
+		final var category = disturbanceChangedEvent.getCategory().name();
+		final var type = disturbanceChangedEvent.getType().name();
+
+		Counter.builder(CHANGES)
+			.description("Committed disturbance changes")
+			.tags(TAG_CATEGORY, category, TAG_TYPE, type,
+				TAG_FROM, toTagValue(disturbanceChangedEvent.getPreviousStatus()), TAG_TO, toTagValue(disturbanceChangedEvent.getStatus()))
+			.register(meterRegistry)
+			.increment();
+
+		DistributionSummary.builder(AFFECTEDS)
+			.description("Affected partyIds per committed disturbance change")
+			.tags(TAG_CATEGORY, category, TAG_TYPE, type)
+			.register(meterRegistry)
+			.record(disturbanceChangedEvent.getNumberOfPartyIds());
+	}
+
+	/**
+	 * Records a send of messages (to the affecteds with a disturbance feedback) to the message outbox.
+	 *
+	 * @param category         the disturbance category.
+	 * @param messageType      the message type (new, update or close).
+	 * @param numberOfMessages the number of queued messages.
+	 * @param duration         the time spent on the send.
+	 */
+	public void recordMessagesQueued(Category category, String messageType, int numberOfMessages, Duration duration) {
+		Timer.builder(MESSAGES_QUEUE)
+			.description("Time spent on queueing the messages of a disturbance change")
+			.tags(TAG_CATEGORY, category.name(), TAG_TYPE, messageType)
+			.register(meterRegistry)
+			.record(duration);
+
+		DistributionSummary.builder(MESSAGES_PER_SEND)
+			.description("Messages queued per disturbance change")
+			.tags(TAG_CATEGORY, category.name(), TAG_TYPE, messageType)
+			.register(meterRegistry)
+			.record(numberOfMessages);
+	}
+
+	/**
+	 * Records a call to api-messaging-service.
+	 *
+	 * @param duration   the duration of the call.
+	 * @param successful true if the call was successful, false otherwise.
+	 */
+	public void recordMessagingRequest(Duration duration, boolean successful) {
+		Timer.builder(MESSAGING_REQUESTS)
+			.description("Calls to api-messaging-service")
+			.tags(TAG_OUTCOME, toOutcome(successful))
+			.register(meterRegistry)
+			.record(duration);
+	}
+
+	/**
+	 * Records the outcome of a delivery of messages from the message outbox.
+	 *
+	 * @param delivered the number of delivered messages.
+	 * @param failed    the number of messages that failed to be delivered (and are left in the outbox).
+	 */
+	public void recordMessagesDelivered(int delivered, int failed) {
+		deliveredCounter(true).increment(delivered);
+		deliveredCounter(false).increment(failed);
+	}
+
+	/**
+	 * Records the number of dead letters in the message outbox.
+	 *
+	 * @param numberOfMessages the number of dead letters.
+	 */
+	public void recordDeadLetterMessages(long numberOfMessages) {
+		Gauge.builder(MESSAGES_DEAD_LETTER, deadLetterMessages, AtomicLong::get)
+			.description("Messages in the message outbox that will not be delivered to api-messaging-service")
+			.register(meterRegistry);
+		deadLetterMessages.set(numberOfMessages);
+	}
+
+	private Counter deliveredCounter(boolean successful) {
+		return Counter.builder(MESSAGES_DELIVERED)
+			.description("Messages delivered from the message outbox to api-messaging-service")
+			.tags(TAG_OUTCOME, toOutcome(successful))
+			.register(meterRegistry);
+	}
+
+	private static String toOutcome(boolean successful) {
+		return successful ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+	}
+
+	private static String toTagValue(Status status) {
+		return status == null ? NO_STATUS : status.name();
+	}
+}
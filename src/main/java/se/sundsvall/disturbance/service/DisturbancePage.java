@@ -0,0 +1,35 @@
+package se.sundsvall.disturbance.service;
+
+import java.util.List;
+
+import se.sundsvall.disturbance.api.model.AffectedsInclusion;
+import se.sundsvall.disturbance.api.model.Disturbance;
+
+/**
+ * One page of disturbances, with the cursor to the next page (null if this is the last page) and the affecteds included
+ * in each disturbance.
+ */
+public class DisturbancePage {
+
+	private final List<Disturbance> disturbances;
+	private final String nextCursor;
+	private final AffectedsInclusion affectedsInclusion;
+
+	public DisturbancePage(List<Disturbance> disturbances, String nextCursor, AffectedsInclusion affectedsInclusion) {
+		this.disturbances = disturbances;
+		this.nextCursor = nextCursor;
+		this.affectedsInclusion = affectedsInclusion;
+	}
+
+	public List<Disturbance> getDisturbances() {
+		return disturbances;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public AffectedsInclusion getAffectedsInclusion() {
+		return affectedsInclusion;
+	}
+}
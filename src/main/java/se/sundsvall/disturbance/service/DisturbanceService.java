@@ -1,54 +1,103 @@
 package se.sundsvall.disturbance.service;
 
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.lang.String.valueOf;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static javax.ws.rs.core.Response.Status.CREATED;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.OK;
+import static javax.ws.rs.core.Response.Status.PRECONDITION_FAILED;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_ALREADY_EXISTS;
+import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_BATCH_CONFLICT;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_CLOSED_NO_UPDATES_ALLOWED;
+import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_MODIFIED;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_NOT_FOUND;
+import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_INVALID_CURSOR;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceFeedbackMapper.toDisturbanceFeedbackEntity;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbance;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbanceEntity;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbances;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toMergedDisturbanceEntity;
+import static se.sundsvall.disturbance.service.util.CursorUtils.fromCursor;
+import static se.sundsvall.disturbance.service.util.CursorUtils.toCursor;
 import static se.sundsvall.disturbance.service.util.DisturbanceUtils.getRemovedAffectedEntities;
+import static se.sundsvall.disturbance.service.util.EtagUtils.matches;
+import static se.sundsvall.disturbance.service.util.EtagUtils.toEtag;
+import static se.sundsvall.disturbance.service.util.PersistenceUtils.isConstraintViolation;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
+import javax.persistence.PersistenceException;
 import javax.transaction.Transactional;
+import javax.ws.rs.core.Response;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.extension.annotations.WithSpan;
 import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.api.model.AffectedsInclusion;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchResult;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceEventType;
 import se.sundsvall.disturbance.api.model.DisturbanceFeedbackCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.api.model.Status;
 import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
-import se.sundsvall.disturbance.integration.db.FeedbackRepository;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceState;
+import se.sundsvall.disturbance.service.mapper.DisturbanceMapper;
 import se.sundsvall.disturbance.service.message.SendMessageLogic;
 
 @ApplicationScoped
+@Timed(value = "disturbance.service", description = "Disturbance service calls")
 public class DisturbanceService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DisturbanceService.class);
 
+	/**
+	 * Number of disturbances read from the database at a time, when streaming disturbances.
+	 */
+	static final int STREAM_FETCH_SIZE = 500;
+
 	@Inject
 	DisturbanceRepository disturbanceRepository;
 
 	@Inject
-	FeedbackRepository feedbackRepository;
+	FeedbackCache feedbackCache;
 
 	@Inject
 	DisturbanceFeedbackRepository disturbanceFeedbackRepository;
@@ -56,64 +105,280 @@ public class DisturbanceService {
 	@Inject
 	SendMessageLogic sendMessageLogic;
 
+	@Inject
+	DisturbanceCache disturbanceCache;
+
+	@Inject
+	Event<DisturbanceChangedEvent> disturbanceChangedEvent;
+
+	@Inject
+	DisturbanceEventBroadcaster disturbanceEventBroadcaster;
+
+	@WithSpan
 	public Disturbance findByCategoryAndDisturbanceId(Category category, String disturbanceId) throws ServiceException {
 
 		LOGGER.debug("Executing findByCategoryAndDisturbanceId() with parameters: category:'{}', disturbanceId:'{}'", category, disturbanceId);
 
-		return toDisturbance(disturbanceRepository.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)
+		// A disturbance that isn't cached is loaded through the cache, so that a change committed during the load evicts it.
+		return disturbanceCache.get(category, disturbanceId, () -> disturbanceRepository.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)
+			.map(DisturbanceMapper::toDisturbance))
+			.orElseThrow(() -> ServiceException.create(format(ERROR_DISTURBANCE_NOT_FOUND, category, disturbanceId), NOT_FOUND));
+	}
+
+	/**
+	 * Returns the entity tag of a disturbance (see EtagUtils), without loading the disturbance (unless it is cached).
+	 * 
+	 * @param category      the disturbance category.
+	 * @param disturbanceId the disturbance id.
+	 * @return the entity tag.
+	 * @throws ServiceException if the disturbance doesn't exist.
+	 */
+	@WithSpan
+	public String findEtagByCategoryAndDisturbanceId(Category category, String disturbanceId) throws ServiceException {
+
+		LOGGER.debug("Executing findEtagByCategoryAndDisturbanceId() with parameters: category:'{}', disturbanceId:'{}'", category, disturbanceId);
+
+		final var cachedDisturbance = disturbanceCache.get(category, disturbanceId);
+		if (cachedDisturbance.isPresent()) {
+			return toEtag(cachedDisturbance.get());
+		}
+
+		return toEtag(disturbanceRepository.findRevisionByCategoryAndDisturbanceIdOptional(category, disturbanceId)
 			.orElseThrow(() -> ServiceException.create(format(ERROR_DISTURBANCE_NOT_FOUND, category, disturbanceId), NOT_FOUND)));
 	}
 
-	public List<Disturbance> findByPartyIdAndCategoryAndStatus(String partyId, List<Category> categoryFilter, List<Status> statusFilter) {
+	/**
+	 * Returns the entity tag of the page that findByPartyIdAndCategoryAndStatus returns for the same parameters, without
+	 * loading the disturbances on the page.
+	 * 
+	 * @param partyId            the affected partyId.
+	 * @param categoryFilter     the categories to include (all categories if null or empty).
+	 * @param statusFilter       the statuses to include (all statuses if null or empty).
+	 * @param cursor             the cursor from the previous page, or null for the first page.
+	 * @param limit              max number of disturbances on the page, or null for all (remaining) disturbances.
+	 * @param affectedsInclusion the affecteds to include in each disturbance (ALL if null).
+	 * @return the entity tag.
+	 * @throws ServiceException if the cursor isn't valid.
+	 */
+	@WithSpan
+	public String findEtagByPartyIdAndCategoryAndStatus(String partyId, List<Category> categoryFilter, List<Status> statusFilter, String cursor, Integer limit,
+		AffectedsInclusion affectedsInclusion) throws ServiceException {
+
+		LOGGER.debug("Executing findEtagByPartyIdAndCategoryAndStatus() with parameters: partyId:'{}', categoryFilter:'{}', statusFilter:'{}', cursor:'{}', limit:'{}', affectedsInclusion:'{}'",
+			partyId, categoryFilter, statusFilter, cursor, limit, affectedsInclusion);
 
-		LOGGER.debug("Executing findByPartyIdAndCategoryAndStatus() with parameters: partyId:'{}', categoryFilter:'{}', statusFilter:'{}'",
-			partyId, categoryFilter, statusFilter);
+		final var afterId = isNull(cursor) ? null : fromCursor(cursor)
+			.orElseThrow(() -> ServiceException.create(format(ERROR_INVALID_CURSOR, cursor), BAD_REQUEST));
 
-		return toDisturbances(disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter));
+		// Fetch one extra revision, to find out if there is a next page (in the same way as findByPartyIdAndCategoryAndStatus).
+		final var disturbanceRevisions = disturbanceRepository.findRevisionsByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, afterId,
+			isNull(limit) ? null : limit + 1);
+		if (isNull(limit) || (disturbanceRevisions.size() <= limit)) {
+			return toEtag(disturbanceRevisions, null, affectedsInclusion);
+		}
+
+		final var pageRevisions = disturbanceRevisions.subList(0, limit);
+		return toEtag(pageRevisions, toCursor(pageRevisions.get(limit - 1).getId()), affectedsInclusion);
 	}
 
+	/**
+	 * Returns one page of the disturbances where the partyId is affected.
+	 * 
+	 * @param partyId            the affected partyId.
+	 * @param categoryFilter     the categories to include (all categories if null or empty).
+	 * @param statusFilter       the statuses to include (all statuses if null or empty).
+	 * @param cursor             the cursor from the previous page, or null for the first page.
+	 * @param limit              max number of disturbances on the page, or null for all (remaining) disturbances.
+	 * @param affectedsInclusion the affecteds to include in each disturbance (ALL if null).
+	 * @return the page.
+	 * @throws ServiceException if the cursor isn't valid.
+	 */
+	@WithSpan
+	public DisturbancePage findByPartyIdAndCategoryAndStatus(String partyId, List<Category> categoryFilter, List<Status> statusFilter, String cursor, Integer limit,
+		AffectedsInclusion affectedsInclusion) throws ServiceException {
+
+		LOGGER.debug("Executing findByPartyIdAndCategoryAndStatus() with parameters: partyId:'{}', categoryFilter:'{}', statusFilter:'{}', cursor:'{}', limit:'{}', affectedsInclusion:'{}'",
+			partyId, categoryFilter, statusFilter, cursor, limit, affectedsInclusion);
+
+		final var afterId = isNull(cursor) ? null : fromCursor(cursor)
+			.orElseThrow(() -> ServiceException.create(format(ERROR_INVALID_CURSOR, cursor), BAD_REQUEST));
+
+		// Fetch one extra disturbance, to find out if there is a next page.
+		final var disturbanceEntities = disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, afterId,
+			isNull(limit) ? null : limit + 1);
+		if (isNull(limit) || (disturbanceEntities.size() <= limit)) {
+			return new DisturbancePage(toDisturbancesWithAffecteds(partyId, disturbanceEntities, affectedsInclusion), null, affectedsInclusion);
+		}
+
+		final var pageEntities = disturbanceEntities.subList(0, limit);
+		return new DisturbancePage(toDisturbancesWithAffecteds(partyId, pageEntities, affectedsInclusion), toCursor(pageEntities.get(limit - 1).getId()),
+			affectedsInclusion);
+	}
+
+	/**
+	 * Passes all disturbances where the partyId is affected to the consumer, one by one. The disturbances are read from
+	 * the database in pages of STREAM_FETCH_SIZE, which are detached when consumed, i.e. the heap usage doesn't grow with
+	 * the total number of disturbances.
+	 * 
+	 * @param partyId            the affected partyId.
+	 * @param categoryFilter     the categories to include (all categories if null or empty).
+	 * @param statusFilter       the statuses to include (all statuses if null or empty).
+	 * @param affectedsInclusion the affecteds to include in each disturbance (ALL if null).
+	 * @param consumer           the consumer of the disturbances.
+	 */
 	@Transactional
+	@WithSpan
+	public void streamByPartyIdAndCategoryAndStatus(String partyId, List<Category> categoryFilter, List<Status> statusFilter, AffectedsInclusion affectedsInclusion,
+		Consumer<Disturbance> consumer) {
+
+		LOGGER.debug("Executing streamByPartyIdAndCategoryAndStatus() with parameters: partyId:'{}', categoryFilter:'{}', statusFilter:'{}', affectedsInclusion:'{}'",
+			partyId, categoryFilter, statusFilter, affectedsInclusion);
+
+		Long afterId = null;
+		List<DisturbanceEntity> disturbanceEntities;
+		do {
+			disturbanceEntities = disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, afterId, STREAM_FETCH_SIZE);
+			toDisturbancesWithAffecteds(partyId, disturbanceEntities, affectedsInclusion).forEach(consumer);
+			if (!disturbanceEntities.isEmpty()) {
+				afterId = disturbanceEntities.get(disturbanceEntities.size() - 1).getId();
+			}
+			disturbanceRepository.getEntityManager().clear();
+		} while (disturbanceEntities.size() == STREAM_FETCH_SIZE);
+	}
+
+	@Transactional
+	@WithSpan
 	public Disturbance createDisturbance(DisturbanceCreateRequest disturbanceCreateRequest) throws ServiceException {
 
 		LOGGER.debug("Executing createDisturbance() with parameters: request:'{}'", disturbanceCreateRequest);
 
-		// Check if disturbance already exists.
-		if (disturbanceRepository.findByCategoryAndDisturbanceIdOptional(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId()).isPresent()) {
-			throw ServiceException.create(format(ERROR_DISTURBANCE_ALREADY_EXISTS, disturbanceCreateRequest.getCategory(),
-				disturbanceCreateRequest.getId()), CONFLICT);
-		}
+		// Persist disturbance entity (an existing disturbance is detected by the unique constraint).
+		final var persistedDisturbanceEntity = persistNewDisturbance(disturbanceCreateRequest);
 
-		// Persist disturbance entity.
-		final var persistedDisturbanceEntity = disturbanceRepository.persistAndFetch(toDisturbanceEntity(disturbanceCreateRequest));
+		// Create disturbance-feedback entities and send message to the created disturbance feedback recipients.
+		createDisturbanceFeedbacksAndSendCreateMessage(persistedDisturbanceEntity, findPartyIdsWithFeedback(List.of(persistedDisturbanceEntity)));
 
-		if (isNotEmpty(persistedDisturbanceEntity.getAffectedEntities()) && !hasStatusClosed(persistedDisturbanceEntity)) {
-			persistedDisturbanceEntity.getAffectedEntities().stream().forEach(affected -> {
+		return toDisturbance(persistedDisturbanceEntity);
+	}
 
-				// Create disturbance-feedback entity, if the affected has an existing feedback-entry in DB.
-				if (feedbackRepository.findByPartyIdOptional(affected.getPartyId()).isPresent()) {
-					disturbanceFeedbackRepository.persist(toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
-						DisturbanceFeedbackCreateRequest.create().withPartyId(affected.getPartyId())));
-				}
-			});
+	/**
+	 * Creates and updates the disturbances in a batch request, in one transaction. The creates are processed before the
+	 * updates, i.e. a disturbance created in the batch can also be updated in the same batch.
+	 * 
+	 * The existing disturbances are fetched with one lookup for all items in the batch, and the existing feedback-entries
+	 * with one lookup for the affecteds of all created disturbances. An item that can't be processed (e.g. a create of an
+	 * existing disturbance or an update of a closed disturbance) is reported in its result, without affecting the other
+	 * items.
+	 * 
+	 * The new disturbances are inserted with one flush. If another request creates one of them at the same time, the
+	 * batch is all-or-nothing: the whole batch is rolled back and reported with one batch-level 409.
+	 * 
+	 * @param disturbanceBatchRequest the batch request.
+	 * @return the result of each item (creates followed by updates, in request order).
+	 * @throws ServiceException with status 409 if a disturbance in the batch is created by another request at the same
+	 *                          time (nothing in the batch is created or updated).
+	 */
+	@Transactional
+	@WithSpan
+	public List<DisturbanceBatchResult> processDisturbanceBatch(DisturbanceBatchRequest disturbanceBatchRequest) throws ServiceException {
+
+		LOGGER.debug("Executing processDisturbanceBatch() with parameters: request:'{}'", disturbanceBatchRequest);
+
+		final var createRequests = ofNullable(disturbanceBatchRequest.getCreate()).orElse(emptyList());
+		final var updateRequests = ofNullable(disturbanceBatchRequest.getUpdate()).orElse(emptyList());
+
+		// Fetch all existing disturbances in the batch at once.
+		final var disturbanceEntities = disturbanceRepository.findByCategoryAndDisturbanceIds(Stream.concat(
+			createRequests.stream().map(createRequest -> Pair.of(createRequest.getCategory(), createRequest.getId())),
+			updateRequests.stream().map(updateRequest -> Pair.of(updateRequest.getCategory(), updateRequest.getId())))
+			.collect(toSet())).stream()
+			.collect(toMap(disturbanceEntity -> Pair.of(disturbanceEntity.getCategory(), disturbanceEntity.getDisturbanceId()), identity(),
+				(first, second) -> first, HashMap::new));
+
+		final var results = new ArrayList<DisturbanceBatchResult>();
+		final var createdResults = new ArrayList<DisturbanceBatchResult>();
+		final var createdDisturbanceEntities = new ArrayList<DisturbanceEntity>();
+		for (final var createRequest : createRequests) {
+			final var key = Pair.of(createRequest.getCategory(), createRequest.getId());
+			if (disturbanceEntities.containsKey(key)) {
+				results.add(toBatchResult(key, ServiceException.create(format(ERROR_DISTURBANCE_ALREADY_EXISTS, key.getLeft(), key.getRight()), CONFLICT)));
+				continue;
+			}
 
-			// Send message to the created disturbance feedback recipients.
-			if (hasStatusOpen(persistedDisturbanceEntity)) {
-				sendMessageLogic.sendCreateMessage(persistedDisturbanceEntity);
+			final var disturbanceEntity = toDisturbanceEntity(createRequest);
+			disturbanceEntities.put(key, disturbanceEntity);
+			createdDisturbanceEntities.add(disturbanceEntity);
+			final var createdResult = toBatchResult(key, CREATED, null);
+			createdResults.add(createdResult);
+			results.add(createdResult);
+		}
+
+		// Persist the new disturbances with one flush, and map them after the flush (i.e. with the version and timestamps).
+		persistNewDisturbances(createdDisturbanceEntities);
+		for (var i = 0; i < createdResults.size(); i++) {
+			createdResults.get(i).setDisturbance(toDisturbance(createdDisturbanceEntities.get(i)));
+		}
+
+		// Create disturbance-feedback entities and send messages for all created disturbances, with one feedback lookup.
+		final var partyIdsWithFeedback = findPartyIdsWithFeedback(createdDisturbanceEntities);
+		createdDisturbanceEntities.forEach(createdDisturbanceEntity -> createDisturbanceFeedbacksAndSendCreateMessage(createdDisturbanceEntity, partyIdsWithFeedback));
+
+		for (final var updateRequest : updateRequests) {
+			final var key = Pair.of(updateRequest.getCategory(), updateRequest.getId());
+			try {
+				final var existingDisturbanceEntity = ofNullable(disturbanceEntities.get(key))
+					.orElseThrow(() -> ServiceException.create(format(ERROR_DISTURBANCE_NOT_FOUND, key.getLeft(), key.getRight()), NOT_FOUND));
+				results.add(toBatchResult(key, OK, updateDisturbance(existingDisturbanceEntity, key.getLeft(), key.getRight(), updateRequest.getUpdate())));
+			} catch (final ServiceException e) {
+				results.add(toBatchResult(key, e));
 			}
 		}
 
-		return toDisturbance(persistedDisturbanceEntity);
+		return results;
 	}
 
 	@Transactional
+	@WithSpan
 	public Disturbance updateDisturbance(Category category, String disturbanceId, DisturbanceUpdateRequest disturbanceUpdateRequest) throws ServiceException {
+		return updateDisturbance(category, disturbanceId, disturbanceUpdateRequest, null);
+	}
+
+	/**
+	 * Updates a disturbance.
+	 * 
+	 * The update is only performed if the disturbance matches the ifMatch entity tags (see EtagUtils). Concurrent updates
+	 * of the same disturbance are detected by the version check when the disturbance is written, which throws an
+	 * OptimisticLockException (and rolls back the transaction, including any queued messages).
+	 * 
+	 * @param category                 the disturbance category.
+	 * @param disturbanceId            the disturbance id.
+	 * @param disturbanceUpdateRequest the update.
+	 * @param ifMatch                  the If-Match header value, or null to update regardless of the current entity tag.
+	 * @return the updated disturbance.
+	 * @throws ServiceException if the disturbance doesn't exist, doesn't match ifMatch or is closed.
+	 */
+	@Transactional
+	@WithSpan
+	public Disturbance updateDisturbance(Category category, String disturbanceId, DisturbanceUpdateRequest disturbanceUpdateRequest, String ifMatch) throws ServiceException {
 
-		LOGGER.debug("Executing updateDisturbance() with parameters: category:'{}', disturbanceId:'{}', request:'{}'", category, disturbanceId, disturbanceUpdateRequest);
+		LOGGER.debug("Executing updateDisturbance() with parameters: category:'{}', disturbanceId:'{}', request:'{}', ifMatch:'{}'", category, disturbanceId,
+			disturbanceUpdateRequest, ifMatch);
 
 		// Get existing disturbance entity.
 		final var existingDisturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)
 			.orElseThrow(() -> ServiceException.create(format(ERROR_DISTURBANCE_NOT_FOUND, category, disturbanceId), NOT_FOUND));
 
+		// The client must have the current version of the disturbance (if If-Match is sent).
+		if (nonNull(ifMatch) && !matches(ifMatch, toEtag(existingDisturbanceEntity))) {
+			throw ServiceException.create(format(ERROR_DISTURBANCE_MODIFIED, category, disturbanceId), PRECONDITION_FAILED);
+		}
+
+		return updateDisturbance(existingDisturbanceEntity, category, disturbanceId, disturbanceUpdateRequest);
+	}
+
+	private Disturbance updateDisturbance(DisturbanceEntity existingDisturbanceEntity, Category category, String disturbanceId,
+		DisturbanceUpdateRequest disturbanceUpdateRequest) throws ServiceException {
+
 		// Get new (incoming) disturbance entity.
 		final var incomingDisturbanceEntity = toDisturbanceEntity(category, disturbanceId, disturbanceUpdateRequest);
 
@@ -122,6 +387,14 @@ public class DisturbanceService {
 			throw ServiceException.create(format(ERROR_DISTURBANCE_CLOSED_NO_UPDATES_ALLOWED, category, disturbanceId), CONFLICT);
 		}
 
+		// Evict the disturbance from the cache and notify the subscribers (of the affecteds before and after the update) when
+		// the update is committed.
+		final var affectedPartyIds = toPartyIds(existingDisturbanceEntity.getAffectedEntities());
+		affectedPartyIds.addAll(toPartyIds(incomingDisturbanceEntity.getAffectedEntities()));
+		disturbanceChangedEvent.fire(new DisturbanceChangedEvent(category, disturbanceId,
+			isChangedToStatusClosed(existingDisturbanceEntity, incomingDisturbanceEntity) ? DisturbanceEventType.CLOSED : DisturbanceEventType.UPDATED,
+			existingDisturbanceEntity.getStatus(), ofNullable(incomingDisturbanceEntity.getStatus()).orElse(existingDisturbanceEntity.getStatus()), affectedPartyIds));
+
 		// Diff list of affecteds in existing and new (updated) disturbance.
 		final var removedAffecteds = getRemovedAffectedEntities(existingDisturbanceEntity, incomingDisturbanceEntity);
 
@@ -162,19 +435,167 @@ public class DisturbanceService {
 	}
 
 	@Transactional
+	@WithSpan
 	public void deleteDisturbance(Category category, String disturbanceId) throws ServiceException {
 
 		LOGGER.debug("Executing deleteDisturbance() with parameters: category:'{}', disturbanceId:'{}'", category, disturbanceId);
 
-		final var disturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)
+		// Only the state is needed, i.e. the disturbance (and its affecteds) isn't loaded.
+		final var disturbanceState = disturbanceRepository.findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId)
 			.orElseThrow(() -> ServiceException.create(format(ERROR_DISTURBANCE_NOT_FOUND, category, disturbanceId), NOT_FOUND));
 
 		// Delete all related disturbanceFeedback-entities.
 		disturbanceFeedbackRepository.deleteByCategoryAndDisturbanceId(category, disturbanceId);
 
-		// "Soft delete" disturbance entity.
-		disturbanceEntity.setDeleted(true);
-		disturbanceRepository.persist(disturbanceEntity);
+		// "Soft delete" disturbance entity (not found if deleted by a concurrent request).
+		if (!disturbanceRepository.softDelete(disturbanceState.getId())) {
+			throw ServiceException.create(format(ERROR_DISTURBANCE_NOT_FOUND, category, disturbanceId), NOT_FOUND);
+		}
+
+		// Evict the disturbance from the cache and notify the subscribers when the delete is committed. The affected partyIds
+		// are only loaded if there are subscriptions by partyId to notify, otherwise they are just counted (for the metrics).
+		if (disturbanceEventBroadcaster.hasPartyIdSubscriptions()) {
+			disturbanceChangedEvent.fire(new DisturbanceChangedEvent(category, disturbanceId, DisturbanceEventType.DELETED, disturbanceState.getStatus(), null,
+				new HashSet<>(disturbanceRepository.findAffectedPartyIds(disturbanceState.getId()))));
+		} else {
+			disturbanceChangedEvent.fire(new DisturbanceChangedEvent(category, disturbanceId, DisturbanceEventType.DELETED, disturbanceState.getStatus(), null,
+				emptySet(), toIntExact(disturbanceRepository.countAffecteds(disturbanceState.getId()))));
+		}
+	}
+
+	/**
+	 * Persists a new disturbance. An existing (non deleted) disturbance with the same category and id is detected by the
+	 * unique constraint when the insert is flushed, instead of with a lookup before the insert.
+	 */
+	private DisturbanceEntity persistNewDisturbance(DisturbanceCreateRequest disturbanceCreateRequest) throws ServiceException {
+		try {
+			final var persistedDisturbanceEntity = disturbanceRepository.persistAndFetch(toDisturbanceEntity(disturbanceCreateRequest));
+			fireCreatedEvent(persistedDisturbanceEntity);
+
+			return persistedDisturbanceEntity;
+		} catch (final PersistenceException e) {
+			if (isConstraintViolation(e, DisturbanceEntity.UNIQUE_CATEGORY_DISTURBANCE_ID_ACTIVE)) {
+				throw ServiceException.create(format(ERROR_DISTURBANCE_ALREADY_EXISTS, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId()), CONFLICT);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Persists the new disturbances of a batch, with one flush (i.e. the affecteds of all disturbances are inserted in
+	 * JDBC batches). A disturbance created by another request at the same time is detected by the unique constraint, and
+	 * fails the whole batch.
+	 */
+	private void persistNewDisturbances(List<DisturbanceEntity> disturbanceEntities) throws ServiceException {
+		if (disturbanceEntities.isEmpty()) {
+			return;
+		}
+
+		try {
+			disturbanceRepository.persist(disturbanceEntities);
+			disturbanceRepository.flush();
+		} catch (final PersistenceException e) {
+			if (isConstraintViolation(e, DisturbanceEntity.UNIQUE_CATEGORY_DISTURBANCE_ID_ACTIVE)) {
+				throw ServiceException.create(ERROR_DISTURBANCE_BATCH_CONFLICT, CONFLICT);
+			}
+			throw e;
+		}
+
+		disturbanceEntities.forEach(this::fireCreatedEvent);
+	}
+
+	/**
+	 * Notifies the subscribers of the created disturbance when the create is committed.
+	 */
+	private void fireCreatedEvent(DisturbanceEntity persistedDisturbanceEntity) {
+		disturbanceChangedEvent.fire(new DisturbanceChangedEvent(persistedDisturbanceEntity.getCategory(), persistedDisturbanceEntity.getDisturbanceId(),
+			DisturbanceEventType.CREATED, null, persistedDisturbanceEntity.getStatus(), toPartyIds(persistedDisturbanceEntity.getAffectedEntities())));
+	}
+
+	/**
+	 * Returns the partyIds (case insensitive) with an existing feedback-entry, among the affecteds of the provided
+	 * disturbances that aren't closed. The lookup is performed once for all disturbances (in the FeedbackCache).
+	 */
+	private Set<String> findPartyIdsWithFeedback(List<DisturbanceEntity> disturbanceEntities) {
+		final var affectedPartyIds = disturbanceEntities.stream()
+			.filter(disturbanceEntity -> isNotEmpty(disturbanceEntity.getAffectedEntities()) && !hasStatusClosed(disturbanceEntity))
+			.flatMap(disturbanceEntity -> disturbanceEntity.getAffectedEntities().stream())
+			.map(AffectedEntity::getPartyId)
+			.collect(toList());
+
+		final var partyIdsWithFeedback = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		if (!affectedPartyIds.isEmpty()) {
+			partyIdsWithFeedback.addAll(feedbackCache.findPartyIdsWithFeedback(affectedPartyIds));
+		}
+
+		return partyIdsWithFeedback;
+	}
+
+	private void createDisturbanceFeedbacksAndSendCreateMessage(DisturbanceEntity persistedDisturbanceEntity, Set<String> partyIdsWithFeedback) {
+		if (isEmpty(persistedDisturbanceEntity.getAffectedEntities()) || hasStatusClosed(persistedDisturbanceEntity)) {
+			return;
+		}
+
+		// Create disturbance-feedback entities (in batch) for the affecteds with an existing feedback-entry.
+		final var disturbanceFeedbackEntities = persistedDisturbanceEntity.getAffectedEntities().stream()
+			.map(AffectedEntity::getPartyId)
+			.filter(partyIdsWithFeedback::contains)
+			.distinct()
+			.map(partyId -> toDisturbanceFeedbackEntity(persistedDisturbanceEntity.getCategory(), persistedDisturbanceEntity.getDisturbanceId(),
+				DisturbanceFeedbackCreateRequest.create().withPartyId(partyId)))
+			.collect(toList());
+		if (!disturbanceFeedbackEntities.isEmpty()) {
+			disturbanceFeedbackRepository.persist(disturbanceFeedbackEntities);
+		}
+
+		// Send message to the created disturbance feedback recipients.
+		if (hasStatusOpen(persistedDisturbanceEntity)) {
+			sendMessageLogic.sendCreateMessage(persistedDisturbanceEntity);
+		}
+	}
+
+	private static Set<String> toPartyIds(List<AffectedEntity> affectedEntities) {
+		return ofNullable(affectedEntities).orElse(emptyList()).stream()
+			.map(AffectedEntity::getPartyId)
+			.collect(toCollection(HashSet::new));
+	}
+
+	private static DisturbanceBatchResult toBatchResult(Pair<Category, String> key, Response.Status status, Disturbance disturbance) {
+		return DisturbanceBatchResult.create()
+			.withCategory(key.getLeft())
+			.withId(key.getRight())
+			.withStatus(status.getStatusCode())
+			.withDisturbance(disturbance);
+	}
+
+	private static DisturbanceBatchResult toBatchResult(Pair<Category, String> key, ServiceException serviceException) {
+		return DisturbanceBatchResult.create()
+			.withCategory(key.getLeft())
+			.withId(key.getRight())
+			.withStatus(serviceException.getStatus().getStatusCode())
+			.withDetail(serviceException.getMessage());
+	}
+
+	private List<Disturbance> toDisturbancesWithAffecteds(String partyId, List<DisturbanceEntity> disturbanceEntities, AffectedsInclusion affectedsInclusion) {
+		if (affectedsInclusion == AffectedsInclusion.NONE) {
+			return disturbanceEntities.stream()
+				.map(disturbanceEntity -> toDisturbance(disturbanceEntity, null))
+				.collect(toList());
+		}
+		if (affectedsInclusion == AffectedsInclusion.PARTY) {
+			// Fetch the affecteds of the partyId only, instead of loading all affecteds of each disturbance.
+			final var affectedEntitiesByDisturbanceEntityId = disturbanceRepository.findAffectedEntitiesByPartyId(partyId, disturbanceEntities.stream()
+				.map(DisturbanceEntity::getId)
+				.collect(toList())).stream()
+				.collect(groupingBy(affectedEntity -> affectedEntity.getDisturbanceEntity().getId()));
+			return disturbanceEntities.stream()
+				.map(disturbanceEntity -> toDisturbance(disturbanceEntity, affectedEntitiesByDisturbanceEntityId.getOrDefault(disturbanceEntity.getId(), emptyList())))
+				.collect(toList());
+		}
+
+		// Fetch the affecteds of all disturbances at once, instead of loading them for one disturbance at a time.
+		disturbanceRepository.fetchAffectedEntities(disturbanceEntities);
+		return toDisturbances(disturbanceEntities);
 	}
 
 	private boolean isChangedToStatusClosed(DisturbanceEntity oldDisturbanceEntity, DisturbanceEntity newDisturbanceEntity) {
@@ -182,15 +603,19 @@ public class DisturbanceService {
 	}
 
 	protected static boolean hasStatusClosed(DisturbanceEntity disturbanceEntity) {
-		return Status.CLOSED.toString().equals(disturbanceEntity.getStatus());
+		return Status.CLOSED == disturbanceEntity.getStatus();
+	}
+
+	protected static boolean hasStatusClosed(DisturbanceState disturbanceState) {
+		return Status.CLOSED == disturbanceState.getStatus();
 	}
 
 	protected static boolean hasStatusOpen(DisturbanceEntity disturbanceEntity) {
-		return Status.OPEN.toString().equals(disturbanceEntity.getStatus());
+		return Status.OPEN == disturbanceEntity.getStatus();
 	}
 
 	protected static boolean hasStatusPlanned(DisturbanceEntity disturbanceEntity) {
-		return Status.PLANNED.toString().equals(disturbanceEntity.getStatus());
+		return Status.PLANNED == disturbanceEntity.getStatus();
 	}
 
 	/**
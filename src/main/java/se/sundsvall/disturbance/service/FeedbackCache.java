@@ -0,0 +1,187 @@
+package se.sundsvall.disturbance.service;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+import static java.util.Collections.emptyList;
+import static java.time.OffsetDateTime.now;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
+import se.sundsvall.disturbance.integration.db.FeedbackRepository;
+import se.sundsvall.disturbance.service.configuration.FeedbackCacheConfiguration;
+
+/**
+ * In-process cache of all partyIds with feedback (i.e. the subscriptions for messages), which makes the feedback
+ * lookup for the affecteds of a disturbance a set lookup instead of a database query.
+ *
+ * The partyIds are reloaded from the database every refreshInterval (see FeedbackCacheConfiguration), and changes made
+ * by this instance are applied when a FeedbackChangedEvent is committed. Until the first load (or if the cache isn't
+ * enabled) the lookups are passed on to the database.
+ *
+ * Changes made by other instances aren't in the cached set until the next reload, so the cached set is only used to
+ * narrow down the partyIds to check in the database: the partyIds with feedback created since the reload (with a margin
+ * of CREATED_MARGIN) are added, and the resulting partyIds are then checked in the database (which excludes the partyIds
+ * whose feedback has been deleted). Both queries are small compared to checking all provided partyIds, as long as most
+ * of them don't have feedback.
+ *
+ * Lookups read the cached (concurrent) set without locking. Changes are applied under a lock, and changes that are
+ * committed while a reload is in progress are also applied to the reloaded set before it replaces the cached set.
+ */
+@ApplicationScoped
+public class FeedbackCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FeedbackCache.class);
+
+	/**
+	 * Margin for differences between the clocks of the instances, and for feedback that is created (i.e. gets its created
+	 * timestamp) before a reload but is committed after it.
+	 */
+	static final Duration CREATED_MARGIN = Duration.ofMinutes(1);
+
+	@Inject
+	FeedbackCacheConfiguration feedbackCacheConfiguration;
+
+	@Inject
+	FeedbackRepository feedbackRepository;
+
+	private final Object lock = new Object();
+
+	/** The (lower case) partyIds with feedback, or null if not loaded. */
+	private volatile CachedPartyIds cachedPartyIds;
+
+	/** Changes committed during an ongoing reload (true if created, false if deleted), or null if no reload is ongoing. */
+	private Map<String, Boolean> changesDuringReload;
+
+	/**
+	 * Returns the partyIds, among the provided ones, that has feedback.
+	 *
+	 * @param partyIds the partyIds to check.
+	 * @return a list with all provided partyIds that has feedback (or an empty list if none was found).
+	 */
+	public List<String> findPartyIdsWithFeedback(Collection<String> partyIds) {
+		final var cached = cachedPartyIds;
+		if (isNull(cached)) {
+			return feedbackRepository.findPartyIdsWithFeedback(partyIds);
+		}
+		if (isEmpty(partyIds)) {
+			return emptyList();
+		}
+
+		// Feedback created by other instances since the reload isn't in the cached set.
+		final var createdSinceReload = toLowerCase(feedbackRepository.findPartyIdsCreatedSince(cached.createdSince));
+		final var candidatePartyIds = partyIds.stream()
+			.filter(Objects::nonNull)
+			.distinct()
+			.filter(partyId -> cached.partyIds.contains(lowerCase(partyId)) || createdSinceReload.contains(lowerCase(partyId)))
+			.collect(toList());
+		if (candidatePartyIds.isEmpty()) {
+			return emptyList();
+		}
+
+		// Feedback deleted by other instances since the reload is still in the cached set.
+		final var partyIdsWithFeedback = toLowerCase(feedbackRepository.findPartyIdsWithFeedback(candidatePartyIds));
+		return candidatePartyIds.stream()
+			.filter(partyId -> partyIdsWithFeedback.contains(lowerCase(partyId)))
+			.collect(toList());
+	}
+
+	@Scheduled(every = "{feedback-cache.refresh-interval}", concurrentExecution = SKIP)
+	void refresh() {
+		if (!feedbackCacheConfiguration.enabled()) {
+			return;
+		}
+
+		synchronized (lock) {
+			changesDuringReload = new HashMap<>();
+		}
+		try {
+			final var createdSince = now().minus(CREATED_MARGIN);
+			final var reloadedPartyIds = feedbackRepository.findAllPartyIds().stream()
+				.map(StringUtils::lowerCase)
+				.collect(toCollection(ConcurrentHashMap::newKeySet));
+
+			synchronized (lock) {
+				changesDuringReload.forEach((partyId, created) -> apply(reloadedPartyIds, partyId, created));
+				cachedPartyIds = new CachedPartyIds(reloadedPartyIds, createdSince);
+			}
+			LOGGER.debug("Reloaded '{}' partyIds with feedback", reloadedPartyIds.size());
+		} catch (RuntimeException e) {
+			LOGGER.error("Reload of partyIds with feedback failed", e);
+		} finally {
+			synchronized (lock) {
+				changesDuringReload = null;
+			}
+		}
+	}
+
+	void onFeedbackChanged(@Observes(during = AFTER_SUCCESS) FeedbackChangedEvent feedbackChangedEvent) {
+		synchronized (lock) {
+			feedbackChangedEvent.getCreatedPartyIds().forEach(partyId -> applyChange(lowerCase(partyId), true));
+			feedbackChangedEvent.getDeletedPartyIds().forEach(partyId -> applyChange(lowerCase(partyId), false));
+		}
+	}
+
+	/**
+	 * Applies a change to the cached set, and records it if a reload is in progress. Must be called with the lock held.
+	 */
+	private void applyChange(String partyId, boolean created) {
+		if (nonNull(changesDuringReload)) {
+			changesDuringReload.put(partyId, created);
+		}
+		if (nonNull(cachedPartyIds)) {
+			apply(cachedPartyIds.partyIds, partyId, created);
+		}
+	}
+
+	private static void apply(Set<String> partyIds, String partyId, boolean created) {
+		if (created) {
+			partyIds.add(partyId);
+		} else {
+			partyIds.remove(partyId);
+		}
+	}
+	private static Set<String> toLowerCase(Collection<String> partyIds) {
+		return partyIds.stream()
+			.map(StringUtils::lowerCase)
+			.collect(toSet());
+	}
+
+	/**
+	 * The (lower case) partyIds with feedback as of the last reload, and the created timestamp from which feedback
+	 * created by other instances may be missing in them.
+	 */
+	private static class CachedPartyIds {
+
+		private final Set<String> partyIds;
+		private final OffsetDateTime createdSince;
+
+		private CachedPartyIds(Set<String> partyIds, OffsetDateTime createdSince) {
+			this.partyIds = partyIds;
+			this.createdSince = createdSince;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package se.sundsvall.disturbance.service;
+
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+
+import java.util.Collection;
+
+/**
+ * Fired when feedback (i.e. the subscription for messages) has been created or deleted for partyIds. Observed (after a
+ * successful commit) by the FeedbackCache, in order to keep the cached subscriptions up to date.
+ */
+public class FeedbackChangedEvent {
+
+	private final Collection<String> createdPartyIds;
+	private final Collection<String> deletedPartyIds;
+
+	private FeedbackChangedEvent(Collection<String> createdPartyIds, Collection<String> deletedPartyIds) {
+		this.createdPartyIds = ofNullable(createdPartyIds).orElse(emptyList());
+		this.deletedPartyIds = ofNullable(deletedPartyIds).orElse(emptyList());
+	}
+
+	public static FeedbackChangedEvent created(Collection<String> partyIds) {
+		return new FeedbackChangedEvent(partyIds, null);
+	}
+
+	public static FeedbackChangedEvent deleted(Collection<String> partyIds) {
+		return new FeedbackChangedEvent(null, partyIds);
+	}
+
+	public Collection<String> getCreatedPartyIds() {
+		return createdPartyIds;
+	}
+
+	public Collection<String> getDeletedPartyIds() {
+		return deletedPartyIds;
+	}
+}
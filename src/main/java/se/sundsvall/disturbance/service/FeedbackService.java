@@ -1,45 +1,74 @@
 package se.sundsvall.disturbance.service;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_FEEDBACK_ALREADY_EXISTS;
+import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_FEEDBACK_INVALID_PARTY_ID;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_FEEDBACK_NOT_FOUND;
 import static se.sundsvall.disturbance.service.mapper.FeedbackMapper.toFeedbackEntity;
+import static se.sundsvall.disturbance.service.util.PersistenceUtils.isConstraintViolation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
+import javax.persistence.PersistenceException;
 import javax.transaction.Transactional;
+import javax.ws.rs.core.Response.Status;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.opentelemetry.extension.annotations.WithSpan;
 import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.api.model.FeedbackBatchResult;
 import se.sundsvall.disturbance.api.model.FeedbackCreateRequest;
 import se.sundsvall.disturbance.integration.db.FeedbackRepository;
+import se.sundsvall.disturbance.integration.db.model.FeedbackEntity;
 
 @ApplicationScoped
 public class FeedbackService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(FeedbackService.class);
 
+	private static final int CREATE_FEEDBACKS_MAX_ATTEMPTS = 3;
+
 	@Inject
 	FeedbackRepository feedbackRepository;
 
+	@Inject
+	Event<FeedbackChangedEvent> feedbackChangedEvent;
+
 	@Transactional
+	@WithSpan
 	public void createFeedback(FeedbackCreateRequest request) throws ServiceException {
 
 		LOGGER.debug("Executing createFeedback() with parameters: request:'{}'", request);
 
-		// Check that no existing feedback already exists for provided parameters.
-		if (feedbackRepository.findByPartyIdOptional(request.getPartyId()).isPresent()) {
-			throw ServiceException.create(format(ERROR_FEEDBACK_ALREADY_EXISTS, request.getPartyId()), CONFLICT);
+		// An existing feedback is detected by the unique constraint (flushed to detect it within this method).
+		try {
+			feedbackRepository.persistAndFlush(toFeedbackEntity(request));
+		} catch (final PersistenceException e) {
+			if (isConstraintViolation(e, FeedbackEntity.UNIQUE_PARTY_ID)) {
+				throw ServiceException.create(format(ERROR_FEEDBACK_ALREADY_EXISTS, request.getPartyId()), CONFLICT);
+			}
+			throw e;
 		}
 
-		feedbackRepository.persist(toFeedbackEntity(request));
+		// Update the cached subscriptions when the create is committed.
+		feedbackChangedEvent.fire(FeedbackChangedEvent.created(List.of(request.getPartyId())));
 	}
 
 	@Transactional
+	@WithSpan
 	public void deleteFeedback(String partyId) throws ServiceException {
 
 		LOGGER.debug("Executing deleteFeedback() with parameters: partyId:'{}'", partyId);
@@ -48,5 +77,133 @@ public class FeedbackService {
 			.orElseThrow(() -> ServiceException.create(format(ERROR_FEEDBACK_NOT_FOUND, partyId), NOT_FOUND));
 
 		feedbackRepository.delete(feedbackEntity);
+
+		// Update the cached subscriptions when the delete is committed.
+		feedbackChangedEvent.fire(FeedbackChangedEvent.deleted(List.of(partyId)));
+	}
+
+	/**
+	 * Creates feedback for the provided partyIds, in one transaction.
+	 * 
+	 * The existing feedback entities are fetched with one lookup for all partyIds, and the new feedback entities are
+	 * inserted in JDBC batches. A partyId that is invalid, duplicated or already has feedback is reported in the result,
+	 * without affecting the other partyIds.
+	 * 
+	 * A partyId that gets feedback concurrently (i.e. after the lookup) is detected by the unique constraint, when the new
+	 * feedback entities are flushed. The transaction is then rolled back and the partyIds are processed again in a new
+	 * transaction, where the concurrently created feedback is found by the lookup (and reported as a conflict).
+	 * 
+	 * @param partyIds the partyIds to create feedback for.
+	 * @return the partyIds that failed (empty if feedback was created for all partyIds).
+	 */
+	@WithSpan
+	public List<FeedbackBatchResult> createFeedbacks(List<String> partyIds) {
+
+		LOGGER.debug("Executing createFeedbacks() with {} partyIds", partyIds.size());
+
+		for (var attempt = 1;; attempt++) {
+			try {
+				return createFeedbacksInTransaction(partyIds);
+			} catch (final PersistenceException e) {
+				if ((attempt >= CREATE_FEEDBACKS_MAX_ATTEMPTS) || !isConstraintViolation(e, FeedbackEntity.UNIQUE_PARTY_ID)) {
+					throw e;
+				}
+				LOGGER.info("Feedback was created concurrently for some of the {} partyIds, processing them again", partyIds.size());
+			}
+		}
+	}
+
+	@Transactional
+	List<FeedbackBatchResult> createFeedbacksInTransaction(List<String> partyIds) {
+		final var partyIdsWithFeedback = findPartyIdsWithFeedback(partyIds);
+		final var failed = new ArrayList<FeedbackBatchResult>();
+		final var feedbackEntities = new ArrayList<FeedbackEntity>();
+		for (final var partyId : partyIds) {
+			if (!isValidPartyId(partyId)) {
+				failed.add(toFeedbackBatchResult(partyId, BAD_REQUEST, format(ERROR_FEEDBACK_INVALID_PARTY_ID, partyId)));
+			} else if (!partyIdsWithFeedback.add(partyId)) {
+				// Feedback already exists (or the partyId occurs more than once).
+				failed.add(toFeedbackBatchResult(partyId, CONFLICT, format(ERROR_FEEDBACK_ALREADY_EXISTS, partyId)));
+			} else {
+				feedbackEntities.add(toFeedbackEntity(FeedbackCreateRequest.create().withPartyId(partyId)));
+			}
+		}
+
+		if (!feedbackEntities.isEmpty()) {
+			// Flushed to detect a concurrently created feedback within this method (see createFeedbacks).
+			feedbackRepository.persist(feedbackEntities);
+			feedbackRepository.flush();
+			feedbackChangedEvent.fire(FeedbackChangedEvent.created(feedbackEntities.stream()
+				.map(FeedbackEntity::getPartyId)
+				.collect(toList())));
+		}
+
+		return failed;
+	}
+
+	/**
+	 * Deletes feedback for the provided partyIds, in one transaction.
+	 * 
+	 * The existing feedback entities are fetched with one lookup for all partyIds, and deleted with bulk deletes. A
+	 * partyId that is invalid or doesn't have feedback is reported in the result, without affecting the other partyIds.
+	 * 
+	 * @param partyIds the partyIds to delete feedback for.
+	 * @return the partyIds that failed (empty if feedback was deleted for all partyIds).
+	 */
+	@Transactional
+	@WithSpan
+	public List<FeedbackBatchResult> deleteFeedbacks(List<String> partyIds) {
+
+		LOGGER.debug("Executing deleteFeedbacks() with {} partyIds", partyIds.size());
+
+		final var partyIdsWithFeedback = findPartyIdsWithFeedback(partyIds);
+		final var failed = new ArrayList<FeedbackBatchResult>();
+		for (final var partyId : partyIds) {
+			if (!isValidPartyId(partyId)) {
+				failed.add(toFeedbackBatchResult(partyId, BAD_REQUEST, format(ERROR_FEEDBACK_INVALID_PARTY_ID, partyId)));
+			} else if (!partyIdsWithFeedback.contains(partyId)) {
+				failed.add(toFeedbackBatchResult(partyId, NOT_FOUND, format(ERROR_FEEDBACK_NOT_FOUND, partyId)));
+			}
+		}
+
+		if (!partyIdsWithFeedback.isEmpty()) {
+			feedbackRepository.deleteByPartyIds(partyIdsWithFeedback);
+			feedbackChangedEvent.fire(FeedbackChangedEvent.deleted(partyIdsWithFeedback));
+		}
+
+		return failed;
+	}
+
+	/**
+	 * Returns the (valid) partyIds with an existing feedback entity, as a case insensitive set.
+	 */
+	private Set<String> findPartyIdsWithFeedback(List<String> partyIds) {
+		final var validPartyIds = partyIds.stream()
+			.filter(FeedbackService::isValidPartyId)
+			.collect(toList());
+
+		final var partyIdsWithFeedback = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		if (!validPartyIds.isEmpty()) {
+			partyIdsWithFeedback.addAll(feedbackRepository.findPartyIdsWithFeedback(validPartyIds));
+		}
+
+		return partyIdsWithFeedback;
+	}
+
+	private static boolean isValidPartyId(String partyId) {
+		try {
+			UUID.fromString(partyId);
+		} catch (final Exception e) {
+			return false;
+		}
+
+		return true;
+	}
+
+	private static FeedbackBatchResult toFeedbackBatchResult(String partyId, Status status, String detail) {
+		return FeedbackBatchResult.create()
+			.withPartyId(partyId)
+			.withStatus(status.getStatusCode())
+			.withDetail(detail);
 	}
 }
@@ -6,9 +6,14 @@ class ServiceConstants {
 
 	static final String ERROR_DISTURBANCE_NOT_FOUND = "No disturbance found for category:'%s' and id:'%s'!";
 	static final String ERROR_DISTURBANCE_ALREADY_EXISTS = "A disturbance with category:'%s' and id:'%s' already exists!";
+	static final String ERROR_DISTURBANCE_BATCH_CONFLICT = "A disturbance in the batch was created by another request at the same time! No disturbances in the batch were created or updated!";
 	static final String ERROR_DISTURBANCE_CLOSED_NO_UPDATES_ALLOWED = "The disturbance with category:'%s' and id:'%s' is closed! No updates are allowed on closed disturbances!";
 	static final String ERROR_DISTURBANCE_CLOSED = "A disturbance with category:'%s' and id:'%s' exists, but is closed!";
 	static final String ERROR_DISTURBANCE_FEEDBACK_ALREADY_EXISTS = "A disturbance feedback with category:'%s', id:'%s' and partyId:'%s' already exists!";
 	static final String ERROR_FEEDBACK_ALREADY_EXISTS = "A feedback entity for partyId:'%s' already exists!";
 	static final String ERROR_FEEDBACK_NOT_FOUND = "No feedback entity found for partyId:'%s'!";
+	static final String ERROR_FEEDBACK_INVALID_PARTY_ID = "Invalid partyId:'%s'! The partyId must be a valid UUID!";
+	static final String ERROR_DISTURBANCE_MODIFIED = "The disturbance with category:'%s' and id:'%s' has been modified! The If-Match header doesn't match the current ETag!";
+	static final String ERROR_INVALID_CURSOR = "Invalid cursor:'%s'!";
+	static final String ERROR_TOO_MANY_EVENT_SUBSCRIPTIONS = "The max number of event subscriptions ('%s') is reached! Try again later!";
 }
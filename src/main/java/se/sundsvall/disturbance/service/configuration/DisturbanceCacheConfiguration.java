@@ -0,0 +1,26 @@
+package se.sundsvall.disturbance.service.configuration;
+
+import java.time.Duration;
+
+import io.quarkus.runtime.annotations.StaticInitSafe;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings for the in-process cache of disturbances (read by category and disturbanceId).
+ *
+ * The cache is bounded by the total weight of the cached disturbances, where a disturbance weighs one plus its number
+ * of affecteds (i.e. a disturbance with many affecteds leaves room for fewer other disturbances). Each disturbance is
+ * evicted expireAfterWrite after it was cached. Updated and deleted disturbances are evicted when the change is
+ * committed.
+ */
+@StaticInitSafe
+@ConfigMapping(prefix = "disturbance-cache")
+public interface DisturbanceCacheConfiguration {
+
+	@WithDefault("200000")
+	long maximumWeight();
+
+	@WithDefault("PT30S")
+	Duration expireAfterWrite();
+}
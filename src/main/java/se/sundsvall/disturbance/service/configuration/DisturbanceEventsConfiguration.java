@@ -0,0 +1,24 @@
+package se.sundsvall.disturbance.service.configuration;
+
+import java.time.Duration;
+
+import io.quarkus.runtime.annotations.StaticInitSafe;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings for the Server-Sent Events streams of disturbance changes.
+ *
+ * At most maxSubscriptions streams are open at the same time. A comment is sent on each stream every
+ * heartbeatInterval, which keeps idle connections open through proxies and detects closed connections.
+ */
+@StaticInitSafe
+@ConfigMapping(prefix = "disturbance-events")
+public interface DisturbanceEventsConfiguration {
+
+	@WithDefault("50000")
+	int maxSubscriptions();
+
+	@WithDefault("PT30S")
+	Duration heartbeatInterval();
+}
@@ -0,0 +1,26 @@
+package se.sundsvall.disturbance.service.configuration;
+
+import java.time.Duration;
+
+import io.quarkus.runtime.annotations.StaticInitSafe;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings for the in-process cache of the partyIds with feedback (i.e. the subscriptions for messages).
+ *
+ * All partyIds with feedback are reloaded from the database every refreshInterval. Changes made by this instance are
+ * applied when they are committed, and changes made by other instances are covered by checking the cached partyIds (and
+ * the partyIds with feedback created since the reload) in the database. If the cache is not enabled, the database is
+ * queried with all partyIds for every lookup.
+ */
+@StaticInitSafe
+@ConfigMapping(prefix = "feedback-cache")
+public interface FeedbackCacheConfiguration {
+
+	@WithDefault("true")
+	boolean enabled();
+
+	@WithDefault("PT1M")
+	Duration refreshInterval();
+}
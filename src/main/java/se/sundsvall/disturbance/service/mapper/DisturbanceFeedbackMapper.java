@@ -1,7 +1,5 @@
 package se.sundsvall.disturbance.service.mapper;
 
-import static java.lang.String.valueOf;
-
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.DisturbanceFeedbackCreateRequest;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
@@ -12,7 +10,7 @@ public class DisturbanceFeedbackMapper {
 
 	public static DisturbanceFeedbackEntity toDisturbanceFeedbackEntity(Category category, String disturbanceId, DisturbanceFeedbackCreateRequest request) {
 		final var entity = new DisturbanceFeedbackEntity();
-		entity.setCategory(valueOf(category));
+		entity.setCategory(category);
 		entity.setDisturbanceId(disturbanceId);
 		entity.setPartyId(request.getPartyId());
 		return entity;
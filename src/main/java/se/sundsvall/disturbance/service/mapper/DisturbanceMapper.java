@@ -1,9 +1,15 @@
 package se.sundsvall.disturbance.service.mapper;
 
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.Optional.ofNullable;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static se.sundsvall.disturbance.service.util.DateUtils.toOffsetDateTimeWithLocalOffset;
+import static se.sundsvall.disturbance.service.util.DisturbanceUtils.toAffectedEntityKey;
 
 import java.util.List;
 import java.util.Objects;
@@ -13,38 +19,51 @@ import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Disturbance;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
-import se.sundsvall.disturbance.api.model.Status;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.service.util.DisturbanceUtils;
 
 public class DisturbanceMapper {
 
 	private DisturbanceMapper() {}
 
 	public static Disturbance toDisturbance(DisturbanceEntity disturbanceEntity) {
+		return toDisturbance(disturbanceEntity, disturbanceEntity.getAffectedEntities());
+	}
+
+	/**
+	 * Maps the disturbance with the provided affectedEntities as affecteds, instead of the (lazy loaded) affectedEntities
+	 * of the disturbanceEntity.
+	 * 
+	 * @param disturbanceEntity
+	 * @param affectedEntities  the affectedEntities to map, or null to leave out the affecteds.
+	 * @return the mapped disturbance.
+	 */
+	public static Disturbance toDisturbance(DisturbanceEntity disturbanceEntity, List<AffectedEntity> affectedEntities) {
 		return Disturbance.create()
-			.withCategory(disturbanceEntity.getCategory() != null ? Category.valueOf(disturbanceEntity.getCategory()) : null)
+			.withCategory(disturbanceEntity.getCategory())
 			.withTitle(disturbanceEntity.getTitle())
 			.withDescription(disturbanceEntity.getDescription())
 			.withId(disturbanceEntity.getDisturbanceId())
 			.withDescription(disturbanceEntity.getDescription())
-			.withAffecteds(toAffecteds(disturbanceEntity.getAffectedEntities()))
-			.withStatus(disturbanceEntity.getStatus() != null ? Status.valueOf(disturbanceEntity.getStatus()) : null)
+			.withAffecteds(toAffecteds(affectedEntities))
+			.withStatus(disturbanceEntity.getStatus())
 			.withCreated(disturbanceEntity.getCreated())
 			.withPlannedStartDate(disturbanceEntity.getPlannedStartDate())
 			.withPlannedStopDate(disturbanceEntity.getPlannedStopDate())
-			.withUpdated(disturbanceEntity.getUpdated());
+			.withUpdated(disturbanceEntity.getUpdated())
+			.withVersion(disturbanceEntity.getVersion());
 	}
 
 	public static DisturbanceEntity toDisturbanceEntity(DisturbanceCreateRequest disturbanceCreateRequest) {
 		final var disturbanceEntity = new DisturbanceEntity();
 		disturbanceEntity.replaceAffectedEntities(toAffectedEntities(disturbanceCreateRequest.getAffecteds()));
-		disturbanceEntity.setCategory(String.valueOf(disturbanceCreateRequest.getCategory()));
+		disturbanceEntity.setCategory(disturbanceCreateRequest.getCategory());
 		disturbanceEntity.setDescription(disturbanceCreateRequest.getDescription());
 		disturbanceEntity.setDisturbanceId(disturbanceCreateRequest.getId());
 		disturbanceEntity.setPlannedStartDate(toOffsetDateTimeWithLocalOffset(disturbanceCreateRequest.getPlannedStartDate()));
 		disturbanceEntity.setPlannedStopDate(toOffsetDateTimeWithLocalOffset(disturbanceCreateRequest.getPlannedStopDate()));
-		disturbanceEntity.setStatus(String.valueOf(disturbanceCreateRequest.getStatus()));
+		disturbanceEntity.setStatus(disturbanceCreateRequest.getStatus());
 		disturbanceEntity.setTitle(disturbanceCreateRequest.getTitle());
 
 		return disturbanceEntity;
@@ -53,12 +72,12 @@ public class DisturbanceMapper {
 	public static DisturbanceEntity toDisturbanceEntity(Category category, String disturbanceId, DisturbanceUpdateRequest disturbanceUpdateRequest) {
 		final var disturbanceEntity = new DisturbanceEntity();
 		disturbanceEntity.replaceAffectedEntities(toAffectedEntities(disturbanceUpdateRequest.getAffecteds()));
-		disturbanceEntity.setCategory(String.valueOf(category));
+		disturbanceEntity.setCategory(category);
 		disturbanceEntity.setDescription(disturbanceUpdateRequest.getDescription());
 		disturbanceEntity.setDisturbanceId(disturbanceId);
 		disturbanceEntity.setPlannedStartDate(toOffsetDateTimeWithLocalOffset(disturbanceUpdateRequest.getPlannedStartDate()));
 		disturbanceEntity.setPlannedStopDate(toOffsetDateTimeWithLocalOffset(disturbanceUpdateRequest.getPlannedStopDate()));
-		disturbanceEntity.setStatus(disturbanceUpdateRequest.getStatus() != null ? String.valueOf(disturbanceUpdateRequest.getStatus()) : null);
+		disturbanceEntity.setStatus(disturbanceUpdateRequest.getStatus());
 		disturbanceEntity.setTitle(disturbanceUpdateRequest.getTitle());
 
 		return disturbanceEntity;
@@ -67,12 +86,22 @@ public class DisturbanceMapper {
 	/**
 	 * Merge all new values from "newEntity" the the "oldEntity". Values are only used (copied) if they are not null.
 	 * 
+	 * The affectedEntities are merged by difference (see toMergedAffectedEntities), i.e. unchanged affecteds in
+	 * "oldEntity" are kept as is.
+	 * 
 	 * @param oldEntity
 	 * @param newEntity
 	 * @return the old entity with available (non-null) values from the new entity.
 	 */
 	public static DisturbanceEntity toMergedDisturbanceEntity(DisturbanceEntity oldEntity, DisturbanceEntity newEntity) {
-		ofNullable(newEntity.getAffectedEntities()).ifPresent(oldEntity::replaceAffectedEntities);
+		ofNullable(newEntity.getAffectedEntities())
+			.map(newAffectedEntities -> toMergedAffectedEntities(oldEntity.getAffectedEntities(), newAffectedEntities))
+			.filter(mergedAffectedEntities -> !mergedAffectedEntities.equals(oldEntity.getAffectedEntities()))
+			.ifPresent(mergedAffectedEntities -> {
+				oldEntity.replaceAffectedEntities(mergedAffectedEntities);
+				// The affecteds are not stored in the disturbance table, i.e. the disturbance must be marked as updated explicitly.
+				oldEntity.setUpdated(now().truncatedTo(MILLIS));
+			});
 		ofNullable(newEntity.getDescription()).ifPresent(oldEntity::setDescription);
 		ofNullable(newEntity.getPlannedStartDate()).ifPresent(oldEntity::setPlannedStartDate);
 		ofNullable(newEntity.getPlannedStopDate()).ifPresent(oldEntity::setPlannedStopDate);
@@ -82,6 +111,26 @@ public class DisturbanceMapper {
 		return oldEntity;
 	}
 
+	/**
+	 * Returns the new list of affectedEntities, where elements that already exists in "oldAffectedEntities" (same partyId
+	 * and reference) are replaced with the existing (persisted) instances.
+	 * 
+	 * This means that only added affecteds are inserted and removed affecteds are deleted (by orphan removal), when the
+	 * merged list replaces the old one. Unchanged affecteds are left untouched in the database.
+	 * 
+	 * @param oldAffectedEntities
+	 * @param newAffectedEntities
+	 * @return the merged list of affectedEntities, in the same order as "newAffectedEntities".
+	 */
+	private static List<AffectedEntity> toMergedAffectedEntities(List<AffectedEntity> oldAffectedEntities, List<AffectedEntity> newAffectedEntities) {
+		final var existingAffectedEntities = ofNullable(oldAffectedEntities).orElse(emptyList()).stream()
+			.collect(toMap(DisturbanceUtils::toAffectedEntityKey, identity(), (first, duplicate) -> first));
+
+		return newAffectedEntities.stream()
+			.map(newAffectedEntity -> ofNullable(existingAffectedEntities.remove(toAffectedEntityKey(newAffectedEntity))).orElse(newAffectedEntity))
+			.collect(toList());
+	}
+
 	private static List<AffectedEntity> toAffectedEntities(List<Affected> affecteds) {
 		if (isNull(affecteds)) {
 			return null;
@@ -0,0 +1,427 @@
+package se.sundsvall.disturbance.service.message;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+import static org.apache.commons.collections4.ListUtils.partition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+
+import org.apache.commons.collections4.ListUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import generated.se.sundsvall.messaging.MessageRequest;
+import generated.se.sundsvall.messaging.MessageStatusResponse;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackHistoryRepository;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.integration.messaging.ApiMessagingReactiveClient;
+import se.sundsvall.disturbance.service.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.message.configuration.MessageDeliveryConfiguration;
+import se.sundsvall.disturbance.service.message.util.SendMessageUtils;
+
+/**
+ * Delivers the messages in the message outbox to api-messaging-service. A delivered message is removed from the outbox
+ * and stored in the feedback history of the disturbance.
+ *
+ * A dispatch is triggered when messages have been queued (after the commit), and by a schedule that picks up messages
+ * that are left in the outbox (e.g. after failed deliveries or a restart).
+ *
+ * The dispatches are made one at a time, by a thread of their own. The calls to api-messaging-service are non-blocking
+ * (see ApiMessagingReactiveClient), i.e. no thread waits for the response of a call, however many chunks are in
+ * progress.
+ *
+ * A chunk that is rejected by api-messaging-service (i.e. contains an invalid message) is split until the rejected
+ * messages are isolated, so that the other messages of the chunk are delivered. Messages that are rejected, or that
+ * have not been delivered within the max number of attempts, are kept as dead letters in the outbox.
+ *
+ * A triggered dispatch is traced as a part of the request that queued the messages, i.e. the trace of the request
+ * continues with the delivery spans and the call to api-messaging-service (that the trace context is propagated to).
+ */
+@ApplicationScoped
+public class MessageOutboxDispatcher {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MessageOutboxDispatcher.class);
+
+	// Span attribute names.
+	static final AttributeKey<Long> SPAN_ATTRIBUTE_MESSAGES = longKey("disturbance.messages");
+	static final AttributeKey<Long> SPAN_ATTRIBUTE_CHUNKS = longKey("disturbance.chunks");
+	static final AttributeKey<Long> SPAN_ATTRIBUTE_ATTEMPTS = longKey("disturbance.attempts");
+
+	// Root status codes of api-messaging-service for requests with invalid messages (Bad Request and Unprocessable Entity).
+	private static final Set<Integer> REJECTED_STATUS_CODES = Set.of(400, 422);
+
+	@Inject
+	MessageOutboxRepository messageOutboxRepository;
+
+	@Inject
+	DisturbanceFeedbackHistoryRepository disturbanceFeedbackHistoryRepository;
+
+	@Inject
+	MessageDeliveryConfiguration messageDeliveryConfiguration;
+
+	@Inject
+	ApiMessagingReactiveClient apiMessagingReactiveClient;
+
+	@Inject
+	DisturbanceMetrics disturbanceMetrics;
+
+	@Inject
+	Tracer tracer;
+
+	private final AtomicBoolean dispatching = new AtomicBoolean();
+	private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+
+	private ExecutorService dispatchExecutor;
+
+	@PostConstruct
+	void init() {
+		dispatchExecutor = Executors.newSingleThreadExecutor(namedDaemonThreadFactory("message-dispatch-"));
+	}
+
+	@PreDestroy
+	void destroy() {
+		if (dispatchExecutor != null) {
+			dispatchExecutor.shutdown();
+		}
+	}
+
+	void onMessagesQueued(@Observes(during = AFTER_SUCCESS) MessagesQueuedEvent messagesQueuedEvent) {
+		LOGGER.debug("'{}' messages queued, triggering dispatch of message outbox", messagesQueuedEvent.getNumberOfMessages());
+		dispatchExecutor.execute(Context.current().wrap((Runnable) this::dispatch));
+	}
+
+	@Scheduled(every = "{message-delivery.outbox-dispatch-interval}", concurrentExecution = SKIP)
+	void scheduledDispatch() {
+		dispatch();
+	}
+
+	/**
+	 * Deliver all messages in the outbox that are due for dispatch. If a dispatch already is in progress, that dispatch
+	 * will do another round when it is done, instead of running two dispatches in parallel.
+	 */
+	public void dispatch() {
+		dispatchRequested.set(true);
+		while (dispatchRequested.get() && dispatching.compareAndSet(false, true)) {
+			try {
+				dispatchRequested.set(false);
+				drainOutbox();
+			} catch (RuntimeException e) {
+				LOGGER.error("Dispatch of message outbox failed", e);
+			} finally {
+				dispatching.set(false);
+			}
+		}
+	}
+
+	private void drainOutbox() {
+		final var batchSize = Math.max(1, messageDeliveryConfiguration.outboxBatchSize());
+
+		// Messages that ran out of attempts in a delivery that never was completed (e.g. by a stopped instance).
+		messageOutboxRepository.deadLetterExhausted(messageDeliveryConfiguration.outboxMaxAttempts());
+
+		List<MessageOutboxEntity> messageOutboxEntities;
+		var allDelivered = true;
+		do {
+			messageOutboxEntities = messageOutboxRepository.claimBatch(batchSize, messageDeliveryConfiguration.outboxMaxAttempts(),
+				messageDeliveryConfiguration.outboxLease());
+			if (!messageOutboxEntities.isEmpty()) {
+				allDelivered = deliver(messageOutboxEntities);
+			}
+			// Continue as long as there might be more messages to dispatch, but leave failing messages to the next dispatch.
+		} while (allDelivered && (messageOutboxEntities.size() == batchSize));
+
+		disturbanceMetrics.recordDeadLetterMessages(messageOutboxRepository.countDeadLetters());
+	}
+
+	/**
+	 * Deliver the messages to api-messaging-service. Delivered messages are removed from the outbox, rejected messages and
+	 * messages that are out of attempts are kept as dead letters, and the others are left for a later dispatch.
+	 *
+	 * @return true if no messages were left for a later dispatch, false otherwise.
+	 */
+	private boolean deliver(List<MessageOutboxEntity> messageOutboxEntities) {
+
+		// Split the messages into chunks, where each chunk is sent (and retried) independently of the others.
+		final var chunks = partition(messageOutboxEntities, Math.max(1, messageDeliveryConfiguration.chunkSize()));
+		LOGGER.info("apiMessagingClient: Sending '{}' messages in '{}' chunk(s) to api-messaging-service...", messageOutboxEntities.size(), chunks.size());
+
+		final var span = tracer.spanBuilder("MessageOutboxDispatcher.deliver")
+			.setAttribute(SPAN_ATTRIBUTE_MESSAGES, (long) messageOutboxEntities.size())
+			.setAttribute(SPAN_ATTRIBUTE_CHUNKS, (long) chunks.size())
+			.startSpan();
+		try (var scope = span.makeCurrent()) {
+			return deliver(messageOutboxEntities, chunks);
+		} finally {
+			span.end();
+		}
+	}
+
+	private boolean deliver(List<MessageOutboxEntity> messageOutboxEntities, List<List<MessageOutboxEntity>> chunks) {
+
+		// Send the chunks (in the current trace context) with at most poolSize requests in progress at the same time. No
+		// thread is parked on a request, this thread just waits for the outcome of all chunks.
+		final var parentContext = Context.current();
+		final var chunkResults = Multi.createFrom().range(0, chunks.size())
+			.onItem().transformToUni(index -> sendChunk((index + 1) + "/" + chunks.size(), chunks.get(index), parentContext))
+			.merge(Math.max(1, messageDeliveryConfiguration.poolSize()))
+			.collect().asList()
+			.await().indefinitely().stream()
+			.flatMap(List::stream)
+			.collect(toList());
+
+		// Messages that have been attempted the max number of times are not released for another attempt.
+		final var exhaustedIds = messageOutboxEntities.stream()
+			.filter(messageOutboxEntity -> messageOutboxEntity.getAttempts() >= messageDeliveryConfiguration.outboxMaxAttempts())
+			.map(MessageOutboxEntity::getId)
+			.collect(toSet());
+
+		final var deliveredIds = getIds(chunkResults, chunkResult -> !chunkResult.isFailed());
+		final var rejectedIds = getIds(chunkResults, ChunkResult::isRejected);
+		final var failedIds = getIds(chunkResults, chunkResult -> chunkResult.isFailed() && !chunkResult.isRejected());
+		final var deadLetterIds = ListUtils.union(rejectedIds, failedIds.stream().filter(exhaustedIds::contains).collect(toList()));
+		final var releasedIds = failedIds.stream().filter(id -> !exhaustedIds.contains(id)).collect(toList());
+
+		disturbanceMetrics.recordMessagesDelivered(deliveredIds.size(), rejectedIds.size() + failedIds.size());
+
+		if (!deliveredIds.isEmpty()) {
+			final var delivered = Set.copyOf(deliveredIds);
+			completeDelivery(messageOutboxEntities.stream()
+				.filter(messageOutboxEntity -> delivered.contains(messageOutboxEntity.getId()))
+				.collect(toList()));
+		}
+		if (!deadLetterIds.isEmpty()) {
+			messageOutboxRepository.deadLetterByIds(deadLetterIds);
+			LOGGER.error("apiMessagingClient: '{}' of '{}' messages were rejected by, or could not be sent to, api-messaging-service and are kept as dead letters in the "
+				+ "message outbox. Ids: {}", deadLetterIds.size(), messageOutboxEntities.size(), deadLetterIds);
+		}
+		if (!releasedIds.isEmpty()) {
+			messageOutboxRepository.releaseByIds(releasedIds, now().truncatedTo(MILLIS).plus(messageDeliveryConfiguration.outboxRetryBackoff()));
+			LOGGER.error("apiMessagingClient: '{}' of '{}' messages could not be sent to api-messaging-service and are left in the message outbox",
+				releasedIds.size(), messageOutboxEntities.size());
+		}
+
+		if (deliveredIds.size() < messageOutboxEntities.size()) {
+			Span.current().setStatus(StatusCode.ERROR, "Not all messages were delivered");
+			return releasedIds.isEmpty();
+		}
+
+		LOGGER.info("apiMessagingClient: Messages sent!");
+		return true;
+	}
+
+	/**
+	 * Remove delivered messages from the outbox, and store them in the feedback history, in one transaction.
+	 */
+	@Transactional
+	void completeDelivery(List<MessageOutboxEntity> messageOutboxEntities) {
+		messageOutboxRepository.deleteByIds(messageOutboxEntities.stream()
+			.map(MessageOutboxEntity::getId)
+			.collect(toList()));
+		disturbanceFeedbackHistoryRepository.persistWithStatusSent(messageOutboxEntities);
+	}
+
+	private static List<Long> getIds(List<ChunkResult> chunkResults, Predicate<ChunkResult> filter) {
+		return chunkResults.stream()
+			.filter(filter)
+			.flatMap(chunkResult -> chunkResult.getIds().stream())
+			.collect(toList());
+	}
+
+	/**
+	 * Sends one chunk of messages. A rejected chunk is split in two halves, that are sent one after the other, until the
+	 * rejected messages are isolated. The returned Uni never fails, messages that could not be sent result in failed
+	 * ChunkResults.
+	 */
+	private Uni<List<ChunkResult>> sendChunk(String chunkName, List<MessageOutboxEntity> messageOutboxEntities, Context parentContext) {
+
+		return sendChunkWithRetries(chunkName, messageOutboxEntities, parentContext)
+			.onItem().transformToUni(chunkResult -> {
+				if (!chunkResult.isRejected() || (messageOutboxEntities.size() == 1)) {
+					return Uni.createFrom().item(List.of(chunkResult));
+				}
+
+				LOGGER.warn("apiMessagingClient: Chunk {} with '{}' messages was rejected, splitting it to isolate the rejected messages", chunkName,
+					messageOutboxEntities.size());
+				final var halves = partition(messageOutboxEntities, (messageOutboxEntities.size() + 1) / 2);
+				return sendChunk(chunkName + ".1", halves.get(0), parentContext)
+					.onItem().transformToUni(firstResults -> sendChunk(chunkName + ".2", halves.get(1), parentContext)
+						.onItem().transform(secondResults -> ListUtils.union(firstResults, secondResults)));
+			});
+	}
+
+	/**
+	 * Sends (and retries) one chunk of messages. The returned Uni never fails, a chunk that could not be sent results in a
+	 * failed ChunkResult.
+	 */
+	private Uni<ChunkResult> sendChunkWithRetries(String chunkName, List<MessageOutboxEntity> messageOutboxEntities, Context parentContext) {
+
+		final var maxAttempts = Math.max(1, messageDeliveryConfiguration.maxAttempts());
+		final var messageRequest = new MessageRequest().messages(messageOutboxEntities.stream()
+			.map(SendMessageUtils::toMessage)
+			.collect(toList()));
+		final var startTime = System.nanoTime();
+		final var attempts = new AtomicInteger();
+
+		// The calls to api-messaging-service (and their retries) are traced as children of the chunk span.
+		final var span = tracer.spanBuilder("MessageOutboxDispatcher.sendChunk")
+			.setParent(parentContext)
+			.setAttribute(SPAN_ATTRIBUTE_MESSAGES, (long) messageOutboxEntities.size())
+			.startSpan();
+		final var chunkContext = parentContext.with(span);
+
+		final Supplier<Uni<MessageStatusResponse>> attempt = () -> Uni.createFrom().deferred(() -> {
+			attempts.incrementAndGet();
+			final var requestStartTime = System.nanoTime();
+			try (var scope = chunkContext.makeCurrent()) {
+				return apiMessagingReactiveClient.sendMessage(messageRequest)
+					.onItemOrFailure().invoke((response, failure) -> disturbanceMetrics.recordMessagingRequest(Duration.ofNanos(System.nanoTime() - requestStartTime),
+						failure == null))
+					.onFailure().invoke(span::recordException);
+			}
+		});
+
+		return sendWithRetries(attempt, attempts, maxAttempts, chunkName)
+			.onItemOrFailure().transform((response, failure) -> {
+				span.setAttribute(SPAN_ATTRIBUTE_ATTEMPTS, attempts.get());
+				if (failure != null) {
+					span.setStatus(StatusCode.ERROR, failure.getMessage());
+				}
+				span.end();
+
+				final var chunkResult = new ChunkResult(messageOutboxEntities.stream().map(MessageOutboxEntity::getId).collect(toList()), attempts.get(),
+					Duration.ofNanos(System.nanoTime() - startTime), failure, isRejected(failure));
+				if (chunkResult.isFailed()) {
+					LOGGER.error("apiMessagingClient: Chunk {} with '{}' messages failed after {} attempt(s) in {} ms", chunkName, chunkResult.getIds().size(), chunkResult.getAttempts(), chunkResult.getLatency().toMillis(), failure);
+				} else {
+					LOGGER.info("apiMessagingClient: Chunk {} with '{}' messages sent after {} attempt(s) in {} ms", chunkName, chunkResult.getIds().size(), chunkResult.getAttempts(), chunkResult.getLatency().toMillis());
+				}
+				return chunkResult;
+			});
+	}
+
+	private Uni<MessageStatusResponse> sendWithRetries(Supplier<Uni<MessageStatusResponse>> attempt, AtomicInteger attempts, int maxAttempts, String chunkName) {
+
+		return attempt.get()
+			.onFailure(failure -> isRetryable(failure) && (attempts.get() < maxAttempts)).recoverWithUni(failure -> {
+				LOGGER.warn("apiMessagingClient: Chunk {} failed on attempt {}/{}, retrying. Cause: '{}'", chunkName, attempts.get(), maxAttempts, failure.getMessage());
+				return awaitRetry().onItem().transformToUni(ignored -> sendWithRetries(attempt, attempts, maxAttempts, chunkName));
+			});
+	}
+
+	/**
+	 * Waits for retryDelay before the next attempt, without parking a thread.
+	 */
+	private Uni<Void> awaitRetry() {
+		final var retryDelay = messageDeliveryConfiguration.retryDelay();
+		final var retry = Uni.createFrom().voidItem();
+		return (retryDelay.isZero() || retryDelay.isNegative()) ? retry : retry.onItem().delayIt().by(retryDelay);
+	}
+
+	/**
+	 * Connection problems and server errors (or errors without a known root cause) are worth retrying. Client errors
+	 * (4xx) will fail in the same way on the next attempt.
+	 */
+	private static boolean isRetryable(Throwable exception) {
+		if (exception instanceof ServiceException) {
+			final var technicalDetails = ((ServiceException) exception).getTechnicalDetails();
+			return (technicalDetails == null) || (technicalDetails.getRootCode() < 400) || (technicalDetails.getRootCode() >= 500);
+		}
+		return true;
+	}
+
+	/**
+	 * A chunk with an invalid message is rejected by api-messaging-service, and will be rejected in the same way on every
+	 * attempt.
+	 */
+	private static boolean isRejected(Throwable exception) {
+		if (exception instanceof ServiceException) {
+			final var technicalDetails = ((ServiceException) exception).getTechnicalDetails();
+			return (technicalDetails != null) && REJECTED_STATUS_CODES.contains(technicalDetails.getRootCode());
+		}
+		return false;
+	}
+
+	private static ThreadFactory namedDaemonThreadFactory(String namePrefix) {
+		final var threadCounter = new AtomicInteger();
+		return runnable -> {
+			final var thread = new Thread(runnable, namePrefix + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Outcome of the delivery of one chunk of messages.
+	 */
+	static class ChunkResult {
+
+		private final List<Long> ids;
+		private final int attempts;
+		private final Duration latency;
+		private final Throwable failure;
+		private final boolean rejected;
+
+		ChunkResult(List<Long> ids, int attempts, Duration latency, Throwable failure, boolean rejected) {
+			this.ids = ids;
+			this.attempts = attempts;
+			this.latency = latency;
+			this.failure = failure;
+			this.rejected = rejected;
+		}
+
+		List<Long> getIds() {
+			return ids;
+		}
+
+		int getAttempts() {
+			return attempts;
+		}
+
+		Duration getLatency() {
+			return latency;
+		}
+
+		Throwable getFailure() {
+			return failure;
+		}
+
+		boolean isFailed() {
+			return failure != null;
+		}
+
+		boolean isRejected() {
+			return rejected;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package se.sundsvall.disturbance.service.message;
+
+/**
+ * Fired when messages have been added to the message outbox. Observed (after a successful commit) by the
+ * MessageOutboxDispatcher, in order to deliver the messages without waiting for the next scheduled dispatch.
+ */
+public class MessagesQueuedEvent {
+
+	private final int numberOfMessages;
+
+	public MessagesQueuedEvent(int numberOfMessages) {
+		this.numberOfMessages = numberOfMessages;
+	}
+
+	public int getNumberOfMessages() {
+		return numberOfMessages;
+	}
+}
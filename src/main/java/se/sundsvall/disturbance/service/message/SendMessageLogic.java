@@ -1,38 +1,46 @@
 package se.sundsvall.disturbance.service.message;
 
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import static java.lang.System.lineSeparator;
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+import static se.sundsvall.disturbance.service.message.util.SendMessageUtils.containsPartyId;
 import static se.sundsvall.disturbance.service.message.util.SendMessageUtils.createMessage;
 import static se.sundsvall.disturbance.service.message.util.SendMessageUtils.getReferenceByPartyId;
+import static se.sundsvall.disturbance.service.message.util.SendMessageUtils.toMessageOutboxEntity;
+import static se.sundsvall.disturbance.service.message.util.SendMessageUtils.toReferenceByPartyIdMap;
 import static se.sundsvall.disturbance.service.util.DateUtils.toMessageDateFormat;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.function.Function;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 
-import org.apache.commons.text.StringSubstitutor;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import generated.se.sundsvall.messaging.Message;
-import generated.se.sundsvall.messaging.MessageRequest;
 import generated.se.sundsvall.messaging.Sender;
-import se.sundsvall.disturbance.api.exception.ServiceException;
-import se.sundsvall.disturbance.api.model.Category;
-import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackHistoryRepository;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.extension.annotations.WithSpan;
 import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackRepository;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
-import se.sundsvall.disturbance.integration.messaging.ApiMessagingClient;
+import se.sundsvall.disturbance.service.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.message.configuration.CategoryTemplates;
 import se.sundsvall.disturbance.service.message.configuration.MessageConfiguration;
 import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+import se.sundsvall.disturbance.service.message.util.MessageTemplate;
 
 @ApplicationScoped
 public class SendMessageLogic {
@@ -47,18 +55,32 @@ public class SendMessageLogic {
 	private static final String MSG_PLANNED_STOP_DATE = "plannedStopDate";
 	private static final String MSG_AFFECTED_REFERENCE = "affected.reference";
 
+	// Message types (used as metric tags).
+	static final String MESSAGE_TYPE_NEW = "new";
+	static final String MESSAGE_TYPE_UPDATE = "update";
+	static final String MESSAGE_TYPE_CLOSE = "close";
+
+	// Span attribute names.
+	static final AttributeKey<String> SPAN_ATTRIBUTE_CATEGORY = stringKey("disturbance.category");
+	static final AttributeKey<Long> SPAN_ATTRIBUTE_RECIPIENTS = longKey("disturbance.recipients");
+
 	@Inject
 	DisturbanceFeedbackRepository disturbanceFeedBackRepository;
 
 	@Inject
-	DisturbanceFeedbackHistoryRepository disturbanceFeedBackHistoryRepository;
+	MessageConfiguration messageConfiguration;
 
 	@Inject
-	MessageConfiguration messageConfiguration;
+	MessageOutboxRepository messageOutboxRepository;
+
+	@Inject
+	Event<MessagesQueuedEvent> messagesQueuedEvent;
+
+	@Inject
+	DisturbanceMetrics disturbanceMetrics;
 
 	@Inject
-	@RestClient
-	ApiMessagingClient apiMessagingClient;
+	Tracer tracer;
 
 	/**
 	 * Send a "closed disturbance" message to all affected persons/organizations in a disturbance with an existing
@@ -67,6 +89,7 @@ public class SendMessageLogic {
 	 * @param disturbanceEntity
 	 */
 	@Transactional
+	@WithSpan
 	public void sendCloseMessageToAllApplicableAffecteds(DisturbanceEntity disturbanceEntity) {
 		sendCloseMessage(disturbanceEntity, disturbanceEntity.getAffectedEntities());
 	}
@@ -81,6 +104,7 @@ public class SendMessageLogic {
 	 * @param affectedEntities  The affectedEntities that will get a message (if a disturbanceFeedback exists)
 	 */
 	@Transactional
+	@WithSpan
 	public void sendCloseMessageToProvidedApplicableAffecteds(DisturbanceEntity disturbanceEntity, List<AffectedEntity> affectedEntities) {
 		sendCloseMessage(disturbanceEntity, affectedEntities);
 	}
@@ -92,20 +116,23 @@ public class SendMessageLogic {
 	 * @param createdDisturbanceEntity
 	 */
 	@Transactional
+	@WithSpan
 	public void sendCreateMessage(DisturbanceEntity createdDisturbanceEntity) {
 
+		final var startTime = System.nanoTime();
+
 		// Fetch all feedbackEntities for this disturbance.
 		final var disturbanceFeedbackEntities = disturbanceFeedBackRepository
-			.findByCategoryAndDisturbanceId(Category.valueOf(createdDisturbanceEntity.getCategory()), createdDisturbanceEntity.getDisturbanceId());
+			.findByCategoryAndDisturbanceId(createdDisturbanceEntity.getCategory(), createdDisturbanceEntity.getDisturbanceId());
 
-		final var messageRequest = new MessageRequest()
-			.messages(disturbanceFeedbackEntities.stream()
-				.map(feedbackEntity -> mapToNewMessage(feedbackEntity, createdDisturbanceEntity))
-				.filter(Objects::nonNull)
-				.collect(toList()));
+		// Index the affecteds (references) by partyId, once for all recipients.
+		final var referenceByPartyId = toReferenceByPartyIdMap(createdDisturbanceEntity.getAffectedEntities());
+
+		final var messages = mapToMessages(disturbanceFeedbackEntities, createdDisturbanceEntity, referenceByPartyId,
+			CategoryTemplates::subjectNew, CategoryTemplates::messageNew);
 
-		// Send messages.
-		sendMessages(messageRequest);
+		// Queue messages.
+		queueMessages(createdDisturbanceEntity, MESSAGE_TYPE_NEW, messages, startTime);
 	}
 
 	/**
@@ -115,155 +142,130 @@ public class SendMessageLogic {
 	 * @param updatedDisturbanceEntity
 	 */
 	@Transactional
+	@WithSpan
 	public void sendUpdateMessage(DisturbanceEntity updatedDisturbanceEntity) {
 
+		final var startTime = System.nanoTime();
+
 		// Fetch all feedbackEntities for this disturbance.
 		final var disturbanceFeedbackEntities = disturbanceFeedBackRepository
-			.findByCategoryAndDisturbanceId(Category.valueOf(updatedDisturbanceEntity.getCategory()), updatedDisturbanceEntity.getDisturbanceId());
-
-		final var messageRequest = new MessageRequest()
-			.messages(disturbanceFeedbackEntities.stream()
-				.map(feedbackEntity -> mapToUpdateMessage(feedbackEntity, updatedDisturbanceEntity))
-				.filter(Objects::nonNull)
-				.collect(toList()));
+			.findByCategoryAndDisturbanceId(updatedDisturbanceEntity.getCategory(), updatedDisturbanceEntity.getDisturbanceId());
 
-		// Send messages.
-		sendMessages(messageRequest);
-	}
+		// Index the affecteds (references) by partyId, once for all recipients.
+		final var referenceByPartyId = toReferenceByPartyIdMap(updatedDisturbanceEntity.getAffectedEntities());
 
-	private void sendCloseMessage(DisturbanceEntity disturbanceEntity, List<AffectedEntity> affectedEntities) {
+		final var messages = mapToMessages(disturbanceFeedbackEntities, updatedDisturbanceEntity, referenceByPartyId,
+			CategoryTemplates::subjectUpdate, CategoryTemplates::messageUpdate);
 
-		// Fetch all feedbackEntities for this disturbance.
-		final var disturbanceFeedbackEntities = disturbanceFeedBackRepository.findByCategoryAndDisturbanceId(Category.valueOf(disturbanceEntity.getCategory()),
-			disturbanceEntity.getDisturbanceId());
-
-		final var messageRequest = new MessageRequest()
-			.messages(disturbanceFeedbackEntities.stream()
-				/**
-				 * The filter below is necessary in order to handle scenario when call is made from
-				 * sendCloseMessageToProvidedApplicableAffecteds(). I.e. when some persons/organizations are removed. We don't want to
-				 * match all disturbanceFeedbackEntities, since this will send mail to all persons/organizations in the disturbance.
-				 */
-				.filter(feedbackEntity -> affectedEntities.stream().anyMatch(affectedEntity -> affectedEntity.getPartyId().equalsIgnoreCase(feedbackEntity.getPartyId())))
-				.map(feedbackEntity -> mapToCloseMessage(feedbackEntity, disturbanceEntity, affectedEntities))
-				.filter(Objects::nonNull)
-				.collect(toList()));
-
-		// Send messages.
-		sendMessages(messageRequest);
+		// Queue messages.
+		queueMessages(updatedDisturbanceEntity, MESSAGE_TYPE_UPDATE, messages, startTime);
 	}
 
-	private void persistFeedbackHistory(DisturbanceFeedbackEntity disturbanceFeedbackEntity) {
-		disturbanceFeedBackHistoryRepository.persistWithStatusSent(disturbanceFeedbackEntity);
-	}
+	private void sendCloseMessage(DisturbanceEntity disturbanceEntity, List<AffectedEntity> affectedEntities) {
 
-	private Message mapToUpdateMessage(DisturbanceFeedbackEntity disturbanceFeedbackEntity, DisturbanceEntity disturbanceEntity) {
+		final var startTime = System.nanoTime();
 
-		// Fetch message properties by category.
-		final var messageConfig = getMessageConfigByCategory(disturbanceEntity.getCategory());
-		if (!messageConfig.active()) {
-			return null;
-		}
+		// Fetch all feedbackEntities for this disturbance.
+		final var disturbanceFeedbackEntities = disturbanceFeedBackRepository.findByCategoryAndDisturbanceId(disturbanceEntity.getCategory(), disturbanceEntity.getDisturbanceId());
 
-		final var propertyResolver = new StringSubstitutor(Map.of(
-			MSG_NEWLINE, lineSeparator(),
-			MSG_TITLE, disturbanceEntity.getTitle(),
-			MSG_DESCRIPTION, disturbanceEntity.getDescription(),
-			MSG_PLANNED_START_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStartDate()),
-			MSG_PLANNED_STOP_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStopDate()),
-			MSG_AFFECTED_REFERENCE, getReferenceByPartyId(disturbanceEntity.getAffectedEntities(), disturbanceFeedbackEntity.getPartyId())));
+		// Index the affecteds (references) by partyId, once for all recipients.
+		final var referenceByPartyId = toReferenceByPartyIdMap(affectedEntities);
 
-		// Assemble message and subject based on the properties.
-		final var sender = new Sender()
-			.emailName(messageConfig.senderEmailName())
-			.emailAddress(messageConfig.senderEmailAddress())
-			.smsName(messageConfig.senderSmsName());
-		final var subject = propertyResolver.replace(messageConfig.subjectUpdate());
-		final var message = propertyResolver.replace(messageConfig.messageUpdate());
+		final var recipients = disturbanceFeedbackEntities.stream()
+			/**
+			 * The filter below is necessary in order to handle scenario when call is made from
+			 * sendCloseMessageToProvidedApplicableAffecteds(). I.e. when some persons/organizations are removed. We don't want to
+			 * match all disturbanceFeedbackEntities, since this will send mail to all persons/organizations in the disturbance.
+			 */
+			.filter(feedbackEntity -> containsPartyId(referenceByPartyId, feedbackEntity.getPartyId()))
+			.collect(toList());
 
-		// Store feedback history.
-		persistFeedbackHistory(disturbanceFeedbackEntity);
+		final var messages = mapToMessages(recipients, disturbanceEntity, referenceByPartyId,
+			CategoryTemplates::subjectClose, CategoryTemplates::messageClose);
 
-		return createMessage(sender, disturbanceFeedbackEntity.getPartyId(), subject, message);
+		// Queue messages.
+		queueMessages(disturbanceEntity, MESSAGE_TYPE_CLOSE, messages, startTime);
 	}
 
-	private Message mapToNewMessage(DisturbanceFeedbackEntity disturbanceFeedbackEntity, DisturbanceEntity disturbanceEntity) {
+	private List<Message> mapToMessages(List<DisturbanceFeedbackEntity> disturbanceFeedbackEntities, DisturbanceEntity disturbanceEntity,
+		Map<String, String> referenceByPartyId, Function<CategoryTemplates, MessageTemplate> subjectTemplateSelector,
+		Function<CategoryTemplates, MessageTemplate> messageTemplateSelector) {
+
+		if (disturbanceFeedbackEntities.isEmpty()) {
+			return emptyList();
+		}
 
 		// Fetch message properties by category.
-		final var messageConfig = getMessageConfigByCategory(disturbanceEntity.getCategory());
+		final var category = disturbanceEntity.getCategory();
+		final var messageConfig = messageConfiguration.getCategoryConfig(category);
 		if (!messageConfig.active()) {
-			return null;
+			return emptyList();
 		}
 
-		final var propertyResolver = new StringSubstitutor(Map.of(
-			MSG_NEWLINE, lineSeparator(),
-			MSG_TITLE, disturbanceEntity.getTitle(),
-			MSG_DESCRIPTION, disturbanceEntity.getDescription(),
-			MSG_PLANNED_START_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStartDate()),
-			MSG_PLANNED_STOP_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStopDate()),
-			MSG_AFFECTED_REFERENCE, getReferenceByPartyId(disturbanceEntity.getAffectedEntities(), disturbanceFeedbackEntity.getPartyId())));
-
-		// Assemble message and subject based on the properties.
-		final var sender = new Sender()
-			.emailName(messageConfig.senderEmailName())
-			.emailAddress(messageConfig.senderEmailAddress())
-			.smsName(messageConfig.senderSmsName());
-		final var subject = propertyResolver.replace(messageConfig.subjectNew());
-		final var message = propertyResolver.replace(messageConfig.messageNew());
-
-		// Store feedback history.
-		persistFeedbackHistory(disturbanceFeedbackEntity);
-
-		return createMessage(sender, disturbanceFeedbackEntity.getPartyId(), subject, message);
+		// The rendering is traced in a span of its own.
+		final var span = tracer.spanBuilder("SendMessageLogic.renderMessages")
+			.setAttribute(SPAN_ATTRIBUTE_CATEGORY, category.name())
+			.setAttribute(SPAN_ATTRIBUTE_RECIPIENTS, (long) disturbanceFeedbackEntities.size())
+			.startSpan();
+		try (var scope = span.makeCurrent()) {
+			return renderMessages(disturbanceFeedbackEntities, disturbanceEntity, referenceByPartyId, messageConfig, messageConfiguration.getCategoryTemplates(category),
+				subjectTemplateSelector, messageTemplateSelector);
+		} finally {
+			span.end();
+		}
 	}
 
-	private Message mapToCloseMessage(DisturbanceFeedbackEntity disturbanceFeedbackEntity, DisturbanceEntity disturbanceEntity, List<AffectedEntity> affectedEntities) {
-
-		// Fetch message properties by category.
-		final var messageConfig = getMessageConfigByCategory(disturbanceEntity.getCategory());
-		if (!messageConfig.active()) {
-			return null;
-		}
+	private List<Message> renderMessages(List<DisturbanceFeedbackEntity> disturbanceFeedbackEntities, DisturbanceEntity disturbanceEntity,
+		Map<String, String> referenceByPartyId, CategoryConfig messageConfig, CategoryTemplates categoryTemplates,
+		Function<CategoryTemplates, MessageTemplate> subjectTemplateSelector, Function<CategoryTemplates, MessageTemplate> messageTemplateSelector) {
 
-		final var propertyResolver = new StringSubstitutor(Map.of(
+		// Render the disturbance properties once, leaving only the affected reference to be rendered for each recipient.
+		final var disturbanceProperties = Map.of(
 			MSG_NEWLINE, lineSeparator(),
 			MSG_TITLE, disturbanceEntity.getTitle(),
 			MSG_DESCRIPTION, disturbanceEntity.getDescription(),
 			MSG_PLANNED_START_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStartDate()),
-			MSG_PLANNED_STOP_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStopDate()),
-			MSG_AFFECTED_REFERENCE, getReferenceByPartyId(affectedEntities, disturbanceFeedbackEntity.getPartyId())));
+			MSG_PLANNED_STOP_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStopDate()));
+		final var subjectTemplate = subjectTemplateSelector.apply(categoryTemplates).bind(disturbanceProperties);
+		final var messageTemplate = messageTemplateSelector.apply(categoryTemplates).bind(disturbanceProperties);
 
-		// Assemble message and subject based on the properties.
 		final var sender = new Sender()
 			.emailName(messageConfig.senderEmailName())
 			.emailAddress(messageConfig.senderEmailAddress())
 			.smsName(messageConfig.senderSmsName());
-		final var subject = propertyResolver.replace(messageConfig.subjectClose());
-		final var message = propertyResolver.replace(messageConfig.messageClose());
 
-		// Store feedback history.
-		persistFeedbackHistory(disturbanceFeedbackEntity);
+		return disturbanceFeedbackEntities.stream()
+			.map(disturbanceFeedbackEntity -> {
+				// Assemble message and subject based on the properties.
+				final var recipientProperties = Map.of(MSG_AFFECTED_REFERENCE, getReferenceByPartyId(referenceByPartyId, disturbanceFeedbackEntity.getPartyId()));
+				final var subject = subjectTemplate.render(recipientProperties);
+				final var message = messageTemplate.render(recipientProperties);
 
-		return createMessage(sender, disturbanceFeedbackEntity.getPartyId(), subject, message);
+				return createMessage(sender, disturbanceFeedbackEntity.getPartyId(), subject, message);
+			})
+			.collect(toList());
 	}
 
-	private void sendMessages(MessageRequest messageRequest) {
-		try {
+	/**
+	 * Store the messages in the message outbox, in the current transaction. The messages are delivered to
+	 * api-messaging-service by the MessageOutboxDispatcher, when the transaction has been committed, and are stored in
+	 * the feedback history of the disturbance when they have been delivered.
+	 *
+	 * The send (from startTime) and the number of messages are recorded in DisturbanceMetrics.
+	 */
+	private void queueMessages(DisturbanceEntity disturbanceEntity, String messageType, List<Message> messages, long startTime) {
 
-			LOGGER.debug("Messages to send to api-messaging-service: '{}'", messageRequest);
+		LOGGER.debug("Messages to queue for api-messaging-service: '{}'", messages);
 
-			// Send messageRequest to api-messaging-service service (if it contains messages).
-			if (isNotEmpty(messageRequest.getMessages())) {
-				LOGGER.info("apiMessagingClient: Sending '{}' messages to api-messaging-service...", messageRequest.getMessages().size());
-				apiMessagingClient.sendMessage(messageRequest);
-				LOGGER.info("apiMessagingClient: Messages sent!");
-			}
-		} catch (ServiceException e) {
-			throw e.asRuntimeException();
+		if (isNotEmpty(messages)) {
+			messageOutboxRepository.persist(messages.stream()
+				.map(message -> toMessageOutboxEntity(disturbanceEntity, message))
+				.collect(toList()));
+			messagesQueuedEvent.fire(new MessagesQueuedEvent(messages.size()));
+
+			LOGGER.info("Queued '{}' messages for api-messaging-service", messages.size());
 		}
-	}
 
-	private CategoryConfig getMessageConfigByCategory(String category) {
-		return messageConfiguration.getCategoryConfig(Category.valueOf(category));
+		disturbanceMetrics.recordMessagesQueued(disturbanceEntity.getCategory(), messageType, messages.size(), Duration.ofNanos(System.nanoTime() - startTime));
 	}
 }
@@ -0,0 +1,54 @@
+package se.sundsvall.disturbance.service.message.configuration;
+
+import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+import se.sundsvall.disturbance.service.message.util.MessageTemplate;
+
+/**
+ * The subject and message templates of a CategoryConfig, compiled into MessageTemplate objects.
+ */
+public class CategoryTemplates {
+
+	private final MessageTemplate subjectClose;
+	private final MessageTemplate subjectNew;
+	private final MessageTemplate subjectUpdate;
+	private final MessageTemplate messageClose;
+	private final MessageTemplate messageNew;
+	private final MessageTemplate messageUpdate;
+
+	private CategoryTemplates(CategoryConfig categoryConfig) {
+		this.subjectClose = MessageTemplate.compile(categoryConfig.subjectClose());
+		this.subjectNew = MessageTemplate.compile(categoryConfig.subjectNew());
+		this.subjectUpdate = MessageTemplate.compile(categoryConfig.subjectUpdate());
+		this.messageClose = MessageTemplate.compile(categoryConfig.messageClose());
+		this.messageNew = MessageTemplate.compile(categoryConfig.messageNew());
+		this.messageUpdate = MessageTemplate.compile(categoryConfig.messageUpdate());
+	}
+
+	public static CategoryTemplates compile(CategoryConfig categoryConfig) {
+		return new CategoryTemplates(categoryConfig);
+	}
+
+	public MessageTemplate subjectClose() {
+		return subjectClose;
+	}
+
+	public MessageTemplate subjectNew() {
+		return subjectNew;
+	}
+
+	public MessageTemplate subjectUpdate() {
+		return subjectUpdate;
+	}
+
+	public MessageTemplate messageClose() {
+		return messageClose;
+	}
+
+	public MessageTemplate messageNew() {
+		return messageNew;
+	}
+
+	public MessageTemplate messageUpdate() {
+		return messageUpdate;
+	}
+}
@@ -1,20 +1,43 @@
 package se.sundsvall.disturbance.service.message.configuration;
 
+import static java.util.Arrays.stream;
+import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.lowerCase;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import io.quarkus.runtime.Startup;
+
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
 
+@Startup
 @ApplicationScoped
 public class MessageConfiguration {
 
 	@Inject
 	MessageConfigurationMapping messageConfigurationMapping;
 
+	private final Map<Category, CategoryTemplates> categoryTemplates = new EnumMap<>(Category.class);
+
+	@PostConstruct
+	void init() {
+		// Compile the templates once, instead of parsing them for every message.
+		stream(Category.values())
+			.forEach(category -> ofNullable(getCategoryConfig(category))
+				.ifPresent(categoryConfig -> categoryTemplates.put(category, CategoryTemplates.compile(categoryConfig))));
+	}
+
 	public CategoryConfig getCategoryConfig(Category category) {
 		return messageConfigurationMapping.template().get(lowerCase(category.name()));
 	}
+
+	public CategoryTemplates getCategoryTemplates(Category category) {
+		return categoryTemplates.get(category);
+	}
 }
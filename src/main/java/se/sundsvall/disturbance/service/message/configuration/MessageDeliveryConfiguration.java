@@ -0,0 +1,55 @@
+package se.sundsvall.disturbance.service.message.configuration;
+
+import java.time.Duration;
+
+import io.quarkus.runtime.annotations.StaticInitSafe;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings for how messages are delivered to api-messaging-service.
+ *
+ * Messages are split into chunks of at most chunkSize messages. The chunks are sent in parallel, with (at most) poolSize
+ * requests in progress at the same time over a pool of poolSize connections, and each chunk is retried independently
+ * (maxAttempts in total) with retryDelay between the attempts. An attempt fails if no response has been received
+ * within requestTimeout.
+ *
+ * The messages are read from the message outbox, every outboxDispatchInterval and right after a transaction that
+ * added messages to the outbox has been committed. Each dispatch claims (at most) outboxBatchSize messages at a time,
+ * and reserves them for outboxLease. Messages that could not be delivered are dispatched again after
+ * outboxRetryBackoff, until they have been dispatched outboxMaxAttempts times.
+ */
+@StaticInitSafe
+@ConfigMapping(prefix = "message-delivery")
+public interface MessageDeliveryConfiguration {
+
+	@WithDefault("500")
+	int chunkSize();
+
+	@WithDefault("4")
+	int poolSize();
+
+	@WithDefault("3")
+	int maxAttempts();
+
+	@WithDefault("PT0.5S")
+	Duration retryDelay();
+
+	@WithDefault("PT30S")
+	Duration requestTimeout();
+
+	@WithDefault("PT5S")
+	Duration outboxDispatchInterval();
+
+	@WithDefault("2000")
+	int outboxBatchSize();
+
+	@WithDefault("10")
+	int outboxMaxAttempts();
+
+	@WithDefault("PT5M")
+	Duration outboxLease();
+
+	@WithDefault("PT1M")
+	Duration outboxRetryBackoff();
+}
@@ -0,0 +1,164 @@
+package se.sundsvall.disturbance.service.message.util;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message template (e.g. "Driftstörning på ${affected.reference}") that is parsed once into a list of text and
+ * variable segments, and then can be rendered any number of times without being parsed again.
+ *
+ * The syntax is the same as for org.apache.commons.text.StringSubstitutor with default settings: variables are written
+ * as ${name}, "$${" is an escaped "${" and variables without a value are left as they are. Unlike StringSubstitutor,
+ * variable values are never substituted themselves.
+ */
+public final class MessageTemplate {
+
+	private static final String VARIABLE_PREFIX = "${";
+	private static final String ESCAPED_VARIABLE_PREFIX = "$${";
+	private static final String VARIABLE_SUFFIX = "}";
+
+	private final List<Segment> segments;
+	private final int textLength;
+
+	private MessageTemplate(List<Segment> segments) {
+		this.segments = unmodifiableList(segments);
+		this.textLength = segments.stream()
+			.filter(segment -> !segment.isVariable())
+			.mapToInt(segment -> segment.getValue().length())
+			.sum();
+	}
+
+	/**
+	 * Parse the provided template.
+	 *
+	 * @param template the template, a null template is treated as an empty template.
+	 * @return the parsed MessageTemplate.
+	 */
+	public static MessageTemplate compile(String template) {
+		final var segments = new ArrayList<Segment>();
+		if (isNull(template)) {
+			return new MessageTemplate(segments);
+		}
+
+		final var text = new StringBuilder();
+		var position = 0;
+		while (position < template.length()) {
+			if (template.startsWith(ESCAPED_VARIABLE_PREFIX, position)) {
+				text.append(VARIABLE_PREFIX);
+				position += ESCAPED_VARIABLE_PREFIX.length();
+			} else if (template.startsWith(VARIABLE_PREFIX, position)) {
+				final var suffixPosition = template.indexOf(VARIABLE_SUFFIX, position + VARIABLE_PREFIX.length());
+				if (suffixPosition < 0) {
+					// Unterminated variable, the rest of the template is text.
+					text.append(template, position, template.length());
+					break;
+				}
+				addText(segments, text);
+				segments.add(Segment.variable(template.substring(position + VARIABLE_PREFIX.length(), suffixPosition)));
+				position = suffixPosition + VARIABLE_SUFFIX.length();
+			} else {
+				text.append(template.charAt(position));
+				position++;
+			}
+		}
+		addText(segments, text);
+
+		return new MessageTemplate(segments);
+	}
+
+	/**
+	 * Return a new template where the variables that have a value in the provided map are replaced by their values. The
+	 * other variables are kept as variables.
+	 *
+	 * @param variables map with variable name as key and variable value as value.
+	 * @return a new MessageTemplate.
+	 */
+	public MessageTemplate bind(Map<String, String> variables) {
+		final var boundSegments = new ArrayList<Segment>();
+		final var text = new StringBuilder();
+		segments.forEach(segment -> {
+			final var value = segment.isVariable() ? variables.get(segment.getValue()) : segment.getValue();
+			if (isNull(value)) {
+				addText(boundSegments, text);
+				boundSegments.add(segment);
+			} else {
+				text.append(value);
+			}
+		});
+		addText(boundSegments, text);
+
+		return new MessageTemplate(boundSegments);
+	}
+
+	/**
+	 * Render the template.
+	 *
+	 * @param variables map with variable name as key and variable value as value.
+	 * @return the rendered template, where variables without a value are left as they are (i.e. "${name}").
+	 */
+	public String render(Map<String, String> variables) {
+		final var result = new StringBuilder(textLength + (segments.size() * 16));
+		segments.forEach(segment -> {
+			if (!segment.isVariable()) {
+				result.append(segment.getValue());
+				return;
+			}
+			final var value = variables.get(segment.getValue());
+			if (isNull(value)) {
+				result.append(VARIABLE_PREFIX).append(segment.getValue()).append(VARIABLE_SUFFIX);
+			} else {
+				result.append(value);
+			}
+		});
+
+		return result.toString();
+	}
+
+	/**
+	 * Render the template without any variable values.
+	 *
+	 * @return the rendered template.
+	 */
+	public String render() {
+		return render(emptyMap());
+	}
+
+	private static void addText(List<Segment> segments, StringBuilder text) {
+		if (text.length() > 0) {
+			segments.add(Segment.text(text.toString()));
+			text.setLength(0);
+		}
+	}
+
+	private static final class Segment {
+
+		private final String value;
+		private final boolean variable;
+
+		private Segment(String value, boolean variable) {
+			this.value = value;
+			this.variable = variable;
+		}
+
+		static Segment text(String text) {
+			return new Segment(text, false);
+		}
+
+		static Segment variable(String name) {
+			return new Segment(name, true);
+		}
+
+		String getValue() {
+			return value;
+		}
+
+		boolean isVariable() {
+			return variable;
+		}
+	}
+}
@@ -1,35 +1,68 @@
 package se.sundsvall.disturbance.service.message.util;
 
 import static java.util.Collections.emptyList;
+import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import generated.se.sundsvall.messaging.Message;
 import generated.se.sundsvall.messaging.Sender;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
 
 public class SendMessageUtils {
 
 	private SendMessageUtils() {}
 
 	/**
-	 * Return the reference attribute value from the AffectedEntity that matches the provided partyId. The reference
-	 * attribute holds the customer specific information. Such as street name connection-point, etc.
+	 * Return a map with the reference attribute value for each partyId in the provided affectedEntities. The map is
+	 * intended to be created once per send operation, and used with getReferenceByPartyId(Map, String) for each recipient.
+	 * 
+	 * The map keys are lower case partyIds, which makes the lookup case insensitive. If a partyId occurs more than once,
+	 * the first reference is used.
 	 * 
 	 * @param affectedEntities
-	 * @param partyId          (same as personId or organizationId)
+	 * @return a map with (lower case) partyId as key and reference as value.
+	 */
+	public static Map<String, String> toReferenceByPartyIdMap(List<AffectedEntity> affectedEntities) {
+		final var referenceByPartyId = new HashMap<String, String>();
+		ofNullable(affectedEntities).orElse(emptyList()).stream()
+			.filter(affectedEntity -> nonNull(affectedEntity.getPartyId()))
+			.forEach(affectedEntity -> referenceByPartyId.putIfAbsent(lowerCase(affectedEntity.getPartyId()), affectedEntity.getReference()));
+
+		return referenceByPartyId;
+	}
+
+	/**
+	 * Return the reference attribute value that matches the provided partyId (ignoring case).
+	 * 
+	 * @param referenceByPartyId a map created by toReferenceByPartyIdMap(List).
+	 * @param partyId            (same as personId or organizationId)
 	 * @return The matching reference value or an empty string if nothing was found.
 	 */
-	public static String getReferenceByPartyId(List<AffectedEntity> affectedEntities, String partyId) {
-		return ofNullable(affectedEntities).orElse(emptyList()).stream()
-			.filter(affectedEntity -> affectedEntity.getPartyId().equalsIgnoreCase(partyId))
-			.map(AffectedEntity::getReference)
-			.findFirst()
+	public static String getReferenceByPartyId(Map<String, String> referenceByPartyId, String partyId) {
+		return ofNullable(partyId)
+			.map(id -> referenceByPartyId.get(lowerCase(id)))
 			.orElse(EMPTY);
 	}
 
+	/**
+	 * Check if the provided partyId exists (ignoring case) in the map.
+	 * 
+	 * @param referenceByPartyId a map created by toReferenceByPartyIdMap(List).
+	 * @param partyId            (same as personId or organizationId)
+	 * @return true if the partyId exists in the map, false otherwise.
+	 */
+	public static boolean containsPartyId(Map<String, String> referenceByPartyId, String partyId) {
+		return nonNull(partyId) && referenceByPartyId.containsKey(lowerCase(partyId));
+	}
+
 	/**
 	 * Create a Message object from provided parameters.
 	 * 
@@ -47,4 +80,42 @@ public class SendMessageUtils {
 			.message(messageText)
 			.subject(subject);
 	}
+
+	/**
+	 * Create a MessageOutboxEntity (i.e. a message that is waiting for delivery) from a Message object.
+	 * 
+	 * @param disturbanceEntity the disturbance that the message is about.
+	 * @param message
+	 * @return A MessageOutboxEntity object.
+	 */
+	public static MessageOutboxEntity toMessageOutboxEntity(DisturbanceEntity disturbanceEntity, Message message) {
+		final var messageOutboxEntity = new MessageOutboxEntity();
+		messageOutboxEntity.setPartyId(message.getPartyId());
+		messageOutboxEntity.setCategory(disturbanceEntity.getCategory());
+		messageOutboxEntity.setDisturbanceId(disturbanceEntity.getDisturbanceId());
+		messageOutboxEntity.setSubject(message.getSubject());
+		messageOutboxEntity.setMessage(message.getMessage());
+		ofNullable(message.getSender()).ifPresent(sender -> {
+			messageOutboxEntity.setSenderEmailName(sender.getEmailName());
+			messageOutboxEntity.setSenderEmailAddress(sender.getEmailAddress());
+			messageOutboxEntity.setSenderSmsName(sender.getSmsName());
+		});
+
+		return messageOutboxEntity;
+	}
+
+	/**
+	 * Create a Message object from a MessageOutboxEntity.
+	 * 
+	 * @param messageOutboxEntity
+	 * @return A Message object.
+	 */
+	public static Message toMessage(MessageOutboxEntity messageOutboxEntity) {
+		final var sender = new Sender()
+			.emailName(messageOutboxEntity.getSenderEmailName())
+			.emailAddress(messageOutboxEntity.getSenderEmailAddress())
+			.smsName(messageOutboxEntity.getSenderSmsName());
+
+		return createMessage(sender, messageOutboxEntity.getPartyId(), messageOutboxEntity.getSubject(), messageOutboxEntity.getMessage());
+	}
 }
@@ -0,0 +1,37 @@
+package se.sundsvall.disturbance.service.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Base64;
+import java.util.Optional;
+
+public class CursorUtils {
+
+	private CursorUtils() {}
+
+	/**
+	 * Encodes the id of the last element on a page into an opaque (URL safe) cursor, that can be used to fetch the next
+	 * page (i.e. the elements with an id greater than the encoded one).
+	 * 
+	 * @param id the id of the last element on the page.
+	 * @return the cursor.
+	 */
+	public static String toCursor(long id) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(UTF_8));
+	}
+
+	/**
+	 * Decodes a cursor created by toCursor.
+	 * 
+	 * @param cursor the cursor.
+	 * @return an Optional with the id encoded in the cursor, or an empty Optional if the cursor isn't valid.
+	 */
+	public static Optional<Long> fromCursor(String cursor) {
+		try {
+			final var id = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), UTF_8));
+			return (id >= 0) ? Optional.of(id) : Optional.empty();
+		} catch (IllegalArgumentException | NullPointerException e) {
+			return Optional.empty();
+		}
+	}
+}
@@ -4,10 +4,13 @@ import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
-import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
+import static java.util.stream.Collectors.toSet;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
 
 import java.util.List;
 
+import org.apache.commons.lang3.tuple.Pair;
+
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
 
@@ -35,13 +38,24 @@ public class DisturbanceUtils {
 		if (isNull(newDisturbanceEntity.getAffectedEntities())) {
 			return emptyList();
 		}
+
+		final var newAffectedKeys = newDisturbanceEntity.getAffectedEntities().stream()
+			.map(DisturbanceUtils::toAffectedEntityKey)
+			.collect(toSet());
+
 		return ofNullable(oldDisturbanceEntity.getAffectedEntities()).orElse(emptyList()).stream()
-			.filter(oldEntity -> !existsInList(oldEntity, newDisturbanceEntity.getAffectedEntities()))
+			.filter(oldEntity -> !newAffectedKeys.contains(toAffectedEntityKey(oldEntity)))
 			.collect(toList());
 	}
 
-	private static boolean existsInList(AffectedEntity objectToCheck, List<AffectedEntity> list) {
-		return ofNullable(list).orElse(emptyList()).stream()
-			.anyMatch(entity -> equalsIgnoreCase(entity.getPartyId(), objectToCheck.getPartyId()) && equalsIgnoreCase(entity.getReference(), objectToCheck.getReference()));
+	/**
+	 * Returns a key that identifies an AffectedEntity within a disturbance. Two AffectedEntity objects are considered to be
+	 * the same affected if partyId and reference are equal (ignoring case).
+	 * 
+	 * @param affectedEntity
+	 * @return a key based on the partyId and reference of the affectedEntity.
+	 */
+	public static Pair<String, String> toAffectedEntityKey(AffectedEntity affectedEntity) {
+		return Pair.of(lowerCase(affectedEntity.getPartyId()), lowerCase(affectedEntity.getReference()));
 	}
 }
@@ -0,0 +1,134 @@
+package se.sundsvall.disturbance.service.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+import se.sundsvall.disturbance.api.model.AffectedsInclusion;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceRevision;
+import se.sundsvall.disturbance.service.DisturbancePage;
+
+/**
+ * Creates (strong) entity tags for disturbances.
+ *
+ * The entity tag of a disturbance is derived from its category, id, created/updated timestamps and version, i.e. the same
+ * entity tag is created from a mapped Disturbance and from the DisturbanceRevision of the same disturbance. This makes it
+ * possible to validate an entity tag without loading the disturbance. The version tells apart two updates within the
+ * same millisecond (i.e. with the same updated timestamp). The entity tag of a page also covers the affecteds included
+ * in each disturbance, since the same disturbances are represented differently depending on it.
+ */
+public class EtagUtils {
+
+	private EtagUtils() {}
+
+	public static String toEtag(Disturbance disturbance) {
+		return hash(List.of(toRevisionKey(disturbance.getCategory(), disturbance.getId(), disturbance.getCreated(), disturbance.getUpdated(), disturbance.getVersion())),
+			null, null);
+	}
+
+	public static String toEtag(DisturbanceEntity disturbanceEntity) {
+		return hash(List.of(toRevisionKey(disturbanceEntity.getCategory(), disturbanceEntity.getDisturbanceId(), disturbanceEntity.getCreated(), disturbanceEntity.getUpdated(),
+			disturbanceEntity.getVersion())), null, null);
+	}
+
+	public static String toEtag(DisturbanceRevision disturbanceRevision) {
+		return hash(List.of(toRevisionKey(disturbanceRevision)), null, null);
+	}
+
+	public static String toEtag(DisturbancePage disturbancePage) {
+		return hash(disturbancePage.getDisturbances().stream()
+			.map(disturbance -> toRevisionKey(disturbance.getCategory(), disturbance.getId(), disturbance.getCreated(), disturbance.getUpdated(), disturbance.getVersion()))
+			.collect(toList()), disturbancePage.getNextCursor(), toInclusionKey(disturbancePage.getAffectedsInclusion()));
+	}
+
+	/**
+	 * Returns the entity tag of a page of disturbances.
+	 * 
+	 * @param disturbanceRevisions the revisions of the disturbances on the page.
+	 * @param nextCursor           the cursor to the next page (null if there is no next page).
+	 * @param affectedsInclusion   the affecteds included in each disturbance on the page (ALL if null).
+	 * @return the entity tag (without quotes).
+	 */
+	public static String toEtag(List<DisturbanceRevision> disturbanceRevisions, String nextCursor, AffectedsInclusion affectedsInclusion) {
+		return hash(disturbanceRevisions.stream()
+			.map(EtagUtils::toRevisionKey)
+			.collect(toList()), nextCursor, toInclusionKey(affectedsInclusion));
+	}
+
+	/**
+	 * Checks if an If-Match header value matches an entity tag, with strong comparison (i.e. weak entity tags never match).
+	 * 
+	 * @param ifMatch the If-Match header value, i.e. "*" or a comma separated list of (quoted) entity tags.
+	 * @param etag    the entity tag (without quotes).
+	 * @return true if the If-Match header value matches the entity tag.
+	 */
+	public static boolean matches(String ifMatch, String etag) {
+		if (isNull(ifMatch)) {
+			return false;
+		}
+		if ("*".equals(ifMatch.trim())) {
+			return true;
+		}
+
+		return Arrays.stream(ifMatch.split(","))
+			.map(String::trim)
+			.filter(entityTag -> entityTag.length() > 1 && entityTag.startsWith("\"") && entityTag.endsWith("\""))
+			.map(entityTag -> entityTag.substring(1, entityTag.length() - 1))
+			.anyMatch(etag::equals);
+	}
+
+	private static String toRevisionKey(DisturbanceRevision disturbanceRevision) {
+		return toRevisionKey(disturbanceRevision.getCategory(), disturbanceRevision.getDisturbanceId(), disturbanceRevision.getCreated(), disturbanceRevision.getUpdated(),
+			disturbanceRevision.getVersion());
+	}
+
+	private static String toRevisionKey(Category category, String disturbanceId, OffsetDateTime created, OffsetDateTime updated, Long version) {
+		// The timestamps are compared as instants, since the offset depends on whether they are read from the DB or not.
+		return String.join("\n", String.valueOf(category), disturbanceId, toEpochMilli(created), toEpochMilli(updated), Objects.toString(version, ""));
+	}
+
+	private static String toInclusionKey(AffectedsInclusion affectedsInclusion) {
+		// No affecteds parameter gives the same representation as ALL, i.e. the same entity tag.
+		return String.valueOf(isNull(affectedsInclusion) ? AffectedsInclusion.ALL : affectedsInclusion);
+	}
+
+	private static String hash(List<String> revisionKeys, String nextCursor, String inclusionKey) {
+		final var messageDigest = sha256();
+		revisionKeys.forEach(revisionKey -> {
+			messageDigest.update(revisionKey.getBytes(UTF_8));
+			messageDigest.update((byte) 0);
+		});
+		messageDigest.update(String.valueOf(nextCursor).getBytes(UTF_8));
+		if (nonNull(inclusionKey)) {
+			messageDigest.update((byte) 0);
+			messageDigest.update(inclusionKey.getBytes(UTF_8));
+		}
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(messageDigest.digest());
+	}
+
+	private static String toEpochMilli(OffsetDateTime offsetDateTime) {
+		return isNull(offsetDateTime) ? "" : String.valueOf(offsetDateTime.toInstant().toEpochMilli());
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+}
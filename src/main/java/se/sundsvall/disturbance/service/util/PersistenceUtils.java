@@ -0,0 +1,33 @@
+package se.sundsvall.disturbance.service.util;
+
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+public class PersistenceUtils {
+
+	private PersistenceUtils() {}
+
+	/**
+	 * Checks if an exception is caused by a violation of the provided (unique) constraint.
+	 * 
+	 * The constraint name is matched ignoring case and any prefix/suffix that the database adds to it (e.g. the schema
+	 * name), since the format of the name in the error differs between databases.
+	 * 
+	 * @param throwable      the exception (e.g. thrown when the persistence context is flushed).
+	 * @param constraintName the name of the constraint.
+	 * @return true if the exception (or any of its causes) is a violation of the constraint, false otherwise.
+	 */
+	public static boolean isConstraintViolation(Throwable throwable, String constraintName) {
+		for (var cause = throwable; nonNull(cause); cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException) {
+				final var constraintViolationException = (ConstraintViolationException) cause;
+				return containsIgnoreCase(constraintViolationException.getConstraintName(), constraintName) ||
+					containsIgnoreCase(constraintViolationException.getSQLException().getMessage(), constraintName);
+			}
+		}
+
+		return false;
+	}
+}
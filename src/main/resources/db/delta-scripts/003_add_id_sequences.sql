@@ -0,0 +1,28 @@
+-- Create id sequences to enable JDBC batch inserts. The sequences start at the current max id plus the increment
+-- (i.e. the allocationSize of the entities), since the pooled optimizer of Hibernate uses the block of ids up to and
+-- including the first sequence value.
+SET @start = (SELECT COALESCE(MAX(id), 0) + 50 FROM affected);
+SET @sql = CONCAT('CREATE SEQUENCE IF NOT EXISTS affected_seq START WITH ', @start, ' INCREMENT BY 50');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @start = (SELECT COALESCE(MAX(id), 0) + 50 FROM disturbance_feedback);
+SET @sql = CONCAT('CREATE SEQUENCE IF NOT EXISTS disturbance_feedback_seq START WITH ', @start, ' INCREMENT BY 50');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @start = (SELECT COALESCE(MAX(id), 0) + 50 FROM disturbance_feedback_history);
+SET @sql = CONCAT('CREATE SEQUENCE IF NOT EXISTS disturbance_feedback_history_seq START WITH ', @start, ' INCREMENT BY 50');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Id values are now assigned from the sequences (by the application).
+ALTER TABLE affected MODIFY COLUMN id bigint NOT NULL;
+ALTER TABLE disturbance_feedback MODIFY COLUMN id bigint NOT NULL;
+ALTER TABLE disturbance_feedback_history MODIFY COLUMN id bigint NOT NULL;
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('003','Added id sequences for affected, disturbance_feedback and disturbance_feedback_history', NOW());
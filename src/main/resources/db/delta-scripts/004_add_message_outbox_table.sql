@@ -0,0 +1,20 @@
+create sequence if not exists message_outbox_seq start with 1 increment by 50;
+
+create table if not exists message_outbox (
+   id bigint not null,
+    attempts integer not null,
+    created datetime(6),
+    dispatch_after datetime(6),
+    message mediumtext,
+    party_id varchar(255) not null,
+    sender_email_address varchar(255),
+    sender_email_name varchar(255),
+    sender_sms_name varchar(255),
+    subject varchar(1024),
+    primary key (id)
+) engine=InnoDB;
+
+create index if not exists dispatch_after_index on message_outbox (dispatch_after);
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('004','Added message_outbox table', NOW());
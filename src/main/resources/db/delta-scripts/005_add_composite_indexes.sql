@@ -0,0 +1,12 @@
+-- Composite indexes matching the lookups on (category, disturbance_id[, party_id]).
+create index if not exists category_disturbance_id_deleted_index on disturbance (category, disturbance_id, deleted);
+create index if not exists category_disturbance_id_party_id_index on disturbance_feedback (category, disturbance_id, party_id);
+create index if not exists party_id_index on disturbance_feedback (party_id);
+create index if not exists category_disturbance_id_party_id_index on disturbance_feedback_history (category, disturbance_id, party_id);
+create index if not exists party_id_parent_id_index on affected (party_id, parent_id);
+
+-- Replaced by category_disturbance_id_deleted_index (category is its first column).
+drop index if exists category_index on disturbance;
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('005','Added composite indexes for disturbance, disturbance_feedback, disturbance_feedback_history and affected', NOW());
@@ -0,0 +1,5 @@
+-- Version column for optimistic locking of disturbances.
+alter table disturbance add column if not exists version bigint not null default 0;
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('006','Added version column to disturbance', NOW());
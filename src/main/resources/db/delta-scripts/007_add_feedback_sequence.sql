@@ -0,0 +1,14 @@
+-- Create id sequence for feedback to enable JDBC batch inserts. The sequence starts at the current max id plus the
+-- increment (i.e. the allocationSize of the entity), since the pooled optimizer of Hibernate uses the block of ids up
+-- to and including the first sequence value.
+SET @start = (SELECT COALESCE(MAX(id), 0) + 50 FROM feedback);
+SET @sql = CONCAT('CREATE SEQUENCE IF NOT EXISTS feedback_seq START WITH ', @start, ' INCREMENT BY 50');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Id values are now assigned from the sequence (by the application).
+ALTER TABLE feedback MODIFY COLUMN id bigint NOT NULL;
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('007','Added id sequence for feedback', NOW());
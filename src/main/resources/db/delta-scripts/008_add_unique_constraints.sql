@@ -0,0 +1,21 @@
+-- Remove duplicates (that could be created by concurrent requests before the unique constraints existed).
+delete f1 from feedback f1 join feedback f2 on f1.party_id = f2.party_id and f1.id > f2.id;
+delete df1 from disturbance_feedback df1 join disturbance_feedback df2
+    on df1.category = df2.category and df1.disturbance_id = df2.disturbance_id and df1.party_id = df2.party_id and df1.id > df2.id;
+update disturbance d1 join disturbance d2
+    on d1.category = d2.category and d1.disturbance_id = d2.disturbance_id and d1.deleted = 0 and d2.deleted = 0 and d1.id < d2.id
+    set d1.deleted = 1;
+
+-- 1 for non deleted disturbances, otherwise null (i.e. the unique constraint doesn't apply to deleted disturbances).
+alter table disturbance add column if not exists active tinyint as (case when deleted = 0 then 1 end);
+
+alter table disturbance add constraint uq_disturbance_category_disturbance_id_active unique (category, disturbance_id, active);
+alter table feedback add constraint uq_feedback_party_id unique (party_id);
+alter table disturbance_feedback add constraint uq_disturbance_feedback_category_disturbance_id_party_id unique (category, disturbance_id, party_id);
+
+-- Replaced by the unique constraints (with the same columns).
+drop index if exists party_id_index on feedback;
+drop index if exists category_disturbance_id_party_id_index on disturbance_feedback;
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('008','Added unique constraints for disturbance, feedback and disturbance_feedback', NOW());
@@ -0,0 +1,8 @@
+-- Status added to the (category, disturbance_id, deleted) index, so that existence/status lookups are answered by the index alone.
+create index if not exists category_disturbance_id_deleted_status_index on disturbance (category, disturbance_id, deleted, status);
+
+-- Replaced by category_disturbance_id_deleted_status_index (same leading columns).
+drop index if exists category_disturbance_id_deleted_index on disturbance;
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('009','Added status to category_disturbance_id_deleted index on disturbance', NOW());
@@ -0,0 +1,40 @@
+-- Category and status stored as compact codes (see CategoryConverter and StatusConverter), instead of the enum names.
+update disturbance set
+	category = case category
+		when 'COMMUNICATION' then 'CO'
+		when 'DISTRICT_COOLING' then 'DC'
+		when 'DISTRICT_HEATING' then 'DH'
+		when 'ELECTRICITY' then 'EL'
+		when 'WATER' then 'WA'
+		else category end,
+	status = case status
+		when 'CLOSED' then 'C'
+		when 'OPEN' then 'O'
+		when 'PLANNED' then 'P'
+		else status end;
+
+update disturbance_feedback set
+	category = case category
+		when 'COMMUNICATION' then 'CO'
+		when 'DISTRICT_COOLING' then 'DC'
+		when 'DISTRICT_HEATING' then 'DH'
+		when 'ELECTRICITY' then 'EL'
+		when 'WATER' then 'WA'
+		else category end;
+
+update disturbance_feedback_history set
+	category = case category
+		when 'COMMUNICATION' then 'CO'
+		when 'DISTRICT_COOLING' then 'DC'
+		when 'DISTRICT_HEATING' then 'DH'
+		when 'ELECTRICITY' then 'EL'
+		when 'WATER' then 'WA'
+		else category end;
+
+-- The indexes containing the columns are rebuilt with the shorter column types.
+alter table disturbance modify category varchar(2) not null, modify status varchar(1) not null;
+alter table disturbance_feedback modify category varchar(2) not null;
+alter table disturbance_feedback_history modify category varchar(2) not null;
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('010','Stored category and status as codes in disturbance, disturbance_feedback and disturbance_feedback_history', NOW());
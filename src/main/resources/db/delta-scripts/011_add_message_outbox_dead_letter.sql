@@ -0,0 +1,11 @@
+-- Messages that are rejected by api-messaging-service, or that run out of attempts, are kept as dead letters. Messages
+-- that already have run out of attempts are marked as dead letters by the next dispatch.
+alter table message_outbox add column if not exists dead_letter bit not null default 0;
+
+create index if not exists dead_letter_dispatch_after_index on message_outbox (dead_letter, dispatch_after);
+
+-- Replaced by dead_letter_dispatch_after_index (the claims are made on both columns).
+drop index if exists dispatch_after_index on message_outbox;
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('011','Added dead_letter to message_outbox', NOW());
@@ -0,0 +1,6 @@
+-- The disturbance of each message, stored in the feedback history (disturbance_feedback_history) when the message has
+-- been delivered. Messages that were queued before this change already are stored in the feedback history.
+alter table message_outbox add column if not exists category varchar(2), add column if not exists disturbance_id varchar(255);
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('012','Added category and disturbance_id to message_outbox', NOW());
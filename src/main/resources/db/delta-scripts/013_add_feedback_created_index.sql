@@ -0,0 +1,5 @@
+-- The feedback created since the last reload of the (in-process) feedback cache is looked up by the created timestamp.
+create index if not exists created_index on feedback (created);
+
+-- Necessary line in order to document the change. 
+INSERT INTO disturbance.schema_history (schema_version,comment,applied) VALUES ('013','Added created_index to feedback', NOW());
@@ -20,6 +20,8 @@ import se.sundsvall.disturbance.api.exception.model.ServiceErrorResponse;
 import se.sundsvall.disturbance.api.exception.model.TechnicalDetails;
 import se.sundsvall.disturbance.api.model.Affected;
 import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchUpdateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceFeedbackCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
@@ -137,6 +139,44 @@ class DisturbanceResourceFailuresTest {
 		verifyNoInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
 	}
 
+	@Test
+	void processDisturbanceBatchMissingIds() {
+
+		final var body = DisturbanceBatchRequest.create() // Body with missing ids.
+			.withCreate(List.of(DisturbanceCreateRequest.create()
+				.withCategory(Category.COMMUNICATION)
+				.withTitle("Title")
+				.withDescription("Description")
+				.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)))
+			.withUpdate(List.of(DisturbanceBatchUpdateRequest.create()
+				.withCategory(Category.COMMUNICATION)
+				.withUpdate(DisturbanceUpdateRequest.create())));
+
+		final var response = given()
+			.contentType(APPLICATION_JSON)
+			.body(body)
+			.when()
+			.post("/disturbances/batch")
+			.then().assertThat()
+			.statusCode(BAD_REQUEST.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.extract().as(ServiceErrorResponse.class);
+
+		assertThat(response).isNotNull();
+		assertThat(response.getMessage()).isEqualTo("Request validation failed!");
+		assertThat(response.getHttpCode()).isEqualTo(BAD_REQUEST.getStatusCode());
+		assertThat(response.getTechnicalDetails()).isEqualTo(TechnicalDetails.create()
+			.withRootCode(BAD_REQUEST.getStatusCode())
+			.withRootCause("Constraint violation")
+			.withServiceId(applicationName)
+			.withDetails(List.of(
+				"body.create[0].id: must not be null",
+				"body.update[0].id: must not be null",
+				"Request: /disturbances/batch")));
+
+		verifyNoInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
 	@Test
 	void createDisturbanceMissingCategory() {
 
@@ -293,6 +333,37 @@ class DisturbanceResourceFailuresTest {
 		verifyNoInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
 	}
 
+	@Test
+	void getDisturbancesByPartyIdLimitOutOfRange() {
+
+		// Parameter values
+		final var partyId = UUID.randomUUID().toString();
+
+		final var response = given()
+			.pathParam("partyId", partyId)
+			.queryParam("limit", 0)
+			.contentType(APPLICATION_JSON)
+			.when()
+			.get("/disturbances/affecteds/{partyId}")
+			.then().assertThat()
+			.statusCode(BAD_REQUEST.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.extract().as(ServiceErrorResponse.class);
+
+		assertThat(response).isNotNull();
+		assertThat(response.getMessage()).isEqualTo("Request validation failed!");
+		assertThat(response.getHttpCode()).isEqualTo(BAD_REQUEST.getStatusCode());
+		assertThat(response.getTechnicalDetails()).isEqualTo(TechnicalDetails.create()
+			.withRootCode(BAD_REQUEST.getStatusCode())
+			.withRootCause("Constraint violation")
+			.withServiceId(applicationName)
+			.withDetails(List.of(
+				"limit: must be greater than or equal to 1",
+				"Request: /disturbances/affecteds/" + partyId)));
+
+		verifyNoInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
 	@Test
 	void getDisturbancesByPartyIdBadCategory() {
 
@@ -355,6 +426,47 @@ class DisturbanceResourceFailuresTest {
 		verifyNoInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
 	}
 
+	@Test
+	void subscribeToEventsByPartyIdBadPartyId() {
+
+		final var response = given()
+			.pathParam("partyId", "this-is-not-an-uuid")
+			.when()
+			.get("/disturbances/affecteds/{partyId}/events")
+			.then().assertThat()
+			.statusCode(BAD_REQUEST.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.extract().as(ServiceErrorResponse.class);
+
+		assertThat(response).isNotNull();
+		assertThat(response.getMessage()).isEqualTo("Request validation failed!");
+		assertThat(response.getTechnicalDetails().getDetails()).containsExactly(
+			"partyId: not a valid UUID",
+			"Request: /disturbances/affecteds/this-is-not-an-uuid/events");
+
+		verifyNoInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
+	@Test
+	void subscribeToEventsByCategoryMissingCategory() {
+
+		final var response = given()
+			.when()
+			.get("/disturbances/events")
+			.then().assertThat()
+			.statusCode(BAD_REQUEST.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.extract().as(ServiceErrorResponse.class);
+
+		assertThat(response).isNotNull();
+		assertThat(response.getMessage()).isEqualTo("Request validation failed!");
+		assertThat(response.getTechnicalDetails().getDetails()).containsExactly(
+			"category: must not be empty",
+			"Request: /disturbances/events");
+
+		verifyNoInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
 	/**
 	 * Get disturbance tests:
 	 */
@@ -2,35 +2,55 @@ package se.sundsvall.disturbance.api;
 
 import static io.restassured.RestAssured.given;
 import static java.util.Collections.emptyList;
+import static javax.ws.rs.core.HttpHeaders.ETAG;
+import static javax.ws.rs.core.HttpHeaders.IF_MATCH;
+import static javax.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
+import static javax.ws.rs.core.HttpHeaders.LINK;
 import static javax.ws.rs.core.HttpHeaders.LOCATION;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.Status.CREATED;
+import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
 import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.OK;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.emptyOrNullString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.service.util.EtagUtils.toEtag;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
 import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.api.model.AffectedsInclusion;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchResult;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchUpdateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceFeedbackCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.service.DisturbanceFeedbackService;
+import se.sundsvall.disturbance.service.DisturbancePage;
 import se.sundsvall.disturbance.service.DisturbanceService;
 
 @QuarkusTest
@@ -48,6 +68,8 @@ class DisturbanceResourceTest {
 		// Parameters
 		final var partyId = UUID.randomUUID().toString();
 
+		when(disturbanceServiceMock.findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, null)).thenReturn(new DisturbancePage(emptyList(), null, null));
+
 		final var response = given()
 			.pathParam("partyId", partyId)
 			.contentType(APPLICATION_JSON)
@@ -56,11 +78,12 @@ class DisturbanceResourceTest {
 			.then().assertThat()
 			.statusCode(OK.getStatusCode())
 			.contentType(equalTo(APPLICATION_JSON))
+			.header(LINK, nullValue())
 			.extract()
 			.as(Disturbance[].class);
 
 		assertThat(response).isNotNull();
-		verify(disturbanceServiceMock).findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList());
+		verify(disturbanceServiceMock).findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, null);
 		verifyNoMoreInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
 	}
 
@@ -72,6 +95,8 @@ class DisturbanceResourceTest {
 		final var categoryFilter = List.of(Category.COMMUNICATION, Category.ELECTRICITY);
 		final var statusFilter = List.of(se.sundsvall.disturbance.api.model.Status.PLANNED, se.sundsvall.disturbance.api.model.Status.OPEN);
 
+		when(disturbanceServiceMock.findByPartyIdAndCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null, null)).thenReturn(new DisturbancePage(emptyList(), null, null));
+
 		final var response = given()
 			.pathParam("partyId", partyId)
 			.queryParam("category", categoryFilter)
@@ -85,7 +110,158 @@ class DisturbanceResourceTest {
 			.extract().as(Disturbance[].class);
 
 		assertThat(response).isNotNull();
-		verify(disturbanceServiceMock).findByPartyIdAndCategoryAndStatus(partyId, categoryFilter, statusFilter);
+		verify(disturbanceServiceMock).findByPartyIdAndCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null, null);
+		verifyNoMoreInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
+	@Test
+	void getDisturbancesByPartyIdWithPaginationParameters() throws ServiceException {
+
+		// Parameters
+		final var partyId = UUID.randomUUID().toString();
+		final var cursor = "Mw";
+		final var nextCursor = "NA";
+		final var limit = 1;
+
+		when(disturbanceServiceMock.findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), cursor, limit, AffectedsInclusion.PARTY))
+			.thenReturn(new DisturbancePage(List.of(Disturbance.create().withId("disturbanceId")), nextCursor, AffectedsInclusion.PARTY));
+
+		final var response = given()
+			.pathParam("partyId", partyId)
+			.queryParam("cursor", cursor)
+			.queryParam("limit", limit)
+			.queryParam("affecteds", AffectedsInclusion.PARTY)
+			.contentType(APPLICATION_JSON)
+			.when()
+			.get("/disturbances/affecteds/{partyId}")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.header(LINK, allOf(containsString("rel=\"next\""), containsString("cursor=" + nextCursor), containsString("limit=" + limit), containsString("affecteds=PARTY")))
+			.extract().as(Disturbance[].class);
+
+		assertThat(response).extracting(Disturbance::getId).containsExactly("disturbanceId");
+		verify(disturbanceServiceMock).findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), cursor, limit, AffectedsInclusion.PARTY);
+		verifyNoMoreInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
+	@Test
+	void getDisturbancesByPartyIdNotModified() throws ServiceException {
+
+		// Parameters
+		final var partyId = UUID.randomUUID().toString();
+		final var etag = "the-etag";
+		final var limit = 10;
+
+		when(disturbanceServiceMock.findEtagByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, limit, null)).thenReturn(etag);
+
+		given()
+			.pathParam("partyId", partyId)
+			.queryParam("limit", limit)
+			.header(IF_NONE_MATCH, "\"" + etag + "\"")
+			.when()
+			.get("/disturbances/affecteds/{partyId}")
+			.then().assertThat()
+			.statusCode(NOT_MODIFIED.getStatusCode())
+			.header(ETAG, equalTo("\"" + etag + "\""))
+			.body(emptyOrNullString());
+
+		verify(disturbanceServiceMock).findEtagByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, limit, null);
+		verifyNoMoreInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
+	@Test
+	void getDisturbancesByPartyIdEtagDependsOnAffecteds() throws ServiceException {
+
+		// Parameters
+		final var partyId = UUID.randomUUID().toString();
+		final var disturbances = List.of(Disturbance.create().withCategory(Category.ELECTRICITY).withId("disturbanceId"));
+
+		when(disturbanceServiceMock.findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, AffectedsInclusion.ALL))
+			.thenReturn(new DisturbancePage(disturbances, null, AffectedsInclusion.ALL));
+		when(disturbanceServiceMock.findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, AffectedsInclusion.NONE))
+			.thenReturn(new DisturbancePage(disturbances, null, AffectedsInclusion.NONE));
+
+		final var etagAll = given()
+			.pathParam("partyId", partyId)
+			.queryParam("affecteds", AffectedsInclusion.ALL)
+			.when()
+			.get("/disturbances/affecteds/{partyId}")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.extract().header(ETAG);
+
+		// The same disturbances without affecteds is another representation, i.e. it must not be validated by the ETag above.
+		final var etagNone = given()
+			.pathParam("partyId", partyId)
+			.queryParam("affecteds", AffectedsInclusion.NONE)
+			.when()
+			.get("/disturbances/affecteds/{partyId}")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.extract().header(ETAG);
+
+		assertThat(etagAll).isNotNull().isNotEqualTo(etagNone);
+		verify(disturbanceServiceMock).findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, AffectedsInclusion.ALL);
+		verify(disturbanceServiceMock).findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, AffectedsInclusion.NONE);
+		verifyNoMoreInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
+	@Test
+	void getDisturbancesByPartyIdModified() throws ServiceException {
+
+		// Parameters
+		final var partyId = UUID.randomUUID().toString();
+		final var disturbancePage = new DisturbancePage(List.of(Disturbance.create().withCategory(Category.ELECTRICITY).withId("disturbanceId")), null, null);
+
+		when(disturbanceServiceMock.findEtagByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, null)).thenReturn("the-new-etag");
+		when(disturbanceServiceMock.findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, null)).thenReturn(disturbancePage);
+
+		final var response = given()
+			.pathParam("partyId", partyId)
+			.header(IF_NONE_MATCH, "\"the-old-etag\"")
+			.when()
+			.get("/disturbances/affecteds/{partyId}")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.header(ETAG, equalTo("\"" + toEtag(disturbancePage) + "\""))
+			.extract().as(Disturbance[].class);
+
+		assertThat(response).extracting(Disturbance::getId).containsExactly("disturbanceId");
+		verify(disturbanceServiceMock).findEtagByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, null);
+		verify(disturbanceServiceMock).findByPartyIdAndCategoryAndStatus(partyId, emptyList(), emptyList(), null, null, null);
+		verifyNoMoreInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
+	}
+
+	@Test
+	void streamDisturbancesByPartyId() throws ServiceException {
+
+		// Parameters
+		final var partyId = UUID.randomUUID().toString();
+		final var categoryFilter = List.of(Category.COMMUNICATION);
+
+		doAnswer(invocation -> {
+			final Consumer<Disturbance> consumer = invocation.getArgument(4);
+			consumer.accept(Disturbance.create().withId("disturbanceId1"));
+			consumer.accept(Disturbance.create().withId("disturbanceId2"));
+			return null;
+		}).when(disturbanceServiceMock).streamByPartyIdAndCategoryAndStatus(eq(partyId), eq(categoryFilter), eq(emptyList()), eq(AffectedsInclusion.NONE), any());
+
+		final var response = given()
+			.pathParam("partyId", partyId)
+			.queryParam("category", categoryFilter)
+			.queryParam("affecteds", AffectedsInclusion.NONE)
+			.accept(DisturbanceResource.APPLICATION_NDJSON)
+			.when()
+			.get("/disturbances/affecteds/{partyId}")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.contentType(equalTo(DisturbanceResource.APPLICATION_NDJSON))
+			.extract().asString();
+
+		assertThat(response.split("\n")).containsExactly("{\"id\":\"disturbanceId1\"}", "{\"id\":\"disturbanceId2\"}");
+		verify(disturbanceServiceMock).streamByPartyIdAndCategoryAndStatus(eq(partyId), eq(categoryFilter), eq(emptyList()), eq(AffectedsInclusion.NONE), any());
 		verifyNoMoreInteractions(disturbanceServiceMock, disturbanceFeedbackServiceMock);
 	}
 
@@ -109,10 +285,38 @@ class DisturbanceResourceTest {
 			.then().assertThat()
 			.statusCode(OK.getStatusCode())
 			.contentType(equalTo(APPLICATION_JSON))
+			.header(ETAG, equalTo("\"" + toEtag(Disturbance.create().withCategory(category).withId(disturbanceId)) + "\""))
 			.extract().as(Disturbance.class);
 
 		assertThat(response).isNotNull();
 		verify(disturbanceServiceMock).findByCategoryAndDisturbanceId(category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+		verifyNoInteractions(disturbanceFeedbackServiceMock);
+	}
+
+	@Test
+	void getDisturbanceNotModified() throws ServiceException {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var etag = "the-etag";
+
+		when(disturbanceServiceMock.findEtagByCategoryAndDisturbanceId(category, disturbanceId)).thenReturn(etag);
+
+		given()
+			.pathParam("category", category)
+			.pathParam("disturbanceId", disturbanceId)
+			.header(IF_NONE_MATCH, "\"" + etag + "\"")
+			.when()
+			.get("/disturbances/{category}/{disturbanceId}")
+			.then().assertThat()
+			.statusCode(NOT_MODIFIED.getStatusCode())
+			.header(ETAG, equalTo("\"" + etag + "\""))
+			.body(emptyOrNullString());
+
+		verify(disturbanceServiceMock).findEtagByCategoryAndDisturbanceId(category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceServiceMock);
 		verifyNoInteractions(disturbanceFeedbackServiceMock);
 	}
 
@@ -126,7 +330,7 @@ class DisturbanceResourceTest {
 		final var body = DisturbanceUpdateRequest.create()
 			.withDescription(description);
 
-		when(disturbanceServiceMock.updateDisturbance(category, disturbanceId, body)).thenReturn(Disturbance.create()
+		when(disturbanceServiceMock.updateDisturbance(category, disturbanceId, body, null)).thenReturn(Disturbance.create()
 			.withCategory(category)
 			.withId(disturbanceId));
 
@@ -140,10 +344,41 @@ class DisturbanceResourceTest {
 			.then().assertThat()
 			.statusCode(OK.getStatusCode())
 			.contentType(equalTo(APPLICATION_JSON))
+			.header(ETAG, equalTo("\"" + toEtag(Disturbance.create().withCategory(category).withId(disturbanceId)) + "\""))
 			.extract().as(Disturbance.class);
 
 		assertThat(response).isNotNull();
-		verify(disturbanceServiceMock).updateDisturbance(category, disturbanceId, body);
+		verify(disturbanceServiceMock).updateDisturbance(category, disturbanceId, body, null);
+		verifyNoInteractions(disturbanceFeedbackServiceMock);
+	}
+
+	@Test
+	void updateDisturbanceWithIfMatch() throws ServiceException {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var ifMatch = "\"the-etag\"";
+		final var body = DisturbanceUpdateRequest.create()
+			.withDescription("Updated description");
+
+		when(disturbanceServiceMock.updateDisturbance(category, disturbanceId, body, ifMatch)).thenReturn(Disturbance.create()
+			.withCategory(category)
+			.withId(disturbanceId));
+
+		given()
+			.pathParam("category", category)
+			.pathParam("disturbanceId", disturbanceId)
+			.header(IF_MATCH, ifMatch)
+			.contentType(APPLICATION_JSON)
+			.body(body)
+			.when()
+			.patch("/disturbances/{category}/{disturbanceId}")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode());
+
+		verify(disturbanceServiceMock).updateDisturbance(category, disturbanceId, body, ifMatch);
+		verifyNoMoreInteractions(disturbanceServiceMock);
 		verifyNoInteractions(disturbanceFeedbackServiceMock);
 	}
 
@@ -198,6 +433,42 @@ class DisturbanceResourceTest {
 		verifyNoInteractions(disturbanceFeedbackServiceMock);
 	}
 
+	@Test
+	void processDisturbanceBatch() throws ServiceException {
+
+		final var body = DisturbanceBatchRequest.create()
+			.withCreate(List.of(DisturbanceCreateRequest.create()
+				.withCategory(Category.COMMUNICATION)
+				.withId("id-1")
+				.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)
+				.withTitle("title")
+				.withDescription("description")))
+			.withUpdate(List.of(DisturbanceBatchUpdateRequest.create()
+				.withCategory(Category.ELECTRICITY)
+				.withId("id-2")
+				.withUpdate(DisturbanceUpdateRequest.create().withDescription("description"))));
+
+		when(disturbanceServiceMock.processDisturbanceBatch(body)).thenReturn(List.of(
+			DisturbanceBatchResult.create().withCategory(Category.COMMUNICATION).withId("id-1").withStatus(CREATED.getStatusCode()).withDisturbance(Disturbance.create()),
+			DisturbanceBatchResult.create().withCategory(Category.ELECTRICITY).withId("id-2").withStatus(NOT_FOUND.getStatusCode()).withDetail("detail")));
+
+		final var response = given()
+			.contentType(APPLICATION_JSON)
+			.body(body)
+			.when()
+			.post("/disturbances/batch")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.extract().as(DisturbanceBatchResult[].class);
+
+		assertThat(response).extracting(DisturbanceBatchResult::getId, DisturbanceBatchResult::getStatus).containsExactly(
+			tuple("id-1", CREATED.getStatusCode()),
+			tuple("id-2", NOT_FOUND.getStatusCode()));
+		verify(disturbanceServiceMock).processDisturbanceBatch(body);
+		verifyNoInteractions(disturbanceFeedbackServiceMock);
+	}
+
 	@Test
 	void createDisturbanceFeedback() throws ServiceException {
 
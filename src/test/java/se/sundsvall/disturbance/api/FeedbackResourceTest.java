@@ -1,20 +1,36 @@
 package se.sundsvall.disturbance.api;
 
 import static io.restassured.RestAssured.given;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.NO_CONTENT;
+import static javax.ws.rs.core.Response.Status.OK;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyOrNullString;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.api.DisturbanceResource.APPLICATION_NDJSON;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
 import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.api.model.FeedbackBatchResponse;
+import se.sundsvall.disturbance.api.model.FeedbackBatchResult;
 import se.sundsvall.disturbance.api.model.FeedbackCreateRequest;
 import se.sundsvall.disturbance.service.FeedbackService;
 
@@ -60,4 +76,90 @@ class FeedbackResourceTest {
 		verify(feedbackServiceMock).deleteFeedback(partyId);
 		verifyNoMoreInteractions(feedbackServiceMock);
 	}
+
+	@Test
+	void createFeedbacks() {
+
+		final var partyIds = IntStream.range(0, FeedbackResource.BATCH_CHUNK_SIZE + 1)
+			.mapToObj(i -> UUID.randomUUID().toString())
+			.collect(toList());
+		final var conflict = FeedbackBatchResult.create().withPartyId(partyIds.get(0)).withStatus(CONFLICT.getStatusCode()).withDetail("detail");
+
+		when(feedbackServiceMock.createFeedbacks(partyIds.subList(0, FeedbackResource.BATCH_CHUNK_SIZE))).thenReturn(List.of(conflict));
+		when(feedbackServiceMock.createFeedbacks(partyIds.subList(FeedbackResource.BATCH_CHUNK_SIZE, partyIds.size()))).thenReturn(emptyList());
+
+		final var response = given()
+			.contentType(APPLICATION_JSON)
+			.body(partyIds)
+			.when()
+			.post("/feedback/batch")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.extract().as(FeedbackBatchResponse.class);
+
+		assertThat(response.getSucceeded()).isEqualTo(FeedbackResource.BATCH_CHUNK_SIZE);
+		assertThat(response.getFailedTotal()).isEqualTo(1);
+		assertThat(response.getFailed()).containsExactly(conflict);
+		verify(feedbackServiceMock).createFeedbacks(partyIds.subList(0, FeedbackResource.BATCH_CHUNK_SIZE));
+		verify(feedbackServiceMock).createFeedbacks(partyIds.subList(FeedbackResource.BATCH_CHUNK_SIZE, partyIds.size()));
+		verifyNoMoreInteractions(feedbackServiceMock);
+	}
+
+	@Test
+	void createFeedbacksWhenMoreFailuresThanReported() {
+
+		// Every partyId fails, in three chunks.
+		final var partyIds = IntStream.range(0, (FeedbackResource.BATCH_CHUNK_SIZE * 2) + 1)
+			.mapToObj(i -> UUID.randomUUID().toString())
+			.collect(toList());
+		final Function<List<String>, List<FeedbackBatchResult>> toConflicts = chunk -> chunk.stream()
+			.map(partyId -> FeedbackBatchResult.create().withPartyId(partyId).withStatus(CONFLICT.getStatusCode()).withDetail("detail"))
+			.collect(toList());
+
+		when(feedbackServiceMock.createFeedbacks(any())).thenAnswer(invocation -> toConflicts.apply(invocation.getArgument(0)));
+
+		final var response = given()
+			.contentType(APPLICATION_JSON)
+			.body(partyIds)
+			.when()
+			.post("/feedback/batch")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.extract().as(FeedbackBatchResponse.class);
+
+		assertThat(response.getSucceeded()).isZero();
+		assertThat(response.getFailedTotal()).isEqualTo(partyIds.size());
+		assertThat(response.getFailed()).hasSize(FeedbackResource.MAX_REPORTED_FAILURES)
+			.extracting(FeedbackBatchResult::getPartyId)
+			.containsExactlyElementsOf(partyIds.subList(0, FeedbackResource.MAX_REPORTED_FAILURES));
+		verify(feedbackServiceMock, times(3)).createFeedbacks(any());
+		verifyNoMoreInteractions(feedbackServiceMock);
+	}
+
+	@Test
+	void deleteFeedbacksWithNdjson() {
+
+		final var partyId1 = UUID.randomUUID().toString();
+		final var partyId2 = UUID.randomUUID().toString();
+
+		when(feedbackServiceMock.deleteFeedbacks(List.of(partyId1, partyId2))).thenReturn(emptyList());
+
+		final var response = given()
+			.contentType(APPLICATION_NDJSON)
+			.body(("\"" + partyId1 + "\"\n\"" + partyId2 + "\"\n").getBytes(UTF_8))
+			.when()
+			.post("/feedback/batch/delete")
+			.then().assertThat()
+			.statusCode(OK.getStatusCode())
+			.contentType(equalTo(APPLICATION_JSON))
+			.extract().as(FeedbackBatchResponse.class);
+
+		assertThat(response.getSucceeded()).isEqualTo(2);
+		assertThat(response.getFailedTotal()).isZero();
+		assertThat(response.getFailed()).isEmpty();
+		verify(feedbackServiceMock).deleteFeedbacks(List.of(partyId1, partyId2));
+		verifyNoMoreInteractions(feedbackServiceMock);
+	}
 }
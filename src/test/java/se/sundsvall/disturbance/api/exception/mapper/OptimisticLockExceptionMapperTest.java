@@ -0,0 +1,60 @@
+package se.sundsvall.disturbance.api.exception.mapper;
+
+import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.OptimisticLockException;
+import javax.ws.rs.core.UriInfo;
+
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import se.sundsvall.disturbance.api.exception.model.ServiceErrorResponse;
+import se.sundsvall.disturbance.api.exception.model.TechnicalDetails;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticLockExceptionMapperTest {
+
+	private static final String REQUEST_PATH = "http://localhost:1234/path";
+	private static final String APPLICATION_NAME = "The-app";
+
+	@Mock
+	private UriInfo uriInfoMock;
+
+	@Mock
+	private Config configMock;
+
+	@InjectMocks
+	private OptimisticLockExceptionMapper exceptionMapper;
+
+	@BeforeEach
+	void setup() {
+		when(configMock.getOptionalValue("quarkus.application.name", String.class)).thenReturn(Optional.of(APPLICATION_NAME));
+		when(uriInfoMock.getPath()).thenReturn(REQUEST_PATH);
+	}
+
+	@Test
+	void optimisticLockException() {
+
+		final var response = exceptionMapper.toResponse(new OptimisticLockException("Row was updated or deleted by another transaction"));
+
+		assertThat(response.getStatus()).isEqualTo(CONFLICT.getStatusCode());
+		assertThat(response.readEntity(ServiceErrorResponse.class)).isEqualTo(ServiceErrorResponse.create()
+			.withMessage("The resource was modified by another request! Please try again!")
+			.withHttpCode(CONFLICT.getStatusCode())
+			.withTechnicalDetails(TechnicalDetails.create()
+				.withRootCode(CONFLICT.getStatusCode())
+				.withRootCause("Optimistic lock")
+				.withServiceId(APPLICATION_NAME)
+				.withDetails(List.of("Request: ".concat(REQUEST_PATH)))));
+	}
+}
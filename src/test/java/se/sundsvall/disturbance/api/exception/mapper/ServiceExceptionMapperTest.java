@@ -1,5 +1,6 @@
 package se.sundsvall.disturbance.api.exception.mapper;
 
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
 import static javax.ws.rs.core.Response.Status.GATEWAY_TIMEOUT;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -65,4 +66,12 @@ class ServiceExceptionMapperTest {
 				.withServiceId(SERVICE_ID)
 				.withDetails(List.of("Special detail", "Request: ".concat(REQUEST_PATH)))));
 	}
+
+	@Test
+	void responseIsAlwaysJson() {
+
+		final var response = exceptionMapper.toResponse(serviceException);
+
+		assertThat(response.getMediaType()).isEqualTo(APPLICATION_JSON_TYPE);
+	}
 }
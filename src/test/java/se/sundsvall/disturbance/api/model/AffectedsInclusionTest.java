@@ -0,0 +1,16 @@
+package se.sundsvall.disturbance.api.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.disturbance.api.model.AffectedsInclusion.ALL;
+import static se.sundsvall.disturbance.api.model.AffectedsInclusion.NONE;
+import static se.sundsvall.disturbance.api.model.AffectedsInclusion.PARTY;
+
+import org.junit.jupiter.api.Test;
+
+class AffectedsInclusionTest {
+
+	@Test
+	void affectedsInclusionEnum() {
+		assertThat(AffectedsInclusion.values()).containsExactly(ALL, PARTY, NONE);
+	}
+}
@@ -0,0 +1,47 @@
+package se.sundsvall.disturbance.api.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DisturbanceBatchRequestTest {
+
+	@Test
+	void testBean() {
+		assertThat(DisturbanceBatchRequest.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var create = List.of(DisturbanceCreateRequest.create().withId("id-1"));
+		final var update = List.of(DisturbanceBatchUpdateRequest.create().withId("id-2"));
+
+		final var disturbanceBatchRequest = DisturbanceBatchRequest.create()
+			.withCreate(create)
+			.withUpdate(update);
+
+		assertThat(disturbanceBatchRequest).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(disturbanceBatchRequest.getCreate()).isEqualTo(create);
+		assertThat(disturbanceBatchRequest.getUpdate()).isEqualTo(update);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(DisturbanceBatchRequest.create()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -0,0 +1,54 @@
+package se.sundsvall.disturbance.api.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class DisturbanceBatchResultTest {
+
+	@Test
+	void testBean() {
+		assertThat(DisturbanceBatchResult.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var category = Category.ELECTRICITY;
+		final var id = "id";
+		final var status = 409;
+		final var detail = "detail";
+		final var disturbance = Disturbance.create().withId(id);
+
+		final var disturbanceBatchResult = DisturbanceBatchResult.create()
+			.withCategory(category)
+			.withId(id)
+			.withStatus(status)
+			.withDetail(detail)
+			.withDisturbance(disturbance);
+
+		assertThat(disturbanceBatchResult).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(disturbanceBatchResult.getCategory()).isEqualTo(category);
+		assertThat(disturbanceBatchResult.getId()).isEqualTo(id);
+		assertThat(disturbanceBatchResult.getStatus()).isEqualTo(status);
+		assertThat(disturbanceBatchResult.getDetail()).isEqualTo(detail);
+		assertThat(disturbanceBatchResult.getDisturbance()).isEqualTo(disturbance);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(DisturbanceBatchResult.create()).hasAllNullFieldsOrPropertiesExcept("status");
+	}
+}
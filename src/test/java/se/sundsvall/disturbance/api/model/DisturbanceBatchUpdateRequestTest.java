@@ -0,0 +1,48 @@
+package se.sundsvall.disturbance.api.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class DisturbanceBatchUpdateRequestTest {
+
+	@Test
+	void testBean() {
+		assertThat(DisturbanceBatchUpdateRequest.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var category = Category.ELECTRICITY;
+		final var id = "id";
+		final var update = DisturbanceUpdateRequest.create().withDescription("description");
+
+		final var disturbanceBatchUpdateRequest = DisturbanceBatchUpdateRequest.create()
+			.withCategory(category)
+			.withId(id)
+			.withUpdate(update);
+
+		assertThat(disturbanceBatchUpdateRequest).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(disturbanceBatchUpdateRequest.getCategory()).isEqualTo(category);
+		assertThat(disturbanceBatchUpdateRequest.getId()).isEqualTo(id);
+		assertThat(disturbanceBatchUpdateRequest.getUpdate()).isEqualTo(update);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(DisturbanceBatchUpdateRequest.create()).hasAllNullFieldsOrProperties();
+	}
+}
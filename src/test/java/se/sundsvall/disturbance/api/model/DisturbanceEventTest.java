@@ -0,0 +1,51 @@
+package se.sundsvall.disturbance.api.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class DisturbanceEventTest {
+
+	@Test
+	void testBean() {
+		assertThat(DisturbanceEvent.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var type = DisturbanceEventType.CLOSED;
+		final var category = Category.ELECTRICITY;
+		final var id = "435553";
+		final var status = Status.CLOSED;
+
+		final var disturbanceEvent = DisturbanceEvent.create()
+			.withType(type)
+			.withCategory(category)
+			.withId(id)
+			.withStatus(status);
+
+		assertThat(disturbanceEvent).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(disturbanceEvent.getType()).isEqualTo(type);
+		assertThat(disturbanceEvent.getCategory()).isEqualTo(category);
+		assertThat(disturbanceEvent.getId()).isEqualTo(id);
+		assertThat(disturbanceEvent.getStatus()).isEqualTo(status);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(DisturbanceEvent.create()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -48,6 +48,7 @@ class DisturbanceTest {
 		final var affecteds = List.of(Affected.create());
 		final var plannedStartDate = now();
 		final var plannedStopDate = now();
+		final var version = 3L;
 
 		final var disturbance = Disturbance.create()
 			.withCategory(category)
@@ -59,7 +60,8 @@ class DisturbanceTest {
 			.withPlannedStopDate(plannedStopDate)
 			.withStatus(status)
 			.withTitle(title)
-			.withUpdated(updated);
+			.withUpdated(updated)
+			.withVersion(version);
 
 		assertThat(disturbance).isNotNull().hasNoNullFieldsOrProperties();
 		assertThat(disturbance.getAffecteds()).isEqualTo(affecteds);
@@ -72,6 +74,7 @@ class DisturbanceTest {
 		assertThat(disturbance.getStatus()).isEqualTo(status);
 		assertThat(disturbance.getTitle()).isEqualTo(title);
 		assertThat(disturbance.getUpdated()).isEqualTo(updated);
+		assertThat(disturbance.getVersion()).isEqualTo(version);
 	}
 
 	@Test
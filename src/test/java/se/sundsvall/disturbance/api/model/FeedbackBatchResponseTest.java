@@ -0,0 +1,50 @@
+package se.sundsvall.disturbance.api.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class FeedbackBatchResponseTest {
+
+	@Test
+	void testBean() {
+		assertThat(FeedbackBatchResponse.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var succeeded = 1000L;
+		final var failedTotal = 1L;
+		final var failed = List.of(FeedbackBatchResult.create().withPartyId("partyId").withStatus(409));
+
+		final var feedbackBatchResponse = FeedbackBatchResponse.create()
+			.withSucceeded(succeeded)
+			.withFailedTotal(failedTotal)
+			.withFailed(failed);
+
+		assertThat(feedbackBatchResponse).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(feedbackBatchResponse.getSucceeded()).isEqualTo(succeeded);
+		assertThat(feedbackBatchResponse.getFailedTotal()).isEqualTo(failedTotal);
+		assertThat(feedbackBatchResponse.getFailed()).isEqualTo(failed);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(FeedbackBatchResponse.create()).hasAllNullFieldsOrPropertiesExcept("succeeded", "failedTotal");
+	}
+}
@@ -0,0 +1,50 @@
+package se.sundsvall.disturbance.api.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class FeedbackBatchResultTest {
+
+	@Test
+	void testBean() {
+		assertThat(FeedbackBatchResult.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var partyId = UUID.randomUUID().toString();
+		final var status = 409;
+		final var detail = "detail";
+
+		final var feedbackBatchResult = FeedbackBatchResult.create()
+			.withPartyId(partyId)
+			.withStatus(status)
+			.withDetail(detail);
+
+		assertThat(feedbackBatchResult).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(feedbackBatchResult.getPartyId()).isEqualTo(partyId);
+		assertThat(feedbackBatchResult.getStatus()).isEqualTo(status);
+		assertThat(feedbackBatchResult.getDetail()).isEqualTo(detail);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(FeedbackBatchResult.create()).hasAllNullFieldsOrPropertiesExcept("status");
+	}
+}
@@ -28,6 +28,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -66,6 +67,9 @@ abstract class AbstractAppTest {
 	private static final String MAPPING_DIRECTORY = "/mappings";
 	private static final String MOCKING_DIRECTORY = "/mocking";
 
+	private static final Duration STUB_VERIFICATION_TIMEOUT = Duration.ofSeconds(10);
+	private static final Duration STUB_VERIFICATION_INTERVAL = Duration.ofMillis(100);
+
 	private String servicePath;
 	private String method;
 	private String requestBody;
@@ -251,28 +255,49 @@ abstract class AbstractAppTest {
 
 	/*
 	 * Verifies that all stubs setup has been called. Will throw {@link VerificationException} if verification fails.
+	 * 
+	 * Some stubs (e.g. api-messaging) are called asynchronously, after the request has been handled. The verification is
+	 * therefore repeated until it succeeds or STUB_VERIFICATION_TIMEOUT has passed.
 	 */
 	protected void verifyAllStubs() {
 		try {
-			// Verify all stubs by url.
-			wireMock.listAllStubMappings().getMappings().forEach(stub -> {
-				RequestPattern requestPattern = stub.getRequest();
-				wireMock
-					.verify(anyRequestedFor(fromOneOf(requestPattern.getUrl(), requestPattern.getUrlPattern(), requestPattern.getUrlPath(), requestPattern.getUrlPathPattern())));
-			});
-
-			if (!wireMock.findAllUnmatchedRequests().isEmpty()) {
-				List<String> unmatchedUrls = wireMock.findAllUnmatchedRequests()
-					.stream()
-					.map(LoggedRequest::getUrl)
-					.collect(toList());
-				throw new AssertionError(String.format("The following requests was not matched: %s", unmatchedUrls));
+			final var deadline = System.currentTimeMillis() + STUB_VERIFICATION_TIMEOUT.toMillis();
+			while (true) {
+				try {
+					verifyAllStubsOnce();
+					return;
+				} catch (AssertionError e) {
+					if (System.currentTimeMillis() > deadline) {
+						throw e;
+					}
+					Thread.sleep(STUB_VERIFICATION_INTERVAL.toMillis());
+				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AssertionError("Interrupted while verifying stubs", e);
 		} finally {
 			wireMock.resetAll();
 		}
 	}
 
+	private void verifyAllStubsOnce() {
+		// Verify all stubs by url.
+		wireMock.listAllStubMappings().getMappings().forEach(stub -> {
+			RequestPattern requestPattern = stub.getRequest();
+			wireMock
+				.verify(anyRequestedFor(fromOneOf(requestPattern.getUrl(), requestPattern.getUrlPattern(), requestPattern.getUrlPath(), requestPattern.getUrlPathPattern())));
+		});
+
+		if (!wireMock.findAllUnmatchedRequests().isEmpty()) {
+			List<String> unmatchedUrls = wireMock.findAllUnmatchedRequests()
+				.stream()
+				.map(LoggedRequest::getUrl)
+				.collect(toList());
+			throw new AssertionError(String.format("The following requests was not matched: %s", unmatchedUrls));
+		}
+	}
+
 	protected AbstractAppTest withSoapStub(final String path, final String expectedRequestBodyFileName,
 		final String responseFileName) throws Exception {
 		return withSoapStub(path, expectedRequestBodyFileName, responseFileName, Status.OK, 0);
@@ -1,6 +1,9 @@
 package se.sundsvall.disturbance.apptest;
 
+import java.util.List;
+
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -83,4 +86,32 @@ class ReadDisturbanceTest extends AbstractAppTest {
 			.withExpectedResponse("response.json")
 			.sendRequestAndVerifyResponse();
 	}
+
+	@Test
+	void test6_readDisturbanceByPartyIdWithLimit() throws Exception {
+
+		final var partyId = "c76ae496-3aed-11ec-8d3d-0242ac130003"; // Exists in "disturbance-3" and "disturbance-4".
+		final var servicePath = "/disturbances/affecteds/" + partyId + "?limit=1";
+
+		setupCall()
+			.withServicePath(servicePath)
+			.withHttpMethod(HttpMethod.GET)
+			.withExpectedResponseStatus(Response.Status.OK)
+			.withExpectedResponseHeader(HttpHeaders.LINK, List.of("<http://localhost:8081" + servicePath + "&cursor=Mw>; rel=\"next\""))
+			.withExpectedResponse("response.json")
+			.sendRequestAndVerifyResponse();
+	}
+
+	@Test
+	void test7_readDisturbanceByPartyIdWithPartyAffecteds() throws Exception {
+
+		final var partyId = "0d64beb2-3aea-11ec-8d3d-0242ac130003"; // One of three affecteds in "disturbance-2".
+
+		setupCall()
+			.withServicePath("/disturbances/affecteds/" + partyId + "?affecteds=PARTY")
+			.withHttpMethod(HttpMethod.GET)
+			.withExpectedResponseStatus(Response.Status.OK)
+			.withExpectedResponse("response.json")
+			.sendRequestAndVerifyResponse();
+	}
 }
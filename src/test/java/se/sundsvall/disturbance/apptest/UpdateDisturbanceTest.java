@@ -1,9 +1,12 @@
 package se.sundsvall.disturbance.apptest;
 
 import static java.time.OffsetDateTime.now;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import javax.inject.Inject;
 import javax.ws.rs.HttpMethod;
@@ -11,6 +14,9 @@ import javax.ws.rs.core.Response;
 
 import org.junit.jupiter.api.Test;
 
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import se.sundsvall.disturbance.api.model.Category;
@@ -27,15 +33,22 @@ import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
 @QuarkusTestResource(WireMockLifecycleManager.class)
 class UpdateDisturbanceTest extends AbstractAppTest {
 
+	private static final Duration SPAN_TIMEOUT = Duration.ofSeconds(10);
+
 	@Inject
 	DisturbanceRepository disturbanceRepository;
 
+	@Inject
+	InMemorySpanExporter spanExporter;
+
 	@Test
 	void test1_updateDisturbanceContent() throws Exception {
 
 		final var category = Category.ELECTRICITY;
 		final var disturbanceId = "disturbance-5";
 
+		spanExporter.reset();
+
 		setupCall()
 			.withServicePath("/disturbances/" + category + "/" + disturbanceId)
 			.withHttpMethod(HttpMethod.PATCH)
@@ -50,6 +63,21 @@ class UpdateDisturbanceTest extends AbstractAppTest {
 		assertThat(updatedDisturbance.get().getDescription()).isEqualTo("Vi felsöker strömavbrottet.");
 		assertThat(updatedDisturbance.get().getPlannedStopDate()).isEqualTo(LocalDateTime.of(2022, 01, 04, 18, 00, 20, 0).atOffset(now().getOffset()));
 		assertThat(updatedDisturbance.get().getAffectedEntities()).hasSize(3);
+
+		/**
+		 * Assert the trace of the request, from the resource to the call to api-messaging (with the propagated trace context,
+		 * see the traceparent header in the api-messaging mapping).
+		 */
+		final var trace = awaitTrace("DisturbanceResource.updateDisturbance", "MessageOutboxDispatcher.deliver");
+		assertThat(trace).extracting(SpanData::getName).contains(
+			"DisturbanceService.updateDisturbance",
+			"DisturbanceRepository.findByCategoryAndDisturbanceIdOptional",
+			"DisturbanceFeedbackRepository.findByCategoryAndDisturbanceId",
+			"SendMessageLogic.sendUpdateMessage",
+			"SendMessageLogic.renderMessages",
+			"MessageOutboxRepository.claimBatch",
+			"MessageOutboxDispatcher.sendChunk");
+		assertThat(trace).filteredOn(span -> span.getKind() == SpanKind.CLIENT).isNotEmpty();
 	}
 
 	@Test
@@ -106,7 +134,7 @@ class UpdateDisturbanceTest extends AbstractAppTest {
 
 		final var updatedDisturbance = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		assertThat(updatedDisturbance).isPresent();
-		assertThat(updatedDisturbance.get().getStatus()).isEqualTo(Status.CLOSED.toString());
+		assertThat(updatedDisturbance.get().getStatus()).isEqualTo(Status.CLOSED);
 		assertThat(updatedDisturbance.get().getAffectedEntities()).hasSize(3);
 	}
 
@@ -126,7 +154,37 @@ class UpdateDisturbanceTest extends AbstractAppTest {
 
 		final var updatedDisturbance = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		assertThat(updatedDisturbance).isPresent();
-		assertThat(updatedDisturbance.get().getStatus()).isEqualTo(Status.OPEN.toString());
+		assertThat(updatedDisturbance.get().getStatus()).isEqualTo(Status.OPEN);
 		assertThat(updatedDisturbance.get().getAffectedEntities()).hasSize(3);
 	}
+
+	/**
+	 * Returns the spans of the trace that contains the span with the provided name, when all the expected spans have been
+	 * ended (some of them are ended after the response, e.g. the delivery of the messages).
+	 */
+	private List<SpanData> awaitTrace(String spanName, String... expectedSpanNames) throws InterruptedException {
+		final var deadline = System.nanoTime() + SPAN_TIMEOUT.toNanos();
+		List<SpanData> trace;
+		do {
+			Thread.sleep(100);
+			final var spans = spanExporter.getFinishedSpanItems();
+			trace = spans.stream()
+				.filter(span -> spanName.equals(span.getName()))
+				.findFirst()
+				.map(span -> spans.stream()
+					.filter(traceSpan -> traceSpan.getTraceId().equals(span.getTraceId()))
+					.collect(toList()))
+				.orElse(List.of());
+		} while (!containsAll(trace, expectedSpanNames) && (System.nanoTime() < deadline));
+
+		assertThat(trace).extracting(SpanData::getName).contains(spanName).contains(expectedSpanNames);
+		return trace;
+	}
+
+	private static boolean containsAll(List<SpanData> trace, String... spanNames) {
+		return trace.stream()
+			.map(SpanData::getName)
+			.collect(toList())
+			.containsAll(List.of(spanNames));
+	}
 }
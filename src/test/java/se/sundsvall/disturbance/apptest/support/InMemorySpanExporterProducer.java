@@ -0,0 +1,19 @@
+package se.sundsvall.disturbance.apptest.support;
+
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+
+/**
+ * Collects the spans of the application in memory, to be asserted by the application tests (instead of exporting them
+ * to an OTLP collector). The exporter is picked up, as any other SpanExporter bean, by the tracer provider of Quarkus.
+ */
+public class InMemorySpanExporterProducer {
+
+	@Produces
+	@Singleton
+	InMemorySpanExporter inMemorySpanExporter() {
+		return InMemorySpanExporter.create();
+	}
+}
@@ -3,13 +3,16 @@ package se.sundsvall.disturbance.integration.db;
 import static org.assertj.core.api.Assertions.assertThat;
 import static se.sundsvall.disturbance.integration.db.DisturbanceFeedbackHistoryRepository.STATUS_SENT;
 
+import java.util.List;
+
 import javax.inject.Inject;
 
 import org.junit.jupiter.api.Test;
 
 import io.quarkus.test.TestTransaction;
 import io.quarkus.test.junit.QuarkusTest;
-import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
 
 /**
  * Disturbance feedback history repository tests.
@@ -23,18 +26,22 @@ class DisturbanceFeedbackHistoryRepositoryTest {
 	@Inject
 	DisturbanceFeedbackHistoryRepository disturbanceFeedbackHistoryRepository;
 
-	private static final String CATEGORY = "category";
+	private static final Category CATEGORY = Category.WATER;
 	private static final String DISTURBANCE_ID = "disturbanceId";
 	private static final String PARTY_ID = "partyId";
 
 	@Test
 	void persistWithStatusSent() {
-		final var entity = new DisturbanceFeedbackEntity();
+		final var entity = new MessageOutboxEntity();
 		entity.setCategory(CATEGORY);
 		entity.setDisturbanceId(DISTURBANCE_ID);
 		entity.setPartyId(PARTY_ID);
 
-		disturbanceFeedbackHistoryRepository.persistWithStatusSent(entity);
+		// A message queued before the disturbance was stored in the message outbox (already in the feedback history).
+		final var entityWithoutDisturbance = new MessageOutboxEntity();
+		entityWithoutDisturbance.setPartyId(PARTY_ID);
+
+		disturbanceFeedbackHistoryRepository.persistWithStatusSent(List.of(entity, entityWithoutDisturbance));
 
 		final var list = disturbanceFeedbackHistoryRepository.list("partyId", PARTY_ID);
 
@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.groups.Tuple.tuple;
 
+import java.util.List;
+
 import javax.inject.Inject;
 
 import org.hibernate.exception.ConstraintViolationException;
@@ -44,6 +46,25 @@ class DisturbanceFeedbackRepositoryTest {
 			.containsExactly(PARTY_ID_1, PARTY_ID_2, PARTY_ID_3);
 	}
 
+	@Test
+	void findByCategoryAndDisturbanceIdInCreatedOrder() {
+
+		// Created in another order than the partyIds (i.e. the order of the unique constraint).
+		final var partyIds = List.of("c", "a", "b");
+		partyIds.forEach(partyId -> {
+			final var disturbanceFeedbackEntity = new DisturbanceFeedbackEntity();
+			disturbanceFeedbackEntity.setCategory(Category.WATER);
+			disturbanceFeedbackEntity.setDisturbanceId("disturbance-created-order");
+			disturbanceFeedbackEntity.setPartyId(partyId);
+			disturbanceFeedbackRepository.persist(disturbanceFeedbackEntity);
+		});
+		disturbanceFeedbackRepository.flush();
+
+		assertThat(disturbanceFeedbackRepository.findByCategoryAndDisturbanceId(Category.WATER, "disturbance-created-order"))
+			.extracting(DisturbanceFeedbackEntity::getPartyId)
+			.containsExactlyElementsOf(partyIds);
+	}
+
 	@Test
 	void findByCategoryAndDisturbanceIdEmptyResult() {
 		final var list = disturbanceFeedbackRepository.findByCategoryAndDisturbanceId(null, DISTURBANCE_ID_5);
@@ -75,7 +96,7 @@ class DisturbanceFeedbackRepositoryTest {
 		assertThat(list)
 			.hasSize(1)
 			.extracting(DisturbanceFeedbackEntity::getDisturbanceId, DisturbanceFeedbackEntity::getCategory)
-			.containsExactly(tuple(DISTURBANCE_ID_7, CATEGORY.toString()));
+			.containsExactly(tuple(DISTURBANCE_ID_7, CATEGORY));
 	}
 
 	@Test
@@ -87,7 +108,7 @@ class DisturbanceFeedbackRepositoryTest {
 
 	@Test
 	void persistWithNullValues() {
-		assertThatThrownBy(() -> disturbanceFeedbackRepository.persist(new DisturbanceFeedbackEntity()))
+		assertThatThrownBy(() -> disturbanceFeedbackRepository.persistAndFlush(new DisturbanceFeedbackEntity()))
 			.hasCauseInstanceOf(ConstraintViolationException.class);
 	}
 
@@ -3,6 +3,8 @@ package se.sundsvall.disturbance.integration.db;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.Assertions.within;
 import static se.sundsvall.disturbance.api.model.Category.COMMUNICATION;
 import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
@@ -16,13 +18,17 @@ import java.util.Arrays;
 import java.util.List;
 
 import javax.inject.Inject;
+import javax.persistence.OptimisticLockException;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 
 import io.quarkus.test.TestTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceRevision;
 
 /**
  * Disturbance repository tests.
@@ -37,6 +43,7 @@ class DisturbanceRepositoryTest {
 	private static final String PARTY_ID_1 = "0d64beb2-3aea-11ec-8d3d-0242ac130003"; // Exists in "disturbance-2".
 	private static final String PARTY_ID_2 = "0d64c132-3aea-11ec-8d3d-0242ac130003"; // Exists in "disturbance-2".
 	private static final String PARTY_ID_3 = "0d64c42a-3aea-11ec-8d3d-0242ac130003"; // Exists in "disturbance-2".
+	private static final String PARTY_ID_4 = "c76ae496-3aed-11ec-8d3d-0242ac130003"; // Exists in "disturbance-3" and "disturbance-4".
 
 	@Inject
 	DisturbanceRepository disturbanceRepository;
@@ -49,6 +56,26 @@ class DisturbanceRepositoryTest {
 		assertAsDisturbanceEntity2(disturbanceOptional.get());
 	}
 
+	@Test
+	void findByCategoryAndDisturbanceIds() {
+		final var disturbances = disturbanceRepository.findByCategoryAndDisturbanceIds(List.of(
+			Pair.of(COMMUNICATION, DISTURBANCE_ID_2),
+			Pair.of(ELECTRICITY, "disturbance-3"),
+			Pair.of(COMMUNICATION, "disturbance-3"), // Wrong category
+			Pair.of(COMMUNICATION, "does-not-exist")));
+
+		assertThat(disturbances)
+			.extracting(DisturbanceEntity::getCategory, DisturbanceEntity::getDisturbanceId)
+			.containsExactlyInAnyOrder(
+				tuple(COMMUNICATION, DISTURBANCE_ID_2),
+				tuple(ELECTRICITY, "disturbance-3"));
+	}
+
+	@Test
+	void findByCategoryAndDisturbanceIdsWithEmptyList() {
+		assertThat(disturbanceRepository.findByCategoryAndDisturbanceIds(emptyList())).isEmpty();
+	}
+
 	@Test
 	void persistAndFetch() {
 
@@ -59,13 +86,13 @@ class DisturbanceRepositoryTest {
 		assertThat(disturbance.getAffectedEntities()).hasSize(1);
 		assertThat(disturbance.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1");
 		assertThat(disturbance.getDisturbanceId()).isEqualTo("persistAndFetch-disturbanceId");
-		assertThat(disturbance.getCategory()).isEqualTo(COMMUNICATION.toString());
+		assertThat(disturbance.getCategory()).isEqualTo(COMMUNICATION);
 		assertThat(disturbance.getCreated()).isCloseTo(OffsetDateTime.now(), within(2, SECONDS));
 		assertThat(disturbance.getDeleted()).isFalse();
 		assertThat(disturbance.getDescription()).isEqualTo("description");
 		assertThat(disturbance.getPlannedStartDate()).isCloseTo(OffsetDateTime.now(), within(2, SECONDS));
 		assertThat(disturbance.getPlannedStopDate()).isCloseTo(OffsetDateTime.now().plusDays(6), within(2, SECONDS));
-		assertThat(disturbance.getStatus()).isEqualTo(OPEN.toString());
+		assertThat(disturbance.getStatus()).isEqualTo(OPEN);
 	}
 
 	@Test
@@ -147,17 +174,179 @@ class DisturbanceRepositoryTest {
 			.allSatisfy(this::assertAsDisturbanceEntity2);
 	}
 
+	@Test
+	void findByPartyIdFilterByCategoryAndStatusWithAfterIdAndLimit() {
+
+		// First page.
+		assertThat(disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(PARTY_ID_4, null, null, null, 1))
+			.extracting(DisturbanceEntity::getDisturbanceId)
+			.containsExactly("disturbance-3");
+
+		// Next page.
+		assertThat(disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(PARTY_ID_4, null, null, 3L, 1))
+			.extracting(DisturbanceEntity::getDisturbanceId)
+			.containsExactly("disturbance-4");
+
+		// Beyond last page.
+		assertThat(disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(PARTY_ID_4, null, null, 4L, 1)).isEmpty();
+
+		// No limit.
+		assertThat(disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(PARTY_ID_4, null, null, null, null))
+			.extracting(DisturbanceEntity::getDisturbanceId)
+			.containsExactly("disturbance-3", "disturbance-4");
+	}
+
+	@Test
+	void findByPartyIdFilterByCategoryAndStatusWhenAffectedMoreThanOnce() {
+
+		// Add a second reference for PARTY_ID_1 in "disturbance-2".
+		final var disturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+		final var affectedEntity = new AffectedEntity();
+		affectedEntity.setPartyId(PARTY_ID_1);
+		affectedEntity.setReference("Streetname 44");
+		disturbanceEntity.addAffectedEntities(List.of(affectedEntity));
+		disturbanceRepository.persistAndFlush(disturbanceEntity);
+
+		assertThat(disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(PARTY_ID_1, null, null))
+			.extracting(DisturbanceEntity::getDisturbanceId)
+			.containsExactly(DISTURBANCE_ID_2);
+	}
+
+	@Test
+	void findAffectedEntitiesByPartyId() {
+		assertThat(disturbanceRepository.findAffectedEntitiesByPartyId(PARTY_ID_1, List.of(2L, 3L, 4L)))
+			.extracting(AffectedEntity::getPartyId, AffectedEntity::getReference)
+			.containsExactly(tuple(PARTY_ID_1, "Streetname 11"));
+	}
+
+	@Test
+	void findAffectedEntitiesByPartyIdWithoutDisturbanceEntityIds() {
+		assertThat(disturbanceRepository.findAffectedEntitiesByPartyId(PARTY_ID_1, emptyList())).isEmpty();
+	}
+
+	@Test
+	void fetchAffectedEntities() {
+		final var disturbances = disturbanceRepository.findByPartyIdFilterByCategoryAndStatus(PARTY_ID_4, null, null);
+		assertThat(disturbances).hasSize(2).noneMatch(disturbanceEntity -> Hibernate.isInitialized(disturbanceEntity.getAffectedEntities()));
+
+		disturbanceRepository.fetchAffectedEntities(disturbances);
+
+		assertThat(disturbances)
+			.allMatch(disturbanceEntity -> Hibernate.isInitialized(disturbanceEntity.getAffectedEntities()))
+			.allSatisfy(disturbanceEntity -> assertThat(disturbanceEntity.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly(PARTY_ID_4));
+	}
+
+	@Test
+	void updateIncrementsVersion() {
+		final var disturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+		final var version = disturbanceEntity.getVersion();
+
+		disturbanceEntity.setDescription("Updated description");
+		disturbanceRepository.persistAndFlush(disturbanceEntity);
+
+		assertThat(disturbanceEntity.getVersion()).isEqualTo(version + 1);
+	}
+
+	@Test
+	void updateOfStaleDisturbanceFails() {
+		final var staleDisturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+		disturbanceRepository.getEntityManager().detach(staleDisturbanceEntity);
+
+		// Concurrent update.
+		final var disturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+		disturbanceEntity.setDescription("Updated description");
+		disturbanceRepository.persistAndFlush(disturbanceEntity);
+
+		staleDisturbanceEntity.setDescription("Stale description");
+		assertThatThrownBy(() -> {
+			disturbanceRepository.getEntityManager().merge(staleDisturbanceEntity);
+			disturbanceRepository.flush();
+		}).isInstanceOf(OptimisticLockException.class);
+	}
+
+	@Test
+	void findRevisionByCategoryAndDisturbanceId() {
+		final var disturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+
+		assertThat(disturbanceRepository.findRevisionByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2)).hasValueSatisfying(disturbanceRevision -> {
+			assertThat(disturbanceRevision.getId()).isEqualTo(disturbanceEntity.getId());
+			assertThat(disturbanceRevision.getCategory()).isEqualTo(COMMUNICATION);
+			assertThat(disturbanceRevision.getDisturbanceId()).isEqualTo(DISTURBANCE_ID_2);
+			assertThat(disturbanceRevision.getCreated()).isEqualTo(disturbanceEntity.getCreated());
+			assertThat(disturbanceRevision.getUpdated()).isEqualTo(disturbanceEntity.getUpdated());
+			assertThat(disturbanceRevision.getVersion()).isEqualTo(disturbanceEntity.getVersion());
+		});
+		assertThat(disturbanceRepository.findRevisionByCategoryAndDisturbanceIdOptional(ELECTRICITY, DISTURBANCE_ID_2)).isEmpty();
+	}
+
+	@Test
+	void findStateByCategoryAndDisturbanceId() {
+		final var disturbanceEntity = disturbanceRepository.findByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+
+		assertThat(disturbanceRepository.findStateByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2)).hasValueSatisfying(disturbanceState -> {
+			assertThat(disturbanceState.getId()).isEqualTo(disturbanceEntity.getId());
+			assertThat(disturbanceState.getStatus()).isEqualTo(disturbanceEntity.getStatus());
+		});
+		assertThat(disturbanceRepository.findStateByCategoryAndDisturbanceIdOptional(ELECTRICITY, DISTURBANCE_ID_2)).isEmpty();
+	}
+
+	@Test
+	void softDelete() {
+		final var disturbanceState = disturbanceRepository.findStateByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+
+		assertThat(disturbanceRepository.softDelete(disturbanceState.getId())).isTrue();
+		assertThat(disturbanceRepository.findStateByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2)).isEmpty();
+		assertThat(disturbanceRepository.findById(disturbanceState.getId())).satisfies(disturbanceEntity -> {
+			assertThat(disturbanceEntity.getDeleted()).isTrue();
+			assertThat(disturbanceEntity.getVersion()).isEqualTo(1);
+		});
+
+		// Already deleted.
+		assertThat(disturbanceRepository.softDelete(disturbanceState.getId())).isFalse();
+	}
+
+	@Test
+	void findAffectedPartyIds() {
+		final var disturbanceState = disturbanceRepository.findStateByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+
+		assertThat(disturbanceRepository.findAffectedPartyIds(disturbanceState.getId())).containsExactlyInAnyOrder(PARTY_ID_1, PARTY_ID_2, PARTY_ID_3);
+		assertThat(disturbanceRepository.findAffectedPartyIds(-1L)).isEmpty();
+	}
+
+	@Test
+	void countAffecteds() {
+		final var disturbanceState = disturbanceRepository.findStateByCategoryAndDisturbanceIdOptional(COMMUNICATION, DISTURBANCE_ID_2).orElseThrow();
+
+		assertThat(disturbanceRepository.countAffecteds(disturbanceState.getId())).isEqualTo(3);
+		assertThat(disturbanceRepository.countAffecteds(-1L)).isZero();
+	}
+
+	@Test
+	void findRevisionsByPartyIdFilterByCategoryAndStatus() {
+
+		// Same disturbances as findByPartyIdFilterByCategoryAndStatus.
+		assertThat(disturbanceRepository.findRevisionsByPartyIdFilterByCategoryAndStatus(PARTY_ID_4, null, null, null, null))
+			.extracting(DisturbanceRevision::getId, DisturbanceRevision::getDisturbanceId)
+			.containsExactly(tuple(3L, "disturbance-3"), tuple(4L, "disturbance-4"));
+		assertThat(disturbanceRepository.findRevisionsByPartyIdFilterByCategoryAndStatus(PARTY_ID_4, null, null, 3L, 1))
+			.extracting(DisturbanceRevision::getDisturbanceId)
+			.containsExactly("disturbance-4");
+		assertThat(disturbanceRepository.findRevisionsByPartyIdFilterByCategoryAndStatus(PARTY_ID_1, List.of(COMMUNICATION), List.of(OPEN), null, null))
+			.extracting(DisturbanceRevision::getDisturbanceId)
+			.containsExactly(DISTURBANCE_ID_2);
+	}
+
 	private void assertAsDisturbanceEntity2(DisturbanceEntity disturbanceEntity) {
 
 		assertThat(disturbanceEntity.getId()).isEqualTo(2);
-		assertThat(disturbanceEntity.getCategory()).isEqualTo(COMMUNICATION.toString());
+		assertThat(disturbanceEntity.getCategory()).isEqualTo(COMMUNICATION);
 		assertThat(disturbanceEntity.getCreated()).isEqualTo(getOffsetDateTime(2021, 9, 23, 9, 05, 48, 198000000));
 		assertThat(disturbanceEntity.getDescription()).isEqualTo("Description");
 		assertThat(disturbanceEntity.getDisturbanceId()).isEqualTo("disturbance-2");
 		assertThat(disturbanceEntity.getPlannedStartDate()).isEqualTo(getOffsetDateTime(2021, 12, 31, 11, 30, 45, 0));
 		assertThat(disturbanceEntity.getPlannedStopDate()).isEqualTo(getOffsetDateTime(2022, 01, 11, 11, 30, 45, 0));
 
-		assertThat(disturbanceEntity.getStatus()).isEqualTo(OPEN.toString());
+		assertThat(disturbanceEntity.getStatus()).isEqualTo(OPEN);
 		assertThat(disturbanceEntity.getTitle()).isEqualTo("Title");
 		assertThat(disturbanceEntity.getUpdated()).isNull();
 		assertThat(disturbanceEntity.getAffectedEntities()).hasSize(3);
@@ -185,10 +374,10 @@ class DisturbanceRepositoryTest {
 
 		final var entity = new DisturbanceEntity();
 		entity.setDisturbanceId(disturbanceId);
-		entity.setCategory(COMMUNICATION.toString());
+		entity.setCategory(COMMUNICATION);
 		entity.setTitle("title");
 		entity.setDescription("description");
-		entity.setStatus(OPEN.toString());
+		entity.setStatus(OPEN);
 		entity.setPlannedStartDate(OffsetDateTime.now());
 		entity.setPlannedStopDate(OffsetDateTime.now().plusDays(6));
 		entity.addAffectedEntities(Arrays.asList(affectedEntity));
@@ -1,8 +1,13 @@
 package se.sundsvall.disturbance.integration.db;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
 import javax.inject.Inject;
 
 import org.hibernate.exception.ConstraintViolationException;
@@ -43,8 +48,60 @@ class FeedbackRepositoryTest {
 		assertThat(optionalFeedback).isNotPresent();
 	}
 
+	@Test
+	void findPartyIdsWithFeedback() {
+		final var result = feedbackRepository.findPartyIdsWithFeedback(List.of(PARTY_ID, "not a party id", PARTY_ID, PARTY_ID.toUpperCase()));
+
+		assertThat(result).containsExactly(PARTY_ID);
+	}
+
+	@Test
+	void findPartyIdsWithFeedbackEmptyResult() {
+		assertThat(feedbackRepository.findPartyIdsWithFeedback(List.of("not a party id"))).isEmpty();
+		assertThat(feedbackRepository.findPartyIdsWithFeedback(null)).isEmpty();
+	}
+
+	@Test
+	void findAllPartyIds() {
+		assertThat(feedbackRepository.findAllPartyIds()).contains(PARTY_ID).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void findPartyIdsCreatedSince() {
+		final var feedbackEntity = new FeedbackEntity();
+		feedbackEntity.setPartyId(UUID.randomUUID().toString());
+		feedbackRepository.persistAndFlush(feedbackEntity);
+
+		assertThat(feedbackRepository.findPartyIdsCreatedSince(feedbackEntity.getCreated())).contains(feedbackEntity.getPartyId()).doesNotContain(PARTY_ID);
+		assertThat(feedbackRepository.findPartyIdsCreatedSince(feedbackEntity.getCreated().plusNanos(1_000_000))).doesNotContain(feedbackEntity.getPartyId());
+	}
+
+	@Test
+	void deleteByPartyIds() {
+		assertThat(feedbackRepository.deleteByPartyIds(List.of(PARTY_ID, "not a party id"))).isEqualTo(1);
+		assertThat(feedbackRepository.findByPartyIdOptional(PARTY_ID)).isNotPresent();
+		assertThat(feedbackRepository.deleteByPartyIds(null)).isZero();
+	}
+
+	@Test
+	void persistInBatch() {
+		final var feedbackEntities = IntStream.range(0, 120)
+			.mapToObj(i -> {
+				final var feedbackEntity = new FeedbackEntity();
+				feedbackEntity.setPartyId(UUID.randomUUID().toString());
+				return feedbackEntity;
+			})
+			.collect(toList());
+
+		feedbackRepository.persist(feedbackEntities);
+		feedbackRepository.flush();
+
+		assertThat(feedbackEntities).extracting(FeedbackEntity::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(feedbackRepository.findPartyIdsWithFeedback(feedbackEntities.stream().map(FeedbackEntity::getPartyId).collect(toList()))).hasSize(120);
+	}
+
 	@Test()
 	void persistWithNullValues() {
-		assertThatThrownBy(() -> feedbackRepository.persist(new FeedbackEntity())).hasCauseInstanceOf(ConstraintViolationException.class);
+		assertThatThrownBy(() -> feedbackRepository.persistAndFlush(new FeedbackEntity())).hasCauseInstanceOf(ConstraintViolationException.class);
 	}
 }
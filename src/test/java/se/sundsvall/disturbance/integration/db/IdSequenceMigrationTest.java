@@ -0,0 +1,131 @@
+package se.sundsvall.disturbance.integration.db;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.id.enhanced.StandardOptimizerDescriptor.POOLED;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import javax.inject.Inject;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.junit.jupiter.api.Test;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Verifies that the id sequences created by the delta scripts, over the existing rows, don't hand out ids that are
+ * already in use when the ids are allocated by the pooled optimizer of Hibernate (i.e. allocationSize 50).
+ *
+ * The statements of the delta script that create the sequences are executed with a suffix on the sequence names, in
+ * order to leave the sequences of the application untouched.
+ *
+ * @see src/test/resources/db/testdata.sql for data setup.
+ */
+@QuarkusTest
+class IdSequenceMigrationTest {
+
+	private static final int ALLOCATION_SIZE = 50;
+	private static final String TEST_SEQUENCE_SUFFIX = "_migration_test";
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	@Test
+	void idSequencesStartAfterExistingIds() throws Exception {
+		assertSequencesStartAfterExistingIds("db/delta-scripts/003_add_id_sequences.sql", Map.of(
+			"affected", "affected_seq",
+			"disturbance_feedback", "disturbance_feedback_seq",
+			"disturbance_feedback_history", "disturbance_feedback_history_seq"));
+	}
+
+	@Test
+	void feedbackSequenceStartsAfterExistingIds() throws Exception {
+		assertSequencesStartAfterExistingIds("db/delta-scripts/007_add_feedback_sequence.sql", Map.of("feedback", "feedback_seq"));
+	}
+
+	private void assertSequencesStartAfterExistingIds(String script, Map<String, String> sequenceByTable) throws Exception {
+		try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+			try {
+				for (final var sql : getCreateSequenceStatements(script)) {
+					statement.execute(sql);
+				}
+
+				for (final var entry : sequenceByTable.entrySet()) {
+					final var maxId = queryForLong(statement, "SELECT COALESCE(MAX(id), 0) FROM " + entry.getKey());
+					final var optimizer = OptimizerFactory.buildOptimizer(POOLED.getExternalName(), Long.class, ALLOCATION_SIZE, 1);
+					final var accessCallback = createAccessCallback(statement, entry.getValue() + TEST_SEQUENCE_SUFFIX);
+
+					final var ids = LongStream.range(0, ALLOCATION_SIZE)
+						.mapToObj(i -> (Long) optimizer.generate(accessCallback))
+						.collect(toList());
+
+					assertThat(ids).as("First block of ids from %s", entry.getValue())
+						.containsExactlyElementsOf(LongStream.rangeClosed(maxId + 1, maxId + ALLOCATION_SIZE).boxed().collect(toList()));
+				}
+			} finally {
+				for (final var sequence : sequenceByTable.values()) {
+					statement.execute("DROP SEQUENCE IF EXISTS " + sequence + TEST_SEQUENCE_SUFFIX);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the statements of the script that creates the sequences (i.e. without the altered tables and the
+	 * schema_history row), with the suffix added to the sequence names.
+	 */
+	private List<String> getCreateSequenceStatements(String script) throws IOException {
+		try (var reader = new BufferedReader(new InputStreamReader(getClass().getClassLoader().getResourceAsStream(script), UTF_8))) {
+			final var sql = reader.lines()
+				.filter(line -> !line.startsWith("--"))
+				.collect(joining("\n"));
+
+			return Arrays.stream(sql.split(";"))
+				.map(String::trim)
+				.filter(statement -> statement.startsWith("SET @") || statement.startsWith("PREPARE") || statement.startsWith("EXECUTE")
+					|| statement.startsWith("DEALLOCATE"))
+				.map(statement -> statement.replace("_seq START WITH", "_seq" + TEST_SEQUENCE_SUFFIX + " START WITH"))
+				.collect(toList());
+		}
+	}
+
+	private static AccessCallback createAccessCallback(Statement statement, String sequence) {
+		return new AccessCallback() {
+			@Override
+			public IntegralDataTypeHolder getNextValue() {
+				final var value = IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class);
+				value.initialize(queryForLong(statement, "SELECT NEXT VALUE FOR " + sequence));
+				return value;
+			}
+
+			@Override
+			public String getTenantIdentifier() {
+				return null;
+			}
+		};
+	}
+
+	private static long queryForLong(Statement statement, String sql) {
+		try (var resultSet = statement.executeQuery(sql)) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
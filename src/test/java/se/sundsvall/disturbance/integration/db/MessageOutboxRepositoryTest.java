@@ -0,0 +1,162 @@
+package se.sundsvall.disturbance.integration.db;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfiguration;
+
+/**
+ * Message outbox repository tests.
+ *
+ * @see src/test/resources/db/testdata.sql for data setup.
+ */
+@QuarkusTest
+@TestTransaction
+class MessageOutboxRepositoryTest {
+
+	private static final int MAX_ATTEMPTS = 3;
+	private static final Duration LEASE = Duration.ofMinutes(5);
+
+	@Inject
+	MessageOutboxRepository messageOutboxRepository;
+
+	@Inject
+	MessageConfiguration messageConfiguration;
+
+	@Test
+	void claimBatch() {
+		final var due = persistMessageOutboxEntity("partyId-1", 0, null);
+		persistMessageOutboxEntity("partyId-2", 0, now().plusHours(1)); // Not due yet.
+		persistMessageOutboxEntity("partyId-3", MAX_ATTEMPTS, null); // Max attempts reached.
+		messageOutboxRepository.deadLetterByIds(List.of(persistMessageOutboxEntity("partyId-4", 1, null).getId())); // Dead letter.
+
+		final var claimed = messageOutboxRepository.claimBatch(10, MAX_ATTEMPTS, LEASE);
+
+		assertThat(claimed)
+			.hasSize(1)
+			.allSatisfy(messageOutboxEntity -> {
+				assertThat(messageOutboxEntity.getId()).isEqualTo(due.getId());
+				assertThat(messageOutboxEntity.getAttempts()).isEqualTo(1);
+				assertThat(messageOutboxEntity.getDispatchAfter()).isAfter(now().plus(LEASE).minusMinutes(1));
+			});
+
+		// A claimed message is not claimed again until the lease has expired.
+		assertThat(messageOutboxRepository.claimBatch(10, MAX_ATTEMPTS, LEASE)).isEmpty();
+	}
+
+	@Test
+	void claimBatchOldestFirst() {
+		final var first = persistMessageOutboxEntity("partyId-1", 0, null);
+		final var second = persistMessageOutboxEntity("partyId-2", 0, null);
+		final var third = persistMessageOutboxEntity("partyId-3", 0, null);
+
+		assertThat(messageOutboxRepository.claimBatch(2, MAX_ATTEMPTS, LEASE))
+			.extracting(MessageOutboxEntity::getId)
+			.containsExactly(first.getId(), second.getId());
+		assertThat(messageOutboxRepository.claimBatch(2, MAX_ATTEMPTS, LEASE))
+			.extracting(MessageOutboxEntity::getId)
+			.containsExactly(third.getId());
+	}
+
+	@Test
+	void deleteByIds() {
+		final var entity1 = persistMessageOutboxEntity("partyId-1", 1, null);
+		final var entity2 = persistMessageOutboxEntity("partyId-2", 1, null);
+
+		final var result = messageOutboxRepository.deleteByIds(List.of(entity1.getId()));
+
+		assertThat(result).isOne();
+		assertThat(messageOutboxRepository.count("id", entity1.getId())).isZero();
+		assertThat(messageOutboxRepository.count("id", entity2.getId())).isOne();
+	}
+
+	@Test
+	void releaseByIds() {
+		final var entity = persistMessageOutboxEntity("partyId-1", 1, now().plus(LEASE));
+		final var dispatchAfter = now().plusMinutes(1).truncatedTo(MILLIS);
+
+		final var result = messageOutboxRepository.releaseByIds(List.of(entity.getId()), dispatchAfter);
+		messageOutboxRepository.getEntityManager().clear();
+
+		assertThat(result).isOne();
+		assertThat(messageOutboxRepository.findById(entity.getId()).getDispatchAfter()).isAtSameInstantAs(dispatchAfter);
+	}
+
+	@Test
+	void deadLetterByIds() {
+		final var entity1 = persistMessageOutboxEntity("partyId-1", 1, null);
+		final var entity2 = persistMessageOutboxEntity("partyId-2", 1, null);
+
+		final var result = messageOutboxRepository.deadLetterByIds(List.of(entity1.getId()));
+		messageOutboxRepository.getEntityManager().clear();
+
+		assertThat(result).isOne();
+		assertThat(messageOutboxRepository.findById(entity1.getId()).isDeadLetter()).isTrue();
+		assertThat(messageOutboxRepository.findById(entity2.getId()).isDeadLetter()).isFalse();
+		assertThat(messageOutboxRepository.countDeadLetters()).isOne();
+	}
+
+	@Test
+	void deadLetterExhausted() {
+		final var exhausted = persistMessageOutboxEntity("partyId-1", MAX_ATTEMPTS, null);
+		final var claimed = persistMessageOutboxEntity("partyId-2", MAX_ATTEMPTS, now().plus(LEASE)); // Last attempt in progress.
+		final var due = persistMessageOutboxEntity("partyId-3", MAX_ATTEMPTS - 1, null);
+
+		final var result = messageOutboxRepository.deadLetterExhausted(MAX_ATTEMPTS);
+		messageOutboxRepository.getEntityManager().clear();
+
+		assertThat(result).isOne();
+		assertThat(messageOutboxRepository.findById(exhausted.getId()).isDeadLetter()).isTrue();
+		assertThat(messageOutboxRepository.findById(claimed.getId()).isDeadLetter()).isFalse();
+		assertThat(messageOutboxRepository.findById(due.getId()).isDeadLetter()).isFalse();
+	}
+
+	@Test
+	void persistMessageWithMaxLengthDescriptionAndReference() {
+		// An update message with the max length description (8192) and affected reference (512) of the API.
+		final var categoryTemplates = messageConfiguration.getCategoryTemplates(Category.ELECTRICITY);
+		final var properties = Map.of(
+			"description", "d".repeat(8192),
+			"affected.reference", "r".repeat(512),
+			"plannedStopDate", "2022-01-11 11:30");
+
+		final var messageOutboxEntity = new MessageOutboxEntity();
+		messageOutboxEntity.setPartyId("partyId-1");
+		messageOutboxEntity.setSubject(categoryTemplates.subjectUpdate().render(properties));
+		messageOutboxEntity.setMessage(categoryTemplates.messageUpdate().render(properties));
+
+		messageOutboxRepository.persistAndFlush(messageOutboxEntity);
+		messageOutboxRepository.getEntityManager().clear();
+
+		final var persisted = messageOutboxRepository.findById(messageOutboxEntity.getId());
+		assertThat(persisted.getSubject()).hasSizeGreaterThan(512).isEqualTo(messageOutboxEntity.getSubject());
+		assertThat(persisted.getMessage()).hasSizeGreaterThan(8192 + 512).isEqualTo(messageOutboxEntity.getMessage());
+	}
+
+	private MessageOutboxEntity persistMessageOutboxEntity(String partyId, int attempts, OffsetDateTime dispatchAfter) {
+		final var messageOutboxEntity = new MessageOutboxEntity();
+		messageOutboxEntity.setPartyId(partyId);
+		messageOutboxEntity.setSubject("subject");
+		messageOutboxEntity.setMessage("message");
+		messageOutboxEntity.setAttempts(attempts);
+		messageOutboxEntity.setDispatchAfter(dispatchAfter);
+
+		messageOutboxRepository.persistAndFlush(messageOutboxEntity);
+
+		return messageOutboxEntity;
+	}
+}
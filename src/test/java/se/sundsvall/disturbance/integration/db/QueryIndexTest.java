@@ -0,0 +1,89 @@
+package se.sundsvall.disturbance.integration.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Verifies (with EXPLAIN) that an index is available for the lookups performed by the repositories, i.e. that they are
+ * not executed as full table scans.
+ *
+ * The queries correspond to the SQL generated for the repository methods. When a repository query is added or changed,
+ * the corresponding query should be added or changed here as well.
+ */
+@QuarkusTest
+class QueryIndexTest {
+
+	// Column positions in the EXPLAIN output.
+	private static final int TABLE = 2;
+	private static final int POSSIBLE_KEYS = 4;
+
+	@Inject
+	EntityManager entityManager;
+
+	private static Stream<Arguments> queryArguments() {
+		return Stream.of(
+			// DisturbanceRepository.findByCategoryAndDisturbanceIdOptional
+			Arguments.of("disturbance", "category_disturbance_id_deleted_status_index",
+				"SELECT * FROM disturbance WHERE disturbance_id = 'disturbance-2' AND category = 'CO' AND deleted = 0"),
+			// DisturbanceRepository.findStateByCategoryAndDisturbanceIdOptional
+			Arguments.of("disturbance", "category_disturbance_id_deleted_status_index",
+				"SELECT id, status FROM disturbance WHERE disturbance_id = 'disturbance-2' AND category = 'CO' AND deleted = 0"),
+			// DisturbanceRepository.findByPartyIdFilterByCategoryAndStatus
+			Arguments.of("a", "party_id_parent_id_index",
+				"SELECT d.* FROM disturbance d WHERE d.deleted = 0 AND EXISTS (SELECT a.id FROM affected a WHERE a.parent_id = d.id AND a.party_id = 'c76ae496-3aed-11ec-8d3d-0242ac130003') ORDER BY d.id"),
+			// DisturbanceRepository.findAffectedEntitiesByPartyId
+			Arguments.of("affected", "party_id_parent_id_index",
+				"SELECT * FROM affected WHERE party_id = 'c76ae496-3aed-11ec-8d3d-0242ac130003' AND parent_id IN (3, 4) ORDER BY id"),
+			// DisturbanceFeedbackRepository.findByCategoryAndDisturbanceId
+			Arguments.of("disturbance_feedback", "uq_disturbance_feedback_category_disturbance_id_party_id",
+				"SELECT * FROM disturbance_feedback WHERE disturbance_id = 'disturbance-5' AND category = 'EL'"),
+			// DisturbanceFeedbackRepository.findByCategoryAndDisturbanceIdAndPartyIdOptional
+			Arguments.of("disturbance_feedback", "uq_disturbance_feedback_category_disturbance_id_party_id",
+				"SELECT * FROM disturbance_feedback WHERE disturbance_id = 'disturbance-5' AND category = 'EL' AND party_id = 'affected-1'"),
+			// DisturbanceFeedbackRepository.findByPartyId
+			Arguments.of("disturbance_feedback", "party_id_index",
+				"SELECT * FROM disturbance_feedback WHERE party_id = 'affected-1'"),
+			// DisturbanceFeedbackRepository.deleteByCategoryAndDisturbanceId
+			Arguments.of("disturbance_feedback", "uq_disturbance_feedback_category_disturbance_id_party_id",
+				"DELETE FROM disturbance_feedback WHERE disturbance_id = 'disturbance-5' AND category = 'EL'"),
+			// Lookup of sent messages (i.e. disturbance_feedback_history) for a disturbance and partyId
+			Arguments.of("disturbance_feedback_history", "category_disturbance_id_party_id_index",
+				"SELECT * FROM disturbance_feedback_history WHERE disturbance_id = 'disturbance-5' AND category = 'EL' AND party_id = 'affected-1'"),
+			// FeedbackRepository.findByPartyIdOptional and findPartyIdsWithFeedback
+			Arguments.of("feedback", "uq_feedback_party_id",
+				"SELECT party_id FROM feedback WHERE party_id IN ('fbfbd90c-4c47-11ec-81d3-0242ac130003', '257f6aa0-4c48-11ec-81d3-0242ac130003')"),
+			// FeedbackRepository.findPartyIdsCreatedSince
+			Arguments.of("feedback", "created_index",
+				"SELECT party_id FROM feedback WHERE created >= '2021-11-22 00:00:00'"),
+			// MessageOutboxRepository.claimBatch
+			Arguments.of("message_outbox", "dead_letter_dispatch_after_index",
+				"SELECT * FROM message_outbox WHERE dead_letter = 0 AND dispatch_after <= NOW() AND attempts < 10 ORDER BY id LIMIT 2000"));
+	}
+
+	@ParameterizedTest(name = "{0}: {1}")
+	@MethodSource("queryArguments")
+	void queryCanUseIndex(String table, String expectedIndex, String query) {
+
+		@SuppressWarnings("unchecked")
+		final List<Object[]> plan = entityManager.createNativeQuery("EXPLAIN " + query).getResultList();
+
+		assertThat(plan)
+			.describedAs("EXPLAIN %s", query)
+			.filteredOn(row -> table.equals(row[TABLE]))
+			.isNotEmpty()
+			.allSatisfy(row -> assertThat(String.valueOf(row[POSSIBLE_KEYS]))
+				.describedAs("Possible keys for table '%s' in: %s", table, query)
+				.contains(expectedIndex));
+	}
+}
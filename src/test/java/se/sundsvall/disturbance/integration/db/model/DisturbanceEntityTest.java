@@ -36,6 +36,6 @@ class DisturbanceEntityTest {
 
 	@Test
 	void testNoDirtOnCreatedBean() {
-		assertThat(new DisturbanceEntity()).hasAllNullFieldsOrPropertiesExcept("id", "deleted");
+		assertThat(new DisturbanceEntity()).hasAllNullFieldsOrPropertiesExcept("id", "deleted", "version");
 	}
 }
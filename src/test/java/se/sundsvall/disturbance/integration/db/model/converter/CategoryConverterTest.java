@@ -0,0 +1,51 @@
+package se.sundsvall.disturbance.integration.db.model.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import se.sundsvall.disturbance.api.model.Category;
+
+class CategoryConverterTest {
+
+	private final CategoryConverter converter = new CategoryConverter();
+
+	@ParameterizedTest
+	@EnumSource(Category.class)
+	void convertRoundTrip(Category category) {
+		final var code = converter.convertToDatabaseColumn(category);
+
+		assertThat(code).isNotBlank().hasSizeLessThanOrEqualTo(2);
+		assertThat(converter.convertToEntityAttribute(code)).isEqualTo(category);
+	}
+
+	@Test
+	void codesAreUnique() {
+		assertThat(Arrays.stream(Category.values()).map(converter::convertToDatabaseColumn)).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void convertPersistedCode() {
+		// Codes are persisted, i.e. they must not change.
+		assertThat(converter.convertToDatabaseColumn(Category.COMMUNICATION)).isEqualTo("CO");
+		assertThat(converter.convertToEntityAttribute("CO")).isEqualTo(Category.COMMUNICATION);
+	}
+
+	@Test
+	void convertNull() {
+		assertThat(converter.convertToDatabaseColumn(null)).isNull();
+		assertThat(converter.convertToEntityAttribute(null)).isNull();
+	}
+
+	@Test
+	void convertUnknownCode() {
+		assertThatThrownBy(() -> converter.convertToEntityAttribute("COMMUNICATION"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unknown category code:'COMMUNICATION'");
+	}
+}
@@ -0,0 +1,51 @@
+package se.sundsvall.disturbance.integration.db.model.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import se.sundsvall.disturbance.api.model.Status;
+
+class StatusConverterTest {
+
+	private final StatusConverter converter = new StatusConverter();
+
+	@ParameterizedTest
+	@EnumSource(Status.class)
+	void convertRoundTrip(Status status) {
+		final var code = converter.convertToDatabaseColumn(status);
+
+		assertThat(code).isNotBlank().hasSizeLessThanOrEqualTo(1);
+		assertThat(converter.convertToEntityAttribute(code)).isEqualTo(status);
+	}
+
+	@Test
+	void codesAreUnique() {
+		assertThat(Arrays.stream(Status.values()).map(converter::convertToDatabaseColumn)).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void convertPersistedCode() {
+		// Codes are persisted, i.e. they must not change.
+		assertThat(converter.convertToDatabaseColumn(Status.CLOSED)).isEqualTo("C");
+		assertThat(converter.convertToEntityAttribute("C")).isEqualTo(Status.CLOSED);
+	}
+
+	@Test
+	void convertNull() {
+		assertThat(converter.convertToDatabaseColumn(null)).isNull();
+		assertThat(converter.convertToEntityAttribute(null)).isNull();
+	}
+
+	@Test
+	void convertUnknownCode() {
+		assertThatThrownBy(() -> converter.convertToEntityAttribute("CLOSED"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unknown status code:'CLOSED'");
+	}
+}
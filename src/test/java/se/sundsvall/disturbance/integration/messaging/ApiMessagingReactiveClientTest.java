@@ -0,0 +1,245 @@
+package se.sundsvall.disturbance.integration.messaging;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static javax.ws.rs.core.Response.Status.BAD_GATEWAY;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static javax.ws.rs.core.Response.Status.TEMPORARY_REDIRECT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.integration.messaging.ApiMessagingReactiveClient.SPAN_ATTRIBUTE_HTTP_STATUS_CODE;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.ws.rs.ProcessingException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Fault;
+
+import generated.se.sundsvall.messaging.Message;
+import generated.se.sundsvall.messaging.MessageRequest;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.quarkus.oidc.client.Tokens;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.service.message.configuration.MessageDeliveryConfiguration;
+import se.sundsvall.disturbance.support.TracingTestSupport;
+
+@ExtendWith(MockitoExtension.class)
+class ApiMessagingReactiveClientTest {
+
+	private static final String ACCESS_TOKEN = "access-token";
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private static final WireMockServer WIRE_MOCK_SERVER = new WireMockServer(options().dynamicPort());
+	private static Vertx vertx;
+
+	@Mock
+	private ApiMessagingTokensProducer apiMessagingTokensProducerMock;
+
+	@Mock
+	private MessageDeliveryConfiguration messageDeliveryConfigurationMock;
+
+	@Mock
+	private Tokens tokensMock;
+
+	@InjectMocks
+	private ApiMessagingReactiveClient apiMessagingReactiveClient;
+
+	private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+
+	@BeforeAll
+	static void startServer() {
+		WIRE_MOCK_SERVER.start();
+		vertx = Vertx.vertx();
+	}
+
+	@AfterAll
+	static void stopServer() {
+		vertx.closeAndAwait();
+		WIRE_MOCK_SERVER.stop();
+	}
+
+	@BeforeEach
+	void setup() {
+		WIRE_MOCK_SERVER.resetAll();
+		apiMessagingReactiveClient.vertx = vertx;
+		apiMessagingReactiveClient.objectMapper = new ObjectMapper();
+		apiMessagingReactiveClient.openTelemetry = OpenTelemetry.propagating(ContextPropagators.create(W3CTraceContextPropagator.getInstance()));
+		apiMessagingReactiveClient.tracer = TracingTestSupport.createTracer(spanExporter);
+		apiMessagingReactiveClient.url = WIRE_MOCK_SERVER.baseUrl() + "/";
+		lenient().when(apiMessagingTokensProducerMock.getTokens()).thenReturn(Uni.createFrom().item(tokensMock));
+		lenient().when(tokensMock.getAccessToken()).thenReturn(ACCESS_TOKEN);
+		lenient().when(messageDeliveryConfigurationMock.poolSize()).thenReturn(4);
+		lenient().when(messageDeliveryConfigurationMock.requestTimeout()).thenReturn(Duration.ofSeconds(1));
+		apiMessagingReactiveClient.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		apiMessagingReactiveClient.destroy();
+	}
+
+	@Test
+	void sendMessage() {
+
+		WIRE_MOCK_SERVER.stubFor(post(urlEqualTo("/messages"))
+			.willReturn(aResponse()
+				.withHeader("Content-Type", "application/json")
+				.withBody("{\"messageId\": \"message-1\", \"sent\": true}")));
+
+		final var response = apiMessagingReactiveClient.sendMessage(createMessageRequest()).await().atMost(TIMEOUT);
+
+		assertThat(response.getMessageId()).isEqualTo("message-1");
+		assertThat(response.getSent()).isTrue();
+		WIRE_MOCK_SERVER.verify(postRequestedFor(urlEqualTo("/messages"))
+			.withHeader("Authorization", equalTo("Bearer " + ACCESS_TOKEN))
+			.withHeader("Content-Type", equalTo("application/json"))
+			.withHeader("traceparent", matching("00-[0-9a-f]{32}-[0-9a-f]{16}-01"))
+			.withRequestBody(equalToJson("{\"messages\": [{\"partyId\": \"partyId-1\", \"subject\": \"subject\", \"message\": \"message\"}]}", true, true)));
+
+		// The call is traced in a client span, that is the parent of the call made to api-messaging.
+		final var span = spanExporter.getFinishedSpanItems().get(0);
+		assertThat(span.getKind()).isEqualTo(SpanKind.CLIENT);
+		assertThat(span.getAttributes().get(SPAN_ATTRIBUTE_HTTP_STATUS_CODE)).isEqualTo(200L);
+		assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.UNSET);
+		WIRE_MOCK_SERVER.verify(postRequestedFor(urlEqualTo("/messages"))
+			.withHeader("traceparent", equalTo("00-" + span.getTraceId() + "-" + span.getSpanId() + "-01")));
+	}
+
+	@Test
+	void sendMessageWithRedirect() {
+
+		WIRE_MOCK_SERVER.stubFor(post(urlEqualTo("/messages"))
+			.willReturn(aResponse()
+				.withStatus(TEMPORARY_REDIRECT.getStatusCode())
+				.withHeader("Location", "/v2/messages")));
+		WIRE_MOCK_SERVER.stubFor(post(urlEqualTo("/v2/messages"))
+			.willReturn(aResponse()
+				.withHeader("Content-Type", "application/json")
+				.withBody("{\"messageId\": \"message-1\", \"sent\": true}")));
+
+		final var response = apiMessagingReactiveClient.sendMessage(createMessageRequest()).await().atMost(TIMEOUT);
+
+		// The POST is redirected with the same headers and body.
+		assertThat(response.getMessageId()).isEqualTo("message-1");
+		WIRE_MOCK_SERVER.verify(postRequestedFor(urlEqualTo("/v2/messages"))
+			.withHeader("Authorization", equalTo("Bearer " + ACCESS_TOKEN))
+			.withHeader("Content-Type", equalTo("application/json"))
+			.withRequestBody(equalToJson("{\"messages\": [{\"partyId\": \"partyId-1\", \"subject\": \"subject\", \"message\": \"message\"}]}", true, true)));
+	}
+
+	@Test
+	void sendMessageWithErrorResponse() {
+
+		WIRE_MOCK_SERVER.stubFor(post(urlEqualTo("/messages"))
+			.willReturn(aResponse()
+				.withStatus(BAD_REQUEST.getStatusCode())
+				.withHeader("Content-Type", "application/json")
+				.withBody("{\"httpCode\": 400, \"message\": \"Bad request\", \"technicalDetails\": {\"rootCode\": 400, \"serviceId\": \"called-service\", "
+					+ "\"details\": [\"error1\", \"error2\"]}}")));
+
+		final var failure = awaitFailure(apiMessagingReactiveClient.sendMessage(createMessageRequest()));
+
+		assertThat(failure)
+			.hasMessage("Error calling api-messaging")
+			.isInstanceOfSatisfying(ServiceException.class, serviceException -> {
+				assertThat(serviceException.getStatus()).isEqualTo(BAD_GATEWAY);
+				assertThat(serviceException.getTechnicalDetails().getRootCode()).isEqualTo(BAD_REQUEST.getStatusCode());
+				assertThat(serviceException.getTechnicalDetails().getServiceId()).isEqualTo("called-service");
+				assertThat(serviceException.getTechnicalDetails().getDetails()).isEqualTo(List.of("error1", "error2"));
+			});
+		assertThat(spanExporter.getFinishedSpanItems().get(0).getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+	}
+
+	@Test
+	void sendMessageWithErrorResponseThatIsNotJson() {
+
+		WIRE_MOCK_SERVER.stubFor(post(urlEqualTo("/messages"))
+			.willReturn(aResponse()
+				.withStatus(SERVICE_UNAVAILABLE.getStatusCode())
+				.withHeader("Content-Type", "text/html")
+				.withBody("<html>Service unavailable</html>")));
+
+		final var failure = awaitFailure(apiMessagingReactiveClient.sendMessage(createMessageRequest()));
+
+		assertThat(failure)
+			.isInstanceOfSatisfying(ServiceException.class, serviceException -> {
+				assertThat(serviceException.getTechnicalDetails().getRootCode()).isEqualTo(SERVICE_UNAVAILABLE.getStatusCode());
+				assertThat(serviceException.getTechnicalDetails().getServiceId()).isEqualTo("api-messaging-service");
+				assertThat(serviceException.getTechnicalDetails().getDetails()).isEqualTo(List.of("<html>Service unavailable</html>"));
+			});
+	}
+
+	@Test
+	void sendMessageWithConnectionFailure() {
+
+		WIRE_MOCK_SERVER.stubFor(post(urlEqualTo("/messages"))
+			.willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+		final var failure = awaitFailure(apiMessagingReactiveClient.sendMessage(createMessageRequest()));
+
+		assertThat(failure).isInstanceOf(ProcessingException.class);
+	}
+
+	@Test
+	void sendMessageWithoutResponseWithinTimeout() {
+
+		WIRE_MOCK_SERVER.stubFor(post(urlEqualTo("/messages"))
+			.willReturn(aResponse().withFixedDelay(3000)));
+
+		final var failure = awaitFailure(apiMessagingReactiveClient.sendMessage(createMessageRequest()));
+
+		assertThat(failure).isInstanceOf(ProcessingException.class);
+	}
+
+	@Test
+	void sendMessageWhenTokensFail() {
+
+		when(apiMessagingTokensProducerMock.getTokens()).thenReturn(Uni.createFrom().failure(new IllegalStateException("Token request failed")));
+
+		final var failure = awaitFailure(apiMessagingReactiveClient.sendMessage(createMessageRequest()));
+
+		assertThat(failure)
+			.isInstanceOf(ProcessingException.class)
+			.hasCauseInstanceOf(IllegalStateException.class);
+		assertThat(WIRE_MOCK_SERVER.getAllServeEvents()).isEmpty();
+	}
+
+	private static Throwable awaitFailure(Uni<?> uni) {
+		return uni.onItemOrFailure().transform((item, failure) -> failure).await().atMost(TIMEOUT);
+	}
+
+	private static MessageRequest createMessageRequest() {
+		return new MessageRequest().messages(List.of(new Message()
+			.partyId("partyId-1")
+			.subject("subject")
+			.message("message")));
+	}
+}
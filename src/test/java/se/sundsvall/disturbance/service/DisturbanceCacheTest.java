@@ -0,0 +1,160 @@
+package se.sundsvall.disturbance.service;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import se.sundsvall.disturbance.api.model.Affected;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.api.model.DisturbanceEventType;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.service.configuration.DisturbanceCacheConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+class DisturbanceCacheTest {
+
+	private static final long MAXIMUM_WEIGHT = 100;
+
+	@Mock
+	private DisturbanceCacheConfiguration disturbanceCacheConfigurationMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private DisturbanceCache disturbanceCache;
+
+	@BeforeEach
+	void setup() {
+		when(disturbanceCacheConfigurationMock.maximumWeight()).thenReturn(MAXIMUM_WEIGHT);
+		when(disturbanceCacheConfigurationMock.expireAfterWrite()).thenReturn(Duration.ofMinutes(1));
+
+		meterRegistry = new SimpleMeterRegistry();
+		disturbanceCache = new DisturbanceCache();
+		disturbanceCache.disturbanceCacheConfiguration = disturbanceCacheConfigurationMock;
+		disturbanceCache.meterRegistry = meterRegistry;
+		disturbanceCache.init();
+	}
+
+	@Test
+	void loadAndGet() {
+
+		final var disturbance = Disturbance.create().withCategory(Category.ELECTRICITY).withId("disturbance-1");
+
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-1", () -> Optional.of(disturbance))).containsSame(disturbance);
+
+		// A cached disturbance is not loaded again, and a disturbance that doesn't exist is not cached.
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-1", () -> fail("Cached disturbance loaded"))).containsSame(disturbance);
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-2", Optional::empty)).isEmpty();
+
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-1")).containsSame(disturbance);
+		assertThat(disturbanceCache.get(Category.COMMUNICATION, "disturbance-1")).isEmpty();
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-2")).isEmpty();
+	}
+
+	@Test
+	void onDisturbanceChanged() {
+
+		load(Category.ELECTRICITY, "disturbance-1", Disturbance.create());
+		load(Category.ELECTRICITY, "disturbance-2", Disturbance.create());
+
+		disturbanceCache.onDisturbanceChanged(new DisturbanceChangedEvent(Category.ELECTRICITY, "disturbance-1", DisturbanceEventType.UPDATED, Status.OPEN, Set.of()));
+
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-1")).isEmpty();
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-2")).isPresent();
+	}
+
+	@Test
+	void onDisturbanceChangedDuringLoad() throws Exception {
+
+		final var loadStarted = new CountDownLatch(1);
+		final var loadReleased = new CountDownLatch(1);
+
+		// A (slow) load that reads the disturbance before it is changed.
+		final var loadThread = new Thread(() -> disturbanceCache.get(Category.ELECTRICITY, "disturbance-1", () -> {
+			loadStarted.countDown();
+			awaitUninterruptibly(loadReleased);
+			return Optional.of(Disturbance.create().withTitle("Before the change"));
+		}));
+		loadThread.start();
+		assertThat(loadStarted.await(5, SECONDS)).isTrue();
+
+		// The change is committed (and evicted) before the load is completed. The eviction waits for the load.
+		final var evictThread = new Thread(() -> disturbanceCache.onDisturbanceChanged(new DisturbanceChangedEvent(Category.ELECTRICITY, "disturbance-1",
+			DisturbanceEventType.UPDATED, Status.OPEN, Set.of())));
+		evictThread.start();
+		final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while ((evictThread.getState() != Thread.State.BLOCKED) && evictThread.isAlive() && (System.nanoTime() < deadline)) {
+			Thread.sleep(10);
+		}
+
+		loadReleased.countDown();
+		loadThread.join(5000);
+		evictThread.join(5000);
+
+		// The disturbance as it was before the change is not left in the cache.
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-1")).isEmpty();
+	}
+
+	@Test
+	void weigh() {
+
+		assertThat(DisturbanceCache.weigh(null, Disturbance.create())).isOne();
+		assertThat(DisturbanceCache.weigh(null, Disturbance.create().withAffecteds(List.of(Affected.create(), Affected.create())))).isEqualTo(3);
+	}
+
+	@Test
+	void evictionByWeight() throws InterruptedException {
+
+		// A disturbance with more affecteds than the maximum weight is not kept in the cache (the eviction is asynchronous).
+		load(Category.ELECTRICITY, "disturbance-1", Disturbance.create()
+			.withAffecteds(Stream.generate(Affected::create).limit(MAXIMUM_WEIGHT).collect(toList())));
+
+		final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (disturbanceCache.get(Category.ELECTRICITY, "disturbance-1").isPresent() && (System.nanoTime() < deadline)) {
+			Thread.sleep(10);
+		}
+		assertThat(disturbanceCache.get(Category.ELECTRICITY, "disturbance-1")).isEmpty();
+	}
+
+	@Test
+	void hitAndMissMetrics() {
+
+		load(Category.ELECTRICITY, "disturbance-1", Disturbance.create());
+
+		disturbanceCache.get(Category.ELECTRICITY, "disturbance-1");
+		disturbanceCache.get(Category.ELECTRICITY, "disturbance-1");
+		disturbanceCache.get(Category.ELECTRICITY, "disturbance-2");
+
+		assertThat(meterRegistry.get("cache.gets").tag("cache", "disturbances").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+		// The load of disturbance-1 is a miss as well.
+		assertThat(meterRegistry.get("cache.gets").tag("cache", "disturbances").tag("result", "miss").functionCounter().count()).isEqualTo(2);
+	}
+
+	private void load(Category category, String disturbanceId, Disturbance disturbance) {
+		disturbanceCache.get(category, disturbanceId, () -> Optional.of(disturbance));
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await(5, SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
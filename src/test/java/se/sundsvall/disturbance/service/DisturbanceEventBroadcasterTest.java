@@ -0,0 +1,176 @@
+package se.sundsvall.disturbance.service;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.jboss.resteasy.plugins.providers.sse.SseImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.DisturbanceEvent;
+import se.sundsvall.disturbance.api.model.DisturbanceEventType;
+import se.sundsvall.disturbance.service.configuration.DisturbanceEventsConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+class DisturbanceEventBroadcasterTest {
+
+	private static final String PARTY_ID = "81471222-5798-11e9-ae24-57fa13b361e1";
+
+	@Mock
+	private DisturbanceEventsConfiguration disturbanceEventsConfigurationMock;
+
+	@Mock
+	private SseEventSink sseEventSinkMock;
+
+	@Captor
+	private ArgumentCaptor<OutboundSseEvent> outboundSseEventCaptor;
+
+	private final Sse sse = new SseImpl();
+
+	private DisturbanceEventBroadcaster disturbanceEventBroadcaster;
+
+	@BeforeEach
+	void setup() {
+		lenient().when(disturbanceEventsConfigurationMock.maxSubscriptions()).thenReturn(10);
+		lenient().when(sseEventSinkMock.send(any())).thenAnswer(invocation -> completedFuture(null));
+
+		disturbanceEventBroadcaster = new DisturbanceEventBroadcaster();
+		disturbanceEventBroadcaster.disturbanceEventsConfiguration = disturbanceEventsConfigurationMock;
+		disturbanceEventBroadcaster.init();
+	}
+
+	@AfterEach
+	void teardown() {
+		disturbanceEventBroadcaster.destroy();
+	}
+
+	@Test
+	void subscribeByPartyId() throws ServiceException {
+
+		// The partyId is matched case insensitive.
+		disturbanceEventBroadcaster.subscribeByPartyId(PARTY_ID.toUpperCase(), List.of(Category.ELECTRICITY), sseEventSinkMock, sse);
+
+		disturbanceEventBroadcaster.broadcast(new DisturbanceChangedEvent(Category.ELECTRICITY, "1", DisturbanceEventType.CREATED,
+			se.sundsvall.disturbance.api.model.Status.OPEN, Set.of(PARTY_ID, "other-party-id")));
+		disturbanceEventBroadcaster.broadcast(new DisturbanceChangedEvent(Category.WATER, "2", DisturbanceEventType.CREATED,
+			se.sundsvall.disturbance.api.model.Status.OPEN, Set.of(PARTY_ID))); // Filtered by category.
+		disturbanceEventBroadcaster.broadcast(new DisturbanceChangedEvent(Category.ELECTRICITY, "3", DisturbanceEventType.CREATED,
+			se.sundsvall.disturbance.api.model.Status.OPEN, Set.of("other-party-id"))); // Other partyId.
+
+		verify(sseEventSinkMock, times(2)).send(outboundSseEventCaptor.capture());
+
+		assertThat(outboundSseEventCaptor.getAllValues().get(0).getComment()).isEqualTo(DisturbanceEventBroadcaster.SUBSCRIBED_COMMENT);
+		final var outboundSseEvent = outboundSseEventCaptor.getAllValues().get(1);
+		assertThat(outboundSseEvent.getName()).isEqualTo("CREATED");
+		assertThat(outboundSseEvent.getData()).isEqualTo(DisturbanceEvent.create()
+			.withType(DisturbanceEventType.CREATED)
+			.withCategory(Category.ELECTRICITY)
+			.withId("1")
+			.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN));
+		assertThat(disturbanceEventBroadcaster.getNumberOfSubscriptions()).isOne();
+		assertThat(disturbanceEventBroadcaster.hasPartyIdSubscriptions()).isTrue();
+	}
+
+	@Test
+	void subscribeByCategory() throws ServiceException {
+
+		disturbanceEventBroadcaster.subscribeByCategory(List.of(Category.WATER, Category.ELECTRICITY), sseEventSinkMock, sse);
+
+		disturbanceEventBroadcaster.broadcast(new DisturbanceChangedEvent(Category.WATER, "1", DisturbanceEventType.DELETED, null, Set.of()));
+		disturbanceEventBroadcaster.broadcast(new DisturbanceChangedEvent(Category.COMMUNICATION, "2", DisturbanceEventType.DELETED, null, Set.of()));
+
+		verify(sseEventSinkMock, times(2)).send(outboundSseEventCaptor.capture());
+
+		assertThat(outboundSseEventCaptor.getAllValues().get(1).getName()).isEqualTo("DELETED");
+		assertThat(outboundSseEventCaptor.getAllValues().get(1).getData()).isEqualTo(DisturbanceEvent.create()
+			.withType(DisturbanceEventType.DELETED)
+			.withCategory(Category.WATER)
+			.withId("1"));
+		assertThat(disturbanceEventBroadcaster.getNumberOfSubscriptions()).isOne();
+		assertThat(disturbanceEventBroadcaster.hasPartyIdSubscriptions()).isFalse();
+	}
+
+	@Test
+	void subscribeWhenMaxSubscriptionsIsReached() {
+
+		when(disturbanceEventsConfigurationMock.maxSubscriptions()).thenReturn(0);
+
+		final var serviceException = assertThrows(ServiceException.class,
+			() -> disturbanceEventBroadcaster.subscribeByCategory(List.of(Category.WATER), sseEventSinkMock, sse));
+
+		assertThat(serviceException.getMessage()).isEqualTo("The max number of event subscriptions ('0') is reached! Try again later!");
+		assertThat(serviceException.getStatus()).isEqualTo(Status.SERVICE_UNAVAILABLE);
+		assertThat(disturbanceEventBroadcaster.getNumberOfSubscriptions()).isZero();
+		verifyNoInteractions(sseEventSinkMock);
+	}
+
+	@Test
+	void subscriptionIsRemovedWhenSendFails() throws ServiceException {
+
+		disturbanceEventBroadcaster.subscribeByPartyId(PARTY_ID, null, sseEventSinkMock, sse);
+
+		when(sseEventSinkMock.send(any())).thenAnswer(invocation -> failedFuture(new IOException("Broken pipe")));
+
+		disturbanceEventBroadcaster.broadcast(new DisturbanceChangedEvent(Category.WATER, "1", DisturbanceEventType.UPDATED,
+			se.sundsvall.disturbance.api.model.Status.OPEN, Set.of(PARTY_ID)));
+		disturbanceEventBroadcaster.broadcast(new DisturbanceChangedEvent(Category.WATER, "1", DisturbanceEventType.CLOSED,
+			se.sundsvall.disturbance.api.model.Status.CLOSED, Set.of(PARTY_ID)));
+
+		verify(sseEventSinkMock, times(2)).send(any());
+		verify(sseEventSinkMock).close();
+		assertThat(disturbanceEventBroadcaster.getNumberOfSubscriptions()).isZero();
+		assertThat(disturbanceEventBroadcaster.hasPartyIdSubscriptions()).isFalse();
+	}
+
+	@Test
+	void heartbeatRemovesClosedSubscriptions() throws ServiceException {
+
+		disturbanceEventBroadcaster.subscribeByCategory(List.of(Category.WATER), sseEventSinkMock, sse);
+
+		when(sseEventSinkMock.isClosed()).thenReturn(true);
+
+		disturbanceEventBroadcaster.heartbeat();
+
+		verify(sseEventSinkMock).send(any()); // Only the subscribed comment.
+		verify(sseEventSinkMock, never()).close();
+		assertThat(disturbanceEventBroadcaster.getNumberOfSubscriptions()).isZero();
+	}
+
+	@Test
+	void heartbeat() throws ServiceException {
+
+		disturbanceEventBroadcaster.subscribeByCategory(List.of(Category.WATER), sseEventSinkMock, sse);
+
+		disturbanceEventBroadcaster.heartbeat();
+
+		verify(sseEventSinkMock, times(2)).send(outboundSseEventCaptor.capture());
+		assertThat(outboundSseEventCaptor.getAllValues().get(1).getComment()).isEqualTo(DisturbanceEventBroadcaster.HEARTBEAT_COMMENT);
+		assertThat(disturbanceEventBroadcaster.getNumberOfSubscriptions()).isOne();
+	}
+}
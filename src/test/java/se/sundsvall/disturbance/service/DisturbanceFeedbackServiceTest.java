@@ -3,15 +3,19 @@ package se.sundsvall.disturbance.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
+import javax.persistence.PersistenceException;
 import javax.ws.rs.core.Response.Status;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -25,8 +29,8 @@ import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.DisturbanceFeedbackCreateRequest;
 import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
-import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceState;
 
 @ExtendWith(MockitoExtension.class)
 class DisturbanceFeedbackServiceTest {
@@ -50,22 +54,19 @@ class DisturbanceFeedbackServiceTest {
 		final var category = Category.COMMUNICATION;
 		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.of(new DisturbanceEntity()));
-		when(disturbanceFeedbackRepositoryMock.findByCategoryAndDisturbanceIdAndPartyIdOptional(any(Category.class), any(String.class), any(String.class)))
-			.thenReturn(Optional.empty());
+		when(disturbanceRepositoryMock.findStateByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.of(new DisturbanceState(1L, se.sundsvall.disturbance.api.model.Status.OPEN)));
 
 		disturbanceFeedbackService.createDisturbanceFeedback(category, disturbanceId, DisturbanceFeedbackCreateRequest.create().withPartyId(partyId));
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
-		verify(disturbanceFeedbackRepositoryMock).findByCategoryAndDisturbanceIdAndPartyIdOptional(category, disturbanceId, partyId);
-		verify(disturbanceFeedbackRepositoryMock).persist(disturbanceFeedbackEntityCaptor.capture());
+		verify(disturbanceRepositoryMock).findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verify(disturbanceFeedbackRepositoryMock).persistAndFlush(disturbanceFeedbackEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceFeedbackRepositoryMock);
 
 		final var disturbanceFeedbackEntityCaptorValue = disturbanceFeedbackEntityCaptor.getValue();
 		assertThat(disturbanceFeedbackEntityCaptorValue).isNotNull();
 		assertThat(disturbanceFeedbackEntityCaptorValue.getDisturbanceId()).isEqualTo(disturbanceId);
 		assertThat(disturbanceFeedbackEntityCaptorValue.getPartyId()).isEqualTo(partyId);
-		assertThat(disturbanceFeedbackEntityCaptorValue.getCategory()).isEqualTo(category.toString());
+		assertThat(disturbanceFeedbackEntityCaptorValue.getCategory()).isEqualTo(category);
 	}
 
 	@Test
@@ -75,7 +76,7 @@ class DisturbanceFeedbackServiceTest {
 		final var category = Category.COMMUNICATION;
 		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.empty());
+		when(disturbanceRepositoryMock.findStateByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.empty());
 
 		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceFeedbackService.createDisturbanceFeedback(
 			category, disturbanceId, DisturbanceFeedbackCreateRequest.create().withPartyId(partyId)));
@@ -83,7 +84,7 @@ class DisturbanceFeedbackServiceTest {
 		assertThat(serviceException.getMessage()).isEqualTo("No disturbance found for category:'COMMUNICATION' and id:'1337'!");
 		assertThat(serviceException.getStatus()).isEqualTo(Status.NOT_FOUND);
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verify(disturbanceRepositoryMock).findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
 		verifyNoInteractions(disturbanceFeedbackRepositoryMock);
 	}
@@ -95,9 +96,10 @@ class DisturbanceFeedbackServiceTest {
 		final var category = Category.COMMUNICATION;
 		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.of(new DisturbanceEntity()));
-		when(disturbanceFeedbackRepositoryMock.findByCategoryAndDisturbanceIdAndPartyIdOptional(any(Category.class), any(String.class), any(String.class)))
-			.thenReturn(Optional.of(new DisturbanceFeedbackEntity()));
+		when(disturbanceRepositoryMock.findStateByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.of(new DisturbanceState(1L, se.sundsvall.disturbance.api.model.Status.OPEN)));
+		doThrow(new PersistenceException(new ConstraintViolationException("Duplicate",
+			new SQLException("Duplicate entry for key 'uq_disturbance_feedback_category_disturbance_id_party_id'"), "uq_disturbance_feedback_category_disturbance_id_party_id")))
+				.when(disturbanceFeedbackRepositoryMock).persistAndFlush(any(DisturbanceFeedbackEntity.class));
 
 		final var serviceException = assertThrows(ServiceException.class,
 			() -> disturbanceFeedbackService.createDisturbanceFeedback(category, disturbanceId, DisturbanceFeedbackCreateRequest.create().withPartyId(partyId)));
@@ -106,8 +108,8 @@ class DisturbanceFeedbackServiceTest {
 			.isEqualTo("A disturbance feedback with category:'COMMUNICATION', id:'1337' and partyId:'81471222-5798-11e9-ae24-57fa13b361e1' already exists!");
 		assertThat(serviceException.getStatus()).isEqualTo(Status.CONFLICT);
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
-		verify(disturbanceFeedbackRepositoryMock).findByCategoryAndDisturbanceIdAndPartyIdOptional(category, disturbanceId, partyId);
+		verify(disturbanceRepositoryMock).findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verify(disturbanceFeedbackRepositoryMock).persistAndFlush(any(DisturbanceFeedbackEntity.class));
 		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceFeedbackRepositoryMock);
 	}
 
@@ -118,10 +120,9 @@ class DisturbanceFeedbackServiceTest {
 		final var category = Category.COMMUNICATION;
 		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
 
-		final var disturbanceEntity = new DisturbanceEntity();
-		disturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.CLOSED.toString());
+		final var disturbanceState = new DisturbanceState(1L, se.sundsvall.disturbance.api.model.Status.CLOSED);
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.of(disturbanceEntity));
+		when(disturbanceRepositoryMock.findStateByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.of(disturbanceState));
 
 		final var serviceException = assertThrows(ServiceException.class,
 			() -> disturbanceFeedbackService.createDisturbanceFeedback(category, disturbanceId, DisturbanceFeedbackCreateRequest.create().withPartyId(partyId)));
@@ -129,7 +130,7 @@ class DisturbanceFeedbackServiceTest {
 		assertThat(serviceException.getMessage()).isEqualTo("A disturbance with category:'COMMUNICATION' and id:'1337' exists, but is closed!");
 		assertThat(serviceException.getStatus()).isEqualTo(Status.CONFLICT);
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verify(disturbanceRepositoryMock).findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
 		verifyNoInteractions(disturbanceFeedbackRepositoryMock);
 	}
@@ -0,0 +1,95 @@
+package se.sundsvall.disturbance.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.DisturbanceEventType;
+import se.sundsvall.disturbance.api.model.Status;
+
+class DisturbanceMetricsTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private DisturbanceMetrics disturbanceMetrics;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		disturbanceMetrics = new DisturbanceMetrics();
+		disturbanceMetrics.meterRegistry = meterRegistry;
+	}
+
+	@Test
+	void onDisturbanceChanged() {
+
+		disturbanceMetrics.onDisturbanceChanged(new DisturbanceChangedEvent(Category.ELECTRICITY, "1", DisturbanceEventType.CREATED, null, Status.PLANNED,
+			Set.of("partyId-1", "partyId-2")));
+		disturbanceMetrics.onDisturbanceChanged(new DisturbanceChangedEvent(Category.ELECTRICITY, "1", DisturbanceEventType.UPDATED, Status.PLANNED, Status.OPEN,
+			Set.of("partyId-1", "partyId-2", "partyId-3")));
+		disturbanceMetrics.onDisturbanceChanged(new DisturbanceChangedEvent(Category.ELECTRICITY, "1", DisturbanceEventType.CLOSED, Status.OPEN, Status.CLOSED,
+			Set.of("partyId-1")));
+		disturbanceMetrics.onDisturbanceChanged(new DisturbanceChangedEvent(Category.ELECTRICITY, "1", DisturbanceEventType.DELETED, Status.CLOSED, null, Set.of(), 4));
+
+		assertThat(meterRegistry.get(DisturbanceMetrics.CHANGES).tags("category", "ELECTRICITY", "type", "CREATED", "from", "NONE", "to", "PLANNED").counter().count()).isOne();
+		assertThat(meterRegistry.get(DisturbanceMetrics.CHANGES).tags("type", "UPDATED", "from", "PLANNED", "to", "OPEN").counter().count()).isOne();
+		assertThat(meterRegistry.get(DisturbanceMetrics.CHANGES).tags("type", "CLOSED", "from", "OPEN", "to", "CLOSED").counter().count()).isOne();
+		assertThat(meterRegistry.get(DisturbanceMetrics.CHANGES).tags("type", "DELETED", "from", "CLOSED", "to", "NONE").counter().count()).isOne();
+
+		final var createdAffecteds = meterRegistry.get(DisturbanceMetrics.AFFECTEDS).tags("category", "ELECTRICITY", "type", "CREATED").summary();
+		assertThat(createdAffecteds.count()).isOne();
+		assertThat(createdAffecteds.totalAmount()).isEqualTo(2);
+		assertThat(meterRegistry.get(DisturbanceMetrics.AFFECTEDS).tags("type", "UPDATED").summary().max()).isEqualTo(3);
+		// The partyIds of a deleted disturbance are only counted (unless there are subscriptions by partyId).
+		assertThat(meterRegistry.get(DisturbanceMetrics.AFFECTEDS).tags("type", "DELETED").summary().totalAmount()).isEqualTo(4);
+	}
+
+	@Test
+	void recordMessagesQueued() {
+
+		disturbanceMetrics.recordMessagesQueued(Category.WATER, "new", 10, Duration.ofMillis(20));
+		disturbanceMetrics.recordMessagesQueued(Category.WATER, "new", 0, Duration.ofMillis(5));
+		disturbanceMetrics.recordMessagesQueued(Category.WATER, "close", 4, Duration.ofMillis(10));
+
+		final var newTimer = meterRegistry.get(DisturbanceMetrics.MESSAGES_QUEUE).tags("category", "WATER", "type", "new").timer();
+		assertThat(newTimer.count()).isEqualTo(2);
+		assertThat(newTimer.totalTime(MILLISECONDS)).isEqualTo(25);
+
+		final var newMessages = meterRegistry.get(DisturbanceMetrics.MESSAGES_PER_SEND).tags("category", "WATER", "type", "new").summary();
+		assertThat(newMessages.count()).isEqualTo(2);
+		assertThat(newMessages.totalAmount()).isEqualTo(10);
+		assertThat(meterRegistry.get(DisturbanceMetrics.MESSAGES_PER_SEND).tags("type", "close").summary().totalAmount()).isEqualTo(4);
+	}
+
+	@Test
+	void recordMessagingRequestAndMessagesDelivered() {
+
+		disturbanceMetrics.recordMessagingRequest(Duration.ofMillis(100), false);
+		disturbanceMetrics.recordMessagingRequest(Duration.ofMillis(50), true);
+		disturbanceMetrics.recordMessagesDelivered(500, 0);
+		disturbanceMetrics.recordMessagesDelivered(200, 300);
+
+		assertThat(meterRegistry.get(DisturbanceMetrics.MESSAGING_REQUESTS).tag("outcome", "success").timer().count()).isOne();
+		assertThat(meterRegistry.get(DisturbanceMetrics.MESSAGING_REQUESTS).tag("outcome", "failure").timer().count()).isOne();
+		assertThat(meterRegistry.get(DisturbanceMetrics.MESSAGES_DELIVERED).tag("outcome", "success").counter().count()).isEqualTo(700);
+		assertThat(meterRegistry.get(DisturbanceMetrics.MESSAGES_DELIVERED).tag("outcome", "failure").counter().count()).isEqualTo(300);
+	}
+
+	@Test
+	void recordDeadLetterMessages() {
+
+		disturbanceMetrics.recordDeadLetterMessages(3);
+		assertThat(meterRegistry.get(DisturbanceMetrics.MESSAGES_DEAD_LETTER).gauge().value()).isEqualTo(3);
+
+		// The gauge shows the latest recorded number.
+		disturbanceMetrics.recordDeadLetterMessages(1);
+		assertThat(meterRegistry.get(DisturbanceMetrics.MESSAGES_DEAD_LETTER).gauge().value()).isOne();
+	}
+}
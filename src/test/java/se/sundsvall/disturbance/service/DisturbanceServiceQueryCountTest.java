@@ -0,0 +1,141 @@
+package se.sundsvall.disturbance.service;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.api.model.Status.OPEN;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import javax.inject.Inject;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.api.model.AffectedsInclusion;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+
+/**
+ * Verifies that the number of executed queries, when reading disturbances for a partyId, doesn't depend on the number
+ * of disturbances (i.e. no "N+1" lazy loading of the affecteds).
+ */
+@QuarkusTest
+@TestTransaction
+class DisturbanceServiceQueryCountTest {
+
+	private static final int AFFECTEDS_PER_DISTURBANCE = 3;
+
+	@Inject
+	DisturbanceService disturbanceService;
+
+	@Inject
+	DisturbanceRepository disturbanceRepository;
+
+	@Inject
+	SessionFactory sessionFactory;
+
+	@ParameterizedTest
+	@CsvSource({
+		"ALL, 1, 2",
+		"ALL, 100, 2",
+		"PARTY, 1, 2",
+		"PARTY, 100, 2",
+		"NONE, 1, 1",
+		"NONE, 100, 1"
+	})
+	void findByPartyIdAndCategoryAndStatus(AffectedsInclusion affectedsInclusion, int numberOfDisturbances, long expectedNumberOfQueries) throws ServiceException {
+
+		final var partyId = setupDisturbances(numberOfDisturbances);
+		final var statistics = clearStatistics();
+
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, null, null, null, null, affectedsInclusion);
+
+		assertThat(disturbancePage.getDisturbances()).hasSize(numberOfDisturbances);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedNumberOfQueries);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 10, 100 })
+	void findByPartyIdAndCategoryAndStatusWithAllAffecteds(int numberOfDisturbances) throws ServiceException {
+
+		final var partyId = setupDisturbances(numberOfDisturbances);
+		final var statistics = clearStatistics();
+
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, null, null, null, numberOfDisturbances, AffectedsInclusion.ALL);
+
+		assertThat(disturbancePage.getDisturbances())
+			.hasSize(numberOfDisturbances)
+			.allSatisfy(disturbance -> assertThat(disturbance.getAffecteds()).hasSize(AFFECTEDS_PER_DISTURBANCE));
+		// One query for the disturbances and one for their affecteds.
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 100 })
+	void streamByPartyIdAndCategoryAndStatus(int numberOfDisturbances) {
+
+		final var partyId = setupDisturbances(numberOfDisturbances);
+		final var statistics = clearStatistics();
+
+		final var disturbances = new ArrayList<Disturbance>();
+		disturbanceService.streamByPartyIdAndCategoryAndStatus(partyId, List.of(ELECTRICITY), List.of(OPEN), AffectedsInclusion.ALL, disturbances::add);
+
+		assertThat(disturbances)
+			.hasSize(numberOfDisturbances)
+			.allSatisfy(disturbance -> assertThat(disturbance.getAffecteds()).hasSize(AFFECTEDS_PER_DISTURBANCE));
+		// One query for the disturbances and one for their affecteds (all disturbances fit in one fetch).
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	/**
+	 * Persists disturbances where a new partyId is affected, and clears the persistence context.
+	 *
+	 * @return the partyId.
+	 */
+	private String setupDisturbances(int numberOfDisturbances) {
+		final var partyId = UUID.randomUUID().toString();
+
+		IntStream.range(0, numberOfDisturbances).forEach(index -> {
+			final var disturbanceEntity = new DisturbanceEntity();
+			disturbanceEntity.setDisturbanceId(partyId + "-" + index);
+			disturbanceEntity.setCategory(ELECTRICITY);
+			disturbanceEntity.setStatus(OPEN);
+			disturbanceEntity.setTitle("title");
+			disturbanceEntity.setDescription("description");
+			disturbanceEntity.setPlannedStartDate(OffsetDateTime.now());
+			disturbanceEntity.setPlannedStopDate(OffsetDateTime.now().plusDays(1));
+			disturbanceEntity.addAffectedEntities(IntStream.range(0, AFFECTEDS_PER_DISTURBANCE)
+				.mapToObj(affectedIndex -> {
+					final var affectedEntity = new AffectedEntity();
+					affectedEntity.setPartyId((affectedIndex == 0) ? partyId : UUID.randomUUID().toString());
+					affectedEntity.setReference("reference-" + affectedIndex);
+					return affectedEntity;
+				})
+				.collect(toList()));
+			disturbanceRepository.persist(disturbanceEntity);
+		});
+		disturbanceRepository.flush();
+		disturbanceRepository.getEntityManager().clear();
+
+		return partyId;
+	}
+
+	private Statistics clearStatistics() {
+		final var statistics = sessionFactory.getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
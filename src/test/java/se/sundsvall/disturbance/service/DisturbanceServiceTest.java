@@ -2,10 +2,16 @@ package se.sundsvall.disturbance.service;
 
 import static java.time.OffsetDateTime.now;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
 import static java.util.Optional.empty;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -13,13 +19,21 @@ import static org.mockito.Mockito.when;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceFeedbackMapper.toDisturbanceFeedbackEntity;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbanceEntity;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
+import javax.enterprise.event.Event;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
 import javax.ws.rs.core.Response.Status;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -30,17 +44,25 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import se.sundsvall.disturbance.api.exception.ServiceException;
 import se.sundsvall.disturbance.api.model.Affected;
+import se.sundsvall.disturbance.api.model.AffectedsInclusion;
 import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchResult;
+import se.sundsvall.disturbance.api.model.DisturbanceBatchUpdateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
+import se.sundsvall.disturbance.api.model.DisturbanceEventType;
 import se.sundsvall.disturbance.api.model.DisturbanceFeedbackCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
-import se.sundsvall.disturbance.integration.db.FeedbackRepository;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
-import se.sundsvall.disturbance.integration.db.model.FeedbackEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceState;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceRevision;
 import se.sundsvall.disturbance.service.message.SendMessageLogic;
+import se.sundsvall.disturbance.service.util.CursorUtils;
+import se.sundsvall.disturbance.service.util.EtagUtils;
 
 @ExtendWith(MockitoExtension.class)
 class DisturbanceServiceTest {
@@ -52,17 +74,35 @@ class DisturbanceServiceTest {
 	private DisturbanceFeedbackRepository disturbanceFeedbackRepositoryMock;
 
 	@Mock
-	private FeedbackRepository feedbackRepositoryMock;
+	private FeedbackCache feedbackCacheMock;
 
 	@Mock
 	private SendMessageLogic sendMessageLogicMock;
 
+	@Mock
+	private EntityManager entityManagerMock;
+
+	@Mock
+	private DisturbanceCache disturbanceCacheMock;
+
+	@Mock
+	private Event<DisturbanceChangedEvent> disturbanceChangedEventMock;
+
+	@Mock
+	private DisturbanceEventBroadcaster disturbanceEventBroadcasterMock;
+
 	@InjectMocks
 	private DisturbanceService disturbanceService;
 
 	@Captor
 	private ArgumentCaptor<DisturbanceEntity> disturbanceEntityCaptor;
 
+	@Captor
+	private ArgumentCaptor<List<DisturbanceEntity>> disturbanceEntitiesCaptor;
+
+	@Captor
+	private ArgumentCaptor<DisturbanceChangedEvent> disturbanceChangedEventCaptor;
+
 	@Test
 	void findByDisturbanceIdAndCategorySuccess() throws ServiceException {
 
@@ -73,10 +113,11 @@ class DisturbanceServiceTest {
 
 		final var disturbanceEntity = new DisturbanceEntity();
 		disturbanceEntity.setDisturbanceId(disturbanceId);
-		disturbanceEntity.setCategory(category.toString());
-		disturbanceEntity.setStatus(status.toString());
+		disturbanceEntity.setCategory(category);
+		disturbanceEntity.setStatus(status);
 
 		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(Optional.of(disturbanceEntity));
+		when(disturbanceCacheMock.get(eq(category), eq(disturbanceId), any())).thenAnswer(invocation -> invocation.<Supplier<Optional<Disturbance>>>getArgument(2).get());
 
 		final var disturbance = disturbanceService.findByCategoryAndDisturbanceId(category, disturbanceId);
 
@@ -84,9 +125,33 @@ class DisturbanceServiceTest {
 		assertThat(disturbance.getCategory()).isEqualTo(Category.COMMUNICATION);
 		assertThat(disturbance.getId()).isEqualTo(disturbanceId);
 
+		// The disturbance is loaded through the cache.
+		verify(disturbanceCacheMock).get(eq(category), eq(disturbanceId), any());
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
-		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceCacheMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findByDisturbanceIdAndCategoryFromCache() throws ServiceException {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+
+		final var cachedDisturbance = Disturbance.create()
+			.withCategory(category)
+			.withId(disturbanceId);
+
+		when(disturbanceCacheMock.get(eq(category), eq(disturbanceId), any())).thenReturn(Optional.of(cachedDisturbance));
+
+		final var disturbance = disturbanceService.findByCategoryAndDisturbanceId(category, disturbanceId);
+
+		assertThat(disturbance).isSameAs(cachedDisturbance);
+
+		verify(disturbanceCacheMock).get(eq(category), eq(disturbanceId), any());
+		verifyNoMoreInteractions(disturbanceCacheMock);
+		verifyNoInteractions(disturbanceRepositoryMock, sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 	}
 
 	@Test
@@ -97,15 +162,123 @@ class DisturbanceServiceTest {
 		final var disturbanceId = "12345";
 
 		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(empty());
+		when(disturbanceCacheMock.get(eq(category), eq(disturbanceId), any())).thenAnswer(invocation -> invocation.<Supplier<Optional<Disturbance>>>getArgument(2).get());
 
 		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceService.findByCategoryAndDisturbanceId(category, disturbanceId));
 
 		assertThat(serviceException.getMessage()).isEqualTo("No disturbance found for category:'COMMUNICATION' and id:'12345'!");
 		assertThat(serviceException.getStatus()).isEqualTo(Status.NOT_FOUND);
 
+		verify(disturbanceCacheMock).get(eq(category), eq(disturbanceId), any());
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceCacheMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findEtagByCategoryAndDisturbanceId() throws ServiceException {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+
+		final var disturbanceRevision = new DisturbanceRevision(1L, category, disturbanceId, now(), null, 0L);
+
+		when(disturbanceRepositoryMock.findRevisionByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(Optional.of(disturbanceRevision));
+
+		final var etag = disturbanceService.findEtagByCategoryAndDisturbanceId(category, disturbanceId);
+
+		assertThat(etag).isEqualTo(EtagUtils.toEtag(disturbanceRevision));
+
+		verify(disturbanceCacheMock).get(category, disturbanceId);
+		verify(disturbanceRepositoryMock).findRevisionByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceCacheMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findEtagByCategoryAndDisturbanceIdFromCache() throws ServiceException {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+
+		final var cachedDisturbance = Disturbance.create()
+			.withCategory(category)
+			.withId(disturbanceId)
+			.withCreated(now());
+
+		when(disturbanceCacheMock.get(category, disturbanceId)).thenReturn(Optional.of(cachedDisturbance));
+
+		final var etag = disturbanceService.findEtagByCategoryAndDisturbanceId(category, disturbanceId);
+
+		assertThat(etag).isEqualTo(EtagUtils.toEtag(cachedDisturbance));
+
+		verify(disturbanceCacheMock).get(category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceCacheMock);
+		verifyNoInteractions(disturbanceRepositoryMock, sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findEtagByCategoryAndDisturbanceIdNotFound() {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+
+		when(disturbanceRepositoryMock.findRevisionByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(empty());
+
+		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceService.findEtagByCategoryAndDisturbanceId(category, disturbanceId));
+
+		assertThat(serviceException.getMessage()).isEqualTo("No disturbance found for category:'COMMUNICATION' and id:'12345'!");
+		assertThat(serviceException.getStatus()).isEqualTo(Status.NOT_FOUND);
+
+		verify(disturbanceRepositoryMock).findRevisionByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findEtagByPartyIdAndCategoryAndStatusWithLimit() throws ServiceException {
+
+		// Parameters
+		final var partyId = "partyId";
+		final var limit = 1;
+
+		final var disturbanceRevisions = List.of(
+			new DisturbanceRevision(1L, Category.COMMUNICATION, "disturbanceId1", now(), null, 0L),
+			new DisturbanceRevision(2L, Category.COMMUNICATION, "disturbanceId2", now(), null, 0L));
+
+		// One more than the limit is returned, i.e. there is a next page.
+		when(disturbanceRepositoryMock.findRevisionsByPartyIdFilterByCategoryAndStatus(partyId, null, null, null, limit + 1)).thenReturn(disturbanceRevisions);
+
+		final var etag = disturbanceService.findEtagByPartyIdAndCategoryAndStatus(partyId, null, null, null, limit, AffectedsInclusion.NONE);
+
+		assertThat(etag).isEqualTo(EtagUtils.toEtag(disturbanceRevisions.subList(0, 1), CursorUtils.toCursor(1), AffectedsInclusion.NONE));
+
+		verify(disturbanceRepositoryMock).findRevisionsByPartyIdFilterByCategoryAndStatus(partyId, null, null, null, limit + 1);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findEtagByPartyIdAndCategoryAndStatusWithCursor() throws ServiceException {
+
+		// Parameters
+		final var partyId = "partyId";
+		final var cursor = CursorUtils.toCursor(1);
+
+		final var disturbanceRevisions = List.of(new DisturbanceRevision(2L, Category.COMMUNICATION, "disturbanceId2", now(), null, 0L));
+
+		when(disturbanceRepositoryMock.findRevisionsByPartyIdFilterByCategoryAndStatus(partyId, null, null, 1L, null)).thenReturn(disturbanceRevisions);
+
+		final var etag = disturbanceService.findEtagByPartyIdAndCategoryAndStatus(partyId, null, null, cursor, null, null);
+
+		assertThat(etag).isEqualTo(EtagUtils.toEtag(disturbanceRevisions, null, null));
+
+		verify(disturbanceRepositoryMock).findRevisionsByPartyIdFilterByCategoryAndStatus(partyId, null, null, 1L, null);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 	}
 
 	@Test
@@ -126,32 +299,34 @@ class DisturbanceServiceTest {
 
 		final var disturbanceEntity = toDisturbanceEntity(disturbanceCreateRequest);
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(empty());
 		when(disturbanceRepositoryMock.persistAndFetch(any(DisturbanceEntity.class))).thenReturn(disturbanceEntity);
 
 		final var disturbance = disturbanceService.createDisturbance(disturbanceCreateRequest);
 		assertThat(disturbance).isNotNull();
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
 		verify(sendMessageLogicMock).sendCreateMessage(disturbanceEntity);
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-1");
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-2");
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-3");
-		verifyNoMoreInteractions(disturbanceRepositoryMock, feedbackRepositoryMock, sendMessageLogicMock);
+		verify(feedbackCacheMock).findPartyIdsWithFeedback(List.of("partyId-1", "partyId-2", "partyId-3"));
+		verify(disturbanceChangedEventMock).fire(disturbanceChangedEventCaptor.capture());
+		verifyNoMoreInteractions(disturbanceRepositoryMock, feedbackCacheMock, sendMessageLogicMock, disturbanceChangedEventMock);
 		verifyNoInteractions(disturbanceFeedbackRepositoryMock);
 
+		assertThat(disturbanceChangedEventCaptor.getValue().getType()).isEqualTo(DisturbanceEventType.CREATED);
+		assertThat(disturbanceChangedEventCaptor.getValue().getPreviousStatus()).isNull();
+		assertThat(disturbanceChangedEventCaptor.getValue().getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN);
+		assertThat(disturbanceChangedEventCaptor.getValue().getPartyIds()).containsExactlyInAnyOrder("partyId-1", "partyId-2", "partyId-3");
+
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).hasSize(3); // Duplicates removed.
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
-		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(disturbanceCreateRequest.getCategory().toString());
+		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(disturbanceCreateRequest.getCategory());
 		assertThat(disturbanceEntityCaptorValue.getDescription()).isEqualTo(disturbanceCreateRequest.getDescription());
 		assertThat(disturbanceEntityCaptorValue.getDisturbanceId()).isEqualTo(disturbanceCreateRequest.getId());
 		assertThat(disturbanceEntityCaptorValue.getPlannedStartDate()).isEqualTo(disturbanceCreateRequest.getPlannedStartDate());
 		assertThat(disturbanceEntityCaptorValue.getPlannedStopDate()).isEqualTo(disturbanceCreateRequest.getPlannedStopDate());
-		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(disturbanceCreateRequest.getStatus().toString());
+		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(disturbanceCreateRequest.getStatus());
 		assertThat(disturbanceEntityCaptorValue.getTitle()).isEqualTo(disturbanceCreateRequest.getTitle());
 	}
 
@@ -173,38 +348,33 @@ class DisturbanceServiceTest {
 
 		final var disturbanceEntity = toDisturbanceEntity(disturbanceCreateRequest);
 
-		when(feedbackRepositoryMock.findByPartyIdOptional("partyId-1")).thenReturn(Optional.empty());
-		when(feedbackRepositoryMock.findByPartyIdOptional("partyId-2")).thenReturn(Optional.of(new FeedbackEntity()));
-		when(feedbackRepositoryMock.findByPartyIdOptional("partyId-3")).thenReturn(Optional.of(new FeedbackEntity()));
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(empty());
+		when(feedbackCacheMock.findPartyIdsWithFeedback(any())).thenReturn(List.of("partyId-2", "partyId-3"));
 		when(disturbanceRepositoryMock.persistAndFetch(any(DisturbanceEntity.class))).thenReturn(disturbanceEntity);
 
 		final var disturbance = disturbanceService.createDisturbance(disturbanceCreateRequest);
 		assertThat(disturbance).isNotNull();
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-1");
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-2");
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-3");
-		verify(disturbanceFeedbackRepositoryMock).persist(toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
-			DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-2")));
-		verify(disturbanceFeedbackRepositoryMock).persist(toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
-			DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-3")));
+		verify(feedbackCacheMock).findPartyIdsWithFeedback(List.of("partyId-1", "partyId-2", "partyId-3"));
+		verify(disturbanceFeedbackRepositoryMock).persist(List.of(
+			toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
+				DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-2")),
+			toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
+				DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-3"))));
 		verify(sendMessageLogicMock).sendCreateMessage(disturbanceEntity);
-		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceFeedbackRepositoryMock, feedbackRepositoryMock, sendMessageLogicMock);
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceFeedbackRepositoryMock, feedbackCacheMock, sendMessageLogicMock);
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).hasSize(3); // Duplicates removed.
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
-		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(disturbanceCreateRequest.getCategory().toString());
+		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(disturbanceCreateRequest.getCategory());
 		assertThat(disturbanceEntityCaptorValue.getDescription()).isEqualTo(disturbanceCreateRequest.getDescription());
 		assertThat(disturbanceEntityCaptorValue.getDisturbanceId()).isEqualTo(disturbanceCreateRequest.getId());
 		assertThat(disturbanceEntityCaptorValue.getPlannedStartDate()).isEqualTo(disturbanceCreateRequest.getPlannedStartDate());
 		assertThat(disturbanceEntityCaptorValue.getPlannedStopDate()).isEqualTo(disturbanceCreateRequest.getPlannedStopDate());
-		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(disturbanceCreateRequest.getStatus().toString());
+		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(disturbanceCreateRequest.getStatus());
 		assertThat(disturbanceEntityCaptorValue.getTitle()).isEqualTo(disturbanceCreateRequest.getTitle());
 	}
 
@@ -226,28 +396,26 @@ class DisturbanceServiceTest {
 
 		final var disturbanceEntity = toDisturbanceEntity(disturbanceCreateRequest);
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(empty());
 		when(disturbanceRepositoryMock.persistAndFetch(any(DisturbanceEntity.class))).thenReturn(disturbanceEntity);
 
 		final var disturbance = disturbanceService.createDisturbance(disturbanceCreateRequest);
 		assertThat(disturbance).isNotNull();
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(disturbanceFeedbackRepositoryMock, feedbackRepositoryMock, sendMessageLogicMock); // No interactions here if status is CLOSED.
+		verifyNoInteractions(disturbanceFeedbackRepositoryMock, feedbackCacheMock, sendMessageLogicMock); // No interactions here if status is CLOSED.
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).hasSize(3); // Duplicates removed.
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
-		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(disturbanceCreateRequest.getCategory().toString());
+		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(disturbanceCreateRequest.getCategory());
 		assertThat(disturbanceEntityCaptorValue.getDescription()).isEqualTo(disturbanceCreateRequest.getDescription());
 		assertThat(disturbanceEntityCaptorValue.getDisturbanceId()).isEqualTo(disturbanceCreateRequest.getId());
 		assertThat(disturbanceEntityCaptorValue.getPlannedStartDate()).isEqualTo(disturbanceCreateRequest.getPlannedStartDate());
 		assertThat(disturbanceEntityCaptorValue.getPlannedStopDate()).isEqualTo(disturbanceCreateRequest.getPlannedStopDate());
-		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(disturbanceCreateRequest.getStatus().toString());
+		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(disturbanceCreateRequest.getStatus());
 		assertThat(disturbanceEntityCaptorValue.getTitle()).isEqualTo(disturbanceCreateRequest.getTitle());
 	}
 
@@ -268,26 +436,21 @@ class DisturbanceServiceTest {
 
 		final var disturbanceEntity = toDisturbanceEntity(disturbanceCreateRequest);
 
-		when(feedbackRepositoryMock.findByPartyIdOptional("partyId-1")).thenReturn(empty());
-		when(feedbackRepositoryMock.findByPartyIdOptional("partyId-2")).thenReturn(Optional.of(new FeedbackEntity()));
-		when(feedbackRepositoryMock.findByPartyIdOptional("partyId-3")).thenReturn(Optional.of(new FeedbackEntity()));
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(empty());
+		when(feedbackCacheMock.findPartyIdsWithFeedback(any())).thenReturn(List.of("partyId-2", "partyId-3"));
 		when(disturbanceRepositoryMock.persistAndFetch(any(DisturbanceEntity.class))).thenReturn(disturbanceEntity);
 
 		final var disturbance = disturbanceService.createDisturbance(disturbanceCreateRequest);
 		assertThat(disturbance).isNotNull();
 
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-1");
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-2");
-		verify(feedbackRepositoryMock).findByPartyIdOptional("partyId-3");
-		verify(disturbanceFeedbackRepositoryMock).persist(toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
-			DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-2")));
-		verify(disturbanceFeedbackRepositoryMock).persist(toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
-			DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-3")));
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
+		verify(feedbackCacheMock).findPartyIdsWithFeedback(List.of("partyId-1", "partyId-2", "partyId-3"));
+		verify(disturbanceFeedbackRepositoryMock).persist(List.of(
+			toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
+				DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-2")),
+			toDisturbanceFeedbackEntity(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId(),
+				DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-3"))));
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
 
-		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceFeedbackRepositoryMock, feedbackRepositoryMock);
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceFeedbackRepositoryMock, feedbackCacheMock);
 		verifyNoInteractions(sendMessageLogicMock); // No interactions here if status is PLANNED.
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
@@ -295,12 +458,12 @@ class DisturbanceServiceTest {
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).hasSize(3); // Duplicates removed.
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
-		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(disturbanceCreateRequest.getCategory().toString());
+		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(disturbanceCreateRequest.getCategory());
 		assertThat(disturbanceEntityCaptorValue.getDescription()).isEqualTo(disturbanceCreateRequest.getDescription());
 		assertThat(disturbanceEntityCaptorValue.getDisturbanceId()).isEqualTo(disturbanceCreateRequest.getId());
 		assertThat(disturbanceEntityCaptorValue.getPlannedStartDate()).isEqualTo(disturbanceCreateRequest.getPlannedStartDate());
 		assertThat(disturbanceEntityCaptorValue.getPlannedStopDate()).isEqualTo(disturbanceCreateRequest.getPlannedStopDate());
-		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(disturbanceCreateRequest.getStatus().toString());
+		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(disturbanceCreateRequest.getStatus());
 		assertThat(disturbanceEntityCaptorValue.getTitle()).isEqualTo(disturbanceCreateRequest.getTitle());
 	}
 
@@ -320,16 +483,191 @@ class DisturbanceServiceTest {
 				Affected.create().withPartyId("partyId-2").withReference("reference-2"),
 				Affected.create().withPartyId("partyId-3").withReference("reference-3")));
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.of(new DisturbanceEntity()));
+		when(disturbanceRepositoryMock.persistAndFetch(any(DisturbanceEntity.class))).thenThrow(new PersistenceException(new ConstraintViolationException("Duplicate",
+			new SQLException("Duplicate entry 'COMMUNICATION-id-1' for key 'uq_disturbance_category_disturbance_id_active'"), "uq_disturbance_category_disturbance_id_active")));
 
 		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceService.createDisturbance(disturbanceCreateRequest));
 
 		assertThat(serviceException.getMessage()).isEqualTo("A disturbance with category:'COMMUNICATION' and id:'id' already exists!");
 		assertThat(serviceException.getStatus()).isEqualTo(Status.CONFLICT);
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
+		verify(disturbanceRepositoryMock).persistAndFetch(any(DisturbanceEntity.class));
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void createDisturbanceWhenOtherPersistenceError() {
+
+		// Parameters
+		final var disturbanceCreateRequest = DisturbanceCreateRequest.create()
+			.withCategory(Category.COMMUNICATION)
+			.withId("id")
+			.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)
+			.withTitle("title")
+			.withDescription("description");
+		final var persistenceException = new PersistenceException(new ConstraintViolationException("Other", new SQLException("Other"), "other_constraint"));
+
+		when(disturbanceRepositoryMock.persistAndFetch(any(DisturbanceEntity.class))).thenThrow(persistenceException);
+
+		final var exception = assertThrows(PersistenceException.class, () -> disturbanceService.createDisturbance(disturbanceCreateRequest));
+
+		assertThat(exception).isSameAs(persistenceException);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void processDisturbanceBatch() throws ServiceException {
+
+		// Parameters
+		final var createRequestExisting = DisturbanceCreateRequest.create()
+			.withCategory(Category.COMMUNICATION)
+			.withId("existing")
+			.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)
+			.withTitle("title")
+			.withDescription("description");
+		final var createRequestNew = DisturbanceCreateRequest.create()
+			.withCategory(Category.ELECTRICITY)
+			.withId("new")
+			.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)
+			.withTitle("title")
+			.withDescription("description")
+			.withAffecteds(List.of(
+				Affected.create().withPartyId("partyId-1").withReference("reference-1"), // No existing feedback
+				Affected.create().withPartyId("partyId-2").withReference("reference-2"))); // Will have existing feedback
+		final var createRequestDuplicate = DisturbanceCreateRequest.create()
+			.withCategory(Category.ELECTRICITY)
+			.withId("new")
+			.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)
+			.withTitle("title")
+			.withDescription("description");
+		final var updateRequestExisting = DisturbanceBatchUpdateRequest.create()
+			.withCategory(Category.COMMUNICATION)
+			.withId("existing")
+			.withUpdate(DisturbanceUpdateRequest.create().withDescription("new description"));
+		final var updateRequestClosed = DisturbanceBatchUpdateRequest.create()
+			.withCategory(Category.COMMUNICATION)
+			.withId("closed")
+			.withUpdate(DisturbanceUpdateRequest.create().withDescription("new description"));
+		final var updateRequestMissing = DisturbanceBatchUpdateRequest.create()
+			.withCategory(Category.WATER)
+			.withId("missing")
+			.withUpdate(DisturbanceUpdateRequest.create().withDescription("new description"));
+		final var disturbanceBatchRequest = DisturbanceBatchRequest.create()
+			.withCreate(List.of(createRequestExisting, createRequestNew, createRequestDuplicate))
+			.withUpdate(List.of(updateRequestExisting, updateRequestClosed, updateRequestMissing));
+
+		final var existingDisturbanceEntity = new DisturbanceEntity();
+		existingDisturbanceEntity.setCategory(Category.COMMUNICATION);
+		existingDisturbanceEntity.setDisturbanceId("existing");
+		existingDisturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.OPEN);
+		existingDisturbanceEntity.setDescription("description");
+		final var closedDisturbanceEntity = new DisturbanceEntity();
+		closedDisturbanceEntity.setCategory(Category.COMMUNICATION);
+		closedDisturbanceEntity.setDisturbanceId("closed");
+		closedDisturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.CLOSED);
+		final var newDisturbanceEntity = toDisturbanceEntity(createRequestNew);
+
+		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIds(any())).thenReturn(List.of(existingDisturbanceEntity, closedDisturbanceEntity));
+		when(disturbanceRepositoryMock.persistAndFetch(any(DisturbanceEntity.class))).thenReturn(existingDisturbanceEntity);
+		when(feedbackCacheMock.findPartyIdsWithFeedback(any())).thenReturn(List.of("partyId-2"));
+
+		final var results = disturbanceService.processDisturbanceBatch(disturbanceBatchRequest);
+
+		assertThat(results).extracting(DisturbanceBatchResult::getCategory, DisturbanceBatchResult::getId, DisturbanceBatchResult::getStatus).containsExactly(
+			tuple(Category.COMMUNICATION, "existing", 409),
+			tuple(Category.ELECTRICITY, "new", 201),
+			tuple(Category.ELECTRICITY, "new", 409),
+			tuple(Category.COMMUNICATION, "existing", 200),
+			tuple(Category.COMMUNICATION, "closed", 409),
+			tuple(Category.WATER, "missing", 404));
+		assertThat(results).extracting(DisturbanceBatchResult::getDetail).containsExactly(
+			"A disturbance with category:'COMMUNICATION' and id:'existing' already exists!",
+			null,
+			"A disturbance with category:'ELECTRICITY' and id:'new' already exists!",
+			null,
+			"The disturbance with category:'COMMUNICATION' and id:'closed' is closed! No updates are allowed on closed disturbances!",
+			"No disturbance found for category:'WATER' and id:'missing'!");
+		assertThat(results.get(1).getDisturbance().getId()).isEqualTo("new");
+		assertThat(results.get(3).getDisturbance().getDescription()).isEqualTo("new description");
+
+		// The existing disturbances and the feedbacks are fetched once for the whole batch.
+		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIds(Set.of(
+			Pair.of(Category.COMMUNICATION, "existing"),
+			Pair.of(Category.ELECTRICITY, "new"),
+			Pair.of(Category.COMMUNICATION, "closed"),
+			Pair.of(Category.WATER, "missing")));
+		verify(feedbackCacheMock).findPartyIdsWithFeedback(List.of("partyId-1", "partyId-2"));
+		// The new disturbances are persisted with one flush.
+		verify(disturbanceRepositoryMock).persist(disturbanceEntitiesCaptor.capture());
+		verify(disturbanceRepositoryMock).flush();
+		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
+		verify(disturbanceFeedbackRepositoryMock).persist(List.of(toDisturbanceFeedbackEntity(Category.ELECTRICITY, "new",
+			DisturbanceFeedbackCreateRequest.create().withPartyId("partyId-2"))));
+		verify(sendMessageLogicMock).sendCreateMessage(newDisturbanceEntity);
+		verify(sendMessageLogicMock).sendUpdateMessage(existingDisturbanceEntity);
+		verify(disturbanceChangedEventMock, times(2)).fire(disturbanceChangedEventCaptor.capture());
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceFeedbackRepositoryMock, feedbackCacheMock, sendMessageLogicMock, disturbanceChangedEventMock);
+
+		assertThat(disturbanceEntitiesCaptor.getValue()).containsExactly(newDisturbanceEntity);
+		assertThat(disturbanceEntityCaptor.getValue()).isSameAs(existingDisturbanceEntity);
+		assertThat(disturbanceChangedEventCaptor.getAllValues()).extracting(DisturbanceChangedEvent::getDisturbanceId, DisturbanceChangedEvent::getType).containsExactly(
+			tuple("new", DisturbanceEventType.CREATED),
+			tuple("existing", DisturbanceEventType.UPDATED));
+		assertThat(disturbanceChangedEventCaptor.getAllValues().get(0).getPartyIds()).containsExactlyInAnyOrder("partyId-1", "partyId-2");
+	}
+
+	@Test
+	void processDisturbanceBatchWhenCreatedByOtherRequest() {
+
+		// Parameters
+		final var createRequest1 = DisturbanceCreateRequest.create()
+			.withCategory(Category.ELECTRICITY)
+			.withId("id-1")
+			.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)
+			.withTitle("title")
+			.withDescription("description");
+		final var createRequest2 = DisturbanceCreateRequest.create()
+			.withCategory(Category.ELECTRICITY)
+			.withId("id-2")
+			.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)
+			.withTitle("title")
+			.withDescription("description");
+		final var updateRequest = DisturbanceBatchUpdateRequest.create()
+			.withCategory(Category.ELECTRICITY)
+			.withId("id-1")
+			.withUpdate(DisturbanceUpdateRequest.create().withDescription("new description"));
+		final var disturbanceBatchRequest = DisturbanceBatchRequest.create()
+			.withCreate(List.of(createRequest1, createRequest2))
+			.withUpdate(List.of(updateRequest));
+
+		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIds(any())).thenReturn(emptyList());
+		doThrow(new PersistenceException(new ConstraintViolationException("Duplicate",
+			new SQLException("Duplicate entry 'ELECTRICITY-id-2-1' for key 'uq_disturbance_category_disturbance_id_active'"), "uq_disturbance_category_disturbance_id_active")))
+			.when(disturbanceRepositoryMock).flush();
+
+		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceService.processDisturbanceBatch(disturbanceBatchRequest));
+
+		assertThat(serviceException.getMessage()).isEqualTo(
+			"A disturbance in the batch was created by another request at the same time! No disturbances in the batch were created or updated!");
+		assertThat(serviceException.getStatus()).isEqualTo(Status.CONFLICT);
+
+		// Nothing is processed after the failed flush.
+		verify(disturbanceRepositoryMock).persist(disturbanceEntitiesCaptor.capture());
+		verify(disturbanceRepositoryMock).flush();
+		assertThat(disturbanceEntitiesCaptor.getValue()).extracting(DisturbanceEntity::getDisturbanceId).containsExactly("id-1", "id-2");
+		verifyNoInteractions(disturbanceFeedbackRepositoryMock, feedbackCacheMock, sendMessageLogicMock, disturbanceChangedEventMock);
+	}
+
+	@Test
+	void processEmptyDisturbanceBatch() throws ServiceException {
+
+		final var results = disturbanceService.processDisturbanceBatch(DisturbanceBatchRequest.create());
+
+		assertThat(results).isEmpty();
+		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIds(emptySet());
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(disturbanceFeedbackRepositoryMock, feedbackCacheMock, sendMessageLogicMock, disturbanceChangedEventMock);
 	}
 
 	@Test
@@ -340,21 +678,25 @@ class DisturbanceServiceTest {
 		final var partyId = "partyId";
 		final var statusFilter = List.of(se.sundsvall.disturbance.api.model.Status.OPEN);
 
-		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter)).thenReturn(createDisturbanceEntities());
+		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null)).thenReturn(createDisturbanceEntities());
 
-		final var disturbances = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, categoryFilter, statusFilter);
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null, null);
 
-		assertThat(disturbances).isNotNull();
+		assertThat(disturbancePage).isNotNull();
+		assertThat(disturbancePage.getNextCursor()).isNull();
+		final var disturbances = disturbancePage.getDisturbances();
 		assertThat(disturbances.get(0).getCategory()).isEqualTo(Category.COMMUNICATION);
 		assertThat(disturbances.get(0).getId()).isEqualTo("disturbanceId1");
 		assertThat(disturbances.get(0).getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN);
+		assertThat(disturbances.get(0).getAffecteds()).containsExactly(Affected.create().withPartyId(partyId).withReference("reference-1"));
 		assertThat(disturbances.get(1).getCategory()).isEqualTo(Category.COMMUNICATION);
 		assertThat(disturbances.get(1).getId()).isEqualTo("disturbanceId2");
 		assertThat(disturbances.get(1).getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN);
 
-		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter);
+		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null);
+		verify(disturbanceRepositoryMock).fetchAffectedEntities(any());
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 	}
 
 	@Test
@@ -365,15 +707,157 @@ class DisturbanceServiceTest {
 		final var partyId = "partyId";
 		final var statusFilter = List.of(se.sundsvall.disturbance.api.model.Status.OPEN);
 
-		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter)).thenReturn(emptyList());
+		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null)).thenReturn(emptyList());
+
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null, null);
+
+		assertThat(disturbancePage.getDisturbances()).isNotNull().isEmpty();
+		assertThat(disturbancePage.getNextCursor()).isNull();
+
+		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, null, null);
+		verify(disturbanceRepositoryMock).fetchAffectedEntities(any());
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findByPartyIdAndCategoryWithLimit() throws ServiceException {
+
+		// Parameters
+		final var partyId = "partyId";
+		final var limit = 1;
+
+		// One more than the limit is returned, i.e. there is a next page.
+		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, null, null, null, limit + 1)).thenReturn(createDisturbanceEntities());
+
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, null, null, null, limit, null);
+
+		assertThat(disturbancePage.getDisturbances()).extracting(Disturbance::getId).containsExactly("disturbanceId1");
+		assertThat(disturbancePage.getNextCursor()).isEqualTo(CursorUtils.toCursor(1));
+		assertThat(disturbancePage.getAffectedsInclusion()).isNull();
+
+		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, null, null, null, limit + 1);
+		verify(disturbanceRepositoryMock).fetchAffectedEntities(disturbanceEntitiesCaptor.capture());
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		assertThat(disturbanceEntitiesCaptor.getValue()).extracting(DisturbanceEntity::getDisturbanceId).containsExactly("disturbanceId1");
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findByPartyIdAndCategoryWithCursorAndLimitOnLastPage() throws ServiceException {
+
+		// Parameters
+		final var partyId = "partyId";
+		final var cursor = CursorUtils.toCursor(42);
+		final var limit = 2;
+
+		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, null, null, 42L, limit + 1)).thenReturn(createDisturbanceEntities());
+
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, null, null, cursor, limit, null);
+
+		assertThat(disturbancePage.getDisturbances()).extracting(Disturbance::getId).containsExactly("disturbanceId1", "disturbanceId2");
+		assertThat(disturbancePage.getNextCursor()).isNull();
+
+		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, null, null, 42L, limit + 1);
+		verify(disturbanceRepositoryMock).fetchAffectedEntities(any());
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findByPartyIdAndCategoryWithInvalidCursor() {
+
+		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceService.findByPartyIdAndCategoryAndStatus("partyId", null, null, "invalid", 10, null));
+
+		assertThat(serviceException.getMessage()).isEqualTo("Invalid cursor:'invalid'!");
+		assertThat(serviceException.getStatus()).isEqualTo(Status.BAD_REQUEST);
+
+		verifyNoInteractions(disturbanceRepositoryMock, sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findByPartyIdAndCategoryWithoutAffecteds() throws ServiceException {
+
+		// Parameters
+		final var partyId = "partyId";
+
+		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, null, null, null, null)).thenReturn(createDisturbanceEntities());
+
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, null, null, null, null, AffectedsInclusion.NONE);
+
+		assertThat(disturbancePage.getDisturbances())
+			.hasSize(2)
+			.allSatisfy(disturbance -> assertThat(disturbance.getAffecteds()).isNull());
+
+		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, null, null, null, null);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void findByPartyIdAndCategoryWithPartyAffecteds() throws ServiceException {
+
+		// Parameters
+		final var partyId = "partyId";
+		final var disturbanceEntities = createDisturbanceEntities();
+		final var affectedEntity = new AffectedEntity();
+		affectedEntity.setPartyId(partyId);
+		affectedEntity.setReference("reference-2");
+		affectedEntity.setDisturbanceEntity(disturbanceEntities.get(1));
+
+		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, null, null, null, null)).thenReturn(disturbanceEntities);
+		when(disturbanceRepositoryMock.findAffectedEntitiesByPartyId(partyId, List.of(1L, 2L))).thenReturn(List.of(affectedEntity));
 
-		final var disturbances = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, categoryFilter, statusFilter);
+		final var disturbancePage = disturbanceService.findByPartyIdAndCategoryAndStatus(partyId, null, null, null, null, AffectedsInclusion.PARTY);
 
-		assertThat(disturbances).isNotNull().isEmpty();
+		final var disturbances = disturbancePage.getDisturbances();
+		assertThat(disturbances).hasSize(2);
+		assertThat(disturbances.get(0).getAffecteds()).isEmpty();
+		assertThat(disturbances.get(1).getAffecteds()).containsExactly(Affected.create().withPartyId(partyId).withReference("reference-2"));
 
-		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter);
+		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, null, null, null, null);
+		verify(disturbanceRepositoryMock).findAffectedEntitiesByPartyId(partyId, List.of(1L, 2L));
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void streamByPartyIdAndCategoryAndStatus() {
+
+		// Parameters
+		final var partyId = "partyId";
+		final var categoryFilter = List.of(Category.COMMUNICATION);
+		final var statusFilter = List.of(se.sundsvall.disturbance.api.model.Status.OPEN);
+		final var firstPage = new ArrayList<DisturbanceEntity>();
+		for (var id = 1; id <= DisturbanceService.STREAM_FETCH_SIZE; id++) {
+			final var disturbanceEntity = new DisturbanceEntity();
+			disturbanceEntity.setId(id);
+			disturbanceEntity.setDisturbanceId("disturbanceId" + id);
+			firstPage.add(disturbanceEntity);
+		}
+		final var lastDisturbanceEntity = new DisturbanceEntity();
+		lastDisturbanceEntity.setId(DisturbanceService.STREAM_FETCH_SIZE + 1);
+		lastDisturbanceEntity.setDisturbanceId("disturbanceIdLast");
+
+		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, null, DisturbanceService.STREAM_FETCH_SIZE)).thenReturn(firstPage);
+		when(disturbanceRepositoryMock.findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, (long) DisturbanceService.STREAM_FETCH_SIZE,
+			DisturbanceService.STREAM_FETCH_SIZE)).thenReturn(List.of(lastDisturbanceEntity));
+		when(disturbanceRepositoryMock.getEntityManager()).thenReturn(entityManagerMock);
+
+		final var disturbances = new ArrayList<Disturbance>();
+		disturbanceService.streamByPartyIdAndCategoryAndStatus(partyId, categoryFilter, statusFilter, AffectedsInclusion.NONE, disturbances::add);
+
+		assertThat(disturbances).hasSize(DisturbanceService.STREAM_FETCH_SIZE + 1);
+		assertThat(disturbances.get(0).getId()).isEqualTo("disturbanceId1");
+		assertThat(disturbances.get(DisturbanceService.STREAM_FETCH_SIZE).getId()).isEqualTo("disturbanceIdLast");
+
+		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, null, DisturbanceService.STREAM_FETCH_SIZE);
+		verify(disturbanceRepositoryMock).findByPartyIdFilterByCategoryAndStatus(partyId, categoryFilter, statusFilter, (long) DisturbanceService.STREAM_FETCH_SIZE,
+			DisturbanceService.STREAM_FETCH_SIZE);
+		verify(disturbanceRepositoryMock, times(2)).getEntityManager();
+		verify(entityManagerMock, times(2)).clear();
+		verifyNoMoreInteractions(disturbanceRepositoryMock, entityManagerMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 	}
 
 	@Test
@@ -382,32 +866,59 @@ class DisturbanceServiceTest {
 		// Parameters
 		final var category = Category.COMMUNICATION;
 		final var disturbanceId = "12345";
-		final var status = se.sundsvall.disturbance.api.model.Status.OPEN;
-
-		final var disturbanceEntity = new DisturbanceEntity();
-		disturbanceEntity.setDisturbanceId(disturbanceId);
-		disturbanceEntity.setCategory(category.toString());
-		disturbanceEntity.setStatus(status.toString());
+		final var disturbanceState = new DisturbanceState(1L, se.sundsvall.disturbance.api.model.Status.OPEN);
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(Optional.of(disturbanceEntity));
+		when(disturbanceRepositoryMock.findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(Optional.of(disturbanceState));
+		when(disturbanceRepositoryMock.softDelete(anyLong())).thenReturn(true);
+		when(disturbanceRepositoryMock.countAffecteds(anyLong())).thenReturn(2L);
 
 		disturbanceService.deleteDisturbance(category, disturbanceId);
 
-		final var updatedDisturbanceEntity = disturbanceEntity;
-		updatedDisturbanceEntity.setDeleted(true);
+		// No subscriptions by partyId, i.e. the affected partyIds are only counted.
+		verify(disturbanceRepositoryMock).findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verify(disturbanceRepositoryMock).softDelete(1L);
+		verify(disturbanceRepositoryMock).countAffecteds(1L);
+		verify(disturbanceFeedbackRepositoryMock).deleteByCategoryAndDisturbanceId(category, disturbanceId);
+		verify(disturbanceEventBroadcasterMock).hasPartyIdSubscriptions();
+		verify(disturbanceChangedEventMock).fire(disturbanceChangedEventCaptor.capture());
+		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock);
+
+		assertThat(disturbanceChangedEventCaptor.getValue().getCategory()).isEqualTo(category);
+		assertThat(disturbanceChangedEventCaptor.getValue().getDisturbanceId()).isEqualTo(disturbanceId);
+		assertThat(disturbanceChangedEventCaptor.getValue().getType()).isEqualTo(DisturbanceEventType.DELETED);
+		assertThat(disturbanceChangedEventCaptor.getValue().getPreviousStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN);
+		assertThat(disturbanceChangedEventCaptor.getValue().getStatus()).isNull();
+		assertThat(disturbanceChangedEventCaptor.getValue().getPartyIds()).isEmpty();
+		assertThat(disturbanceChangedEventCaptor.getValue().getNumberOfPartyIds()).isEqualTo(2);
+	}
+
+	@Test
+	void deleteByDisturbanceByIdAndCategoryWithPartyIdSubscriptions() throws ServiceException {
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
-		verify(disturbanceRepositoryMock).persist(disturbanceEntityCaptor.capture());
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var disturbanceState = new DisturbanceState(1L, se.sundsvall.disturbance.api.model.Status.OPEN);
+
+		when(disturbanceRepositoryMock.findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(Optional.of(disturbanceState));
+		when(disturbanceRepositoryMock.softDelete(anyLong())).thenReturn(true);
+		when(disturbanceEventBroadcasterMock.hasPartyIdSubscriptions()).thenReturn(true);
+		when(disturbanceRepositoryMock.findAffectedPartyIds(anyLong())).thenReturn(List.of("partyId-1", "partyId-2"));
+
+		disturbanceService.deleteDisturbance(category, disturbanceId);
+
+		verify(disturbanceRepositoryMock).findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verify(disturbanceRepositoryMock).softDelete(1L);
+		verify(disturbanceRepositoryMock).findAffectedPartyIds(1L);
 		verify(disturbanceFeedbackRepositoryMock).deleteByCategoryAndDisturbanceId(category, disturbanceId);
+		verify(disturbanceChangedEventMock).fire(disturbanceChangedEventCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock);
 
-		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
-		assertThat(disturbanceEntityCaptorValue).isNotNull();
-		assertThat(disturbanceEntityCaptorValue.getDeleted()).isTrue();
-		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(category.toString());
-		assertThat(disturbanceEntityCaptorValue.getDisturbanceId()).isEqualTo(disturbanceId);
-		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(status.toString());
+		assertThat(disturbanceChangedEventCaptor.getValue().getType()).isEqualTo(DisturbanceEventType.DELETED);
+		assertThat(disturbanceChangedEventCaptor.getValue().getPartyIds()).containsExactlyInAnyOrder("partyId-1", "partyId-2");
+		assertThat(disturbanceChangedEventCaptor.getValue().getNumberOfPartyIds()).isEqualTo(2);
 	}
 
 	@Test
@@ -417,16 +928,37 @@ class DisturbanceServiceTest {
 		final var category = Category.COMMUNICATION;
 		final var disturbanceId = "disturbanceId";
 
-		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(empty());
+		when(disturbanceRepositoryMock.findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(empty());
 
 		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceService.deleteDisturbance(category, disturbanceId));
 
 		assertThat(serviceException.getMessage()).isEqualTo("No disturbance found for category:'COMMUNICATION' and id:'disturbanceId'!");
 		assertThat(serviceException.getStatus()).isEqualTo(Status.NOT_FOUND);
 
-		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verify(disturbanceRepositoryMock).findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void deleteByDisturbanceByIdAndCategoryWhenDeletedConcurrently() {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "disturbanceId";
+		final var disturbanceState = new DisturbanceState(1L, se.sundsvall.disturbance.api.model.Status.OPEN);
+
+		when(disturbanceRepositoryMock.findStateByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(Optional.of(disturbanceState));
+		when(disturbanceRepositoryMock.softDelete(anyLong())).thenReturn(false);
+
+		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceService.deleteDisturbance(category, disturbanceId));
+
+		assertThat(serviceException.getMessage()).isEqualTo("No disturbance found for category:'COMMUNICATION' and id:'disturbanceId'!");
+		assertThat(serviceException.getStatus()).isEqualTo(Status.NOT_FOUND);
+
+		verify(disturbanceRepositoryMock).softDelete(1L);
+		verify(disturbanceFeedbackRepositoryMock).deleteByCategoryAndDisturbanceId(category, disturbanceId);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceChangedEventMock);
 	}
 
 	void updateDisturbanceChangeStatusToClosed() throws ServiceException {
@@ -455,9 +987,9 @@ class DisturbanceServiceTest {
 		e3.setReference("reference-3");
 
 		final var existingDisturbanceEntity = new DisturbanceEntity();
-		existingDisturbanceEntity.setCategory(category.toString());
+		existingDisturbanceEntity.setCategory(category);
 		existingDisturbanceEntity.setDisturbanceId(disturbanceId);
-		existingDisturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.OPEN.toString());
+		existingDisturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.OPEN);
 		existingDisturbanceEntity.setTitle(title);
 		existingDisturbanceEntity.setDescription(description);
 		existingDisturbanceEntity.setPlannedStartDate(plannedStartDate);
@@ -474,21 +1006,25 @@ class DisturbanceServiceTest {
 		verify(sendMessageLogicMock).sendCloseMessageToAllApplicableAffecteds(existingDisturbanceEntity);
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
+		verify(disturbanceChangedEventMock).fire(disturbanceChangedEventCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
-		verifyNoInteractions(feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).hasSize(3);
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
-		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(category.toString());
+		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(category);
 		assertThat(disturbanceEntityCaptorValue.getDisturbanceId()).isEqualTo(disturbanceId);
 		assertThat(disturbanceEntityCaptorValue.getTitle()).isEqualTo(title);
 		assertThat(disturbanceEntityCaptorValue.getDescription()).isEqualTo(description);
 		assertThat(disturbanceEntityCaptorValue.getPlannedStartDate()).isEqualTo(plannedStartDate);
 		assertThat(disturbanceEntityCaptorValue.getPlannedStopDate()).isEqualTo(plannedStopDate);
-		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.CLOSED.toString());
+		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.CLOSED);
+		assertThat(disturbanceChangedEventCaptor.getValue().getType()).isEqualTo(DisturbanceEventType.CLOSED);
+		assertThat(disturbanceChangedEventCaptor.getValue().getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.CLOSED);
+		assertThat(disturbanceChangedEventCaptor.getValue().getPartyIds()).containsExactlyInAnyOrder("partyId-1", "partyId-2", "partyId-3");
 	}
 
 	@Test
@@ -523,9 +1059,9 @@ class DisturbanceServiceTest {
 		e3.setReference("reference-3");
 
 		final var existingDisturbanceEntity = new DisturbanceEntity();
-		existingDisturbanceEntity.setCategory(category.toString());
+		existingDisturbanceEntity.setCategory(category);
 		existingDisturbanceEntity.setDisturbanceId(disturbanceId);
-		existingDisturbanceEntity.setStatus(status.toString());
+		existingDisturbanceEntity.setStatus(status);
 		existingDisturbanceEntity.setTitle(title);
 		existingDisturbanceEntity.setDescription(description);
 		existingDisturbanceEntity.setPlannedStartDate(plannedStartDate);
@@ -542,21 +1078,26 @@ class DisturbanceServiceTest {
 		verify(sendMessageLogicMock).sendCloseMessageToProvidedApplicableAffecteds(existingDisturbanceEntity, List.of(e1));
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
+		verify(disturbanceChangedEventMock).fire(disturbanceChangedEventCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
-		verifyNoInteractions(feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).hasSize(2);
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-2", "partyId-3");
 		assertThat(disturbanceEntityCaptorValue.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-2", "reference-3");
-		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(category.toString());
+		assertThat(disturbanceEntityCaptorValue.getCategory()).isEqualTo(category);
 		assertThat(disturbanceEntityCaptorValue.getDisturbanceId()).isEqualTo(disturbanceId);
 		assertThat(disturbanceEntityCaptorValue.getTitle()).isEqualTo(title);
 		assertThat(disturbanceEntityCaptorValue.getDescription()).isEqualTo(description);
 		assertThat(disturbanceEntityCaptorValue.getPlannedStartDate()).isEqualTo(plannedStartDate);
 		assertThat(disturbanceEntityCaptorValue.getPlannedStopDate()).isEqualTo(plannedStopDate);
-		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN.toString());
+		assertThat(disturbanceEntityCaptorValue.getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN);
+
+		// The removed affected is notified as well.
+		assertThat(disturbanceChangedEventCaptor.getValue().getType()).isEqualTo(DisturbanceEventType.UPDATED);
+		assertThat(disturbanceChangedEventCaptor.getValue().getPartyIds()).containsExactlyInAnyOrder("partyId-1", "partyId-2", "partyId-3");
 	}
 
 	@Test
@@ -598,9 +1139,9 @@ class DisturbanceServiceTest {
 		e3.setReference("reference-3");
 
 		final var existingDisturbanceEntity = new DisturbanceEntity();
-		existingDisturbanceEntity.setCategory(category.toString());
+		existingDisturbanceEntity.setCategory(category);
 		existingDisturbanceEntity.setDisturbanceId(disturbanceId);
-		existingDisturbanceEntity.setStatus(status.toString());
+		existingDisturbanceEntity.setStatus(status);
 		existingDisturbanceEntity.setTitle(existingTitle);
 		existingDisturbanceEntity.setDescription(existingDescription);
 		existingDisturbanceEntity.setPlannedStartDate(plannedStartDate);
@@ -618,7 +1159,7 @@ class DisturbanceServiceTest {
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
-		verifyNoInteractions(feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 
 		// Loop through the captor values (for sendMessageLogicMock and disturbanceRepositoryMock).
 		disturbanceEntityCaptor.getAllValues().stream().forEach(updatedEntity -> {
@@ -626,11 +1167,11 @@ class DisturbanceServiceTest {
 			assertThat(updatedEntity.getAffectedEntities()).hasSize(4);
 			assertThat(updatedEntity.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3", "partyId-4");
 			assertThat(updatedEntity.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3", "reference-4");
-			assertThat(updatedEntity.getCategory()).isEqualTo(category.toString());
+			assertThat(updatedEntity.getCategory()).isEqualTo(category);
 			assertThat(updatedEntity.getDisturbanceId()).isEqualTo(disturbanceId);
 			assertThat(updatedEntity.getTitle()).isEqualTo(newTitle);
 			assertThat(updatedEntity.getDescription()).isEqualTo(newDescription);
-			assertThat(updatedEntity.getStatus()).isEqualTo(status.toString());
+			assertThat(updatedEntity.getStatus()).isEqualTo(status);
 			assertThat(updatedEntity.getPlannedStartDate()).isEqualTo(plannedStartDate);
 			assertThat(updatedEntity.getPlannedStopDate()).isEqualTo(newPlannedStopDate);
 		});
@@ -654,7 +1195,69 @@ class DisturbanceServiceTest {
 
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
+	}
+
+	@Test
+	void updateDisturbanceWithMatchingIfMatch() throws ServiceException {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var disturbanceUpdateRequest = DisturbanceUpdateRequest.create()
+			.withTitle("New title");
+
+		final var existingDisturbanceEntity = new DisturbanceEntity();
+		existingDisturbanceEntity.setCategory(category);
+		existingDisturbanceEntity.setDisturbanceId(disturbanceId);
+		existingDisturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.PLANNED);
+		existingDisturbanceEntity.setCreated(now());
+		final var ifMatch = "\"" + EtagUtils.toEtag(existingDisturbanceEntity) + "\"";
+
+		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(Optional.of(existingDisturbanceEntity));
+		when(disturbanceRepositoryMock.persistAndFetch(any(DisturbanceEntity.class))).thenReturn(existingDisturbanceEntity);
+
+		final var updatedDisturbance = disturbanceService.updateDisturbance(category, disturbanceId, disturbanceUpdateRequest, ifMatch);
+
+		assertThat(updatedDisturbance.getTitle()).isEqualTo("New title");
+
+		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verify(disturbanceRepositoryMock).persistAndFetch(existingDisturbanceEntity);
+		verify(disturbanceChangedEventMock).fire(any(DisturbanceChangedEvent.class));
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock); // No messages sent if status is PLANNED.
+	}
+
+	@Test
+	void updateDisturbanceWithOutdatedIfMatch() {
+
+		// Parameters
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var disturbanceUpdateRequest = DisturbanceUpdateRequest.create()
+			.withStatus(se.sundsvall.disturbance.api.model.Status.CLOSED);
+
+		final var existingDisturbanceEntity = new DisturbanceEntity();
+		existingDisturbanceEntity.setCategory(category);
+		existingDisturbanceEntity.setDisturbanceId(disturbanceId);
+		existingDisturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.OPEN);
+		existingDisturbanceEntity.setCreated(now().minusDays(1));
+		final var ifMatch = "\"" + EtagUtils.toEtag(existingDisturbanceEntity) + "\"";
+
+		// The disturbance has been updated since the client read it.
+		existingDisturbanceEntity.setUpdated(now());
+
+		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(category, disturbanceId)).thenReturn(Optional.of(existingDisturbanceEntity));
+
+		final var serviceException = assertThrows(ServiceException.class, () -> disturbanceService.updateDisturbance(category, disturbanceId, disturbanceUpdateRequest, ifMatch));
+
+		assertThat(serviceException.getMessage())
+			.isEqualTo("The disturbance with category:'COMMUNICATION' and id:'12345' has been modified! The If-Match header doesn't match the current ETag!");
+		assertThat(serviceException.getStatus()).isEqualTo(Status.PRECONDITION_FAILED);
+
+		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock, disturbanceChangedEventMock);
 	}
 
 	@Test
@@ -667,9 +1270,9 @@ class DisturbanceServiceTest {
 			.withDescription("Test");
 
 		final var existingDisturbanceEntity = new DisturbanceEntity();
-		existingDisturbanceEntity.setCategory(category.toString());
+		existingDisturbanceEntity.setCategory(category);
 		existingDisturbanceEntity.setDisturbanceId(disturbanceId);
-		existingDisturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.CLOSED.toString());
+		existingDisturbanceEntity.setStatus(se.sundsvall.disturbance.api.model.Status.CLOSED);
 
 		when(disturbanceRepositoryMock.findByCategoryAndDisturbanceIdOptional(any(Category.class), any(String.class))).thenReturn(Optional.of(existingDisturbanceEntity));
 
@@ -681,7 +1284,7 @@ class DisturbanceServiceTest {
 
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 	}
 
 	@Test
@@ -717,9 +1320,9 @@ class DisturbanceServiceTest {
 		e3.setReference("reference-3");
 
 		final var existingDisturbanceEntity = new DisturbanceEntity();
-		existingDisturbanceEntity.setCategory(category.toString());
+		existingDisturbanceEntity.setCategory(category);
 		existingDisturbanceEntity.setDisturbanceId(disturbanceId);
-		existingDisturbanceEntity.setStatus(status.toString());
+		existingDisturbanceEntity.setStatus(status);
 		existingDisturbanceEntity.setTitle(existingTitle);
 		existingDisturbanceEntity.setDescription(existingDescription);
 		existingDisturbanceEntity.setPlannedStartDate(plannedStartDate);
@@ -736,7 +1339,7 @@ class DisturbanceServiceTest {
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock, feedbackRepositoryMock, disturbanceFeedbackRepositoryMock); // No messages sent if status is PLANNED.
+		verifyNoInteractions(sendMessageLogicMock, feedbackCacheMock, disturbanceFeedbackRepositoryMock); // No messages sent if status is PLANNED.
 
 		// Loop through the captor values (for sendMessageLogicMock and disturbanceRepositoryMock).
 		disturbanceEntityCaptor.getAllValues().stream().forEach(updatedEntity -> {
@@ -744,11 +1347,11 @@ class DisturbanceServiceTest {
 			assertThat(updatedEntity.getAffectedEntities()).hasSize(3);
 			assertThat(updatedEntity.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
 			assertThat(updatedEntity.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
-			assertThat(updatedEntity.getCategory()).isEqualTo(category.toString());
+			assertThat(updatedEntity.getCategory()).isEqualTo(category);
 			assertThat(updatedEntity.getDisturbanceId()).isEqualTo(disturbanceId);
 			assertThat(updatedEntity.getTitle()).isEqualTo(newTitle);
 			assertThat(updatedEntity.getDescription()).isEqualTo(newDescription);
-			assertThat(updatedEntity.getStatus()).isEqualTo(status.toString());
+			assertThat(updatedEntity.getStatus()).isEqualTo(status);
 			assertThat(updatedEntity.getPlannedStartDate()).isEqualTo(plannedStartDate);
 			assertThat(updatedEntity.getPlannedStopDate()).isEqualTo(newPlannedStopDate);
 		});
@@ -784,9 +1387,9 @@ class DisturbanceServiceTest {
 		e3.setReference("reference-3");
 
 		final var existingDisturbanceEntity = new DisturbanceEntity();
-		existingDisturbanceEntity.setCategory(category.toString());
+		existingDisturbanceEntity.setCategory(category);
 		existingDisturbanceEntity.setDisturbanceId(disturbanceId);
-		existingDisturbanceEntity.setStatus(existingStatus.toString());
+		existingDisturbanceEntity.setStatus(existingStatus);
 		existingDisturbanceEntity.setTitle(existingTitle);
 		existingDisturbanceEntity.setDescription(existingDescription);
 		existingDisturbanceEntity.setPlannedStartDate(plannedStartDate);
@@ -804,7 +1407,7 @@ class DisturbanceServiceTest {
 		verify(disturbanceRepositoryMock).findByCategoryAndDisturbanceIdOptional(category, disturbanceId);
 		verify(disturbanceRepositoryMock).persistAndFetch(disturbanceEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
-		verifyNoInteractions(feedbackRepositoryMock, disturbanceFeedbackRepositoryMock);
+		verifyNoInteractions(feedbackCacheMock, disturbanceFeedbackRepositoryMock);
 
 		// Loop through the captor values (for sendMessageLogicMock and disturbanceRepositoryMock).
 		disturbanceEntityCaptor.getAllValues().stream().forEach(updatedEntity -> {
@@ -812,26 +1415,33 @@ class DisturbanceServiceTest {
 			assertThat(updatedEntity.getAffectedEntities()).hasSize(3);
 			assertThat(updatedEntity.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
 			assertThat(updatedEntity.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
-			assertThat(updatedEntity.getCategory()).isEqualTo(category.toString());
+			assertThat(updatedEntity.getCategory()).isEqualTo(category);
 			assertThat(updatedEntity.getDisturbanceId()).isEqualTo(disturbanceId);
 			assertThat(updatedEntity.getTitle()).isEqualTo(existingTitle);
 			assertThat(updatedEntity.getDescription()).isEqualTo(existingDescription);
-			assertThat(updatedEntity.getStatus()).isEqualTo(newStatus.toString());
+			assertThat(updatedEntity.getStatus()).isEqualTo(newStatus);
 			assertThat(updatedEntity.getPlannedStartDate()).isEqualTo(plannedStartDate);
 			assertThat(updatedEntity.getPlannedStopDate()).isEqualTo(newPlannedStopDate);
 		});
 	}
 
 	private List<DisturbanceEntity> createDisturbanceEntities() {
+		final var affectedEntity = new AffectedEntity();
+		affectedEntity.setPartyId("partyId");
+		affectedEntity.setReference("reference-1");
+
 		final var disturbanceEntity1 = new DisturbanceEntity();
+		disturbanceEntity1.setId(1);
 		disturbanceEntity1.setDisturbanceId("disturbanceId1");
-		disturbanceEntity1.setCategory(Category.COMMUNICATION.toString());
-		disturbanceEntity1.setStatus(se.sundsvall.disturbance.api.model.Status.OPEN.toString());
+		disturbanceEntity1.addAffectedEntities(List.of(affectedEntity));
+		disturbanceEntity1.setCategory(Category.COMMUNICATION);
+		disturbanceEntity1.setStatus(se.sundsvall.disturbance.api.model.Status.OPEN);
 
 		final var disturbanceEntity2 = new DisturbanceEntity();
+		disturbanceEntity2.setId(2);
 		disturbanceEntity2.setDisturbanceId("disturbanceId2");
-		disturbanceEntity2.setCategory(Category.COMMUNICATION.toString());
-		disturbanceEntity2.setStatus(se.sundsvall.disturbance.api.model.Status.OPEN.toString());
+		disturbanceEntity2.setCategory(Category.COMMUNICATION);
+		disturbanceEntity2.setStatus(se.sundsvall.disturbance.api.model.Status.OPEN);
 
 		return List.of(disturbanceEntity1, disturbanceEntity2);
 	}
@@ -0,0 +1,188 @@
+package se.sundsvall.disturbance.service;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import se.sundsvall.disturbance.integration.db.FeedbackRepository;
+import se.sundsvall.disturbance.service.configuration.FeedbackCacheConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+class FeedbackCacheTest {
+
+	private static final String PARTY_ID_1 = "81471222-5798-11e9-ae24-57fa13b361e1";
+	private static final String PARTY_ID_2 = "81471222-5798-11e9-ae24-57fa13b361e2";
+	private static final String PARTY_ID_3 = "81471222-5798-11e9-ae24-57fa13b361e3";
+
+	@Mock
+	private FeedbackCacheConfiguration feedbackCacheConfigurationMock;
+
+	@Mock
+	private FeedbackRepository feedbackRepositoryMock;
+
+	@Captor
+	private ArgumentCaptor<OffsetDateTime> createdSinceCaptor;
+
+	private FeedbackCache feedbackCache;
+
+	@BeforeEach
+	void setup() {
+		feedbackCache = new FeedbackCache();
+		feedbackCache.feedbackCacheConfiguration = feedbackCacheConfigurationMock;
+		feedbackCache.feedbackRepository = feedbackRepositoryMock;
+	}
+
+	@Test
+	void findPartyIdsWithFeedbackBeforeLoad() {
+
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenReturn(List.of(PARTY_ID_1));
+
+		assertThat(feedbackCache.findPartyIdsWithFeedback(List.of(PARTY_ID_1, PARTY_ID_2))).containsExactly(PARTY_ID_1);
+
+		verify(feedbackRepositoryMock).findPartyIdsWithFeedback(List.of(PARTY_ID_1, PARTY_ID_2));
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+	}
+
+	@Test
+	void findPartyIdsWithFeedbackWhenDisabled() {
+
+		when(feedbackCacheConfigurationMock.enabled()).thenReturn(false);
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenReturn(List.of(PARTY_ID_1));
+
+		feedbackCache.refresh();
+
+		assertThat(feedbackCache.findPartyIdsWithFeedback(List.of(PARTY_ID_1))).containsExactly(PARTY_ID_1);
+
+		verify(feedbackRepositoryMock).findPartyIdsWithFeedback(List.of(PARTY_ID_1));
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+	}
+
+	@Test
+	void findPartyIdsWithFeedbackAfterLoad() {
+
+		when(feedbackCacheConfigurationMock.enabled()).thenReturn(true);
+		when(feedbackRepositoryMock.findAllPartyIds()).thenReturn(List.of(PARTY_ID_1.toUpperCase(), PARTY_ID_2));
+		when(feedbackRepositoryMock.findPartyIdsCreatedSince(any())).thenReturn(emptyList());
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+		feedbackCache.refresh();
+
+		// Case insensitive, and without duplicates and nulls.
+		final var partyIds = new ArrayList<>(List.of(PARTY_ID_1, PARTY_ID_2, PARTY_ID_3, PARTY_ID_2));
+		partyIds.add(null);
+		assertThat(feedbackCache.findPartyIdsWithFeedback(partyIds)).containsExactly(PARTY_ID_1, PARTY_ID_2);
+		assertThat(feedbackCache.findPartyIdsWithFeedback(null)).isEmpty();
+
+		// Only the partyIds in the cached set are checked in the database.
+		verify(feedbackRepositoryMock).findAllPartyIds();
+		verify(feedbackRepositoryMock).findPartyIdsCreatedSince(any());
+		verify(feedbackRepositoryMock).findPartyIdsWithFeedback(List.of(PARTY_ID_1, PARTY_ID_2));
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+	}
+
+	@Test
+	void findPartyIdsWithFeedbackWhenNoneIsCached() {
+
+		when(feedbackCacheConfigurationMock.enabled()).thenReturn(true);
+		when(feedbackRepositoryMock.findAllPartyIds()).thenReturn(List.of(PARTY_ID_1));
+		when(feedbackRepositoryMock.findPartyIdsCreatedSince(any())).thenReturn(emptyList());
+
+		feedbackCache.refresh();
+
+		assertThat(feedbackCache.findPartyIdsWithFeedback(List.of(PARTY_ID_2, PARTY_ID_3))).isEmpty();
+
+		verify(feedbackRepositoryMock).findAllPartyIds();
+		verify(feedbackRepositoryMock).findPartyIdsCreatedSince(any());
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+	}
+
+	@Test
+	void findPartyIdsWithFeedbackChangedByOtherInstance() {
+
+		when(feedbackCacheConfigurationMock.enabled()).thenReturn(true);
+		when(feedbackRepositoryMock.findAllPartyIds()).thenReturn(List.of(PARTY_ID_1, PARTY_ID_2));
+
+		final var beforeRefresh = OffsetDateTime.now();
+		feedbackCache.refresh();
+		final var afterRefresh = OffsetDateTime.now();
+
+		// Another instance deletes the feedback of PARTY_ID_2 and creates feedback for PARTY_ID_3 (before the next reload),
+		// i.e. without a FeedbackChangedEvent in this instance.
+		when(feedbackRepositoryMock.findPartyIdsCreatedSince(any())).thenReturn(List.of(PARTY_ID_3.toUpperCase()));
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenReturn(List.of(PARTY_ID_1, PARTY_ID_3));
+
+		assertThat(feedbackCache.findPartyIdsWithFeedback(List.of(PARTY_ID_1, PARTY_ID_2, PARTY_ID_3))).containsExactly(PARTY_ID_1, PARTY_ID_3);
+
+		verify(feedbackRepositoryMock).findPartyIdsCreatedSince(createdSinceCaptor.capture());
+		verify(feedbackRepositoryMock).findPartyIdsWithFeedback(List.of(PARTY_ID_1, PARTY_ID_2, PARTY_ID_3));
+		assertThat(createdSinceCaptor.getValue()).isBetween(beforeRefresh.minus(FeedbackCache.CREATED_MARGIN), afterRefresh.minus(FeedbackCache.CREATED_MARGIN));
+	}
+
+	@Test
+	void onFeedbackChanged() {
+
+		when(feedbackCacheConfigurationMock.enabled()).thenReturn(true);
+		when(feedbackRepositoryMock.findAllPartyIds()).thenReturn(List.of(PARTY_ID_1));
+
+		when(feedbackRepositoryMock.findPartyIdsCreatedSince(any())).thenReturn(emptyList());
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+		feedbackCache.refresh();
+		feedbackCache.onFeedbackChanged(FeedbackChangedEvent.created(List.of(PARTY_ID_2.toUpperCase())));
+		feedbackCache.onFeedbackChanged(FeedbackChangedEvent.deleted(List.of(PARTY_ID_1)));
+
+		assertThat(feedbackCache.findPartyIdsWithFeedback(List.of(PARTY_ID_1, PARTY_ID_2))).containsExactly(PARTY_ID_2);
+	}
+
+	@Test
+	void onFeedbackChangedDuringReload() {
+
+		when(feedbackCacheConfigurationMock.enabled()).thenReturn(true);
+		when(feedbackRepositoryMock.findAllPartyIds()).thenAnswer(invocation -> {
+			// Committed after the reload has read the (old) partyIds.
+			feedbackCache.onFeedbackChanged(FeedbackChangedEvent.created(List.of(PARTY_ID_2)));
+			feedbackCache.onFeedbackChanged(FeedbackChangedEvent.deleted(List.of(PARTY_ID_1)));
+			return List.of(PARTY_ID_1);
+		});
+		when(feedbackRepositoryMock.findPartyIdsCreatedSince(any())).thenReturn(emptyList());
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+		feedbackCache.refresh();
+
+		assertThat(feedbackCache.findPartyIdsWithFeedback(List.of(PARTY_ID_1, PARTY_ID_2))).containsExactly(PARTY_ID_2);
+	}
+
+	@Test
+	void refreshFailureKeepsCachedPartyIds() {
+
+		when(feedbackCacheConfigurationMock.enabled()).thenReturn(true);
+		when(feedbackRepositoryMock.findAllPartyIds()).thenReturn(List.of(PARTY_ID_1)).thenThrow(new IllegalStateException("Connection refused"));
+		when(feedbackRepositoryMock.findPartyIdsCreatedSince(any())).thenReturn(emptyList());
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+		feedbackCache.refresh();
+		feedbackCache.refresh();
+
+		assertThat(feedbackCache.findPartyIdsWithFeedback(List.of(PARTY_ID_1))).containsExactly(PARTY_ID_1);
+		verify(feedbackRepositoryMock, times(2)).findAllPartyIds();
+		verify(feedbackRepositoryMock).findPartyIdsCreatedSince(any());
+		verify(feedbackRepositoryMock).findPartyIdsWithFeedback(List.of(PARTY_ID_1));
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+	}
+}
@@ -1,17 +1,28 @@
 package se.sundsvall.disturbance.service;
 
+import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import javax.enterprise.event.Event;
+import javax.persistence.PersistenceException;
 import javax.ws.rs.core.Response.Status;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -21,6 +32,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.api.model.FeedbackBatchResult;
 import se.sundsvall.disturbance.api.model.FeedbackCreateRequest;
 import se.sundsvall.disturbance.integration.db.FeedbackRepository;
 import se.sundsvall.disturbance.integration.db.model.FeedbackEntity;
@@ -31,28 +43,37 @@ class FeedbackServiceTest {
 	@Mock
 	private FeedbackRepository feedbackRepositoryMock;
 
+	@Mock
+	private Event<FeedbackChangedEvent> feedbackChangedEventMock;
+
 	@InjectMocks
 	private FeedbackService feedbackService;
 
 	@Captor
 	private ArgumentCaptor<FeedbackEntity> feedbackEntityCaptor;
 
+	@Captor
+	private ArgumentCaptor<List<FeedbackEntity>> feedbackEntitiesCaptor;
+
+	@Captor
+	private ArgumentCaptor<FeedbackChangedEvent> feedbackChangedEventCaptor;
+
 	@Test
 	void createFeedback() throws ServiceException {
 
 		final var partyId = UUID.randomUUID().toString();
 
-		when(feedbackRepositoryMock.findByPartyIdOptional(any(String.class))).thenReturn(Optional.empty());
-
 		feedbackService.createFeedback(FeedbackCreateRequest.create().withPartyId(partyId));
 
-		verify(feedbackRepositoryMock).findByPartyIdOptional(partyId);
-		verify(feedbackRepositoryMock).persist(feedbackEntityCaptor.capture());
+		verify(feedbackRepositoryMock).persistAndFlush(feedbackEntityCaptor.capture());
+		verify(feedbackChangedEventMock).fire(feedbackChangedEventCaptor.capture());
 		verifyNoMoreInteractions(feedbackRepositoryMock);
 
 		final var feedbackEntityCaptorValue = feedbackEntityCaptor.getValue();
 		assertThat(feedbackEntityCaptorValue).isNotNull();
 		assertThat(feedbackEntityCaptorValue.getPartyId()).isEqualTo(partyId);
+		assertThat(feedbackChangedEventCaptor.getValue().getCreatedPartyIds()).containsExactly(partyId);
+		assertThat(feedbackChangedEventCaptor.getValue().getDeletedPartyIds()).isEmpty();
 	}
 
 	@Test
@@ -60,15 +81,18 @@ class FeedbackServiceTest {
 
 		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
 
-		when(feedbackRepositoryMock.findByPartyIdOptional(any())).thenReturn(Optional.of(new FeedbackEntity()));
+		doThrow(new PersistenceException(new ConstraintViolationException("Duplicate",
+			new SQLException("Duplicate entry '81471222-5798-11e9-ae24-57fa13b361e1' for key 'uq_feedback_party_id'"), "uq_feedback_party_id")))
+				.when(feedbackRepositoryMock).persistAndFlush(any(FeedbackEntity.class));
 
 		final var serviceException = assertThrows(ServiceException.class, () -> feedbackService.createFeedback(FeedbackCreateRequest.create().withPartyId(partyId)));
 
 		assertThat(serviceException.getMessage()).isEqualTo("A feedback entity for partyId:'81471222-5798-11e9-ae24-57fa13b361e1' already exists!");
 		assertThat(serviceException.getStatus()).isEqualTo(Status.CONFLICT);
 
-		verify(feedbackRepositoryMock).findByPartyIdOptional(partyId);
+		verify(feedbackRepositoryMock).persistAndFlush(any(FeedbackEntity.class));
 		verifyNoMoreInteractions(feedbackRepositoryMock);
+		verifyNoInteractions(feedbackChangedEventMock);
 	}
 
 	@Test
@@ -84,7 +108,9 @@ class FeedbackServiceTest {
 
 		verify(feedbackRepositoryMock).findByPartyIdOptional(partyId);
 		verify(feedbackRepositoryMock).delete(feedbackEntityCaptor.capture());
+		verify(feedbackChangedEventMock).fire(feedbackChangedEventCaptor.capture());
 		verifyNoMoreInteractions(feedbackRepositoryMock);
+		assertThat(feedbackChangedEventCaptor.getValue().getDeletedPartyIds()).containsExactly(partyId);
 
 		final var feedbackEntityCaptorValue = feedbackEntityCaptor.getValue();
 		assertThat(feedbackEntityCaptorValue).isNotNull();
@@ -105,5 +131,118 @@ class FeedbackServiceTest {
 
 		verify(feedbackRepositoryMock).findByPartyIdOptional(partyId);
 		verifyNoMoreInteractions(feedbackRepositoryMock);
+		verifyNoInteractions(feedbackChangedEventMock);
+	}
+
+	@Test
+	void createFeedbacks() {
+
+		final var partyIdNew = "81471222-5798-11e9-ae24-57fa13b361e1";
+		final var partyIdExisting = "81471222-5798-11e9-ae24-57fa13b361e2";
+
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenReturn(List.of(partyIdExisting));
+
+		final var failed = feedbackService.createFeedbacks(List.of(partyIdNew, partyIdExisting, "invalid", partyIdNew.toUpperCase()));
+
+		assertThat(failed).extracting(FeedbackBatchResult::getPartyId, FeedbackBatchResult::getStatus, FeedbackBatchResult::getDetail).containsExactly(
+			tuple(partyIdExisting, 409, "A feedback entity for partyId:'81471222-5798-11e9-ae24-57fa13b361e2' already exists!"),
+			tuple("invalid", 400, "Invalid partyId:'invalid'! The partyId must be a valid UUID!"),
+			tuple(partyIdNew.toUpperCase(), 409, "A feedback entity for partyId:'81471222-5798-11E9-AE24-57FA13B361E1' already exists!"));
+
+		verify(feedbackRepositoryMock).findPartyIdsWithFeedback(List.of(partyIdNew, partyIdExisting, partyIdNew.toUpperCase()));
+		verify(feedbackRepositoryMock).persist(feedbackEntitiesCaptor.capture());
+		verify(feedbackRepositoryMock).flush();
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+
+		assertThat(feedbackEntitiesCaptor.getValue()).extracting(FeedbackEntity::getPartyId).containsExactly(partyIdNew);
+		verify(feedbackChangedEventMock).fire(feedbackChangedEventCaptor.capture());
+		assertThat(feedbackChangedEventCaptor.getValue().getCreatedPartyIds()).containsExactly(partyIdNew);
+	}
+
+	@Test
+	void createFeedbacksWhenCreatedConcurrently() {
+
+		final var partyIdNew = "81471222-5798-11e9-ae24-57fa13b361e1";
+		final var partyIdConcurrent = "81471222-5798-11e9-ae24-57fa13b361e2";
+
+		// The concurrently created feedback isn't found by the first lookup, but violates the unique constraint when flushed.
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenReturn(emptyList(), List.of(partyIdConcurrent));
+		doThrow(new PersistenceException(new ConstraintViolationException("Duplicate",
+			new SQLException("Duplicate entry '81471222-5798-11e9-ae24-57fa13b361e2' for key 'uq_feedback_party_id'"), "uq_feedback_party_id")))
+				.doNothing()
+				.when(feedbackRepositoryMock).flush();
+
+		final var failed = feedbackService.createFeedbacks(List.of(partyIdNew, partyIdConcurrent));
+
+		assertThat(failed).extracting(FeedbackBatchResult::getPartyId, FeedbackBatchResult::getStatus).containsExactly(tuple(partyIdConcurrent, 409));
+
+		verify(feedbackRepositoryMock, times(2)).findPartyIdsWithFeedback(List.of(partyIdNew, partyIdConcurrent));
+		verify(feedbackRepositoryMock, times(2)).persist(feedbackEntitiesCaptor.capture());
+		verify(feedbackRepositoryMock, times(2)).flush();
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+
+		assertThat(feedbackEntitiesCaptor.getAllValues().get(0)).extracting(FeedbackEntity::getPartyId).containsExactly(partyIdNew, partyIdConcurrent);
+		assertThat(feedbackEntitiesCaptor.getAllValues().get(1)).extracting(FeedbackEntity::getPartyId).containsExactly(partyIdNew);
+		verify(feedbackChangedEventMock).fire(feedbackChangedEventCaptor.capture());
+		assertThat(feedbackChangedEventCaptor.getValue().getCreatedPartyIds()).containsExactly(partyIdNew);
+	}
+
+	@Test
+	void createFeedbacksWhenConstraintIsViolatedRepeatedly() {
+
+		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
+		final var persistenceException = new PersistenceException(new ConstraintViolationException("Duplicate",
+			new SQLException("Duplicate entry '81471222-5798-11e9-ae24-57fa13b361e1' for key 'uq_feedback_party_id'"), "uq_feedback_party_id"));
+
+		doThrow(persistenceException).when(feedbackRepositoryMock).flush();
+
+		final var exception = assertThrows(PersistenceException.class, () -> feedbackService.createFeedbacks(List.of(partyId)));
+
+		assertThat(exception).isSameAs(persistenceException);
+		verify(feedbackRepositoryMock, times(3)).flush();
+		verifyNoInteractions(feedbackChangedEventMock);
+	}
+
+	@Test
+	void createFeedbacksWhenAllFail() {
+
+		final var failed = feedbackService.createFeedbacks(List.of("invalid"));
+
+		assertThat(failed).extracting(FeedbackBatchResult::getStatus).containsExactly(400);
+		verifyNoInteractions(feedbackRepositoryMock, feedbackChangedEventMock);
+	}
+
+	@Test
+	void deleteFeedbacks() {
+
+		final var partyIdExisting = "81471222-5798-11e9-ae24-57fa13b361e1";
+		final var partyIdMissing = "81471222-5798-11e9-ae24-57fa13b361e2";
+
+		when(feedbackRepositoryMock.findPartyIdsWithFeedback(any())).thenReturn(List.of(partyIdExisting));
+
+		final var failed = feedbackService.deleteFeedbacks(List.of(partyIdExisting, partyIdMissing, "invalid"));
+
+		assertThat(failed).extracting(FeedbackBatchResult::getPartyId, FeedbackBatchResult::getStatus, FeedbackBatchResult::getDetail).containsExactly(
+			tuple(partyIdMissing, 404, "No feedback entity found for partyId:'81471222-5798-11e9-ae24-57fa13b361e2'!"),
+			tuple("invalid", 400, "Invalid partyId:'invalid'! The partyId must be a valid UUID!"));
+
+		verify(feedbackRepositoryMock).findPartyIdsWithFeedback(List.of(partyIdExisting, partyIdMissing));
+		verify(feedbackRepositoryMock).deleteByPartyIds(Set.of(partyIdExisting));
+		verify(feedbackChangedEventMock).fire(feedbackChangedEventCaptor.capture());
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+		assertThat(feedbackChangedEventCaptor.getValue().getDeletedPartyIds()).containsExactly(partyIdExisting);
+	}
+
+	@Test
+	void deleteFeedbacksWhenNoneExists() {
+
+		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
+
+		final var failed = feedbackService.deleteFeedbacks(List.of(partyId));
+
+		assertThat(failed).extracting(FeedbackBatchResult::getStatus).containsExactly(404);
+		verify(feedbackRepositoryMock).findPartyIdsWithFeedback(List.of(partyId));
+		verifyNoMoreInteractions(feedbackRepositoryMock);
+		verifyNoInteractions(feedbackChangedEventMock);
 	}
 }
@@ -21,7 +21,7 @@ class DisturbanceFeedbackMapperTest {
 		final var result = DisturbanceFeedbackMapper.toDisturbanceFeedbackEntity(category, disturbanceId, body);
 
 		assertThat(result).isNotNull();
-		assertThat(result.getCategory()).isEqualTo(String.valueOf(Category.COMMUNICATION));
+		assertThat(result.getCategory()).isEqualTo(Category.COMMUNICATION);
 		assertThat(result.getDisturbanceId()).isEqualTo(disturbanceId);
 		assertThat(result.getPartyId()).isEqualTo(body.getPartyId());
 	}
@@ -17,6 +17,7 @@ import se.sundsvall.disturbance.api.model.Affected;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
+import se.sundsvall.disturbance.api.model.Status;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
 
@@ -36,13 +37,14 @@ class DisturbanceMapperTest {
 
 		final var disturbanceEntity = new DisturbanceEntity();
 		disturbanceEntity.setDisturbanceId("disturbanceId");
-		disturbanceEntity.setCategory("COMMUNICATION");
+		disturbanceEntity.setCategory(Category.COMMUNICATION);
 		disturbanceEntity.setDescription("description");
 		disturbanceEntity.setTitle("title");
-		disturbanceEntity.setStatus("OPEN");
+		disturbanceEntity.setStatus(Status.OPEN);
 		disturbanceEntity.setPlannedStartDate(now().plusDays(1));
 		disturbanceEntity.setPlannedStopDate(now().plusDays(2));
 		disturbanceEntity.setCreated(now());
+		disturbanceEntity.setVersion(2);
 		disturbanceEntity.setAffectedEntities(List.of(affectedEntity1, affectedEntity2));
 
 		final var disturbance = DisturbanceMapper.toDisturbance(disturbanceEntity);
@@ -54,6 +56,7 @@ class DisturbanceMapperTest {
 		assertThat(disturbance.getPlannedStartDate()).isCloseTo(now().plusDays(1), within(2, SECONDS));
 		assertThat(disturbance.getPlannedStopDate()).isCloseTo(now().plusDays(2), within(2, SECONDS));
 		assertThat(disturbance.getCreated()).isCloseTo(now(), within(2, SECONDS));
+		assertThat(disturbance.getVersion()).isEqualTo(2);
 		assertThat(disturbance.getAffecteds().size()).isEqualTo(2);
 		assertThat(disturbance.getAffecteds().get(0).getPartyId()).isEqualTo("partyId-1");
 		assertThat(disturbance.getAffecteds().get(0).getReference()).isEqualTo("reference-1");
@@ -61,6 +64,30 @@ class DisturbanceMapperTest {
 		assertThat(disturbance.getAffecteds().get(1).getReference()).isEqualTo("reference-2");
 	}
 
+	@Test
+	void toDisturbanceWithProvidedAffectedEntities() {
+
+		final var affectedEntity1 = new AffectedEntity();
+		affectedEntity1.setPartyId("partyId-1");
+		affectedEntity1.setReference("reference-1");
+
+		final var affectedEntity2 = new AffectedEntity();
+		affectedEntity2.setPartyId("partyId-2");
+		affectedEntity2.setReference("reference-2");
+
+		final var disturbanceEntity = new DisturbanceEntity();
+		disturbanceEntity.setDisturbanceId("disturbanceId");
+		disturbanceEntity.setCategory(Category.COMMUNICATION);
+		disturbanceEntity.setStatus(Status.OPEN);
+		disturbanceEntity.setAffectedEntities(List.of(affectedEntity1, affectedEntity2));
+
+		final var disturbance = DisturbanceMapper.toDisturbance(disturbanceEntity, List.of(affectedEntity2));
+
+		assertThat(disturbance.getId()).isEqualTo("disturbanceId");
+		assertThat(disturbance.getAffecteds()).containsExactly(Affected.create().withPartyId("partyId-2").withReference("reference-2"));
+		assertThat(DisturbanceMapper.toDisturbance(disturbanceEntity, null).getAffecteds()).isNull();
+	}
+
 	@Test
 	void toDisturbanceEntityFromDisturbanceCreateRequest() {
 
@@ -84,12 +111,12 @@ class DisturbanceMapperTest {
 		assertThat(disturbanceEntity.getAffectedEntities()).hasSize(3); // Duplicates removed.
 		assertThat(disturbanceEntity.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
 		assertThat(disturbanceEntity.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
-		assertThat(disturbanceEntity.getCategory()).isEqualTo(Category.COMMUNICATION.toString());
+		assertThat(disturbanceEntity.getCategory()).isEqualTo(Category.COMMUNICATION);
 		assertThat(disturbanceEntity.getDescription()).isEqualTo("Description");
 		assertThat(disturbanceEntity.getDisturbanceId()).isEqualTo("id");
 		assertThat(disturbanceEntity.getPlannedStartDate()).isCloseTo(now(), within(2, SECONDS));
 		assertThat(disturbanceEntity.getPlannedStopDate()).isCloseTo(now().plusDays(1), within(2, SECONDS));
-		assertThat(disturbanceEntity.getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN.toString());
+		assertThat(disturbanceEntity.getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN);
 		assertThat(disturbanceEntity.getTitle()).isEqualTo("Title");
 	}
 
@@ -115,12 +142,12 @@ class DisturbanceMapperTest {
 		assertThat(disturbanceEntity.getAffectedEntities()).hasSize(3); // Duplicates removed.
 		assertThat(disturbanceEntity.getAffectedEntities()).extracting(AffectedEntity::getReference).containsExactly("reference-1", "reference-2", "reference-3");
 		assertThat(disturbanceEntity.getAffectedEntities()).extracting(AffectedEntity::getPartyId).containsExactly("partyId-1", "partyId-2", "partyId-3");
-		assertThat(disturbanceEntity.getCategory()).isEqualTo(category.toString());
+		assertThat(disturbanceEntity.getCategory()).isEqualTo(category);
 		assertThat(disturbanceEntity.getDescription()).isEqualTo("Description");
 		assertThat(disturbanceEntity.getDisturbanceId()).isEqualTo(disturbanceId);
 		assertThat(disturbanceEntity.getPlannedStartDate()).isCloseTo(now(), within(2, SECONDS));
 		assertThat(disturbanceEntity.getPlannedStopDate()).isCloseTo(now().plusDays(1), within(2, SECONDS));
-		assertThat(disturbanceEntity.getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN.toString());
+		assertThat(disturbanceEntity.getStatus()).isEqualTo(se.sundsvall.disturbance.api.model.Status.OPEN);
 		assertThat(disturbanceEntity.getTitle()).isNull();
 	}
 
@@ -145,10 +172,10 @@ class DisturbanceMapperTest {
 		final var oldEntity = new DisturbanceEntity();
 		oldEntity.setId(1L);
 		oldEntity.setDisturbanceId("oldDisturbanceId");
-		oldEntity.setCategory("oldStatus");
+		oldEntity.setCategory(Category.WATER);
 		oldEntity.setDescription("oldDescription");
 		oldEntity.setTitle("oldTitle");
-		oldEntity.setStatus("oldStatus");
+		oldEntity.setStatus(Status.OPEN);
 		oldEntity.setPlannedStartDate(now().minusDays(RandomUtils.nextInt(1, 1000)));
 		oldEntity.setPlannedStopDate(now().plusDays(RandomUtils.nextInt(1, 1000)));
 		oldEntity.setCreated(now().minusDays(RandomUtils.nextInt(1, 1000)));
@@ -169,10 +196,10 @@ class DisturbanceMapperTest {
 		final var newEntity = new DisturbanceEntity();
 		newEntity.setId(0L);
 		newEntity.setDisturbanceId("newDisturbanceId");
-		newEntity.setCategory("newStatus");
+		newEntity.setCategory(Category.ELECTRICITY);
 		newEntity.setDescription("newDescription");
 		newEntity.setTitle("newTitle");
-		newEntity.setStatus("newStatus");
+		newEntity.setStatus(Status.CLOSED);
 		newEntity.setPlannedStartDate(now().minusDays(RandomUtils.nextInt(1, 1000)));
 		newEntity.setPlannedStopDate(now().plusDays(RandomUtils.nextInt(1, 1000)));
 		newEntity.setCreated(now().minusDays(RandomUtils.nextInt(1, 1000)));
@@ -216,10 +243,10 @@ class DisturbanceMapperTest {
 		final var oldEntity = new DisturbanceEntity();
 		oldEntity.setId(1L);
 		oldEntity.setDisturbanceId("oldDisturbanceId");
-		oldEntity.setCategory("oldStatus");
+		oldEntity.setCategory(Category.WATER);
 		oldEntity.setDescription("oldDescription");
 		oldEntity.setTitle("oldTitle");
-		oldEntity.setStatus("oldStatus");
+		oldEntity.setStatus(Status.OPEN);
 		oldEntity.setPlannedStartDate(now().minusDays(RandomUtils.nextInt(1, 1000)));
 		oldEntity.setPlannedStopDate(now().plusDays(RandomUtils.nextInt(1, 1000)));
 		oldEntity.setCreated(now().minusDays(RandomUtils.nextInt(1, 1000)));
@@ -232,4 +259,83 @@ class DisturbanceMapperTest {
 			.isNotNull()
 			.isEqualTo(oldEntity);
 	}
+
+	@Test
+	void toMergedDisturbanceEntityKeepsUnchangedAffectedEntities() {
+
+		/**
+		 * Set up old entity.
+		 */
+		final var oldAffected1 = new AffectedEntity();
+		oldAffected1.setId(1L);
+		oldAffected1.setPartyId("partyId-1");
+		oldAffected1.setReference("reference-1");
+
+		final var oldAffected2 = new AffectedEntity();
+		oldAffected2.setId(2L);
+		oldAffected2.setPartyId("partyId-2");
+		oldAffected2.setReference("reference-2");
+
+		final var oldAffected3 = new AffectedEntity();
+		oldAffected3.setId(3L);
+		oldAffected3.setPartyId("partyId-3");
+		oldAffected3.setReference("reference-3");
+
+		final var oldEntity = new DisturbanceEntity();
+		oldEntity.setAffectedEntities(new ArrayList<>(List.of(oldAffected1, oldAffected2, oldAffected3)));
+
+		/**
+		 * Set up new entity. Element 1 is unchanged (but with other case), element 2 is removed and element 4 is added.
+		 */
+		final var newAffected1 = new AffectedEntity();
+		newAffected1.setPartyId("PARTYID-1");
+		newAffected1.setReference("reference-1");
+
+		final var newAffected3 = new AffectedEntity();
+		newAffected3.setPartyId("partyId-3");
+		newAffected3.setReference("reference-3");
+
+		final var newAffected4 = new AffectedEntity();
+		newAffected4.setPartyId("partyId-4");
+		newAffected4.setReference("reference-4");
+
+		final var newEntity = new DisturbanceEntity();
+		newEntity.setAffectedEntities(new ArrayList<>(List.of(newAffected4, newAffected1, newAffected3)));
+
+		final var mergedDisturbanceEntity = DisturbanceMapper.toMergedDisturbanceEntity(oldEntity, newEntity);
+
+		assertThat(mergedDisturbanceEntity.getAffectedEntities())
+			.hasSize(3)
+			.containsExactly(newAffected4, oldAffected1, oldAffected3)
+			.allSatisfy(affectedEntity -> assertThat(affectedEntity.getDisturbanceEntity()).isSameAs(oldEntity));
+		assertThat(mergedDisturbanceEntity.getAffectedEntities().get(1)).isSameAs(oldAffected1);
+		assertThat(mergedDisturbanceEntity.getAffectedEntities().get(2)).isSameAs(oldAffected3);
+		assertThat(mergedDisturbanceEntity.getUpdated()).isCloseTo(now(), within(10, SECONDS));
+	}
+
+	@Test
+	void toMergedDisturbanceEntityWithUnchangedAffectedEntities() {
+
+		final var oldAffected1 = new AffectedEntity();
+		oldAffected1.setId(1L);
+		oldAffected1.setPartyId("partyId-1");
+		oldAffected1.setReference("reference-1");
+
+		final var updated = now().minusDays(1);
+		final var oldEntity = new DisturbanceEntity();
+		oldEntity.setUpdated(updated);
+		oldEntity.setAffectedEntities(new ArrayList<>(List.of(oldAffected1)));
+
+		final var newAffected1 = new AffectedEntity();
+		newAffected1.setPartyId("partyId-1");
+		newAffected1.setReference("reference-1");
+
+		final var newEntity = new DisturbanceEntity();
+		newEntity.setAffectedEntities(new ArrayList<>(List.of(newAffected1)));
+
+		final var mergedDisturbanceEntity = DisturbanceMapper.toMergedDisturbanceEntity(oldEntity, newEntity);
+
+		assertThat(mergedDisturbanceEntity.getAffectedEntities()).containsExactly(oldAffected1);
+		assertThat(mergedDisturbanceEntity.getUpdated()).isEqualTo(updated);
+	}
 }
@@ -0,0 +1,119 @@
+package se.sundsvall.disturbance.service.message;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+import javax.transaction.UserTransaction;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import se.sundsvall.disturbance.apptest.support.WireMockLifecycleManager;
+import se.sundsvall.disturbance.apptest.support.annotation.InjectWireMock;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackHistoryRepository;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+
+/**
+ * Verifies the delivery of the message outbox, in several chunks, by a thread without a request context (as the
+ * threads of the MessageOutboxDispatcher).
+ */
+@QuarkusTest
+@QuarkusTestResource(WireMockLifecycleManager.class)
+@TestProfile(MessageOutboxDeliveryTest.SingleMessageChunksProfile.class)
+class MessageOutboxDeliveryTest {
+
+	private static final String ACCESS_TOKEN = "MTQ0NjJkZmQ5OTM2NDE1ZTZjNGZmZjI3";
+	private static final int NUMBER_OF_MESSAGES = 3;
+	private static final String DISTURBANCE_ID = "outbox-delivery-1";
+
+	@InjectWireMock
+	WireMockServer wireMock;
+
+	@Inject
+	MessageOutboxDispatcher messageOutboxDispatcher;
+
+	@Inject
+	MessageOutboxRepository messageOutboxRepository;
+
+	@Inject
+	DisturbanceFeedbackHistoryRepository disturbanceFeedbackHistoryRepository;
+
+	@Inject
+	UserTransaction userTransaction;
+
+	public static class SingleMessageChunksProfile implements QuarkusTestProfile {
+
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of(
+				"message-delivery.chunk-size", "1",
+				// Only the dispatch of the test (a scheduled dispatch runs at startup as well, and a dispatch in progress
+				// makes the dispatch of the test return at once).
+				"quarkus.scheduler.enabled", "false");
+		}
+	}
+
+	@Test
+	void dispatchSeveralChunksOutsideOfRequestContext() throws Exception {
+
+		wireMock.stubFor(post(urlEqualTo("/api-gateway/token"))
+			.willReturn(aResponse()
+				.withHeader("Content-Type", "application/json")
+				.withBody("{\"access_token\": \"" + ACCESS_TOKEN + "\", \"expires_in\": -1, \"token_type\": \"bearer\"}")));
+		wireMock.stubFor(post(urlEqualTo("/api-messaging/messages"))
+			.willReturn(aResponse()
+				.withHeader("Content-Type", "application/json")
+				.withBody("{\"messageId\": \"message-1\", \"sent\": true}")));
+
+		userTransaction.begin();
+		for (var i = 0; i < NUMBER_OF_MESSAGES; i++) {
+			final var messageOutboxEntity = new MessageOutboxEntity();
+			messageOutboxEntity.setPartyId("partyId-" + i);
+			messageOutboxEntity.setCategory(Category.ELECTRICITY);
+			messageOutboxEntity.setDisturbanceId(DISTURBANCE_ID);
+			messageOutboxEntity.setSubject("subject");
+			messageOutboxEntity.setMessage("message");
+			messageOutboxRepository.persist(messageOutboxEntity);
+		}
+		userTransaction.commit();
+
+		final var executor = Executors.newSingleThreadExecutor();
+		try {
+			final var requestContextActive = CompletableFuture.supplyAsync(() -> {
+				final var active = Arc.container().requestContext().isActive();
+				messageOutboxDispatcher.dispatch();
+				return active;
+			}, executor).get(30, SECONDS);
+
+			assertThat(requestContextActive).isFalse();
+		} finally {
+			executor.shutdown();
+		}
+
+		// One call per message (i.e. chunk), and all messages delivered.
+		wireMock.verify(NUMBER_OF_MESSAGES, postRequestedFor(urlEqualTo("/api-messaging/messages"))
+			.withHeader("Authorization", equalTo("Bearer " + ACCESS_TOKEN)));
+		assertThat(messageOutboxRepository.count()).isZero();
+
+		// The delivered messages are stored in the feedback history (in the transaction that removed them from the outbox).
+		assertThat(disturbanceFeedbackHistoryRepository.count("disturbanceId", DISTURBANCE_ID)).isEqualTo(NUMBER_OF_MESSAGES);
+	}
+}
@@ -0,0 +1,473 @@
+package se.sundsvall.disturbance.service.message;
+
+import static java.time.OffsetDateTime.now;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static javax.ws.rs.core.Response.Status.BAD_GATEWAY;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static javax.ws.rs.core.Response.Status.UNAUTHORIZED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.SPAN_ATTRIBUTE_ATTEMPTS;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.SPAN_ATTRIBUTE_CHUNKS;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.SPAN_ATTRIBUTE_MESSAGES;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.ProcessingException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import generated.se.sundsvall.messaging.Message;
+import generated.se.sundsvall.messaging.MessageRequest;
+import generated.se.sundsvall.messaging.MessageStatusResponse;
+import generated.se.sundsvall.messaging.Sender;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.smallrye.mutiny.Uni;
+import se.sundsvall.disturbance.api.exception.ServiceException;
+import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackHistoryRepository;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.integration.messaging.ApiMessagingReactiveClient;
+import se.sundsvall.disturbance.service.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.message.configuration.MessageDeliveryConfiguration;
+import se.sundsvall.disturbance.support.TracingTestSupport;
+
+@ExtendWith(MockitoExtension.class)
+class MessageOutboxDispatcherTest {
+
+	private static final int BATCH_SIZE = 2000;
+	private static final int OUTBOX_MAX_ATTEMPTS = 10;
+	private static final Duration OUTBOX_LEASE = Duration.ofMinutes(5);
+	private static final Duration OUTBOX_RETRY_BACKOFF = Duration.ofMinutes(1);
+
+	@Captor
+	private ArgumentCaptor<MessageRequest> messageRequestCaptor;
+
+	@Captor
+	private ArgumentCaptor<List<Long>> idsCaptor;
+
+	@Captor
+	private ArgumentCaptor<OffsetDateTime> dispatchAfterCaptor;
+
+	@Captor
+	private ArgumentCaptor<List<MessageOutboxEntity>> messageOutboxEntitiesCaptor;
+
+	@Mock
+	private MessageOutboxRepository messageOutboxRepositoryMock;
+
+	@Mock
+	private DisturbanceFeedbackHistoryRepository disturbanceFeedbackHistoryRepositoryMock;
+
+	@Mock
+	private MessageDeliveryConfiguration messageDeliveryConfigurationMock;
+
+	@Mock
+	private ApiMessagingReactiveClient apiMessagingReactiveClientMock;
+
+	@Mock
+	private DisturbanceMetrics disturbanceMetricsMock;
+
+	@InjectMocks
+	private MessageOutboxDispatcher messageOutboxDispatcher;
+
+	private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+
+	@BeforeEach
+	void setup() {
+		messageOutboxDispatcher.tracer = TracingTestSupport.createTracer(spanExporter);
+		lenient().when(messageDeliveryConfigurationMock.chunkSize()).thenReturn(500);
+		lenient().when(messageDeliveryConfigurationMock.poolSize()).thenReturn(4);
+		lenient().when(messageDeliveryConfigurationMock.maxAttempts()).thenReturn(3);
+		lenient().when(messageDeliveryConfigurationMock.retryDelay()).thenReturn(Duration.ZERO);
+		lenient().when(messageDeliveryConfigurationMock.outboxBatchSize()).thenReturn(BATCH_SIZE);
+		lenient().when(messageDeliveryConfigurationMock.outboxMaxAttempts()).thenReturn(OUTBOX_MAX_ATTEMPTS);
+		lenient().when(messageDeliveryConfigurationMock.outboxLease()).thenReturn(OUTBOX_LEASE);
+		lenient().when(messageDeliveryConfigurationMock.outboxRetryBackoff()).thenReturn(OUTBOX_RETRY_BACKOFF);
+		lenient().when(apiMessagingReactiveClientMock.sendMessage(any())).thenReturn(Uni.createFrom().item(new MessageStatusResponse()));
+		messageOutboxDispatcher.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		messageOutboxDispatcher.destroy();
+	}
+
+	@Test
+	void dispatchWhenOutboxIsEmpty() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(emptyList());
+
+		messageOutboxDispatcher.dispatch();
+
+		verify(messageOutboxRepositoryMock).deadLetterExhausted(OUTBOX_MAX_ATTEMPTS);
+		verify(messageOutboxRepositoryMock).claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE);
+		verify(messageOutboxRepositoryMock).countDeadLetters();
+		verifyNoMoreInteractions(messageOutboxRepositoryMock);
+		verifyNoInteractions(apiMessagingReactiveClientMock);
+	}
+
+	@Test
+	void dispatch() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(setupMessageOutboxEntityList(1, 2, 3));
+
+		messageOutboxDispatcher.dispatch();
+
+		verify(apiMessagingReactiveClientMock).sendMessage(messageRequestCaptor.capture());
+		verify(messageOutboxRepositoryMock).deleteByIds(List.of(1L, 2L, 3L));
+		verify(messageOutboxRepositoryMock, never()).releaseByIds(any(), any());
+
+		// The delivered messages are stored in the feedback history.
+		verify(disturbanceFeedbackHistoryRepositoryMock).persistWithStatusSent(messageOutboxEntitiesCaptor.capture());
+		assertThat(messageOutboxEntitiesCaptor.getValue()).extracting(MessageOutboxEntity::getId).containsExactly(1L, 2L, 3L);
+
+		assertThat(messageRequestCaptor.getValue().getMessages()).containsExactly(
+			setupMessage(1),
+			setupMessage(2),
+			setupMessage(3));
+	}
+
+	@Test
+	void dispatchInChunks() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(setupMessageOutboxEntityList(1, 2, 3, 4, 5));
+
+		// Max 2 messages per chunk.
+		when(messageDeliveryConfigurationMock.chunkSize()).thenReturn(2);
+
+		messageOutboxDispatcher.dispatch();
+
+		verify(apiMessagingReactiveClientMock, times(3)).sendMessage(messageRequestCaptor.capture());
+		verify(messageOutboxRepositoryMock).deleteByIds(idsCaptor.capture());
+		verify(messageOutboxRepositoryMock, never()).releaseByIds(any(), any());
+
+		/**
+		 * Assert sent chunks (the chunks are sent in parallel, so the order between them is not known).
+		 */
+		final var messageRequests = messageRequestCaptor.getAllValues();
+		assertThat(messageRequests).extracting(messageRequest -> messageRequest.getMessages().size()).containsExactlyInAnyOrder(2, 2, 1);
+		assertThat(messageRequests).flatExtracting(MessageRequest::getMessages)
+			.extracting(Message::getPartyId)
+			.containsExactlyInAnyOrder("partyId-1", "partyId-2", "partyId-3", "partyId-4", "partyId-5");
+		assertThat(idsCaptor.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+
+		/**
+		 * Assert spans (the chunks are sent in the trace context of the delivery).
+		 */
+		final var deliverSpan = getSpan("MessageOutboxDispatcher.deliver");
+		assertThat(deliverSpan.getAttributes().get(SPAN_ATTRIBUTE_MESSAGES)).isEqualTo(5L);
+		assertThat(deliverSpan.getAttributes().get(SPAN_ATTRIBUTE_CHUNKS)).isEqualTo(3L);
+		assertThat(deliverSpan.getStatus().getStatusCode()).isEqualTo(StatusCode.UNSET);
+		assertThat(getSpans("MessageOutboxDispatcher.sendChunk"))
+			.extracting(SpanData::getTraceId, SpanData::getParentSpanId, span -> span.getAttributes().get(SPAN_ATTRIBUTE_MESSAGES))
+			.containsExactlyInAnyOrder(
+				tuple(deliverSpan.getTraceId(), deliverSpan.getSpanId(), 2L),
+				tuple(deliverSpan.getTraceId(), deliverSpan.getSpanId(), 2L),
+				tuple(deliverSpan.getTraceId(), deliverSpan.getSpanId(), 1L));
+	}
+
+	@Test
+	void dispatchWithLimitedConcurrency() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(setupMessageOutboxEntityList(1, 2, 3, 4, 5, 6));
+
+		// One message per chunk, and max 2 requests in progress at the same time.
+		when(messageDeliveryConfigurationMock.chunkSize()).thenReturn(1);
+		when(messageDeliveryConfigurationMock.poolSize()).thenReturn(2);
+		final var requestsInProgress = new AtomicInteger();
+		final var maxRequestsInProgress = new AtomicInteger();
+		when(apiMessagingReactiveClientMock.sendMessage(any())).thenAnswer(invocation -> Uni.createFrom().item(new MessageStatusResponse())
+			.onSubscribe().invoke(() -> maxRequestsInProgress.accumulateAndGet(requestsInProgress.incrementAndGet(), Math::max))
+			.onItem().delayIt().by(Duration.ofMillis(50))
+			.onItem().invoke(requestsInProgress::decrementAndGet));
+
+		messageOutboxDispatcher.dispatch();
+
+		verify(apiMessagingReactiveClientMock, times(6)).sendMessage(any());
+		verify(messageOutboxRepositoryMock).deleteByIds(eqIds(1L, 2L, 3L, 4L, 5L, 6L));
+		assertThat(maxRequestsInProgress.get()).isEqualTo(2);
+	}
+
+	@Test
+	void dispatchDrainsOutboxInBatches() {
+
+		// Max 2 messages per claimed batch.
+		when(messageDeliveryConfigurationMock.outboxBatchSize()).thenReturn(2);
+		when(messageOutboxRepositoryMock.claimBatch(2, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE))
+			.thenReturn(setupMessageOutboxEntityList(1, 2))
+			.thenReturn(setupMessageOutboxEntityList(3));
+
+		messageOutboxDispatcher.dispatch();
+
+		verify(messageOutboxRepositoryMock, times(2)).claimBatch(2, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE);
+		verify(apiMessagingReactiveClientMock, times(2)).sendMessage(any());
+		verify(messageOutboxRepositoryMock).deleteByIds(List.of(1L, 2L));
+		verify(messageOutboxRepositoryMock).deleteByIds(List.of(3L));
+		verify(messageOutboxRepositoryMock).deadLetterExhausted(OUTBOX_MAX_ATTEMPTS);
+		verify(messageOutboxRepositoryMock).countDeadLetters();
+		verifyNoMoreInteractions(messageOutboxRepositoryMock);
+	}
+
+	@Test
+	void dispatchWhenChunkSucceedsOnRetry() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(setupMessageOutboxEntityList(1, 2, 3));
+
+		// Fail on first attempt (connection problem) and second attempt (server error), succeed on the third.
+		when(apiMessagingReactiveClientMock.sendMessage(any()))
+			.thenReturn(Uni.createFrom().failure(new ProcessingException("Connection refused")))
+			.thenReturn(Uni.createFrom().failure(ServiceException.create("Error calling api-messaging", BAD_GATEWAY, SERVICE_UNAVAILABLE)))
+			.thenReturn(Uni.createFrom().item(new MessageStatusResponse()));
+
+		messageOutboxDispatcher.dispatch();
+
+		verify(apiMessagingReactiveClientMock, times(3)).sendMessage(messageRequestCaptor.capture());
+		verify(messageOutboxRepositoryMock).deleteByIds(List.of(1L, 2L, 3L));
+		verify(messageOutboxRepositoryMock, never()).releaseByIds(any(), any());
+		verify(disturbanceMetricsMock, times(2)).recordMessagingRequest(any(), eq(false));
+		verify(disturbanceMetricsMock).recordMessagingRequest(any(), eq(true));
+		verify(disturbanceMetricsMock).recordMessagesDelivered(3, 0);
+		assertThat(messageRequestCaptor.getAllValues()).allSatisfy(messageRequest -> assertThat(messageRequest.getMessages()).hasSize(3));
+
+		// The failed attempts are recorded as exceptions in the span of the chunk.
+		final var sendChunkSpan = getSpan("MessageOutboxDispatcher.sendChunk");
+		assertThat(sendChunkSpan.getAttributes().get(SPAN_ATTRIBUTE_ATTEMPTS)).isEqualTo(3L);
+		assertThat(sendChunkSpan.getEvents()).hasSize(2).allSatisfy(event -> assertThat(event.getName()).isEqualTo("exception"));
+		assertThat(sendChunkSpan.getStatus().getStatusCode()).isEqualTo(StatusCode.UNSET);
+	}
+
+	@Test
+	void dispatchWhenChunkFailsWithClientError() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(setupMessageOutboxEntityList(1, 2, 3));
+
+		// Client errors are not retried (within the dispatch).
+		when(apiMessagingReactiveClientMock.sendMessage(any()))
+			.thenReturn(Uni.createFrom().failure(ServiceException.create("Error calling api-messaging", BAD_GATEWAY, UNAUTHORIZED)));
+
+		messageOutboxDispatcher.dispatch();
+
+		verify(apiMessagingReactiveClientMock).sendMessage(any());
+		verify(messageOutboxRepositoryMock).releaseByIds(eqIds(1L, 2L, 3L), dispatchAfterCaptor.capture());
+		verify(messageOutboxRepositoryMock, never()).deleteByIds(any());
+		verify(messageOutboxRepositoryMock, never()).deadLetterByIds(any());
+		verifyNoInteractions(disturbanceFeedbackHistoryRepositoryMock);
+		assertThat(dispatchAfterCaptor.getValue()).isAfter(now().plus(OUTBOX_RETRY_BACKOFF).minusSeconds(10));
+	}
+
+	@Test
+	void dispatchWhenOneMessageIsRejected() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(setupMessageOutboxEntityList(1, 2, 3, 4, 5));
+		when(messageOutboxRepositoryMock.countDeadLetters()).thenReturn(1L);
+
+		// Every request that contains the message to partyId-3 is rejected.
+		when(apiMessagingReactiveClientMock.sendMessage(any())).thenAnswer(invocation -> {
+			final MessageRequest messageRequest = invocation.getArgument(0);
+			if (messageRequest.getMessages().stream().anyMatch(message -> "partyId-3".equals(message.getPartyId()))) {
+				return Uni.createFrom().failure(ServiceException.create("Error calling api-messaging", BAD_GATEWAY, BAD_REQUEST));
+			}
+			return Uni.createFrom().item(new MessageStatusResponse());
+		});
+
+		messageOutboxDispatcher.dispatch();
+
+		// The rejected chunk is split until the rejected message is isolated: [1-5], [1-3], [1-2], [3] and [4-5].
+		verify(apiMessagingReactiveClientMock, times(5)).sendMessage(messageRequestCaptor.capture());
+		assertThat(messageRequestCaptor.getAllValues()).extracting(messageRequest -> messageRequest.getMessages().stream().map(Message::getPartyId).collect(toList()))
+			.containsExactly(
+				List.of("partyId-1", "partyId-2", "partyId-3", "partyId-4", "partyId-5"),
+				List.of("partyId-1", "partyId-2", "partyId-3"),
+				List.of("partyId-1", "partyId-2"),
+				List.of("partyId-3"),
+				List.of("partyId-4", "partyId-5"));
+
+		// The other messages are delivered, and the rejected one is kept as a dead letter (i.e. it is not retried).
+		verify(messageOutboxRepositoryMock).deleteByIds(eqIds(1L, 2L, 4L, 5L));
+		verify(messageOutboxRepositoryMock).deadLetterByIds(List.of(3L));
+		verify(messageOutboxRepositoryMock, never()).releaseByIds(any(), any());
+		verify(disturbanceFeedbackHistoryRepositoryMock).persistWithStatusSent(messageOutboxEntitiesCaptor.capture());
+		assertThat(messageOutboxEntitiesCaptor.getValue()).extracting(MessageOutboxEntity::getId).containsExactly(1L, 2L, 4L, 5L);
+		verify(disturbanceMetricsMock).recordMessagesDelivered(4, 1);
+		verify(disturbanceMetricsMock).recordDeadLetterMessages(1L);
+		assertThat(getSpan("MessageOutboxDispatcher.deliver").getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+	}
+
+	@Test
+	void dispatchWhenMessagesAreOutOfAttempts() {
+
+		// The message with id 1 is claimed for the last time.
+		final var messageOutboxEntities = setupMessageOutboxEntityList(1, 2);
+		messageOutboxEntities.get(0).setAttempts(OUTBOX_MAX_ATTEMPTS);
+		messageOutboxEntities.get(1).setAttempts(1);
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(messageOutboxEntities);
+		when(apiMessagingReactiveClientMock.sendMessage(any()))
+			.thenReturn(Uni.createFrom().failure(ServiceException.create("Error calling api-messaging", BAD_GATEWAY, INTERNAL_SERVER_ERROR)));
+
+		messageOutboxDispatcher.dispatch();
+
+		verify(messageOutboxRepositoryMock).deadLetterByIds(List.of(1L));
+		verify(messageOutboxRepositoryMock).releaseByIds(eq(List.of(2L)), any());
+		verify(messageOutboxRepositoryMock, never()).deleteByIds(any());
+		verify(disturbanceMetricsMock).recordMessagesDelivered(0, 2);
+	}
+
+	@Test
+	void dispatchWhenOneChunkFailsAfterAllAttempts() {
+
+		when(messageOutboxRepositoryMock.claimBatch(anyInt(), anyInt(), any())).thenReturn(setupMessageOutboxEntityList(1, 2, 3, 4));
+
+		// Max 2 messages per chunk and per batch. The chunk with partyId-1 always fails.
+		when(messageDeliveryConfigurationMock.chunkSize()).thenReturn(2);
+		when(messageDeliveryConfigurationMock.outboxBatchSize()).thenReturn(4);
+		when(apiMessagingReactiveClientMock.sendMessage(any())).thenAnswer(invocation -> {
+			final MessageRequest messageRequest = invocation.getArgument(0);
+			if ("partyId-1".equals(messageRequest.getMessages().get(0).getPartyId())) {
+				return Uni.createFrom().failure(ServiceException.create("Error calling api-messaging", BAD_GATEWAY, INTERNAL_SERVER_ERROR));
+			}
+			return Uni.createFrom().item(new MessageStatusResponse());
+		});
+
+		messageOutboxDispatcher.dispatch();
+
+		// 3 attempts for the failing chunk and 1 for the other one. A full batch with failures does not trigger a new claim.
+		verify(apiMessagingReactiveClientMock, times(4)).sendMessage(any());
+		verify(messageOutboxRepositoryMock).claimBatch(anyInt(), anyInt(), any());
+		verify(messageOutboxRepositoryMock).deleteByIds(List.of(3L, 4L));
+		verify(messageOutboxRepositoryMock).releaseByIds(eqIds(1L, 2L), any());
+		verify(messageOutboxRepositoryMock).deadLetterExhausted(OUTBOX_MAX_ATTEMPTS);
+		verify(messageOutboxRepositoryMock).countDeadLetters();
+		verifyNoMoreInteractions(messageOutboxRepositoryMock);
+		verify(disturbanceMetricsMock).recordMessagesDelivered(2, 2);
+		assertThat(getSpan("MessageOutboxDispatcher.deliver").getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+		assertThat(getSpans("MessageOutboxDispatcher.sendChunk"))
+			.extracting(span -> span.getAttributes().get(SPAN_ATTRIBUTE_ATTEMPTS), span -> span.getStatus().getStatusCode())
+			.containsExactlyInAnyOrder(tuple(3L, StatusCode.ERROR), tuple(1L, StatusCode.UNSET));
+	}
+
+	@Test
+	void dispatchWhenClaimFails() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenThrow(new IllegalStateException("DB is down"));
+
+		// Errors are logged and the outbox is dispatched again on next trigger.
+		messageOutboxDispatcher.dispatch();
+
+		verifyNoInteractions(apiMessagingReactiveClientMock);
+	}
+
+	@Test
+	void onMessagesQueued() {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(emptyList());
+
+		messageOutboxDispatcher.onMessagesQueued(new MessagesQueuedEvent(1));
+
+		// The dispatch is made asynchronously.
+		verify(messageOutboxRepositoryMock, timeout(5000)).claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE);
+	}
+
+	@Test
+	void onMessagesQueuedContinuesTrace() throws InterruptedException {
+
+		when(messageOutboxRepositoryMock.claimBatch(BATCH_SIZE, OUTBOX_MAX_ATTEMPTS, OUTBOX_LEASE)).thenReturn(setupMessageOutboxEntityList(1));
+
+		// Queue the messages within a (request) span.
+		final var requestSpan = messageOutboxDispatcher.tracer.spanBuilder("request").startSpan();
+		try (var scope = requestSpan.makeCurrent()) {
+			messageOutboxDispatcher.onMessagesQueued(new MessagesQueuedEvent(1));
+		} finally {
+			requestSpan.end();
+		}
+
+		// The asynchronous delivery is a part of the trace of the request.
+		verify(messageOutboxRepositoryMock, timeout(5000)).deleteByIds(List.of(1L));
+		final var deliverSpan = awaitSpan("MessageOutboxDispatcher.deliver");
+		assertThat(deliverSpan.getTraceId()).isEqualTo(requestSpan.getSpanContext().getTraceId());
+		assertThat(deliverSpan.getParentSpanId()).isEqualTo(requestSpan.getSpanContext().getSpanId());
+	}
+
+	private SpanData awaitSpan(String name) throws InterruptedException {
+		// The span is ended (and exported) after the last interaction with the mocks.
+		final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (getSpans(name).isEmpty() && (System.nanoTime() < deadline)) {
+			Thread.sleep(10);
+		}
+		return getSpan(name);
+	}
+
+	private SpanData getSpan(String name) {
+		final var spans = getSpans(name);
+		assertThat(spans).hasSize(1);
+		return spans.get(0);
+	}
+
+	private List<SpanData> getSpans(String name) {
+		return spanExporter.getFinishedSpanItems().stream()
+			.filter(span -> name.equals(span.getName()))
+			.collect(toList());
+	}
+
+	private static List<Long> eqIds(Long... ids) {
+		return argThat(list -> list.size() == ids.length && list.containsAll(List.of(ids)));
+	}
+
+	private List<MessageOutboxEntity> setupMessageOutboxEntityList(int... ids) {
+
+		final var messageOutboxEntityList = new ArrayList<MessageOutboxEntity>();
+		for (var id : ids) {
+			final var messageOutboxEntity = new MessageOutboxEntity();
+			messageOutboxEntity.setId((long) id);
+			messageOutboxEntity.setPartyId("partyId-" + id);
+			messageOutboxEntity.setSubject("subject-" + id);
+			messageOutboxEntity.setMessage("message-" + id);
+			messageOutboxEntity.setSenderEmailName("SenderEmailName");
+			messageOutboxEntity.setSenderEmailAddress("noreply@host.se");
+			messageOutboxEntity.setSenderSmsName("SenderSMSName");
+
+			messageOutboxEntityList.add(messageOutboxEntity);
+		}
+
+		return messageOutboxEntityList;
+	}
+
+	private Message setupMessage(int id) {
+		return new Message()
+			.sender(new Sender()
+				.smsName("SenderSMSName")
+				.emailName("SenderEmailName")
+				.emailAddress("noreply@host.se"))
+			.partyId("partyId-" + id)
+			.subject("subject-" + id)
+			.message("message-" + id);
+	}
+}
@@ -2,19 +2,26 @@ package se.sundsvall.disturbance.service.message;
 
 import static java.time.OffsetDateTime.now;
 import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.service.message.SendMessageLogic.SPAN_ATTRIBUTE_CATEGORY;
+import static se.sundsvall.disturbance.service.message.SendMessageLogic.SPAN_ATTRIBUTE_RECIPIENTS;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.enterprise.event.Event;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -25,19 +32,23 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import generated.se.sundsvall.messaging.Message;
-import generated.se.sundsvall.messaging.MessageRequest;
 import generated.se.sundsvall.messaging.Sender;
-import se.sundsvall.disturbance.api.exception.ServiceException;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Status;
-import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackHistoryRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceFeedbackRepository;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceFeedbackEntity;
-import se.sundsvall.disturbance.integration.messaging.ApiMessagingClient;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.service.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.message.configuration.CategoryTemplates;
 import se.sundsvall.disturbance.service.message.configuration.MessageConfiguration;
 import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+import se.sundsvall.disturbance.service.message.util.SendMessageUtils;
+import se.sundsvall.disturbance.support.TracingTestSupport;
 
 @ExtendWith(MockitoExtension.class)
 class SendMessageLogicTest {
@@ -47,32 +58,42 @@ class SendMessageLogicTest {
 	private static final String DESCRIPTION = "Major disturbance in the central parts of town";
 	private static final OffsetDateTime PLANNED_START_DATE = LocalDateTime.of(2021, 11, 1, 12, 0, 6).atOffset(now().getOffset());
 	private static final OffsetDateTime PLANNED_STOP_DATE = LocalDateTime.of(2021, 11, 10, 18, 30, 8).atOffset(now().getOffset());
-	private static final String STATUS = Status.OPEN.toString();
+	private static final Status STATUS = Status.OPEN;
 	private static final String TITLE = "Disturbance";
 
 	@Captor
-	private ArgumentCaptor<MessageRequest> messageRequestCaptor;
+	private ArgumentCaptor<List<MessageOutboxEntity>> messageOutboxEntitiesCaptor;
 
 	@Captor
-	private ArgumentCaptor<DisturbanceFeedbackEntity> disturbanceFeedbackEntityCaptor;
+	private ArgumentCaptor<MessagesQueuedEvent> messagesQueuedEventCaptor;
 
 	@Mock
 	private DisturbanceFeedbackRepository disturbanceFeedBackRepositoryMock;
 
 	@Mock
-	private DisturbanceFeedbackHistoryRepository disturbanceFeedBackHistoryRepositoryMock;
+	private MessageConfiguration messageConfigurationMock;
 
 	@Mock
-	private MessageConfiguration messageConfigurationMock;
+	private MessageOutboxRepository messageOutboxRepositoryMock;
+
+	@Mock
+	private Event<MessagesQueuedEvent> messagesQueuedEventMock;
 
 	@Mock
-	private ApiMessagingClient apiMessagingClientMock;
+	private DisturbanceMetrics disturbanceMetricsMock;
 
 	@InjectMocks
 	private SendMessageLogic sendMessageLogic;
 
+	private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+
+	@BeforeEach
+	void setup() {
+		sendMessageLogic.tracer = TracingTestSupport.createTracer(spanExporter);
+	}
+
 	@Test
-	void sendCloseMessageToAllApplicableAffecteds() throws ServiceException {
+	void sendCloseMessageToAllApplicableAffecteds() {
 
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -82,22 +103,27 @@ class SendMessageLogicTest {
 
 		// Setup message properties mock
 		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		when(messageConfigurationMock.getCategoryTemplates(CATEGORY)).thenReturn(CategoryTemplates.compile(setupCategoryConfig()));
 
 		sendMessageLogic.sendCloseMessageToAllApplicableAffecteds(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(3)).getCategoryConfig(CATEGORY);
+		verify(disturbanceMetricsMock).recordMessagesQueued(eq(CATEGORY), eq(SendMessageLogic.MESSAGE_TYPE_CLOSE), eq(3), any());
+		verify(messageConfigurationMock).getCategoryConfig(CATEGORY);
+		verify(messageConfigurationMock).getCategoryTemplates(CATEGORY);
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
-		verify(apiMessagingClientMock).sendMessage(messageRequestCaptor.capture());
-		verify(disturbanceFeedBackHistoryRepositoryMock, times(3)).persistWithStatusSent(disturbanceFeedbackEntityCaptor.capture());
-		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock);
+		verify(messageOutboxRepositoryMock).persist(messageOutboxEntitiesCaptor.capture());
+		verify(messagesQueuedEventMock).fire(messagesQueuedEventCaptor.capture());
+		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, messageOutboxRepositoryMock, messagesQueuedEventMock);
 
 		/**
 		 * Assert sent messages.
 		 */
-		final var messageRequest = messageRequestCaptor.getValue();
-		assertThat(messageRequest).isNotNull();
-		assertThat(messageRequest.getMessages()).hasSize(3);
-		assertThat(messageRequest.getMessages()).containsExactly(
+		assertThat(messagesQueuedEventCaptor.getValue().getNumberOfMessages()).isEqualTo(3);
+		final var messages = messageOutboxEntitiesCaptor.getValue().stream()
+			.map(SendMessageUtils::toMessage)
+			.collect(toList());
+		assertThat(messages).hasSize(3);
+		assertThat(messages).containsExactly(
 			new Message()
 				.sender(new Sender()
 					.smsName("SenderSMSName")
@@ -124,28 +150,25 @@ class SendMessageLogicTest {
 				.message("Close message for reference-6"));
 
 		/**
-		 * Assert persisted feedbackHistory.
+		 * Assert the disturbance of the queued messages (stored in the feedback history when delivered).
+		 */
+		assertThat(messageOutboxEntitiesCaptor.getValue())
+			.extracting(MessageOutboxEntity::getCategory, MessageOutboxEntity::getDisturbanceId, MessageOutboxEntity::getPartyId)
+			.containsExactly(
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-2"),
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-4"),
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-6"));
+
+		/**
+		 * Assert the span of the rendering.
 		 */
-		assertThat(disturbanceFeedbackEntityCaptor.getAllValues()).hasSize(3);
-
-		final var feedbackHistory1 = disturbanceFeedbackEntityCaptor.getAllValues().get(0);
-		assertThat(feedbackHistory1.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory1.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory1.getPartyId()).isEqualTo("partyId-2");
-
-		final var feedbackHistory2 = disturbanceFeedbackEntityCaptor.getAllValues().get(1);
-		assertThat(feedbackHistory2.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory2.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory2.getPartyId()).isEqualTo("partyId-4");
-
-		final var feedbackHistory3 = disturbanceFeedbackEntityCaptor.getAllValues().get(2);
-		assertThat(feedbackHistory3.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory3.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory3.getPartyId()).isEqualTo("partyId-6");
+		assertThat(spanExporter.getFinishedSpanItems())
+			.extracting(SpanData::getName, span -> span.getAttributes().get(SPAN_ATTRIBUTE_CATEGORY), span -> span.getAttributes().get(SPAN_ATTRIBUTE_RECIPIENTS))
+			.containsExactly(tuple("SendMessageLogic.renderMessages", "ELECTRICITY", 3L));
 	}
 
 	@Test
-	void sendCloseMessageToAllApplicableAffectedsWhenNoAffectedsHasDisturbanceFeedback() throws ServiceException {
+	void sendCloseMessageToAllApplicableAffectedsWhenNoAffectedsHasDisturbanceFeedback() {
 
 		// Set up disturbanceEntity with 6 affected affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -157,11 +180,11 @@ class SendMessageLogicTest {
 
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
 		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock);
-		verifyNoInteractions(apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock);
+		verifyNoInteractions(messageOutboxRepositoryMock, messagesQueuedEventMock);
 	}
 
 	@Test
-	void sendCloseMessageToProvidedApplicableAffecteds() throws ServiceException {
+	void sendCloseMessageToProvidedApplicableAffecteds() {
 
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -171,6 +194,7 @@ class SendMessageLogicTest {
 
 		// Setup message properties mock
 		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		when(messageConfigurationMock.getCategoryTemplates(CATEGORY)).thenReturn(CategoryTemplates.compile(setupCategoryConfig()));
 
 		// AffectedEntity1. This entity have a disturbanceFeedbackEntity.
 		final var affectedEntity1 = new AffectedEntity();
@@ -188,18 +212,21 @@ class SendMessageLogicTest {
 		sendMessageLogic.sendCloseMessageToProvidedApplicableAffecteds(disturbanceEntity, affectedEntitiesOverride);
 
 		verify(messageConfigurationMock).getCategoryConfig(CATEGORY);
+		verify(messageConfigurationMock).getCategoryTemplates(CATEGORY);
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
-		verify(apiMessagingClientMock).sendMessage(messageRequestCaptor.capture());
-		verify(disturbanceFeedBackHistoryRepositoryMock).persistWithStatusSent(disturbanceFeedbackEntityCaptor.capture());
-		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock);
+		verify(messageOutboxRepositoryMock).persist(messageOutboxEntitiesCaptor.capture());
+		verify(messagesQueuedEventMock).fire(messagesQueuedEventCaptor.capture());
+		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, messageOutboxRepositoryMock, messagesQueuedEventMock);
 
 		/**
 		 * Assert sent messages.
 		 */
-		final var messageRequest = messageRequestCaptor.getValue();
-		assertThat(messageRequest).isNotNull();
-		assertThat(messageRequest.getMessages()).hasSize(1);
-		assertThat(messageRequest.getMessages()).containsExactly(
+		assertThat(messagesQueuedEventCaptor.getValue().getNumberOfMessages()).isEqualTo(1);
+		final var messages = messageOutboxEntitiesCaptor.getValue().stream()
+			.map(SendMessageUtils::toMessage)
+			.collect(toList());
+		assertThat(messages).hasSize(1);
+		assertThat(messages).containsExactly(
 			new Message()
 				.sender(new Sender()
 					.smsName("SenderSMSName")
@@ -208,19 +235,17 @@ class SendMessageLogicTest {
 				.partyId("partyId-4")
 				.subject("Close subject for reference-4")
 				.message("Close message for reference-4"));
+
 		/**
-		 * Assert persisted feedbackHistory.
+		 * Assert the disturbance of the queued messages (stored in the feedback history when delivered).
 		 */
-		assertThat(disturbanceFeedbackEntityCaptor.getAllValues()).hasSize(1);
-
-		final var feedbackHistory1 = disturbanceFeedbackEntityCaptor.getValue();
-		assertThat(feedbackHistory1.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory1.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory1.getPartyId()).isEqualTo("partyId-4");
+		assertThat(messageOutboxEntitiesCaptor.getValue())
+			.extracting(MessageOutboxEntity::getCategory, MessageOutboxEntity::getDisturbanceId, MessageOutboxEntity::getPartyId)
+			.containsExactly(tuple(CATEGORY, DISTURBANCE_ID, "partyId-4"));
 	}
 
 	@Test
-	void sendCloseMessageToProvidedApplicableAffectedsWhenNoAffectedsHasDisturbanceFeedback() throws ServiceException {
+	void sendCloseMessageToProvidedApplicableAffectedsWhenNoAffectedsHasDisturbanceFeedback() {
 
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -247,11 +272,11 @@ class SendMessageLogicTest {
 
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
 		verifyNoMoreInteractions(disturbanceFeedBackRepositoryMock);
-		verifyNoInteractions(apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock, messageConfigurationMock);
+		verifyNoInteractions(messageOutboxRepositoryMock, messagesQueuedEventMock, messageConfigurationMock);
 	}
 
 	@Test
-	void sendUpdateMessage() throws ServiceException {
+	void sendUpdateMessage() {
 
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -262,22 +287,27 @@ class SendMessageLogicTest {
 
 		// Setup message properties mock
 		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		when(messageConfigurationMock.getCategoryTemplates(CATEGORY)).thenReturn(CategoryTemplates.compile(setupCategoryConfig()));
 
 		sendMessageLogic.sendUpdateMessage(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(3)).getCategoryConfig(CATEGORY);
+		verify(disturbanceMetricsMock).recordMessagesQueued(eq(CATEGORY), eq(SendMessageLogic.MESSAGE_TYPE_UPDATE), eq(3), any());
+		verify(messageConfigurationMock).getCategoryConfig(CATEGORY);
+		verify(messageConfigurationMock).getCategoryTemplates(CATEGORY);
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
-		verify(apiMessagingClientMock).sendMessage(messageRequestCaptor.capture());
-		verify(disturbanceFeedBackHistoryRepositoryMock, times(3)).persistWithStatusSent(disturbanceFeedbackEntityCaptor.capture());
-		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock);
+		verify(messageOutboxRepositoryMock).persist(messageOutboxEntitiesCaptor.capture());
+		verify(messagesQueuedEventMock).fire(messagesQueuedEventCaptor.capture());
+		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, messageOutboxRepositoryMock, messagesQueuedEventMock);
 
 		/**
 		 * Assert sent messages.
 		 */
-		final var messageRequest = messageRequestCaptor.getValue();
-		assertThat(messageRequest).isNotNull();
-		assertThat(messageRequest.getMessages()).hasSize(3);
-		assertThat(messageRequest.getMessages()).containsExactly(
+		assertThat(messagesQueuedEventCaptor.getValue().getNumberOfMessages()).isEqualTo(3);
+		final var messages = messageOutboxEntitiesCaptor.getValue().stream()
+			.map(SendMessageUtils::toMessage)
+			.collect(toList());
+		assertThat(messages).hasSize(3);
+		assertThat(messages).containsExactly(
 			new Message()
 				.sender(new Sender()
 					.smsName("SenderSMSName")
@@ -304,28 +334,18 @@ class SendMessageLogicTest {
 				.message("Update message for reference-6. Planned stop date 2021-11-10 18:30"));
 
 		/**
-		 * Assert persisted feedbackHistory.
+		 * Assert the disturbance of the queued messages (stored in the feedback history when delivered).
 		 */
-		assertThat(disturbanceFeedbackEntityCaptor.getAllValues()).hasSize(3);
-
-		final var feedbackHistory1 = disturbanceFeedbackEntityCaptor.getAllValues().get(0);
-		assertThat(feedbackHistory1.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory1.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory1.getPartyId()).isEqualTo("partyId-2");
-
-		final var feedbackHistory2 = disturbanceFeedbackEntityCaptor.getAllValues().get(1);
-		assertThat(feedbackHistory2.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory2.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory2.getPartyId()).isEqualTo("partyId-4");
-
-		final var feedbackHistory3 = disturbanceFeedbackEntityCaptor.getAllValues().get(2);
-		assertThat(feedbackHistory3.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory3.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory3.getPartyId()).isEqualTo("partyId-6");
+		assertThat(messageOutboxEntitiesCaptor.getValue())
+			.extracting(MessageOutboxEntity::getCategory, MessageOutboxEntity::getDisturbanceId, MessageOutboxEntity::getPartyId)
+			.containsExactly(
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-2"),
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-4"),
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-6"));
 	}
 
 	@Test
-	void sendUpdateMessageWherePlannedStartAndStopDatesAreNotSet() throws ServiceException {
+	void sendUpdateMessageWherePlannedStartAndStopDatesAreNotSet() {
 
 		// Set up disturbanceEntity with 2 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2");
@@ -337,22 +357,26 @@ class SendMessageLogicTest {
 
 		// Setup message properties mock
 		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		when(messageConfigurationMock.getCategoryTemplates(CATEGORY)).thenReturn(CategoryTemplates.compile(setupCategoryConfig()));
 
 		sendMessageLogic.sendUpdateMessage(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(2)).getCategoryConfig(CATEGORY);
+		verify(messageConfigurationMock).getCategoryConfig(CATEGORY);
+		verify(messageConfigurationMock).getCategoryTemplates(CATEGORY);
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
-		verify(apiMessagingClientMock).sendMessage(messageRequestCaptor.capture());
-		verify(disturbanceFeedBackHistoryRepositoryMock, times(2)).persistWithStatusSent(disturbanceFeedbackEntityCaptor.capture());
-		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock);
+		verify(messageOutboxRepositoryMock).persist(messageOutboxEntitiesCaptor.capture());
+		verify(messagesQueuedEventMock).fire(messagesQueuedEventCaptor.capture());
+		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, messageOutboxRepositoryMock, messagesQueuedEventMock);
 
 		/**
 		 * Assert sent messages.
 		 */
-		final var messageRequest = messageRequestCaptor.getValue();
-		assertThat(messageRequest).isNotNull();
-		assertThat(messageRequest.getMessages()).hasSize(2);
-		assertThat(messageRequest.getMessages()).containsExactly(
+		assertThat(messagesQueuedEventCaptor.getValue().getNumberOfMessages()).isEqualTo(2);
+		final var messages = messageOutboxEntitiesCaptor.getValue().stream()
+			.map(SendMessageUtils::toMessage)
+			.collect(toList());
+		assertThat(messages).hasSize(2);
+		assertThat(messages).containsExactly(
 			new Message()
 				.sender(new Sender()
 					.smsName("SenderSMSName")
@@ -371,23 +395,17 @@ class SendMessageLogicTest {
 				.message("Update message for reference-2. Planned stop date N/A"));
 
 		/**
-		 * Assert persisted feedbackHistory.
+		 * Assert the disturbance of the queued messages (stored in the feedback history when delivered).
 		 */
-		assertThat(disturbanceFeedbackEntityCaptor.getAllValues()).hasSize(2);
-
-		final var feedbackHistory1 = disturbanceFeedbackEntityCaptor.getAllValues().get(0);
-		assertThat(feedbackHistory1.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory1.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory1.getPartyId()).isEqualTo("partyId-1");
-
-		final var feedbackHistory2 = disturbanceFeedbackEntityCaptor.getAllValues().get(1);
-		assertThat(feedbackHistory2.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory2.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory2.getPartyId()).isEqualTo("partyId-2");
+		assertThat(messageOutboxEntitiesCaptor.getValue())
+			.extracting(MessageOutboxEntity::getCategory, MessageOutboxEntity::getDisturbanceId, MessageOutboxEntity::getPartyId)
+			.containsExactly(
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-1"),
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-2"));
 	}
 
 	@Test
-	void sendUpdateMessageWhenNoAffectedsHasDisturbanceFeedback() throws ServiceException {
+	void sendUpdateMessageWhenNoAffectedsHasDisturbanceFeedback() {
 
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -399,11 +417,11 @@ class SendMessageLogicTest {
 
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
 		verifyNoMoreInteractions(disturbanceFeedBackRepositoryMock);
-		verifyNoInteractions(messageConfigurationMock, apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock);
+		verifyNoInteractions(messageConfigurationMock, messageOutboxRepositoryMock, messagesQueuedEventMock);
 	}
 
 	@Test
-	void sendCreateMessage() throws ServiceException {
+	void sendCreateMessage() {
 
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -414,22 +432,27 @@ class SendMessageLogicTest {
 
 		// Setup message properties mock
 		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		when(messageConfigurationMock.getCategoryTemplates(CATEGORY)).thenReturn(CategoryTemplates.compile(setupCategoryConfig()));
 
 		sendMessageLogic.sendCreateMessage(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(3)).getCategoryConfig(CATEGORY);
+		verify(disturbanceMetricsMock).recordMessagesQueued(eq(CATEGORY), eq(SendMessageLogic.MESSAGE_TYPE_NEW), eq(3), any());
+		verify(messageConfigurationMock).getCategoryConfig(CATEGORY);
+		verify(messageConfigurationMock).getCategoryTemplates(CATEGORY);
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
-		verify(apiMessagingClientMock).sendMessage(messageRequestCaptor.capture());
-		verify(disturbanceFeedBackHistoryRepositoryMock, times(3)).persistWithStatusSent(disturbanceFeedbackEntityCaptor.capture());
-		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock);
+		verify(messageOutboxRepositoryMock).persist(messageOutboxEntitiesCaptor.capture());
+		verify(messagesQueuedEventMock).fire(messagesQueuedEventCaptor.capture());
+		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock, messageOutboxRepositoryMock, messagesQueuedEventMock);
 
 		/**
 		 * Assert sent messages.
 		 */
-		final var messageRequest = messageRequestCaptor.getValue();
-		assertThat(messageRequest).isNotNull();
-		assertThat(messageRequest.getMessages()).hasSize(3);
-		assertThat(messageRequest.getMessages()).containsExactly(
+		assertThat(messagesQueuedEventCaptor.getValue().getNumberOfMessages()).isEqualTo(3);
+		final var messages = messageOutboxEntitiesCaptor.getValue().stream()
+			.map(SendMessageUtils::toMessage)
+			.collect(toList());
+		assertThat(messages).hasSize(3);
+		assertThat(messages).containsExactly(
 			new Message()
 				.sender(new Sender()
 					.smsName("SenderSMSName")
@@ -456,28 +479,18 @@ class SendMessageLogicTest {
 				.message("New message for reference-6"));
 
 		/**
-		 * Assert persisted feedbackHistory.
+		 * Assert the disturbance of the queued messages (stored in the feedback history when delivered).
 		 */
-		assertThat(disturbanceFeedbackEntityCaptor.getAllValues()).hasSize(3);
-
-		final var feedbackHistory1 = disturbanceFeedbackEntityCaptor.getAllValues().get(0);
-		assertThat(feedbackHistory1.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory1.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory1.getPartyId()).isEqualTo("partyId-2");
-
-		final var feedbackHistory2 = disturbanceFeedbackEntityCaptor.getAllValues().get(1);
-		assertThat(feedbackHistory2.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory2.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory2.getPartyId()).isEqualTo("partyId-4");
-
-		final var feedbackHistory3 = disturbanceFeedbackEntityCaptor.getAllValues().get(2);
-		assertThat(feedbackHistory3.getCategory()).isEqualTo(CATEGORY.toString());
-		assertThat(feedbackHistory3.getDisturbanceId()).isEqualTo(DISTURBANCE_ID);
-		assertThat(feedbackHistory3.getPartyId()).isEqualTo("partyId-6");
+		assertThat(messageOutboxEntitiesCaptor.getValue())
+			.extracting(MessageOutboxEntity::getCategory, MessageOutboxEntity::getDisturbanceId, MessageOutboxEntity::getPartyId)
+			.containsExactly(
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-2"),
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-4"),
+				tuple(CATEGORY, DISTURBANCE_ID, "partyId-6"));
 	}
 
 	@Test
-	void sendCreateMessageWhenNoAffectedsHasDisturbanceFeedback() throws ServiceException {
+	void sendCreateMessageWhenNoAffectedsHasDisturbanceFeedback() {
 
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -487,13 +500,14 @@ class SendMessageLogicTest {
 
 		sendMessageLogic.sendCreateMessage(disturbanceEntity);
 
+		verify(disturbanceMetricsMock).recordMessagesQueued(eq(CATEGORY), eq(SendMessageLogic.MESSAGE_TYPE_NEW), eq(0), any());
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
 		verifyNoMoreInteractions(disturbanceFeedBackRepositoryMock);
-		verifyNoInteractions(apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock, messageConfigurationMock);
+		verifyNoInteractions(messageOutboxRepositoryMock, messagesQueuedEventMock, messageConfigurationMock);
 	}
 
 	@Test
-	void sendMessageWhenConfigIsNotActive() throws ServiceException {
+	void sendMessageWhenConfigIsNotActive() {
 
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity("1", "2", "3", "4", "5", "6");
@@ -509,16 +523,17 @@ class SendMessageLogicTest {
 
 		sendMessageLogic.sendCreateMessage(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(3)).getCategoryConfig(CATEGORY);
+		verify(messageConfigurationMock).getCategoryConfig(CATEGORY);
 		verify(disturbanceFeedBackRepositoryMock).findByCategoryAndDisturbanceId(CATEGORY, DISTURBANCE_ID);
-		verifyNoInteractions(apiMessagingClientMock, disturbanceFeedBackHistoryRepositoryMock);
+		verifyNoInteractions(messageOutboxRepositoryMock, messagesQueuedEventMock);
 		verifyNoMoreInteractions(messageConfigurationMock, disturbanceFeedBackRepositoryMock);
+		assertThat(spanExporter.getFinishedSpanItems()).isEmpty();
 	}
 
 	private DisturbanceEntity setupDisturbanceEntity(String... idNumbersOnAffecteds) {
 
 		final var disturbanceEntity = new DisturbanceEntity();
-		disturbanceEntity.setCategory(CATEGORY.toString());
+		disturbanceEntity.setCategory(CATEGORY);
 		disturbanceEntity.setDisturbanceId(DISTURBANCE_ID);
 		disturbanceEntity.setDescription(DESCRIPTION);
 		disturbanceEntity.setPlannedStartDate(PLANNED_START_DATE);
@@ -543,7 +558,7 @@ class SendMessageLogicTest {
 		final var disturbanceFeedbackEntityList = new ArrayList<DisturbanceFeedbackEntity>();
 		for (var idNumberOnAffected : idNumbersOnAffecteds) {
 			final var disturbanceFeedbackEntity = new DisturbanceFeedbackEntity();
-			disturbanceFeedbackEntity.setCategory(CATEGORY.toString());
+			disturbanceFeedbackEntity.setCategory(CATEGORY);
 			disturbanceFeedbackEntity.setDisturbanceId(DISTURBANCE_ID);
 			disturbanceFeedbackEntity.setPartyId("partyId-" + idNumberOnAffected);
 
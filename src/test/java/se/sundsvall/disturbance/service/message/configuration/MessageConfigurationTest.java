@@ -28,4 +28,20 @@ class MessageConfigurationTest {
 			.isNotNull()
 			.hasNoNullFieldsOrProperties();
 	}
-}
+
+	@ParameterizedTest
+	@EnumSource(Category.class) // Passing all categories
+	void templatesExistForAllCategories(Category category) {
+
+		final var categoryConfig = messageConfiguration.getCategoryConfig(category);
+		final var categoryTemplates = messageConfiguration.getCategoryTemplates(category);
+
+		assertThat(categoryTemplates).isNotNull();
+		assertThat(categoryTemplates.subjectClose().render()).isEqualTo(categoryConfig.subjectClose());
+		assertThat(categoryTemplates.subjectNew().render()).isEqualTo(categoryConfig.subjectNew());
+		assertThat(categoryTemplates.subjectUpdate().render()).isEqualTo(categoryConfig.subjectUpdate());
+		assertThat(categoryTemplates.messageClose().render()).isEqualTo(categoryConfig.messageClose());
+		assertThat(categoryTemplates.messageNew().render()).isEqualTo(categoryConfig.messageNew());
+		assertThat(categoryTemplates.messageUpdate().render()).isEqualTo(categoryConfig.messageUpdate());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package se.sundsvall.disturbance.service.message.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.apache.commons.text.StringSubstitutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MessageTemplateTest {
+
+	private static final Map<String, String> VARIABLES = Map.of(
+		"title", "Disturbance",
+		"description", "Major disturbance",
+		"affected.reference", "Streetname 11");
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"",
+		"No variables",
+		"${title}",
+		"Driftstörning på ${affected.reference} åtgärdad",
+		"${title}: ${description} (${affected.reference})${title}",
+		"Unknown ${variable} is kept",
+		"Escaped $${title} is not replaced",
+		"Unterminated ${title",
+		"Dollar $ and brace } characters",
+	})
+	void renderSameAsStringSubstitutor(String template) {
+
+		final var expected = new StringSubstitutor(VARIABLES).replace(template);
+
+		assertThat(MessageTemplate.compile(template).render(VARIABLES)).isEqualTo(expected);
+	}
+
+	@Test
+	void bindAndRender() {
+
+		final var template = MessageTemplate.compile("${title} på ${affected.reference}. ${description}");
+
+		// Bind the disturbance variables, and render the reference per recipient.
+		final var boundTemplate = template.bind(Map.of("title", "Driftstörning", "description", "Vi felsöker."));
+
+		assertThat(boundTemplate.render(Map.of("affected.reference", "Streetname 11"))).isEqualTo("Driftstörning på Streetname 11. Vi felsöker.");
+		assertThat(boundTemplate.render(Map.of("affected.reference", "Streetname 12"))).isEqualTo("Driftstörning på Streetname 12. Vi felsöker.");
+		assertThat(boundTemplate.render()).isEqualTo("Driftstörning på ${affected.reference}. Vi felsöker.");
+	}
+
+	@Test
+	void variableValuesAreNotSubstituted() {
+
+		final var template = MessageTemplate.compile("${description}");
+
+		assertThat(template.render(Map.of("description", "Text with ${title}", "title", "Disturbance"))).isEqualTo("Text with ${title}");
+		assertThat(template.bind(Map.of("description", "Text with ${title}")).render(Map.of("title", "Disturbance"))).isEqualTo("Text with ${title}");
+	}
+
+	@Test
+	void compileNull() {
+		assertThat(MessageTemplate.compile(null).render(VARIABLES)).isEmpty();
+	}
+}
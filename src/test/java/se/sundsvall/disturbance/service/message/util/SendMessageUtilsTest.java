@@ -8,8 +8,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import generated.se.sundsvall.messaging.Message;
 import generated.se.sundsvall.messaging.Sender;
+import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
 
 class SendMessageUtilsTest {
 
@@ -53,7 +56,7 @@ class SendMessageUtilsTest {
 
 		final var affectedEntityList = List.of(affected1, affected2, affected3, affected4, affected5, affected6);
 
-		final var fetchedReference = SendMessageUtils.getReferenceByPartyId(affectedEntityList, partyId);
+		final var fetchedReference = SendMessageUtils.getReferenceByPartyId(SendMessageUtils.toReferenceByPartyIdMap(affectedEntityList), partyId);
 
 		assertThat(fetchedReference).isEqualTo(expectedReference);
 	}
@@ -69,11 +72,46 @@ class SendMessageUtilsTest {
 		affectedEntity2.setPartyId("partyId-2");
 		affectedEntity2.setReference("reference-2");
 
-		final var result = SendMessageUtils.getReferenceByPartyId(List.of(affectedEntity1, affectedEntity2), "does-not-exist-in-list");
+		final var result = SendMessageUtils.getReferenceByPartyId(SendMessageUtils.toReferenceByPartyIdMap(List.of(affectedEntity1, affectedEntity2)), "does-not-exist-in-list");
 
 		assertThat(result).isEmpty();
 	}
 
+	@Test
+	void getReferenceByPartyIdFromMap() {
+
+		final var affectedEntity1 = new AffectedEntity();
+		affectedEntity1.setPartyId("partyId-1");
+		affectedEntity1.setReference("reference-1");
+
+		final var affectedEntity2 = new AffectedEntity();
+		affectedEntity2.setPartyId("partyId-2");
+		affectedEntity2.setReference("reference-2");
+
+		final var affectedEntity3 = new AffectedEntity(); // Duplicate partyId, the first reference will be used.
+		affectedEntity3.setPartyId("PARTYID-1");
+		affectedEntity3.setReference("reference-3");
+
+		final var affectedEntity4 = new AffectedEntity(); // No partyId, will be ignored.
+		affectedEntity4.setReference("reference-4");
+
+		final var referenceByPartyId = SendMessageUtils.toReferenceByPartyIdMap(List.of(affectedEntity1, affectedEntity2, affectedEntity3, affectedEntity4));
+
+		assertThat(referenceByPartyId).hasSize(2);
+		assertThat(SendMessageUtils.getReferenceByPartyId(referenceByPartyId, "partyId-1")).isEqualTo("reference-1");
+		assertThat(SendMessageUtils.getReferenceByPartyId(referenceByPartyId, "PartyId-2")).isEqualTo("reference-2");
+		assertThat(SendMessageUtils.getReferenceByPartyId(referenceByPartyId, "does-not-exist-in-map")).isEmpty();
+		assertThat(SendMessageUtils.getReferenceByPartyId(referenceByPartyId, null)).isEmpty();
+		assertThat(SendMessageUtils.containsPartyId(referenceByPartyId, "PARTYID-2")).isTrue();
+		assertThat(SendMessageUtils.containsPartyId(referenceByPartyId, "does-not-exist-in-map")).isFalse();
+		assertThat(SendMessageUtils.containsPartyId(referenceByPartyId, null)).isFalse();
+	}
+
+	@Test
+	void toReferenceByPartyIdMapFromNullList() {
+		assertThat(SendMessageUtils.toReferenceByPartyIdMap(null)).isEmpty();
+	}
+
 	@Test
 	void createMessage() {
 
@@ -96,4 +134,37 @@ class SendMessageUtilsTest {
 		assertThat(message.getSubject()).isEqualTo(subject);
 		assertThat(message.getMessage()).isEqualTo(messageText);
 	}
+
+	@Test
+	void toMessageOutboxEntityAndBack() {
+
+		final var message = new Message()
+			.sender(new Sender()
+				.emailAddress("senderEmailAddress")
+				.emailName("senderEmailName")
+				.smsName("smsName"))
+			.partyId("partyId")
+			.subject("subject")
+			.message("message");
+
+		final var disturbanceEntity = new DisturbanceEntity();
+		disturbanceEntity.setCategory(Category.ELECTRICITY);
+		disturbanceEntity.setDisturbanceId("disturbanceId");
+
+		final var messageOutboxEntity = SendMessageUtils.toMessageOutboxEntity(disturbanceEntity, message);
+
+		assertThat(messageOutboxEntity).isNotNull();
+		assertThat(messageOutboxEntity.getId()).isNull();
+		assertThat(messageOutboxEntity.getPartyId()).isEqualTo("partyId");
+		assertThat(messageOutboxEntity.getCategory()).isEqualTo(Category.ELECTRICITY);
+		assertThat(messageOutboxEntity.getDisturbanceId()).isEqualTo("disturbanceId");
+		assertThat(messageOutboxEntity.getSubject()).isEqualTo("subject");
+		assertThat(messageOutboxEntity.getMessage()).isEqualTo("message");
+		assertThat(messageOutboxEntity.getSenderEmailAddress()).isEqualTo("senderEmailAddress");
+		assertThat(messageOutboxEntity.getSenderEmailName()).isEqualTo("senderEmailName");
+		assertThat(messageOutboxEntity.getSenderSmsName()).isEqualTo("smsName");
+		assertThat(messageOutboxEntity.getAttempts()).isZero();
+
+		assertThat(SendMessageUtils.toMessage(messageOutboxEntity)).isEqualTo(message);
+	}
 }
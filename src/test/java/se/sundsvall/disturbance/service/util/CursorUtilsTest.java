@@ -0,0 +1,33 @@
+package se.sundsvall.disturbance.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CursorUtilsTest {
+
+	@ParameterizedTest
+	@ValueSource(longs = { 0, 1, 42, 123456789, Long.MAX_VALUE })
+	void toCursorAndBack(long id) {
+
+		final var cursor = CursorUtils.toCursor(id);
+
+		assertThat(cursor).matches("[A-Za-z0-9_-]+");
+		assertThat(CursorUtils.fromCursor(cursor)).hasValue(id);
+	}
+
+	@ParameterizedTest
+	@NullAndEmptySource
+	@ValueSource(strings = { "not-a-cursor", "!!!", "LTE" /* "-1" */, "YWJj" /* "abc" */ })
+	void fromInvalidCursor(String cursor) {
+		assertThat(CursorUtils.fromCursor(cursor)).isEmpty();
+	}
+
+	@Test
+	void toCursorIsNotThePlainId() {
+		assertThat(CursorUtils.toCursor(42)).isNotEqualTo("42");
+	}
+}
@@ -0,0 +1,122 @@
+package se.sundsvall.disturbance.service.util;
+
+import static java.time.ZoneOffset.UTC;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import se.sundsvall.disturbance.api.model.AffectedsInclusion;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceRevision;
+import se.sundsvall.disturbance.service.DisturbancePage;
+
+class EtagUtilsTest {
+
+	private static final OffsetDateTime CREATED = OffsetDateTime.of(2021, 11, 10, 9, 23, 42, 500_000_000, UTC);
+	private static final OffsetDateTime UPDATED = CREATED.plusHours(2);
+
+	@Test
+	void toEtagIsSameForDisturbanceAndRevision() {
+
+		final var disturbance = Disturbance.create()
+			.withCategory(Category.ELECTRICITY)
+			.withId("disturbance-1")
+			.withCreated(CREATED.withOffsetSameInstant(ZoneOffset.ofHours(1)))
+			.withUpdated(UPDATED.withOffsetSameInstant(ZoneOffset.ofHours(1)))
+			.withVersion(3L);
+		final var disturbanceRevision = new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, UPDATED, 3L);
+
+		assertThat(EtagUtils.toEtag(disturbance))
+			.matches("[A-Za-z0-9_-]{43}")
+			.isEqualTo(EtagUtils.toEtag(disturbanceRevision));
+	}
+
+	@Test
+	void toEtagIsSameForPageAndRevisions() {
+
+		final var disturbancePage = new DisturbancePage(List.of(
+			Disturbance.create().withCategory(Category.ELECTRICITY).withId("disturbance-1").withCreated(CREATED).withVersion(0L),
+			Disturbance.create().withCategory(Category.ELECTRICITY).withId("disturbance-2").withCreated(CREATED).withUpdated(UPDATED).withVersion(1L)), "Mg", AffectedsInclusion.PARTY);
+		final var disturbanceRevisions = List.of(
+			new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, null, 0L),
+			new DisturbanceRevision(2L, Category.ELECTRICITY, "disturbance-2", CREATED, UPDATED, 1L));
+
+		assertThat(EtagUtils.toEtag(disturbancePage)).isEqualTo(EtagUtils.toEtag(disturbanceRevisions, "Mg", AffectedsInclusion.PARTY));
+	}
+
+	@Test
+	void toEtagChangesWithRevision() {
+
+		final var etag = EtagUtils.toEtag(new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, null, 0L));
+
+		assertThat(EtagUtils.toEtag(new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, UPDATED, 0L))).isNotEqualTo(etag);
+		assertThat(EtagUtils.toEtag(new DisturbanceRevision(1L, Category.COMMUNICATION, "disturbance-1", CREATED, null, 0L))).isNotEqualTo(etag);
+		assertThat(EtagUtils.toEtag(new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-2", CREATED, null, 0L))).isNotEqualTo(etag);
+		assertThat(EtagUtils.toEtag(new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", UPDATED, null, 0L))).isNotEqualTo(etag);
+		assertThat(EtagUtils.toEtag(new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, null, 1L))).isNotEqualTo(etag);
+	}
+
+	@Test
+	void toEtagChangesWithVersionOnly() {
+
+		// Two updates within the same millisecond, i.e. with the same updated timestamp.
+		final var firstUpdate = new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, UPDATED, 1L);
+		final var secondUpdate = new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, UPDATED, 2L);
+
+		assertThat(EtagUtils.toEtag(secondUpdate)).isNotEqualTo(EtagUtils.toEtag(firstUpdate));
+		assertThat(EtagUtils.matches("\"" + EtagUtils.toEtag(firstUpdate) + "\"", EtagUtils.toEtag(secondUpdate))).isFalse();
+	}
+
+	@Test
+	void toEtagChangesWithNextCursor() {
+
+		final var disturbanceRevisions = List.of(new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, null, 0L));
+
+		assertThat(EtagUtils.toEtag(disturbanceRevisions, null, null)).isNotEqualTo(EtagUtils.toEtag(disturbanceRevisions, "MQ", null));
+		assertThat(EtagUtils.toEtag(List.of(), null, null)).isNotEqualTo(EtagUtils.toEtag(disturbanceRevisions, null, null));
+	}
+
+	@Test
+	void toEtagChangesWithAffectedsInclusion() {
+
+		final var disturbanceRevisions = List.of(new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, null, 0L));
+		final var etag = EtagUtils.toEtag(disturbanceRevisions, null, AffectedsInclusion.ALL);
+
+		assertThat(EtagUtils.toEtag(disturbanceRevisions, null, null)).isEqualTo(etag);
+		assertThat(EtagUtils.toEtag(disturbanceRevisions, null, AffectedsInclusion.PARTY)).isNotEqualTo(etag);
+		assertThat(EtagUtils.toEtag(disturbanceRevisions, null, AffectedsInclusion.NONE)).isNotEqualTo(etag)
+			.isNotEqualTo(EtagUtils.toEtag(disturbanceRevisions, null, AffectedsInclusion.PARTY));
+	}
+
+	@Test
+	void toEtagIsSameForEntityAndRevision() {
+
+		final var disturbanceEntity = new DisturbanceEntity();
+		disturbanceEntity.setCategory(Category.ELECTRICITY);
+		disturbanceEntity.setDisturbanceId("disturbance-1");
+		disturbanceEntity.setCreated(CREATED);
+		disturbanceEntity.setUpdated(UPDATED);
+		disturbanceEntity.setVersion(2);
+
+		assertThat(EtagUtils.toEtag(disturbanceEntity)).isEqualTo(EtagUtils.toEtag(new DisturbanceRevision(1L, Category.ELECTRICITY, "disturbance-1", CREATED, UPDATED, 2L)));
+	}
+
+	@Test
+	void matches() {
+		assertThat(EtagUtils.matches("\"abc\"", "abc")).isTrue();
+		assertThat(EtagUtils.matches("\"xyz\", \"abc\"", "abc")).isTrue();
+		assertThat(EtagUtils.matches(" * ", "abc")).isTrue();
+		assertThat(EtagUtils.matches("\"xyz\"", "abc")).isFalse();
+		assertThat(EtagUtils.matches("W/\"abc\"", "abc")).isFalse();
+		assertThat(EtagUtils.matches("abc", "abc")).isFalse();
+		assertThat(EtagUtils.matches("\"", "abc")).isFalse();
+		assertThat(EtagUtils.matches("", "abc")).isFalse();
+		assertThat(EtagUtils.matches(null, "abc")).isFalse();
+	}
+}
@@ -0,0 +1,47 @@
+package se.sundsvall.disturbance.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLException;
+
+import javax.persistence.PersistenceException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+
+class PersistenceUtilsTest {
+
+	private static final String CONSTRAINT_NAME = "uq_feedback_party_id";
+
+	@Test
+	void isConstraintViolationByConstraintName() {
+
+		final var exception = new PersistenceException(new ConstraintViolationException("Duplicate", new SQLException("Duplicate"), "DISTURBANCE.UQ_FEEDBACK_PARTY_ID"));
+
+		assertThat(PersistenceUtils.isConstraintViolation(exception, CONSTRAINT_NAME)).isTrue();
+	}
+
+	@Test
+	void isConstraintViolationBySqlExceptionMessage() {
+
+		final var exception = new PersistenceException(new ConstraintViolationException("Duplicate",
+			new SQLException("Duplicate entry 'fbfbd90c-4c47-11ec-81d3-0242ac130003' for key 'uq_feedback_party_id'"), null));
+
+		assertThat(PersistenceUtils.isConstraintViolation(exception, CONSTRAINT_NAME)).isTrue();
+	}
+
+	@Test
+	void isConstraintViolationForOtherConstraint() {
+
+		final var exception = new PersistenceException(new ConstraintViolationException("Duplicate", new SQLException("Duplicate"), "other_constraint"));
+
+		assertThat(PersistenceUtils.isConstraintViolation(exception, CONSTRAINT_NAME)).isFalse();
+	}
+
+	@Test
+	void isConstraintViolationForOtherException() {
+
+		assertThat(PersistenceUtils.isConstraintViolation(new PersistenceException("Other", new IllegalStateException()), CONSTRAINT_NAME)).isFalse();
+		assertThat(PersistenceUtils.isConstraintViolation(null, CONSTRAINT_NAME)).isFalse();
+	}
+}
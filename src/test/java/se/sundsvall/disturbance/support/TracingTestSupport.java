@@ -0,0 +1,41 @@
+package se.sundsvall.disturbance.support;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.quarkus.opentelemetry.runtime.OpenTelemetryRecorder;
+import io.vertx.core.Vertx;
+
+/**
+ * Tracing in unit tests, i.e. without a running application.
+ */
+public final class TracingTestSupport {
+
+	private TracingTestSupport() {}
+
+	/**
+	 * Returns a tracer that exports the ended spans to the provided exporter.
+	 */
+	public static Tracer createTracer(InMemorySpanExporter spanExporter) {
+		ensureContextStorage();
+		return SdkTracerProvider.builder()
+			.addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+			.build()
+			.get("test");
+	}
+
+	/**
+	 * The current context is stored on the Vert.x context by Quarkus, which needs the Vert.x instance that is set when the
+	 * application is started. Without an application (yet), a Vert.x instance is set for the unit tests. A started
+	 * application (of the application tests) is left as it is.
+	 */
+	private static synchronized void ensureContextStorage() {
+		try {
+			Context.current();
+		} catch (NullPointerException e) {
+			new OpenTelemetryRecorder().storeVertxOnContextStorage(Vertx::vertx);
+		}
+	}
+}
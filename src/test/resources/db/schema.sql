@@ -1,6 +1,11 @@
+create sequence affected_seq start with 1 increment by 50;
+create sequence disturbance_feedback_history_seq start with 1 increment by 50;
+create sequence disturbance_feedback_seq start with 1 increment by 50;
+create sequence feedback_seq start with 1 increment by 50;
+create sequence message_outbox_seq start with 1 increment by 50;
 
     create table affected (
-       id bigint not null auto_increment,
+       id bigint not null,
         party_id varchar(255),
         reference varchar(512),
         parent_id bigint not null,
@@ -9,22 +14,24 @@
 
     create table disturbance (
        id bigint not null auto_increment,
-        category varchar(255) not null,
+        active tinyint as (case when deleted = 0 then 1 end),
+        category varchar(2) not null,
         created datetime(6),
         deleted bit,
         description varchar(8192) not null,
         disturbance_id varchar(255) not null,
         planned_start_date datetime(6),
         planned_stop_date datetime(6),
-        status varchar(255) not null,
+        status varchar(1) not null,
         title varchar(255),
         updated datetime(6),
+        version bigint not null,
         primary key (id)
     ) engine=InnoDB;
 
     create table disturbance_feedback (
-       id bigint not null auto_increment,
-        category varchar(255) not null,
+       id bigint not null,
+        category varchar(2) not null,
         created datetime(6),
         disturbance_id varchar(255) not null,
         party_id varchar(255) not null,
@@ -32,8 +39,8 @@
     ) engine=InnoDB;
 
     create table disturbance_feedback_history (
-       id bigint not null auto_increment,
-        category varchar(255) not null,
+       id bigint not null,
+        category varchar(2) not null,
         created datetime(6),
         disturbance_id varchar(255) not null,
         party_id varchar(255) not null,
@@ -42,12 +49,29 @@
     ) engine=InnoDB;
 
     create table feedback (
-       id bigint not null auto_increment,
+       id bigint not null,
         created datetime(6),
         party_id varchar(255) not null,
         primary key (id)
     ) engine=InnoDB;
 
+    create table message_outbox (
+       id bigint not null,
+        attempts integer not null,
+        category varchar(2),
+        created datetime(6),
+        dead_letter bit not null,
+        dispatch_after datetime(6),
+        disturbance_id varchar(255),
+        message mediumtext,
+        party_id varchar(255) not null,
+        sender_email_address varchar(255),
+        sender_email_name varchar(255),
+        sender_sms_name varchar(255),
+        subject varchar(1024),
+        primary key (id)
+    ) engine=InnoDB;
+
     create table schema_history (
        schema_version varchar(255) not null,
         applied datetime(6) not null,
@@ -55,9 +79,22 @@
         primary key (schema_version)
     ) engine=InnoDB;
 create index party_id_index on affected (party_id);
+create index party_id_parent_id_index on affected (party_id, parent_id);
 create index disturbance_id_index on disturbance (disturbance_id);
-create index category_index on disturbance (category);
-create index party_id_index on feedback (party_id);
+create index category_disturbance_id_deleted_status_index on disturbance (category, disturbance_id, deleted, status);
+
+    alter table disturbance 
+       add constraint uq_disturbance_category_disturbance_id_active unique (category, disturbance_id, active);
+create index party_id_index on disturbance_feedback (party_id);
+
+    alter table disturbance_feedback 
+       add constraint uq_disturbance_feedback_category_disturbance_id_party_id unique (category, disturbance_id, party_id);
+create index category_disturbance_id_party_id_index on disturbance_feedback_history (category, disturbance_id, party_id);
+create index created_index on feedback (created);
+
+    alter table feedback 
+       add constraint uq_feedback_party_id unique (party_id);
+create index dead_letter_dispatch_after_index on message_outbox (dead_letter, dispatch_after);
 
     alter table affected 
        add constraint fk_affected_parent_id_disturbance_id 